@@ -0,0 +1,59 @@
+package net.tysontheember.apertureapi.path;
+
+import java.util.concurrent.TimeUnit;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Compares per-point Catmull-Rom evaluation with the batch Horner loop of {@link CubicBatch}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CubicBatchBenchmark {
+  private static final Vector3f P0 = new Vector3f(-4, 60, 3);
+  private static final Vector3f P1 = new Vector3f(0, 64, 0);
+  private static final Vector3f P2 = new Vector3f(12, 70, 5);
+  private static final Vector3f P3 = new Vector3f(20, 66, -8);
+
+  @Param({"64", "1024", "16384"})
+  public int count;
+
+  private final float[] coefficients = new float[CompiledPath.STRIDE];
+  private final Vector3f point = new Vector3f();
+  private float[] t;
+  private float[] x;
+  private float[] y;
+  private float[] z;
+
+  @Setup
+  public void setup() {
+    CubicBatch.catmullRomCoefficients(P0, P1, P2, P3, 0.5f, coefficients, 0);
+    t = new float[count];
+    for (int i = 0; i < count; i++) {
+      t[i] = (float) i / Math.max(1, count - 1);
+    }
+    x = new float[count];
+    y = new float[count];
+    z = new float[count];
+  }
+
+  @Benchmark
+  public void pointwise(Blackhole blackhole) {
+    for (int i = 0; i < count; i++) {
+      blackhole.consume(CatmullRom.eval(t[i], P0, P1, P2, P3, 0.5f, point));
+    }
+  }
+
+  @Benchmark
+  public float[] batch() {
+    CubicBatch.evaluate(coefficients, 0, t, count, x, y, z);
+    return x;
+  }
+}
@@ -0,0 +1,60 @@
+package net.tysontheember.apertureapi.path.interpolation;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares {@link EasingType#apply} with the {@link EasingTable} lookup for the tabulated easings,
+ * over random parameters so neither side benefits from a predictable branch. {@code setup} prints
+ * the table's measured maximum error next to the results.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EasingBenchmark {
+  private static final int COUNT = 1024;
+
+  @Param({"sineInOut", "expoInOut", "backOut", "elasticOut", "elasticInOut", "bounceOut"})
+  public String easing;
+
+  private EasingType type;
+  private EasingTable table;
+  private final float[] t = new float[COUNT];
+
+  @Setup
+  public void setup() {
+    type = EasingType.fromString(easing);
+    table = EasingTable.of(type);
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      t[i] = random.nextFloat();
+    }
+    System.out.printf("%n%s max error %.3g%n", type, table.maxError());
+  }
+
+  @Benchmark
+  public float analytic() {
+    float sum = 0f;
+    for (int i = 0; i < COUNT; i++) {
+      sum += type.apply(t[i]);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public float tabulated() {
+    float sum = 0f;
+    for (int i = 0; i < COUNT; i++) {
+      sum += table.apply(t[i]);
+    }
+    return sum;
+  }
+}
@@ -12,6 +12,14 @@ public interface ICameraModifier {
 
   ICameraModifier setPos(Vector3d pos);
 
+  /**
+   * Set the position as a double-precision anchor plus a float offset from it, e.g. a path's
+   * anchor and a pose evaluated in path-local coordinates. The sum is taken in double.
+   */
+  default ICameraModifier setPos(Vector3d anchor, Vector3f offset) {
+    return setPos(anchor.x + offset.x, anchor.y + offset.y, anchor.z + offset.z);
+  }
+
   ICameraModifier addPos(double x, double y, double z);
 
   ICameraModifier addPos(Vector3d pos);
@@ -1,15 +1,14 @@
 package net.tysontheember.apertureapi.client;
 
-import static net.tysontheember.apertureapi.InterpolationMath.catmullRom;
-import static net.tysontheember.apertureapi.InterpolationMath.line;
 import static net.tysontheember.apertureapi.client.ClientUtil.partialTicks;
 
-import java.util.Map;
 import net.minecraft.util.Mth;
-import net.tysontheember.apertureapi.common.animation.CameraKeyframe;
 import net.tysontheember.apertureapi.common.animation.GlobalCameraPath;
-import net.tysontheember.apertureapi.common.animation.TimeInterpolator;
+import net.tysontheember.apertureapi.common.animation.JitterPrevention;
+import net.tysontheember.apertureapi.common.animation.KeyframeEvaluator;
+import net.tysontheember.apertureapi.common.animation.KeyframeTimeline;
 import org.joml.Matrix3f;
+import org.joml.Vector3d;
 import org.joml.Vector3f;
 
 public class Animator {
@@ -20,25 +19,15 @@ public class Animator {
   private boolean autoReset =
       true; // automatically reset camera when done playing (even for loops when stopped)
   private int time;
+  private int segment; // Timeline index the previous frame played from; next lookup starts here
   private boolean exiting; // true while we are fading out before returning control
 
   private final Vector3f center = new Vector3f();
   private final Vector3f rotation = new Vector3f();
   private final Matrix3f rotationMatrix = new Matrix3f();
 
-  // Constant-speed reparameterization (duration-based) and quaternion orientation flags
-  private boolean constantSpeed = true;
-  private boolean quaternionOrientation = true;
-
-  // Active segment arc-length cache
-  private static final class SegmentLUT {
-    int preTime;
-    int nextTime;
-    net.tysontheember.apertureapi.common.animation.PathInterpolator mode;
-    net.tysontheember.apertureapi.path.ArcLengthLUT lut;
-  }
-
-  private SegmentLUT currentLUT;
+  // Constant-speed, quaternion and SQUAD options live here with the evaluation scratch
+  private final KeyframeEvaluator evaluator = new KeyframeEvaluator();
 
   public void tick() {
     if (!playing || path == null) {
@@ -154,20 +143,43 @@ public class Animator {
   }
 
   public void setPathAndPlay(GlobalCameraPath path) {
-    this.path = path;
-    this.currentLUT = null; // reset LUT cache
+    this.path = anchored(path);
     resetAndPlay();
   }
 
   public void setPathAndPlay(GlobalCameraPath path, Vector3f center, Vector3f rotation) {
-    this.path = path;
+    this.path = anchored(path);
     this.center.set(center);
     this.rotation.set(rotation);
     rotationMatrix.identity().rotateY((360 - rotation.y) * Mth.DEG_TO_RAD);
-    this.currentLUT = null; // reset LUT cache
     resetAndPlay();
   }
 
+  // Play a copy anchored at its first keyframe, so positions stay small floats far from spawn.
+  // Native paths are already relative to the center they are played around.
+  private static GlobalCameraPath anchored(GlobalCameraPath path) {
+    if (path.isNativeMode() || path.getPoints().isEmpty()) {
+      return path;
+    }
+    GlobalCameraPath copy = path.copy();
+    Vector3d anchor = copy.getAnchor(new Vector3d());
+    Vector3f first = copy.getTimeline().getKeyframe(0).getPos();
+    copy.rebase(
+        Math.floor(anchor.x + first.x),
+        Math.floor(anchor.y + first.y),
+        Math.floor(anchor.z + first.z));
+    return copy;
+  }
+
+  // World position the camera positions from prepareCameraInfo are relative to
+  public Vector3d getAnchor(Vector3d dest) {
+    if (path == null) {
+      return dest.set(0.0, 0.0, 0.0);
+    }
+    return path.isNativeMode() ? dest.set(center.x, center.y, center.z) : path.getAnchor(dest);
+  }
+
+  // Camera pose at the current time; the position is relative to getAnchor
   public boolean prepareCameraInfo(Vector3f posDest, Vector3f rotDest, float[] fov) {
     if (path == null) {
       return false;
@@ -177,216 +189,60 @@ public class Animator {
     float currentTime = time + partialTicks;
 
     // Use consistent logic: always find the keyframe segment we're in
-    Map.Entry<Integer, CameraKeyframe> preEntry =
-        path.getPreEntry(time + 1); // +1 to handle exact matches correctly
-    Map.Entry<Integer, CameraKeyframe> nextEntry = path.getNextEntry(time);
+    KeyframeTimeline timeline = path.getTimeline();
+    int preIndex = timeline.floorIndex(time, segment);
+    int nextIndex = preIndex + 1;
 
     // If we're before the first keyframe or after the last
-    if (preEntry == null) {
-      if (nextEntry == null) return false;
-      posDest.set(nextEntry.getValue().getPos());
-      rotDest.set(nextEntry.getValue().getRot());
-      fov[0] = nextEntry.getValue().getFov();
+    if (preIndex < 0) {
+      if (timeline.size() == 0) return false;
+      KeyframeEvaluator.hold(timeline.getKeyframe(0), posDest, rotDest, fov);
       return true;
     }
 
-    if (nextEntry == null) {
-      posDest.set(preEntry.getValue().getPos());
-      rotDest.set(preEntry.getValue().getRot());
-      fov[0] = preEntry.getValue().getFov();
+    segment = preIndex;
+    if (nextIndex >= timeline.size()) {
+      KeyframeEvaluator.hold(timeline.getKeyframe(preIndex), posDest, rotDest, fov);
       return true;
     }
 
     // Calculate interpolation parameter with proper boundary handling
-    float timeDelta = nextEntry.getKey() - preEntry.getKey();
+    int preTime = timeline.getTime(preIndex);
+    int nextTime = timeline.getTime(nextIndex);
+    float timeDelta = nextTime - preTime;
     float t;
 
     if (timeDelta <= 0.001f) {
       // Handle very close or identical keyframe times
       t = 0.0f;
     } else {
-      t =
-          net.tysontheember.apertureapi.common.animation.JitterPrevention.calculateSmoothT(
-              currentTime, preEntry.getKey(), nextEntry.getKey());
-    }
-
-    CameraKeyframe pre = preEntry.getValue();
-    CameraKeyframe next = nextEntry.getValue();
-
-    float t1;
-    // Position interpolation (time easing)
-    if (next.getPosTimeInterpolator() == TimeInterpolator.BEZIER) {
-      t1 = next.getPosBezier().interpolate(t);
-    } else {
-      t1 = t;
-    }
-
-    // If constantSpeed is on, remap t1 by arc-length LUT for this segment
-    float tPos = t1;
-    if (constantSpeed
-        && next.getPathInterpolator()
-            != net.tysontheember.apertureapi.common.animation.PathInterpolator.STEP) {
-      ensureSegmentLUT(path, preEntry, nextEntry, next.getPathInterpolator());
-      if (currentLUT != null && currentLUT.lut != null && currentLUT.lut.totalLength() > 1e-6f) {
-        float desired = currentLUT.lut.totalLength() * t1;
-        tPos = currentLUT.lut.tForDistance(desired);
-      }
+      t = JitterPrevention.calculateSmoothT(currentTime, preTime, nextTime);
     }
 
-    switch (next.getPathInterpolator()) {
-      case LINEAR -> line(tPos, pre.getPos(), next.getPos(), posDest);
-      case COSINE -> {
-        float tCos = (1.0f - (float) Math.cos(Math.PI * tPos)) * 0.5f;
-        line(tCos, pre.getPos(), next.getPos(), posDest);
-      }
-      case SMOOTH -> {
-        Vector3f p0, p3;
-        Map.Entry<Integer, CameraKeyframe> prePre = path.getPreEntry(preEntry.getKey());
-
-        if (prePre == null) {
-          p0 = pre.getPos();
-        } else {
-          p0 = prePre.getValue().getPos();
-        }
-
-        Map.Entry<Integer, CameraKeyframe> nextNext = path.getNextEntry(nextEntry.getKey());
-
-        if (nextNext == null) {
-          p3 = next.getPos();
-        } else {
-          p3 = nextNext.getValue().getPos();
-        }
-
-        catmullRom(tPos, p0, pre.getPos(), next.getPos(), p3, posDest);
-      }
-      case CATMULL_UNIFORM, CATMULL_CENTRIPETAL, CATMULL_CHORDAL -> {
-        Vector3f p0, p3;
-        Map.Entry<Integer, CameraKeyframe> prePre = path.getPreEntry(preEntry.getKey());
-        if (prePre == null) p0 = pre.getPos();
-        else p0 = prePre.getValue().getPos();
-        Map.Entry<Integer, CameraKeyframe> nextNext = path.getNextEntry(nextEntry.getKey());
-        if (nextNext == null) p3 = next.getPos();
-        else p3 = nextNext.getValue().getPos();
-        float alpha =
-            switch (next.getPathInterpolator()) {
-              case CATMULL_UNIFORM -> 0.0f;
-              case CATMULL_CHORDAL -> 1.0f;
-              default -> 0.5f; // CATMULL_CENTRIPETAL default for stability
-            };
-        net.tysontheember.apertureapi.path.CatmullRom.eval(
-            tPos, p0, pre.getPos(), next.getPos(), p3, alpha, posDest);
-      }
-      case BEZIER -> next.getPathBezier().interpolate(tPos, pre.getPos(), next.getPos(), posDest);
-      case STEP -> posDest.set(pre.getPos());
-    }
-
-    // Rotation interpolation (time easing for rotation)
-    if (next.getRotTimeInterpolator() == TimeInterpolator.BEZIER) {
-      t1 = next.getRotBezier().interpolate(t);
-    } else {
-      t1 = t;
-    }
-
-    Vector3f preRot = pre.getRot();
-    Vector3f nextRot = next.getRot();
-    if (quaternionOrientation) {
-      // Quaternion slerp orientation blending
-      org.joml.Quaternionf qa =
-          net.tysontheember.apertureapi.path.OrientationUtil.yprDegToQuat(
-              preRot.y, preRot.x, preRot.z, new org.joml.Quaternionf());
-      org.joml.Quaternionf qb =
-          net.tysontheember.apertureapi.path.OrientationUtil.yprDegToQuat(
-              nextRot.y, nextRot.x, nextRot.z, new org.joml.Quaternionf());
-      org.joml.Quaternionf qOut = new org.joml.Quaternionf();
-      net.tysontheember.apertureapi.path.OrientationUtil.slerp(qa, qb, t1, qOut);
-      net.tysontheember.apertureapi.path.OrientationUtil.quatToYprDeg(qOut, rotDest);
-    } else {
-      // Fallback to angle-aware lerp
-      net.tysontheember.apertureapi.common.animation.JitterPrevention.smoothRotationLerp(
-          t1, preRot, nextRot, rotDest);
-    }
-
-    // FOV interpolation
-    if (next.getFovTimeInterpolator() == TimeInterpolator.BEZIER) {
-      t1 = next.getFovBezier().interpolate(t);
-    } else {
-      t1 = t;
-    }
-
-    fov[0] =
-        net.tysontheember.apertureapi.common.animation.JitterPrevention.smoothFovLerp(
-            t1, pre.getFov(), next.getFov());
+    evaluator.evaluate(path, preIndex, t, posDest, rotDest, fov);
 
     if (path.isNativeMode()) {
-      rotationMatrix.transform(posDest).add(center);
+      rotationMatrix.transform(posDest);
       rotDest.add(rotation);
     }
 
     return true;
   }
 
-  // Build or reuse LUT for the active segment, matching segment endpoints and interpolation mode
-  private void ensureSegmentLUT(
-      GlobalCameraPath path,
-      Map.Entry<Integer, CameraKeyframe> preEntry,
-      Map.Entry<Integer, CameraKeyframe> nextEntry,
-      net.tysontheember.apertureapi.common.animation.PathInterpolator mode) {
-    int preTime = preEntry.getKey();
-    int nextTime = nextEntry.getKey();
-    if (currentLUT != null
-        && currentLUT.preTime == preTime
-        && currentLUT.nextTime == nextTime
-        && currentLUT.mode == mode) {
-      return;
-    }
-    currentLUT = new SegmentLUT();
-    currentLUT.preTime = preTime;
-    currentLUT.nextTime = nextTime;
-    currentLUT.mode = mode;
-
-    final CameraKeyframe pre = preEntry.getValue();
-    final CameraKeyframe next = nextEntry.getValue();
-    // Neighbors for catmull variants
-    Vector3f p0, p3;
-    Map.Entry<Integer, CameraKeyframe> prePre = path.getPreEntry(preEntry.getKey());
-    p0 = (prePre == null) ? pre.getPos() : prePre.getValue().getPos();
-    Map.Entry<Integer, CameraKeyframe> nextNext = path.getNextEntry(nextEntry.getKey());
-    p3 = (nextNext == null) ? next.getPos() : nextNext.getValue().getPos();
-
-    net.tysontheember.apertureapi.path.ArcLengthLUT.Evaluator f =
-        (tt, out) -> {
-          switch (mode) {
-            case LINEAR -> net.tysontheember.apertureapi.InterpolationMath.line(
-                tt, pre.getPos(), next.getPos(), out);
-            case COSINE -> {
-              float tCos = (1.0f - (float) Math.cos(Math.PI * tt)) * 0.5f;
-              net.tysontheember.apertureapi.InterpolationMath.line(
-                  tCos, pre.getPos(), next.getPos(), out);
-            }
-            case SMOOTH -> net.tysontheember.apertureapi.InterpolationMath.catmullRom(
-                tt, p0, pre.getPos(), next.getPos(), p3, out);
-            case CATMULL_UNIFORM -> net.tysontheember.apertureapi.path.CatmullRom.eval(
-                tt, p0, pre.getPos(), next.getPos(), p3, 0.0f, out);
-            case CATMULL_CENTRIPETAL -> net.tysontheember.apertureapi.path.CatmullRom.eval(
-                tt, p0, pre.getPos(), next.getPos(), p3, 0.5f, out);
-            case CATMULL_CHORDAL -> net.tysontheember.apertureapi.path.CatmullRom.eval(
-                tt, p0, pre.getPos(), next.getPos(), p3, 1.0f, out);
-            case BEZIER -> pre.getPathBezier().interpolate(tt, pre.getPos(), next.getPos(), out);
-            case STEP -> out.set(pre.getPos());
-          }
-          return out;
-        };
-    currentLUT.lut = new net.tysontheember.apertureapi.path.ArcLengthLUT(f, 64);
-  }
-
   // Optional toggles
   public Animator setConstantSpeed(boolean enabled) {
-    this.constantSpeed = enabled;
+    evaluator.setConstantSpeed(enabled);
     return this;
   }
 
   public Animator setQuaternionOrientation(boolean enabled) {
-    this.quaternionOrientation = enabled;
+    evaluator.setQuaternionOrientation(enabled);
+    return this;
+  }
+
+  // SQUAD instead of slerp between quaternion keyframes; smooth angular velocity through keys
+  public Animator setSquadOrientation(boolean enabled) {
+    evaluator.setSquadOrientation(enabled);
     return this;
   }
 }
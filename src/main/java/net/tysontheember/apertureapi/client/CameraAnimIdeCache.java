@@ -181,6 +181,7 @@ public class CameraAnimIdeCache {
   }
 
   public static void setPath(GlobalCameraPath path) {
+    path.rebase(0.0, 0.0, 0.0); // the editor works in world coordinates
     PATH = path;
     SELECTED_POINT.reset();
   }
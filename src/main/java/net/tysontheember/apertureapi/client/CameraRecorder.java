@@ -0,0 +1,223 @@
+package net.tysontheember.apertureapi.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import net.minecraft.util.Mth;
+import net.tysontheember.apertureapi.common.animation.CameraKeyframe;
+import net.tysontheember.apertureapi.common.animation.GlobalCameraPath;
+import net.tysontheember.apertureapi.common.animation.KeyframeSimplifier;
+import net.tysontheember.apertureapi.common.animation.PathInterpolator;
+import net.tysontheember.apertureapi.path.PathSimplifier;
+import org.joml.Vector3d;
+import org.joml.Vector3f;
+
+/**
+ * Records the camera as it is flown and turns the recording into a {@link GlobalCameraPath}.
+ *
+ * <p>{@link #capture} is called every frame with the final camera pose and writes it into
+ * preallocated primitive arrays used as a ring buffer, so recording creates no objects per frame.
+ * Frames closer together than {@link #MIN_INTERVAL} are skipped; at the default capacity the
+ * buffer holds about 13 minutes, after which the oldest frames are overwritten. Time is measured in
+ * ticks of real time, with pauses cut out.
+ *
+ * <p>{@link #toPathAsync} copies the recording on the calling thread and does the rest off-thread:
+ * resampling to one keyframe per tick and reducing the keyframes with {@link KeyframeSimplifier}.
+ */
+public class CameraRecorder {
+  public static final CameraRecorder INSTANCE = new CameraRecorder();
+
+  /** Frames the ring buffer holds. */
+  public static final int DEFAULT_CAPACITY = 1 << 16;
+
+  /** Shortest time between recorded frames, in ticks. */
+  public static final float MIN_INTERVAL = 0.25f;
+
+  /** Default tolerance for turning a recording into a path. */
+  public static final PathSimplifier.Tolerance DEFAULT_TOLERANCE =
+      PathSimplifier.Tolerance.forPosition(0.05f);
+
+  private static final double TICKS_PER_NANO = 20.0 / 1_000_000_000.0;
+
+  private final int capacity;
+  private double[] positions; // xyz per frame, allocated on first recording
+  private float[] rotations; // pitch, yaw, roll per frame
+  private float[] fovs;
+  private float[] times; // ticks since the recording started
+
+  private int head; // next slot to write
+  private int size;
+  private boolean recording;
+  private double clock;
+  private long lastNanos;
+
+  public CameraRecorder() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public CameraRecorder(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /** Start a new recording, discarding the previous one. */
+  public void start() {
+    if (positions == null) {
+      positions = new double[capacity * 3];
+      rotations = new float[capacity * 3];
+      fovs = new float[capacity];
+      times = new float[capacity];
+    }
+    head = 0;
+    size = 0;
+    clock = 0.0;
+    lastNanos = 0L;
+    recording = true;
+  }
+
+  public void stop() {
+    recording = false;
+  }
+
+  public boolean isRecording() {
+    return recording;
+  }
+
+  /** Number of recorded frames. */
+  public int size() {
+    return size;
+  }
+
+  /** Length of the recording in ticks. */
+  public float getDuration() {
+    return size == 0 ? 0f : times[(head - 1 + capacity) % capacity] - times[index(0)];
+  }
+
+  /**
+   * Record one frame of the final camera pose. Does nothing unless recording; while the game is
+   * paused the clock stops.
+   */
+  public void capture(
+      double x, double y, double z, float pitch, float yaw, float roll, float fov, boolean paused) {
+    if (!recording) {
+      return;
+    }
+    if (paused) {
+      lastNanos = 0L;
+      return;
+    }
+    capture(System.nanoTime(), x, y, z, pitch, yaw, roll, fov);
+  }
+
+  /** Record a frame captured at {@code now}, in {@link System#nanoTime()} units. */
+  void capture(
+      long now, double x, double y, double z, float pitch, float yaw, float roll, float fov) {
+    if (lastNanos != 0L) {
+      clock += (now - lastNanos) * TICKS_PER_NANO;
+    }
+    lastNanos = now;
+    if (size > 0 && clock - times[(head - 1 + capacity) % capacity] < MIN_INTERVAL) {
+      return;
+    }
+
+    positions[head * 3] = x;
+    positions[head * 3 + 1] = y;
+    positions[head * 3 + 2] = z;
+    rotations[head * 3] = pitch;
+    rotations[head * 3 + 1] = yaw;
+    rotations[head * 3 + 2] = roll;
+    fovs[head] = fov;
+    times[head] = (float) clock;
+    head = (head + 1) % capacity;
+    if (size < capacity) {
+      size++;
+    }
+  }
+
+  /**
+   * Convert the recording into a path named {@code id}. The frames are copied on the calling
+   * thread, so recording may continue or restart right away; resampling and simplification run on
+   * the common pool.
+   */
+  public CompletableFuture<GlobalCameraPath> toPathAsync(
+      String id, PathSimplifier.Tolerance tolerance) {
+    Snapshot snapshot = new Snapshot(size);
+    int first = index(0);
+    int tail = Math.min(size, capacity - first); // frames before the buffer wraps
+    snapshot.copy(this, first, 0, tail);
+    snapshot.copy(this, 0, tail, size - tail);
+    return CompletableFuture.supplyAsync(
+        () -> snapshot.toPath(id, tolerance), ForkJoinPool.commonPool());
+  }
+
+  private int index(int frame) {
+    return (head - size + frame + capacity) % capacity;
+  }
+
+  /** Recorded frames in order, detached from the ring buffer. */
+  private static final class Snapshot {
+    private final double[] positions;
+    private final float[] rotations;
+    private final float[] fovs;
+    private final float[] times;
+
+    private Snapshot(int size) {
+      positions = new double[size * 3];
+      rotations = new float[size * 3];
+      fovs = new float[size];
+      times = new float[size];
+    }
+
+    private void copy(CameraRecorder recorder, int from, int to, int count) {
+      if (count == 0) {
+        return;
+      }
+      System.arraycopy(recorder.positions, from * 3, positions, to * 3, count * 3);
+      System.arraycopy(recorder.rotations, from * 3, rotations, to * 3, count * 3);
+      System.arraycopy(recorder.fovs, from, fovs, to, count);
+      System.arraycopy(recorder.times, from, times, to, count);
+    }
+
+    /** Resample to one keyframe per tick, then drop the keyframes the curve does not need. */
+    private GlobalCameraPath toPath(String id, PathSimplifier.Tolerance tolerance) {
+      GlobalCameraPath path = new GlobalCameraPath(id);
+      int size = fovs.length;
+      if (size == 0) {
+        return path;
+      }
+
+      // Keep positions small floats around the first frame; the editor rebases to world later
+      path.rebase(
+          Math.floor(positions[0]), Math.floor(positions[1]), Math.floor(positions[2]));
+      Vector3d anchor = path.getAnchor(new Vector3d());
+      float start = times[0];
+      int ticks = (int) (times[size - 1] - start);
+      int frame = 0;
+      for (int tick = 0; tick <= ticks; tick++) {
+        float time = start + tick;
+        while (frame < size - 2 && times[frame + 1] <= time) {
+          frame++;
+        }
+        int next = Math.min(frame + 1, size - 1);
+        float span = times[next] - times[frame];
+        float t = span > 0f ? Mth.clamp((time - times[frame]) / span, 0f, 1f) : 0f;
+
+        int at = frame * 3;
+        int to = next * 3;
+        Vector3f pos =
+            new Vector3f(
+                (float) (Mth.lerp(t, positions[at], positions[to]) - anchor.x),
+                (float) (Mth.lerp(t, positions[at + 1], positions[to + 1]) - anchor.y),
+                (float) (Mth.lerp(t, positions[at + 2], positions[to + 2]) - anchor.z));
+        Vector3f rot =
+            new Vector3f(
+                Mth.lerp(t, rotations[frame * 3], rotations[next * 3]),
+                Mth.wrapDegrees(Mth.rotLerp(t, rotations[frame * 3 + 1], rotations[next * 3 + 1])),
+                Mth.rotLerp(t, rotations[frame * 3 + 2], rotations[next * 3 + 2]));
+        float fov = Mth.lerp(t, fovs[frame], fovs[next]);
+        path.add(tick, new CameraKeyframe(pos, rot, fov, PathInterpolator.LINEAR));
+      }
+
+      KeyframeSimplifier.simplify(path, tolerance);
+      return path;
+    }
+  }
+}
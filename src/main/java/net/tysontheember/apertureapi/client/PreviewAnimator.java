@@ -1,11 +1,10 @@
 package net.tysontheember.apertureapi.client;
 
-import static net.tysontheember.apertureapi.InterpolationMath.*;
 import static net.tysontheember.apertureapi.client.ClientUtil.partialTicks;
 
-import java.util.Map;
 import net.minecraft.util.Mth;
 import net.tysontheember.apertureapi.common.animation.*;
+import net.tysontheember.apertureapi.path.ArcLengthLUT;
 import org.joml.Vector3f;
 
 public class PreviewAnimator {
@@ -13,9 +12,10 @@ public class PreviewAnimator {
   private boolean playing;
   private boolean loop = false; // Default to no loop
   private int time;
+  private int segment; // Timeline index the previous frame played from; next lookup starts here
 
-  private boolean constantSpeed = true;
-  private boolean quaternionOrientation = true;
+  // Constant-speed, quaternion and SQUAD options live here with the evaluation scratch
+  private final KeyframeEvaluator evaluator = new KeyframeEvaluator();
 
   // Speed-based playback state (blocks/sec)
   public enum SpeedMode {
@@ -34,17 +34,9 @@ public class PreviewAnimator {
   private final org.joml.Vector3f followTarget = new org.joml.Vector3f();
   private float followLag = 0.2f; // 0..1 per-frame smoothing factor
   private final org.joml.Vector3f lastAimDir = new org.joml.Vector3f();
+  private final org.joml.Vector3f desiredAimDir = new org.joml.Vector3f();
   private boolean hasLastAimDir = false;
 
-  private static final class SegmentLUT {
-    int preTime;
-    int nextTime;
-    net.tysontheember.apertureapi.common.animation.PathInterpolator mode;
-    net.tysontheember.apertureapi.path.ArcLengthLUT lut;
-  }
-
-  private SegmentLUT currentLUT;
-
   public void tick() {
     if (!playing) {
       return;
@@ -87,7 +79,6 @@ public class PreviewAnimator {
   public void reset() {
     time = 0;
     playing = false;
-    currentLUT = null;
     segDistance = 0f;
     segPreTime = null;
     segNextTime = null;
@@ -137,68 +128,43 @@ public class PreviewAnimator {
     GlobalCameraPath track = CameraAnimIdeCache.getPath();
     float currentTime = time + partialTicks;
 
-    Map.Entry<Integer, CameraKeyframe> preEntry;
-    Map.Entry<Integer, CameraKeyframe> nextEntry;
+    KeyframeTimeline timeline = track.getTimeline();
+    int preIndex;
     if (speedMode == SpeedMode.SPEED) {
       // Initialize segment if needed: start from first two keyframes
       if (segPreTime == null || segNextTime == null) {
-        Map.Entry<Integer, CameraKeyframe> first = track.getNextEntry(Integer.MIN_VALUE);
-        if (first == null) return false;
-        Map.Entry<Integer, CameraKeyframe> second = track.getNextEntry(first.getKey());
-        if (second == null) return false;
-        segPreTime = first.getKey();
-        segNextTime = second.getKey();
+        if (timeline.size() < 2) return false;
+        segPreTime = timeline.getTime(0);
+        segNextTime = timeline.getTime(1);
         segDistance = 0f;
-        currentLUT = null;
       }
-      preEntry = track.getEntry(segPreTime);
-      if (preEntry == null || !java.util.Objects.equals(preEntry.getKey(), segPreTime))
-        preEntry = track.getPreEntry(segPreTime + 1);
-      nextEntry = track.getEntry(segNextTime);
-      if (nextEntry == null || !java.util.Objects.equals(nextEntry.getKey(), segNextTime))
-        nextEntry = track.getNextEntry(segPreTime);
+      preIndex = timeline.floorIndex(segPreTime, segment);
     } else {
       // Use consistent logic: always find the keyframe segment we're in
-      preEntry = track.getPreEntry(time + 1); // +1 to handle exact matches correctly
-      nextEntry = track.getNextEntry(time);
+      preIndex = timeline.floorIndex(time, segment);
     }
+    int nextIndex = preIndex + 1;
 
     // If we're before the first keyframe or after the last
-    if (preEntry == null) {
-      if (nextEntry == null) return false;
-      posDest.set(nextEntry.getValue().getPos());
-      rotDest.set(nextEntry.getValue().getRot());
-      fov[0] = nextEntry.getValue().getFov();
+    if (preIndex < 0) {
+      if (nextIndex >= timeline.size()) return false;
+      KeyframeEvaluator.hold(timeline.getKeyframe(nextIndex), posDest, rotDest, fov);
       return true;
     }
 
-    if (nextEntry == null) {
-      if (speedMode == SpeedMode.SPEED && loop && track.getPoints().size() >= 2) {
+    segment = preIndex;
+    if (nextIndex >= timeline.size()) {
+      if (speedMode == SpeedMode.SPEED && loop && timeline.size() >= 2) {
         // Loop to start in SPEED mode (only if loop is enabled)
-        Map.Entry<Integer, CameraKeyframe> first = track.getNextEntry(Integer.MIN_VALUE);
-        Map.Entry<Integer, CameraKeyframe> second =
-            first == null ? null : track.getNextEntry(first.getKey());
-        if (first != null && second != null) {
-          segPreTime = first.getKey();
-          segNextTime = second.getKey();
-          segDistance = 0f;
-          currentLUT = null;
-          preEntry = first;
-          nextEntry = second;
-        } else {
-          // Stop at the end if not looping or can't loop
-          finishPreview();
-          posDest.set(preEntry.getValue().getPos());
-          rotDest.set(preEntry.getValue().getRot());
-          fov[0] = preEntry.getValue().getFov();
-          return true;
-        }
+        segPreTime = timeline.getTime(0);
+        segNextTime = timeline.getTime(1);
+        segDistance = 0f;
+        preIndex = 0;
+        nextIndex = 1;
       } else {
         // Stop at the end if not looping
         finishPreview();
-        posDest.set(preEntry.getValue().getPos());
-        rotDest.set(preEntry.getValue().getRot());
-        fov[0] = preEntry.getValue().getFov();
+        KeyframeEvaluator.hold(timeline.getKeyframe(preIndex), posDest, rotDest, fov);
         return true;
       }
     }
@@ -206,133 +172,55 @@ public class PreviewAnimator {
     // Calculate interpolation parameter
     float t;
     if (speedMode == SpeedMode.SPEED) {
-      ensureSegmentLUT(track, preEntry, nextEntry, nextEntry.getValue().getPathInterpolator());
-      float segLen =
-          (currentLUT != null && currentLUT.lut != null) ? currentLUT.lut.totalLength() : 0f;
+      CameraPathArcLengths arcLengths = track.getArcLengths();
+      float segLen = arcLengths.get(preIndex).totalLength();
       // Advance across segments as needed
       while (segLen > 1e-6f && segDistance > segLen) {
         segDistance -= segLen;
         // advance to next segment (loop if needed)
-        Map.Entry<Integer, CameraKeyframe> newPre = nextEntry;
-        Map.Entry<Integer, CameraKeyframe> newNext = track.getNextEntry(newPre.getKey());
-        if (newNext == null) {
+        int newPre = nextIndex;
+        int newNext = nextIndex + 1;
+        if (newNext >= timeline.size()) {
           if (loop) {
             // loop (only if loop is enabled)
-            Map.Entry<Integer, CameraKeyframe> first = track.getNextEntry(Integer.MIN_VALUE);
-            if (first == null) break;
-            newPre = first;
-            newNext = track.getNextEntry(newPre.getKey());
-            if (newNext == null) break;
+            newPre = 0;
+            newNext = 1;
           } else {
             // Stop at the end if not looping
             playing = false;
             break;
           }
         }
-        preEntry = newPre;
-        nextEntry = newNext;
-        ensureSegmentLUT(track, preEntry, nextEntry, nextEntry.getValue().getPathInterpolator());
-        segLen = (currentLUT != null && currentLUT.lut != null) ? currentLUT.lut.totalLength() : 0f;
+        preIndex = newPre;
+        nextIndex = newNext;
+        segPreTime = timeline.getTime(preIndex);
+        segNextTime = timeline.getTime(nextIndex);
+        segLen = arcLengths.get(preIndex).totalLength();
       }
-      if (currentLUT != null && currentLUT.lut != null && currentLUT.lut.totalLength() > 1e-6f) {
-        t =
-            currentLUT.lut.tForDistance(
-                Math.max(0f, Math.min(segDistance, currentLUT.lut.totalLength())));
+      ArcLengthLUT lut = arcLengths.get(preIndex);
+      if (lut.totalLength() > 1e-6f) {
+        t = lut.tForDistance(Math.max(0f, Math.min(segDistance, lut.totalLength())));
       } else {
         t = 0f;
       }
     } else {
-      float timeDelta = nextEntry.getKey() - preEntry.getKey();
+      int preTime = timeline.getTime(preIndex);
+      int nextTime = timeline.getTime(nextIndex);
+      float timeDelta = nextTime - preTime;
       if (timeDelta <= 0.001f) {
         t = 0.0f;
       } else {
-        t =
-            net.tysontheember.apertureapi.common.animation.JitterPrevention.calculateSmoothT(
-                currentTime, preEntry.getKey(), nextEntry.getKey());
-      }
-    }
-
-    CameraKeyframe pre = preEntry.getValue();
-    CameraKeyframe next = nextEntry.getValue();
-
-    float t1;
-    // Position time easing
-    if (next.getPosTimeInterpolator() == TimeInterpolator.BEZIER) {
-      t1 = next.getPosBezier().interpolate(t);
-    } else {
-      t1 = t;
-    }
-
-    float tPos = t1;
-    if (constantSpeed
-        && next.getPathInterpolator()
-            != net.tysontheember.apertureapi.common.animation.PathInterpolator.STEP) {
-      ensureSegmentLUT(track, preEntry, nextEntry, next.getPathInterpolator());
-      if (currentLUT != null && currentLUT.lut != null && currentLUT.lut.totalLength() > 1e-6f) {
-        float desired = currentLUT.lut.totalLength() * t1;
-        tPos = currentLUT.lut.tForDistance(desired);
-      }
-    }
-
-    switch (next.getPathInterpolator()) {
-      case LINEAR -> line(tPos, pre.getPos(), next.getPos(), posDest);
-      case COSINE -> {
-        float tCos = (1.0f - (float) Math.cos(Math.PI * tPos)) * 0.5f;
-        line(tCos, pre.getPos(), next.getPos(), posDest);
-      }
-      case SMOOTH -> {
-        Vector3f p0, p3;
-        Map.Entry<Integer, CameraKeyframe> prePre = track.getPreEntry(preEntry.getKey());
-
-        if (prePre == null) {
-          p0 = pre.getPos();
-        } else {
-          p0 = prePre.getValue().getPos();
-        }
-
-        Map.Entry<Integer, CameraKeyframe> nextNext = track.getNextEntry(nextEntry.getKey());
-
-        if (nextNext == null) {
-          p3 = next.getPos();
-        } else {
-          p3 = nextNext.getValue().getPos();
-        }
-
-        catmullRom(tPos, p0, pre.getPos(), next.getPos(), p3, posDest);
-      }
-      case CATMULL_UNIFORM, CATMULL_CENTRIPETAL, CATMULL_CHORDAL -> {
-        Vector3f p0, p3;
-        Map.Entry<Integer, CameraKeyframe> prePre = track.getPreEntry(preEntry.getKey());
-        if (prePre == null) p0 = pre.getPos();
-        else p0 = prePre.getValue().getPos();
-        Map.Entry<Integer, CameraKeyframe> nextNext = track.getNextEntry(nextEntry.getKey());
-        if (nextNext == null) p3 = next.getPos();
-        else p3 = nextNext.getValue().getPos();
-        float alpha =
-            switch (next.getPathInterpolator()) {
-              case CATMULL_UNIFORM -> 0.0f;
-              case CATMULL_CHORDAL -> 1.0f;
-              default -> 0.5f;
-            };
-        net.tysontheember.apertureapi.path.CatmullRom.eval(
-            tPos, p0, pre.getPos(), next.getPos(), p3, alpha, posDest);
+        t = JitterPrevention.calculateSmoothT(currentTime, preTime, nextTime);
       }
-      case BEZIER -> next.getPathBezier().interpolate(tPos, pre.getPos(), next.getPos(), posDest);
-      case STEP -> posDest.set(pre.getPos());
     }
 
-    // Rotation time easing
-    if (next.getRotTimeInterpolator() == TimeInterpolator.BEZIER) {
-      t1 = next.getRotBezier().interpolate(t);
-    } else {
-      t1 = t;
-    }
+    evaluator.evaluatePosition(track, preIndex, t, posDest);
 
     // Follow-target orientation overrides angle blending if enabled
     if (followTargetEnabled) {
       // World-space look direction: target - current position (posDest currently in world space in
       // PreviewAnimator)
-      Vector3f desired = new Vector3f(followTarget).sub(posDest).normalize();
+      Vector3f desired = desiredAimDir.set(followTarget).sub(posDest).normalize();
       if (!hasLastAimDir) {
         lastAimDir.set(desired);
         hasLastAimDir = true;
@@ -349,91 +237,14 @@ public class PreviewAnimator {
                       Math.sqrt(lastAimDir.x * lastAimDir.x + lastAimDir.z * lastAimDir.z))));
       rotDest.set(pitch, yaw, 0f);
     } else {
-      Vector3f preRot = pre.getRot();
-      Vector3f nextRot = next.getRot();
-      if (quaternionOrientation) {
-        org.joml.Quaternionf qa =
-            net.tysontheember.apertureapi.path.OrientationUtil.yprDegToQuat(
-                preRot.y, preRot.x, preRot.z, new org.joml.Quaternionf());
-        org.joml.Quaternionf qb =
-            net.tysontheember.apertureapi.path.OrientationUtil.yprDegToQuat(
-                nextRot.y, nextRot.x, nextRot.z, new org.joml.Quaternionf());
-        org.joml.Quaternionf qOut = new org.joml.Quaternionf();
-        net.tysontheember.apertureapi.path.OrientationUtil.slerp(qa, qb, t1, qOut);
-        net.tysontheember.apertureapi.path.OrientationUtil.quatToYprDeg(qOut, rotDest);
-      } else {
-        net.tysontheember.apertureapi.common.animation.JitterPrevention.smoothRotationLerp(
-            t1, preRot, nextRot, rotDest);
-      }
+      evaluator.evaluateRotation(track, preIndex, t, rotDest);
     }
 
-    // FOV interpolation
-    if (next.getFovTimeInterpolator() == TimeInterpolator.BEZIER) {
-      t1 = next.getFovBezier().interpolate(t);
-    } else {
-      t1 = t;
-    }
-
-    fov[0] =
-        net.tysontheember.apertureapi.common.animation.JitterPrevention.smoothFovLerp(
-            t1, pre.getFov(), next.getFov());
+    fov[0] = evaluator.evaluateFov(track, preIndex, t);
 
     return true;
   }
 
-  private void ensureSegmentLUT(
-      GlobalCameraPath track,
-      Map.Entry<Integer, CameraKeyframe> preEntry,
-      Map.Entry<Integer, CameraKeyframe> nextEntry,
-      net.tysontheember.apertureapi.common.animation.PathInterpolator mode) {
-    int preTime = preEntry.getKey();
-    int nextTime = nextEntry.getKey();
-    if (currentLUT != null
-        && currentLUT.preTime == preTime
-        && currentLUT.nextTime == nextTime
-        && currentLUT.mode == mode) {
-      return;
-    }
-    currentLUT = new SegmentLUT();
-    currentLUT.preTime = preTime;
-    currentLUT.nextTime = nextTime;
-    currentLUT.mode = mode;
-
-    final CameraKeyframe pre = preEntry.getValue();
-    final CameraKeyframe next = nextEntry.getValue();
-    // Neighbors for catmull variants
-    Vector3f p0, p3;
-    Map.Entry<Integer, CameraKeyframe> prePre = track.getPreEntry(preEntry.getKey());
-    p0 = (prePre == null) ? pre.getPos() : prePre.getValue().getPos();
-    Map.Entry<Integer, CameraKeyframe> nextNext = track.getNextEntry(nextEntry.getKey());
-    p3 = (nextNext == null) ? next.getPos() : nextNext.getValue().getPos();
-
-    net.tysontheember.apertureapi.path.ArcLengthLUT.Evaluator f =
-        (tt, out) -> {
-          switch (mode) {
-            case LINEAR -> net.tysontheember.apertureapi.InterpolationMath.line(
-                tt, pre.getPos(), next.getPos(), out);
-            case COSINE -> {
-              float tCos = (1.0f - (float) Math.cos(Math.PI * tt)) * 0.5f;
-              net.tysontheember.apertureapi.InterpolationMath.line(
-                  tCos, pre.getPos(), next.getPos(), out);
-            }
-            case SMOOTH -> net.tysontheember.apertureapi.InterpolationMath.catmullRom(
-                tt, p0, pre.getPos(), next.getPos(), p3, out);
-            case CATMULL_UNIFORM -> net.tysontheember.apertureapi.path.CatmullRom.eval(
-                tt, p0, pre.getPos(), next.getPos(), p3, 0.0f, out);
-            case CATMULL_CENTRIPETAL -> net.tysontheember.apertureapi.path.CatmullRom.eval(
-                tt, p0, pre.getPos(), next.getPos(), p3, 0.5f, out);
-            case CATMULL_CHORDAL -> net.tysontheember.apertureapi.path.CatmullRom.eval(
-                tt, p0, pre.getPos(), next.getPos(), p3, 1.0f, out);
-            case BEZIER -> pre.getPathBezier().interpolate(tt, pre.getPos(), next.getPos(), out);
-            case STEP -> out.set(pre.getPos());
-          }
-          return out;
-        };
-    currentLUT.lut = new net.tysontheember.apertureapi.path.ArcLengthLUT(f, 64);
-  }
-
   public PreviewAnimator setLoop(boolean loop) {
     this.loop = loop;
     return this;
@@ -444,12 +255,18 @@ public class PreviewAnimator {
   }
 
   public PreviewAnimator setConstantSpeed(boolean enabled) {
-    this.constantSpeed = enabled;
+    evaluator.setConstantSpeed(enabled);
     return this;
   }
 
   public PreviewAnimator setQuaternionOrientation(boolean enabled) {
-    this.quaternionOrientation = enabled;
+    evaluator.setQuaternionOrientation(enabled);
+    return this;
+  }
+
+  // SQUAD instead of slerp between quaternion keyframes; smooth angular velocity through keys
+  public PreviewAnimator setSquadOrientation(boolean enabled) {
+    evaluator.setSquadOrientation(enabled);
     return this;
   }
 
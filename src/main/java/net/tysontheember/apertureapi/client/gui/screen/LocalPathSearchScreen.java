@@ -1,6 +1,7 @@
 package net.tysontheember.apertureapi.client.gui.screen;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
@@ -32,6 +33,7 @@ import net.tysontheember.apertureapi.client.ClientUtil;
 import net.tysontheember.apertureapi.client.gui.widget.NumberEditBox;
 import net.tysontheember.apertureapi.common.animation.CameraKeyframe;
 import net.tysontheember.apertureapi.common.animation.GlobalCameraPath;
+import org.joml.Vector3d;
 import oshi.util.tuples.Triplet;
 
 public class LocalPathSearchScreen extends Screen {
@@ -265,7 +267,15 @@ public class LocalPathSearchScreen extends Screen {
           TypeToken<TreeMap<Integer, CameraKeyframe>> type = new TypeToken<>() {};
           TreeMap<Integer, CameraKeyframe> map =
               GSON.fromJson(jsonObject.get("anim"), type.getType());
-          CameraAnimIdeCache.setPath(new GlobalCameraPath(map, id));
+          GlobalCameraPath loaded = new GlobalCameraPath(map, id);
+          if (jsonObject.has("anchor")) {
+            JsonArray anchor = jsonObject.getAsJsonArray("anchor");
+            loaded.setAnchor(
+                anchor.get(0).getAsDouble(),
+                anchor.get(1).getAsDouble(),
+                anchor.get(2).getAsDouble());
+          }
+          CameraAnimIdeCache.setPath(loaded);
           ClientUtil.pushGuiLayer(new InfoScreen(FILE_LOAD_SUCCESS));
         } else {
           ClientUtil.pushGuiLayer(new InfoScreen(VERSION_ERROR));
@@ -288,6 +298,12 @@ public class LocalPathSearchScreen extends Screen {
       JsonObject jsonObject = new JsonObject();
       jsonObject.addProperty("version", SERIALIZER_VERSION);
       jsonObject.add("anim", json);
+      Vector3d anchor = CameraAnimIdeCache.getPath().getAnchor(new Vector3d());
+      JsonArray anchorJson = new JsonArray();
+      anchorJson.add(anchor.x);
+      anchorJson.add(anchor.y);
+      anchorJson.add(anchor.z);
+      jsonObject.add("anchor", anchorJson);
       Files.writeString(path, jsonObject.toString());
     } catch (IOException e) {
       ClientUtil.pushGuiLayer(new InfoScreen(FILE_SAVE_ERROR));
@@ -1,8 +1,12 @@
 package net.tysontheember.apertureapi.client.listener;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Map;
 import net.minecraft.client.Camera;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.screens.ConfirmScreen;
+import net.minecraft.network.chat.Component;
 import net.minecraft.util.Mth;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.event.TickEvent;
@@ -10,6 +14,7 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.tysontheember.apertureapi.ApertureAPI;
 import net.tysontheember.apertureapi.client.CameraAnimIdeCache;
+import net.tysontheember.apertureapi.client.CameraRecorder;
 import net.tysontheember.apertureapi.client.ClientUtil;
 import net.tysontheember.apertureapi.client.PreviewAnimator;
 import net.tysontheember.apertureapi.client.gui.screen.PointSettingScreen;
@@ -18,10 +23,26 @@ import net.tysontheember.apertureapi.client.register.ModKeyMapping;
 import net.tysontheember.apertureapi.common.animation.CameraKeyframe;
 import net.tysontheember.apertureapi.common.animation.GlobalCameraPath;
 import net.tysontheember.apertureapi.common.animation.PathInterpolator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.joml.Vector3f;
 
 @Mod.EventBusSubscriber(modid = ApertureAPI.MODID, value = Dist.CLIENT)
 public class ModKeyClicked {
+  private static final Logger LOGGER = LogManager.getLogger("ModKeyClicked");
+  private static final Component RECORDING_START =
+      Component.translatable("hud.camera_anim.recorder.start");
+  private static final Component RECORDING_CONVERTING =
+      Component.translatable("hud.camera_anim.recorder.converting");
+  private static final Component RECORDING_FAILURE =
+      Component.translatable("hud.camera_anim.recorder.failure");
+  private static final Component RECORDING_DISCARDED =
+      Component.translatable("hud.camera_anim.recorder.discarded");
+  private static final Component RECORDING_REPLACE_TITLE =
+      Component.translatable("gui.camera_anim.recorder.replace_title");
+  private static final DateTimeFormatter RECORDING_ID =
+      DateTimeFormatter.ofPattern("'recording-'yyyyMMdd-HHmmss");
+
   @SubscribeEvent
   public static void keyClick(TickEvent.ClientTickEvent event) {
     if (event.phase != TickEvent.Phase.END) {
@@ -135,6 +156,60 @@ public class ModKeyClicked {
       PreviewAnimator.INSTANCE.forward();
     }
 
+    while (ModKeyMapping.RECORD.get().consumeClick()) {
+      if (!CameraAnimIdeCache.EDIT) {
+        continue;
+      }
+
+      CameraRecorder recorder = CameraRecorder.INSTANCE;
+      if (!recorder.isRecording()) {
+        recorder.start();
+        ClientUtil.player().displayClientMessage(RECORDING_START, true);
+        continue;
+      }
+
+      recorder.stop();
+      ClientUtil.player().displayClientMessage(RECORDING_CONVERTING, true);
+      Minecraft mc = Minecraft.getInstance();
+      recorder
+          .toPathAsync(LocalDateTime.now().format(RECORDING_ID), CameraRecorder.DEFAULT_TOLERANCE)
+          .whenCompleteAsync(
+              (path, error) -> {
+                if (mc.player == null) {
+                  return;
+                }
+                if (error != null) {
+                  LOGGER.error("Failed to convert camera recording", error);
+                  mc.player.displayClientMessage(RECORDING_FAILURE, true);
+                  return;
+                }
+                GlobalCameraPath edited = CameraAnimIdeCache.getPath();
+                if (edited.getPoints().isEmpty()) {
+                  openRecording(mc, path);
+                  return;
+                }
+
+                // Never drop the path being edited without asking
+                mc.setScreen(
+                    new ConfirmScreen(
+                        replace -> {
+                          mc.setScreen(null);
+                          if (replace) {
+                            openRecording(mc, path);
+                          } else if (mc.player != null) {
+                            mc.player.displayClientMessage(RECORDING_DISCARDED, true);
+                          }
+                        },
+                        RECORDING_REPLACE_TITLE,
+                        Component.translatable(
+                            "gui.camera_anim.recorder.replace",
+                            edited.getId(),
+                            edited.getPoints().size(),
+                            path.getId())));
+              },
+              mc);
+    }
+
     while (ModKeyMapping.MANAGER.get().consumeClick()) {
       if (!ClientUtil.player().isCreative()) {
         return;
@@ -386,4 +461,15 @@ public class ModKeyClicked {
       }
     }
   }
+
+  /** Open a converted recording in the editor, under its own id. */
+  private static void openRecording(Minecraft mc, GlobalCameraPath path) {
+    CameraAnimIdeCache.setPath(path);
+    if (mc.player != null) {
+      mc.player.displayClientMessage(
+          Component.translatable(
+              "hud.camera_anim.recorder.done", path.getId(), path.getPoints().size()),
+          true);
+    }
+  }
 }
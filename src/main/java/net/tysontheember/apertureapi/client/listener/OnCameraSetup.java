@@ -0,0 +1,44 @@
+package net.tysontheember.apertureapi.client.listener;
+
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ViewportEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.tysontheember.apertureapi.ApertureAPI;
+import net.tysontheember.apertureapi.client.CameraRecorder;
+import net.tysontheember.apertureapi.client.ClientUtil;
+
+/// Feeds the final camera pose of every frame to the camera recorder
+@Mod.EventBusSubscriber(modid = ApertureAPI.MODID, value = Dist.CLIENT)
+public class OnCameraSetup {
+  private static float fov = 70f;
+
+  // Lowest priority so every other camera modifier has been applied
+  @SubscribeEvent(priority = EventPriority.LOWEST)
+  public static void onComputeFov(ViewportEvent.ComputeFov event) {
+    if (CameraRecorder.INSTANCE.isRecording() && event.usedConfiguredFov()) {
+      fov = (float) event.getFOV();
+    }
+  }
+
+  @SubscribeEvent(priority = EventPriority.LOWEST)
+  public static void onComputeCameraAngles(ViewportEvent.ComputeCameraAngles event) {
+    CameraRecorder recorder = CameraRecorder.INSTANCE;
+    if (!recorder.isRecording()) {
+      return;
+    }
+
+    Vec3 pos = event.getCamera().getPosition();
+    recorder.capture(
+        pos.x,
+        pos.y,
+        pos.z,
+        event.getPitch(),
+        event.getYaw(),
+        event.getRoll(),
+        fov,
+        ClientUtil.gamePaused());
+  }
+}
@@ -30,6 +30,7 @@ import net.tysontheember.apertureapi.common.animation.Vec3BezierController;
 import org.joml.Matrix3f;
 import org.joml.Matrix4f;
 import org.joml.Quaternionf;
+import org.joml.Vector3d;
 import org.joml.Vector3f;
 
 @Mod.EventBusSubscriber(modid = ApertureAPI.MODID, value = Dist.CLIENT)
@@ -145,6 +146,7 @@ public class OnLevelRender {
           .enableRotation()
           .enableGlobalMode();
 
+  private static final Vector3d PLAYER_ANCHOR = new Vector3d();
   private static final Vector3f PLAYER_POS = new Vector3f();
   private static final Vector3f PLAYER_ROT = new Vector3f();
   private static final float[] PLAYER_FOV = new float[1];
@@ -163,7 +165,7 @@ public class OnLevelRender {
 
     PLAYER_MODIFIER
         .enable()
-        .setPos(PLAYER_POS.x, PLAYER_POS.y, PLAYER_POS.z)
+        .setPos(animator.getAnchor(PLAYER_ANCHOR), PLAYER_POS)
         .setRotationYXZ(PLAYER_ROT)
         .setFov(PLAYER_FOV[0]);
   }
@@ -236,6 +236,15 @@ public class ModKeyMapping {
               GLFW.GLFW_KEY_INSERT,
               "key.categories." + ApertureAPI.MODID));
 
+  public static final Lazy<KeyMapping> RECORD =
+      register(
+          new KeyMapping(
+              "key." + ApertureAPI.MODID + ".record",
+              KeyConflictContext.IN_GAME,
+              InputConstants.Type.KEYSYM,
+              GLFW.GLFW_KEY_UNKNOWN,
+              "key.categories." + ApertureAPI.MODID));
+
   private static Lazy<KeyMapping> register(KeyMapping key) {
     Lazy<KeyMapping> lazy = Lazy.of(() -> key);
     list.add(lazy);
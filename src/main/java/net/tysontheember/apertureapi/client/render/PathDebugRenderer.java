@@ -2,16 +2,14 @@ package net.tysontheember.apertureapi.client.render;
 
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexConsumer;
-import java.util.ArrayList;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.util.Mth;
 import net.minecraft.world.phys.Vec3;
-import net.tysontheember.apertureapi.InterpolationMath;
-import net.tysontheember.apertureapi.common.animation.CameraKeyframe;
+import net.tysontheember.apertureapi.common.animation.CameraPathArcLengths;
 import net.tysontheember.apertureapi.common.animation.GlobalCameraPath;
-import net.tysontheember.apertureapi.common.animation.PathInterpolator;
-import net.tysontheember.apertureapi.path.CatmullRom;
+import net.tysontheember.apertureapi.common.animation.KeyframeTimeline;
+import net.tysontheember.apertureapi.path.ArcLengthLUT;
 import org.joml.Matrix3f;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
@@ -25,7 +23,6 @@ public final class PathDebugRenderer {
   private static final Vector3f V1 = new Vector3f();
   private static final Vector3f V2 = new Vector3f();
   private static final Vector3f V3 = new Vector3f();
-  private static final Vector3f P = new Vector3f();
   private static final Vector3f Q = new Vector3f();
 
   public static boolean showVelocityColor = false;
@@ -38,38 +35,35 @@ public final class PathDebugRenderer {
       PoseStack.Pose pose,
       MultiBufferSource.BufferSource buffers,
       Vec3 cameraPos) {
-    ArrayList<CameraKeyframe> points = path.getPoints();
-    if (points.size() < 2) return;
+    KeyframeTimeline timeline = path.getTimeline();
+    if (timeline.size() < 2) return;
+    CameraPathArcLengths arcLengths = path.getArcLengths();
     VertexConsumer lines = buffers.getBuffer(RenderType.LINES);
     Matrix4f m = pose.pose();
     Matrix3f n = pose.normal();
+    float camX = (float) cameraPos.x;
+    float camY = (float) cameraPos.y;
+    float camZ = (float) cameraPos.z;
     // For each segment between keyframes
-    for (int i = 1; i < points.size(); i++) {
-      CameraKeyframe pre = points.get(i - 1);
-      CameraKeyframe next = points.get(i);
-      Vector3f p1 =
-          new Vector3f(pre.getPos())
-              .sub((float) cameraPos.x, (float) cameraPos.y, (float) cameraPos.z);
-      Vector3f p2 =
-          new Vector3f(next.getPos())
-              .sub((float) cameraPos.x, (float) cameraPos.y, (float) cameraPos.z);
-
+    for (int i = 0; i < arcLengths.segmentCount(); i++) {
+      ArcLengthLUT lut = arcLengths.get(i);
       int samples = 32;
-      Vector3f prev = new Vector3f(p1);
       float maxVel = 1e-6f;
       float[] speeds = new float[samples + 1];
       Vector3f[] pts = new Vector3f[samples + 1];
-      pts[0] = new Vector3f(prev);
+      pts[0] = CameraPathArcLengths.eval(timeline, i, 0f, new Vector3f()).sub(camX, camY, camZ);
       speeds[0] = 0f;
 
+      // Speed is the arc length covered per sample step, read from the shared table
+      float prevDistance = 0f;
       for (int s = 1; s <= samples; s++) {
         float t = (float) s / samples;
-        eval(path, i, t, pre, next, cameraPos, P);
-        pts[s] = new Vector3f(P);
-        float v = P.distance(prev);
+        pts[s] = CameraPathArcLengths.eval(timeline, i, t, new Vector3f()).sub(camX, camY, camZ);
+        float distance = lut.distanceForT(t);
+        float v = distance - prevDistance;
         speeds[s] = v;
         if (v > maxVel) maxVel = v;
-        prev.set(P);
+        prevDistance = distance;
       }
 
       // draw with velocity color or white
@@ -95,78 +89,6 @@ public final class PathDebugRenderer {
     buffers.endBatch(RenderType.LINES);
   }
 
-  private static void eval(
-      GlobalCameraPath path,
-      int segIndex,
-      float t,
-      CameraKeyframe pre,
-      CameraKeyframe next,
-      Vec3 cam,
-      Vector3f out) {
-    PathInterpolator mode = next.getPathInterpolator();
-    // Need neighbors for catmull
-    Vector3f p0, p3;
-    int i = segIndex;
-    ArrayList<CameraKeyframe> pts = path.getPoints();
-    p0 = (i - 2 >= 0) ? pts.get(i - 2).getPos() : pre.getPos();
-    p3 = (i < pts.size() ? pts.get(i).getPos() : next.getPos());
-
-    switch (mode) {
-      case LINEAR -> InterpolationMath.line(
-          t,
-          new Vector3f(pre.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          new Vector3f(next.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          out);
-      case COSINE -> {
-        float tc = (1.0f - (float) Math.cos(Math.PI * t)) * 0.5f;
-        InterpolationMath.line(
-            tc,
-            new Vector3f(pre.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z),
-            new Vector3f(next.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z),
-            out);
-      }
-      case SMOOTH -> InterpolationMath.catmullRom(
-          t,
-          new Vector3f(p0).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          new Vector3f(pre.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          new Vector3f(next.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          new Vector3f(p3).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          out);
-      case CATMULL_UNIFORM -> CatmullRom.eval(
-          t,
-          new Vector3f(p0).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          new Vector3f(pre.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          new Vector3f(next.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          new Vector3f(p3).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          0.0f,
-          out);
-      case CATMULL_CENTRIPETAL -> CatmullRom.eval(
-          t,
-          new Vector3f(p0).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          new Vector3f(pre.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          new Vector3f(next.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          new Vector3f(p3).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          0.5f,
-          out);
-      case CATMULL_CHORDAL -> CatmullRom.eval(
-          t,
-          new Vector3f(p0).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          new Vector3f(pre.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          new Vector3f(next.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          new Vector3f(p3).sub((float) cam.x, (float) cam.y, (float) cam.z),
-          1.0f,
-          out);
-      case BEZIER -> pre.getPathBezier()
-          .interpolate(
-              t,
-              new Vector3f(pre.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z),
-              new Vector3f(next.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z),
-              out);
-      case STEP -> out.set(
-          new Vector3f(pre.getPos()).sub((float) cam.x, (float) cam.y, (float) cam.z));
-    }
-  }
-
   private static void addLine(
       VertexConsumer buffer, Matrix4f m, Matrix3f nrm, Vector3f a, Vector3f b, int color) {
     Vector3f dir = new Vector3f(b).sub(a).normalize();
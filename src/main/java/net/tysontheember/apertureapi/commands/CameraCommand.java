@@ -18,6 +18,7 @@ import net.tysontheember.apertureapi.commandutil.CommandUtils;
 import net.tysontheember.apertureapi.common.GlobalCameraSavedData;
 import net.tysontheember.apertureapi.common.animation.GlobalCameraPath;
 import net.tysontheember.apertureapi.common.network.ServerPayloadSender;
+import net.tysontheember.apertureapi.path.PathSimplifier;
 
 public class CameraCommand {
   private static final SuggestionProvider<CommandSourceStack> PATH_SUGGESTER =
@@ -83,6 +84,23 @@ public class CameraCommand {
                                 Commands.argument("mode", StringArgumentType.word())
                                     .suggests(CameraCommand::suggestInterpolations)
                                     .executes(CameraCommand::setInterpolation))))
+            .then(
+                Commands.literal("simplify")
+                    .requires(s -> CommandUtils.permCheck(s, 2))
+                    .then(
+                        Commands.argument("name", StringArgumentType.word())
+                            .suggests(PATH_SUGGESTER)
+                            .then(
+                                Commands.argument("tolerance", FloatArgumentType.floatArg(0f))
+                                    .executes(CameraCommand::simplify)
+                                    .then(
+                                        Commands.argument(
+                                                "rotation", FloatArgumentType.floatArg(0f))
+                                            .executes(CameraCommand::simplify)
+                                            .then(
+                                                Commands.argument(
+                                                        "fov", FloatArgumentType.floatArg(0f))
+                                                    .executes(CameraCommand::simplify))))))
             .then(
                 Commands.literal("export")
                     .requires(s -> CommandUtils.permCheck(s, 2))
@@ -408,6 +426,54 @@ public class CameraCommand {
     return 1;
   }
 
+  private static int simplify(CommandContext<CommandSourceStack> ctx) {
+    String name = StringArgumentType.getString(ctx, "name");
+    // Rotation and FOV default to the recorder's ratio of degrees to blocks
+    PathSimplifier.Tolerance scaled =
+        PathSimplifier.Tolerance.forPosition(FloatArgumentType.getFloat(ctx, "tolerance"));
+    float rotation = optionalFloat(ctx, "rotation", scaled.rotation());
+    PathSimplifier.Tolerance tolerance =
+        new PathSimplifier.Tolerance(
+            scaled.position(), rotation, optionalFloat(ctx, "fov", scaled.fov()));
+    ServerLevel level = CommandUtils.level(ctx.getSource());
+    GlobalCameraSavedData data = GlobalCameraSavedData.getData(level);
+    GlobalCameraPath path = data.getPath(name);
+    if (path == null) {
+      CommandUtils.msgError(ctx.getSource(), "Unknown path: '" + name + "'");
+      return 0;
+    }
+    int before = path.getEntries().size();
+    int removed = path.simplify(tolerance);
+    if (removed > 0) {
+      data.addPath(path); // Marks the saved data dirty
+    }
+    CommandUtils.msgInfo(
+        ctx.getSource(),
+        "Simplified '"
+            + name
+            + "': "
+            + before
+            + " → "
+            + (before - removed)
+            + " keyframes (within "
+            + tolerance.position()
+            + " blocks, "
+            + tolerance.rotation()
+            + "° rotation, "
+            + tolerance.fov()
+            + "° FOV)");
+    return 1;
+  }
+
+  private static float optionalFloat(
+      CommandContext<CommandSourceStack> ctx, String name, float fallback) {
+    try {
+      return FloatArgumentType.getFloat(ctx, name);
+    } catch (IllegalArgumentException e) {
+      return fallback; // Argument not given
+    }
+  }
+
   private static int exportAs(CommandContext<CommandSourceStack> ctx) {
     String name = StringArgumentType.getString(ctx, "name");
     String file = StringArgumentType.getString(ctx, "file");
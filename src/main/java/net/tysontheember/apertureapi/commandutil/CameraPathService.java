@@ -1,9 +1,7 @@
 package net.tysontheember.apertureapi.commandutil;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -11,6 +9,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeMap;
 import java.util.UUID;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraftforge.fml.loading.FMLPaths;
@@ -19,12 +18,12 @@ import net.tysontheember.apertureapi.common.animation.CameraKeyframe;
 import net.tysontheember.apertureapi.common.animation.GlobalCameraPath;
 import net.tysontheember.apertureapi.common.animation.PathInterpolator;
 import net.tysontheember.apertureapi.common.animation.TimeBezierController;
+import net.tysontheember.apertureapi.common.animation.TimeInterpolator;
 import org.joml.Vector2f;
+import org.joml.Vector3d;
 import org.joml.Vector3f;
 
 public class CameraPathService {
-  private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-
   public record ExportResult(boolean success, String message, Path path) {}
 
   public record ImportResult(boolean success, String message, int count) {}
@@ -76,10 +75,11 @@ public class CameraPathService {
       Path dir = ensureConfigDir();
       String fn = fileName.endsWith(".json") ? fileName : (fileName + ".json");
       Path file = dir.resolve(safeFileName(fn));
-      JsonObject root = toJson(path);
-      String json = GSON.toJson(root);
       Path tmp = file.resolveSibling(file.getFileName().toString() + ".tmp");
-      Files.writeString(tmp, json, StandardCharsets.UTF_8);
+      try (JsonWriter out = new JsonWriter(Files.newBufferedWriter(tmp, StandardCharsets.UTF_8))) {
+        out.setIndent("  ");
+        writeJson(path, out);
+      }
       Files.move(tmp, file, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
       return new ExportResult(true, "", file);
     } catch (IOException e) {
@@ -105,9 +105,11 @@ public class CameraPathService {
     var data = GlobalCameraSavedData.getData(level);
     for (Path f : files) {
       try {
-        String text = Files.readString(f, StandardCharsets.UTF_8);
-        JsonObject obj = GSON.fromJson(text, JsonObject.class);
-        GlobalCameraPath path = fromJson(obj);
+        GlobalCameraPath path;
+        try (JsonReader in = new JsonReader(Files.newBufferedReader(f, StandardCharsets.UTF_8))) {
+          in.setLenient(true);
+          path = readJson(in);
+        }
         if (!overwrite && data.getPath(path.getId()) != null) continue;
         data.addPath(path);
         count++;
@@ -129,120 +131,197 @@ public class CameraPathService {
     return id.replaceAll("[^a-zA-Z0-9_.-]+", "_");
   }
 
-  private static JsonObject toJson(GlobalCameraPath path) {
-    JsonObject root = new JsonObject();
-    root.addProperty("id", path.getId());
-    root.addProperty("version", path.getVersion());
+  /** Write a path as it is exported, one keyframe at a time. */
+  private static void writeJson(GlobalCameraPath path, JsonWriter out) throws IOException {
+    out.beginObject();
+    out.name("id").value(path.getId());
+    out.name("version").value(path.getVersion());
     UUID last = path.getLastModifier();
-    root.addProperty(
-        "lastModifier", last == null ? "00000000-0000-0000-0000-000000000000" : last.toString());
-    root.addProperty("native", path.isNativeMode());
-    JsonArray keyframes = new JsonArray();
+    out.name("lastModifier")
+        .value(last == null ? "00000000-0000-0000-0000-000000000000" : last.toString());
+    out.name("native").value(path.isNativeMode());
+    Vector3d anchor = path.getAnchor(new Vector3d());
+    out.name("anchor").beginArray().value(anchor.x).value(anchor.y).value(anchor.z).endArray();
+    out.name("keyframes").beginArray();
     for (Int2ObjectMap.Entry<CameraKeyframe> e : path.getEntries()) {
       int time = e.getIntKey();
       var kf = e.getValue();
-      JsonObject k = new JsonObject();
-      k.addProperty("time", time);
-      var pos = new JsonArray();
+      out.beginObject();
+      out.name("time").value(time);
+      out.name("keyframe").beginObject();
+      out.name("time").value(time);
       var p = kf.getPos();
-      pos.add(p.x);
-      pos.add(p.y);
-      pos.add(p.z);
-      k.add("pos", pos);
-      var rot = new JsonArray();
+      out.name("pos").beginArray().value(p.x).value(p.y).value(p.z).endArray();
       var r = kf.getRot();
-      rot.add(r.x);
-      rot.add(r.y);
-      rot.add(r.z);
-      k.add("rot", rot);
-      k.addProperty("fov", kf.getFov());
-      k.addProperty("pathType", kf.getPathInterpolator().index);
-      k.addProperty("posType", kf.getPosTimeInterpolator().index);
-      k.addProperty("rotType", kf.getRotTimeInterpolator().index);
-      k.addProperty("fovType", kf.getFovTimeInterpolator().index);
-      if (kf.getPathInterpolator()
-          == net.tysontheember.apertureapi.common.animation.PathInterpolator.BEZIER) {
-        JsonObject bez = new JsonObject();
-        var left = new JsonArray();
-        var right = new JsonArray();
+      out.name("rot").beginArray().value(r.x).value(r.y).value(r.z).endArray();
+      out.name("fov").value(kf.getFov());
+      out.name("pathType").value(kf.getPathInterpolator().index);
+      out.name("posType").value(kf.getPosTimeInterpolator().index);
+      out.name("rotType").value(kf.getRotTimeInterpolator().index);
+      out.name("fovType").value(kf.getFovTimeInterpolator().index);
+      if (kf.getPathInterpolator() == PathInterpolator.BEZIER) {
         var L = kf.getPathBezier().getLeft();
         var R = kf.getPathBezier().getRight();
-        left.add(L.x);
-        left.add(L.y);
-        left.add(L.z);
-        right.add(R.x);
-        right.add(R.y);
-        right.add(R.z);
-        bez.add("left", left);
-        bez.add("right", right);
-        k.add("pathBezier", bez);
+        out.name("pathBezier").beginObject();
+        out.name("left").beginArray().value(L.x).value(L.y).value(L.z).endArray();
+        out.name("right").beginArray().value(R.x).value(R.y).value(R.z).endArray();
+        out.endObject();
       }
-      if (kf.getPosTimeInterpolator()
-          == net.tysontheember.apertureapi.common.animation.TimeInterpolator.BEZIER)
-        k.add("posBezier", bez2(kf.getPosBezier()));
-      if (kf.getRotTimeInterpolator()
-          == net.tysontheember.apertureapi.common.animation.TimeInterpolator.BEZIER)
-        k.add("rotBezier", bez2(kf.getRotBezier()));
-      if (kf.getFovTimeInterpolator()
-          == net.tysontheember.apertureapi.common.animation.TimeInterpolator.BEZIER)
-        k.add("fovBezier", bez2(kf.getFovBezier()));
-      JsonObject entry = new JsonObject();
-      entry.addProperty("time", time);
-      entry.add("keyframe", k);
-      keyframes.add(entry);
+      if (kf.getPosTimeInterpolator() == TimeInterpolator.BEZIER)
+        bez2(out.name("posBezier"), kf.getPosBezier());
+      if (kf.getRotTimeInterpolator() == TimeInterpolator.BEZIER)
+        bez2(out.name("rotBezier"), kf.getRotBezier());
+      if (kf.getFovTimeInterpolator() == TimeInterpolator.BEZIER)
+        bez2(out.name("fovBezier"), kf.getFovBezier());
+      out.endObject();
+      out.endObject();
     }
-    root.add("keyframes", keyframes);
-    return root;
+    out.endArray();
+    out.endObject();
   }
 
-  private static JsonObject bez2(TimeBezierController c) {
-    JsonObject o = new JsonObject();
+  private static void bez2(JsonWriter out, TimeBezierController c) throws IOException {
     Vector2f L = c.getLeft();
     Vector2f R = c.getRight();
-    JsonArray left = new JsonArray();
-    JsonArray right = new JsonArray();
-    left.add(L.x);
-    left.add(L.y);
-    right.add(R.x);
-    right.add(R.y);
-    o.add("left", left);
-    o.add("right", right);
-    return o;
-  }
-
-  private static GlobalCameraPath fromJson(JsonObject root) {
-    String id = root.get("id").getAsString();
-    boolean nativeMode = root.has("native") && root.get("native").getAsBoolean();
-    GlobalCameraPath path = new GlobalCameraPath(id, null);
-    if (nativeMode) path.setNativeMode(true);
-    for (var el : root.getAsJsonArray("keyframes")) {
-      JsonObject entry = el.getAsJsonObject();
-      int time = entry.get("time").getAsInt();
-      JsonObject k = entry.getAsJsonObject("keyframe");
-      var posArr = k.getAsJsonArray("pos");
-      var rotArr = k.getAsJsonArray("rot");
-      Vector3f pos =
-          new Vector3f(
-              posArr.get(0).getAsFloat(), posArr.get(1).getAsFloat(), posArr.get(2).getAsFloat());
-      Vector3f rot =
-          new Vector3f(
-              rotArr.get(0).getAsFloat(), rotArr.get(1).getAsFloat(), rotArr.get(2).getAsFloat());
-      float fov = k.get("fov").getAsFloat();
-      var keyframe =
-          new net.tysontheember.apertureapi.common.animation.CameraKeyframe(pos, rot, fov);
-      int pathType = k.get("pathType").getAsInt();
-      keyframe.setPathInterpolator(PathInterpolator.values()[pathType]);
-      keyframe.setPosTimeInterpolator(
-          net.tysontheember.apertureapi.common.animation.TimeInterpolator.values()[
-              k.get("posType").getAsInt()]);
-      keyframe.setRotTimeInterpolator(
-          net.tysontheember.apertureapi.common.animation.TimeInterpolator.values()[
-              k.get("rotType").getAsInt()]);
-      keyframe.setFovTimeInterpolator(
-          net.tysontheember.apertureapi.common.animation.TimeInterpolator.values()[
-              k.get("fovType").getAsInt()]);
-      path.add(time, keyframe);
+    out.beginObject();
+    out.name("left").beginArray().value(L.x).value(L.y).endArray();
+    out.name("right").beginArray().value(R.x).value(R.y).endArray();
+    out.endObject();
+  }
+
+  /**
+   * Read an exported path, one keyframe at a time. Keyframes are collected by time and the path is
+   * built once at the end, so Bezier handles read from the file are not reset by later inserts.
+   */
+  private static GlobalCameraPath readJson(JsonReader in) throws IOException {
+    String id = null;
+    boolean nativeMode = false;
+    double[] anchor = new double[3]; // Older exports have none and are in world coordinates
+    TreeMap<Integer, CameraKeyframe> keyframes = new TreeMap<>();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "id" -> id = in.nextString();
+        case "native" -> nativeMode = in.nextBoolean();
+        case "anchor" -> {
+          in.beginArray();
+          for (int i = 0; i < 3; i++) {
+            anchor[i] = in.nextDouble();
+          }
+          in.endArray();
+        }
+        case "keyframes" -> {
+          in.beginArray();
+          while (in.hasNext()) {
+            readEntry(in, keyframes);
+          }
+          in.endArray();
+        }
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+    if (id == null) {
+      throw new IOException("Missing path id");
     }
+
+    GlobalCameraPath path = new GlobalCameraPath(keyframes, id);
+    path.setAnchor(anchor[0], anchor[1], anchor[2]);
+    path.setVersion(System.currentTimeMillis());
+    if (nativeMode) path.setNativeMode(true);
     return path;
   }
+
+  private static void readEntry(JsonReader in, TreeMap<Integer, CameraKeyframe> keyframes)
+      throws IOException {
+    Integer time = null;
+    CameraKeyframe keyframe = null;
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "time" -> time = in.nextInt();
+        case "keyframe" -> keyframe = readKeyframe(in);
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+    if (time == null || keyframe == null) {
+      throw new IOException("Keyframe entry without time or keyframe");
+    }
+    keyframes.put(time, keyframe);
+  }
+
+  private static CameraKeyframe readKeyframe(JsonReader in) throws IOException {
+    var keyframe = new CameraKeyframe(new Vector3f(), new Vector3f(), 0f);
+    float[] left = new float[3];
+    float[] right = new float[3];
+    boolean pathBezier = false;
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "pos" -> readVec3(in, keyframe.getPos());
+        case "rot" -> readVec3(in, keyframe.getRot());
+        case "fov" -> keyframe.setFov((float) in.nextDouble());
+        case "pathType" -> keyframe.setPathInterpolator(PathInterpolator.fromIndex(in.nextInt()));
+        case "posType" -> keyframe.setPosTimeInterpolator(TimeInterpolator.fromIndex(in.nextInt()));
+        case "rotType" -> keyframe.setRotTimeInterpolator(TimeInterpolator.fromIndex(in.nextInt()));
+        case "fovType" -> keyframe.setFovTimeInterpolator(TimeInterpolator.fromIndex(in.nextInt()));
+        case "pathBezier" -> {
+          pathBezier = true;
+          in.beginObject();
+          while (in.hasNext()) {
+            switch (in.nextName()) {
+              case "left" -> readFloats(in, left);
+              case "right" -> readFloats(in, right);
+              default -> in.skipValue();
+            }
+          }
+          in.endObject();
+        }
+        case "posBezier" -> readBez2(in, keyframe.getPosBezier());
+        case "rotBezier" -> readBez2(in, keyframe.getRotBezier());
+        case "fovBezier" -> readBez2(in, keyframe.getFovBezier());
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+    if (pathBezier) {
+      keyframe.getPathBezier().setLeft(left[0], left[1], left[2]);
+      keyframe.getPathBezier().setRight(right[0], right[1], right[2]);
+    }
+    return keyframe;
+  }
+
+  private static void readBez2(JsonReader in, TimeBezierController c) throws IOException {
+    float[] point = new float[2];
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "left" -> {
+          readFloats(in, point);
+          c.setLeft(point[0], point[1]);
+        }
+        case "right" -> {
+          readFloats(in, point);
+          c.setRight(point[0], point[1]);
+        }
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+  }
+
+  private static void readVec3(JsonReader in, Vector3f dest) throws IOException {
+    in.beginArray();
+    dest.set((float) in.nextDouble(), (float) in.nextDouble(), (float) in.nextDouble());
+    in.endArray();
+  }
+
+  private static void readFloats(JsonReader in, float[] dest) throws IOException {
+    in.beginArray();
+    for (int i = 0; i < dest.length; i++) {
+      dest[i] = (float) in.nextDouble();
+    }
+    in.endArray();
+  }
 }
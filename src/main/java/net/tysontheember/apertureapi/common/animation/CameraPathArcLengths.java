@@ -0,0 +1,132 @@
+package net.tysontheember.apertureapi.common.animation;
+
+import net.tysontheember.apertureapi.InterpolationMath;
+import net.tysontheember.apertureapi.path.ArcLengthLUT;
+import net.tysontheember.apertureapi.path.CatmullRom;
+import org.joml.Vector3f;
+
+/**
+ * Arc-length tables for every segment of a {@link GlobalCameraPath}, shared by everything that
+ * plays or draws the path. Get one with {@link GlobalCameraPath#getArcLengths()}; it is built for
+ * all segments at once and replaced only when keyframes are added, removed or moved in time, so
+ * crossing a keyframe during playback is a lookup rather than a table build.
+ *
+ * <p>Keyframe positions, Bezier handles and interpolators are edited in place, which the path does
+ * not see. Each segment therefore remembers the inputs its table was built from and rebuilds just
+ * that table when one of them differs; checking is a few float compares and allocates nothing.
+ *
+ * <p>Segment {@code i} runs from timeline keyframe {@code i} to {@code i + 1} and is shaped by the
+ * end keyframe's {@link PathInterpolator}, as in {@link #eval}.
+ */
+public final class CameraPathArcLengths {
+  /** Max error of the tables in blocks. */
+  public static final float TOLERANCE = 0.01f;
+
+  // Interpolator, the four Catmull-Rom points and the two Bezier handles of a segment
+  private static final int SIGNATURE = 19;
+
+  private final KeyframeTimeline timeline;
+  private final ArcLengthLUT[] tables;
+  private final float[] signatures;
+  private int building; // Segment the table builder evaluates
+  private final ArcLengthLUT.Evaluator curve;
+
+  CameraPathArcLengths(KeyframeTimeline timeline) {
+    this.timeline = timeline;
+    this.curve = (t, out) -> eval(timeline, building, t, out);
+    int segments = Math.max(0, timeline.size() - 1);
+    tables = new ArcLengthLUT[segments];
+    signatures = new float[segments * SIGNATURE];
+    for (int i = 0; i < segments; i++) {
+      get(i);
+    }
+  }
+
+  /** Timeline the tables index into. */
+  public KeyframeTimeline getTimeline() {
+    return timeline;
+  }
+
+  public int segmentCount() {
+    return tables.length;
+  }
+
+  /** Table of segment {@code segment}, rebuilt first if its keyframes were edited since. */
+  public ArcLengthLUT get(int segment) {
+    if (updateSignature(segment) || tables[segment] == null) {
+      building = segment;
+      tables[segment] = ArcLengthLUT.adaptive(curve, TOLERANCE);
+    }
+    return tables[segment];
+  }
+
+  /** Record the current inputs of a segment; true if any differ from the recorded ones. */
+  private boolean updateSignature(int segment) {
+    int at = segment * SIGNATURE;
+    CameraKeyframe next = timeline.getKeyframe(segment + 1);
+    Vec3BezierController bezier = next.getPathBezier();
+    // Non-short-circuit ors so every input is recorded
+    return put(at, next.getPathInterpolator().index)
+        | put(at + 1, timeline.getKeyframeClamped(segment - 1).getPos())
+        | put(at + 4, timeline.getKeyframe(segment).getPos())
+        | put(at + 7, next.getPos())
+        | put(at + 10, timeline.getKeyframeClamped(segment + 2).getPos())
+        | put(at + 13, bezier.getLeft())
+        | put(at + 16, bezier.getRight());
+  }
+
+  private boolean put(int at, Vector3f value) {
+    return put(at, value.x) | put(at + 1, value.y) | put(at + 2, value.z);
+  }
+
+  private boolean put(int at, float value) {
+    if (Float.floatToIntBits(signatures[at]) == Float.floatToIntBits(value)) {
+      return false;
+    }
+    signatures[at] = value;
+    return true;
+  }
+
+  /**
+   * Position at parameter {@code t} on segment {@code segment} of a timeline, i.e. between
+   * keyframes {@code segment} and {@code segment + 1}. The end keyframe's interpolator shapes it;
+   * the end keyframes stand in for missing Catmull-Rom neighbours. Allocation-free.
+   */
+  public static Vector3f eval(KeyframeTimeline timeline, int segment, float t, Vector3f out) {
+    CameraKeyframe pre = timeline.getKeyframe(segment);
+    CameraKeyframe next = timeline.getKeyframe(segment + 1);
+    switch (next.getPathInterpolator()) {
+      case LINEAR -> InterpolationMath.line(t, pre.getPos(), next.getPos(), out);
+      case COSINE -> {
+        float tCos = (1.0f - (float) Math.cos(Math.PI * t)) * 0.5f;
+        InterpolationMath.line(tCos, pre.getPos(), next.getPos(), out);
+      }
+      case SMOOTH -> InterpolationMath.catmullRom(
+          t,
+          timeline.getKeyframeClamped(segment - 1).getPos(),
+          pre.getPos(),
+          next.getPos(),
+          timeline.getKeyframeClamped(segment + 2).getPos(),
+          out);
+      case CATMULL_UNIFORM, CATMULL_CENTRIPETAL, CATMULL_CHORDAL -> {
+        float alpha =
+            switch (next.getPathInterpolator()) {
+              case CATMULL_UNIFORM -> 0.0f;
+              case CATMULL_CHORDAL -> 1.0f;
+              default -> 0.5f;
+            };
+        CatmullRom.eval(
+            t,
+            timeline.getKeyframeClamped(segment - 1).getPos(),
+            pre.getPos(),
+            next.getPos(),
+            timeline.getKeyframeClamped(segment + 2).getPos(),
+            alpha,
+            out);
+      }
+      case BEZIER -> next.getPathBezier().interpolate(t, pre.getPos(), next.getPos(), out);
+      case STEP -> out.set(pre.getPos());
+    }
+    return out;
+  }
+}
@@ -0,0 +1,102 @@
+package net.tysontheember.apertureapi.common.animation;
+
+import net.tysontheember.apertureapi.path.OrientationUtil;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+/**
+ * Keyframe quaternions and SQUAD inner controls of a {@link GlobalCameraPath}, packed as xyzw
+ * floats. Get one with {@link GlobalCameraPath#getOrientations()}; like {@link
+ * CameraPathArcLengths} it is built for the whole timeline at once and replaced only when keyframes
+ * are added, removed or moved in time, so crossing a keyframe during SQUAD playback is a lookup.
+ *
+ * <p>Keyframe rotations are edited in place. Evaluating a segment compares the rotations of the
+ * four keyframes around it with the ones the controls were built from and rebuilds the arrays if
+ * any differ; the check allocates nothing.
+ */
+public final class CameraPathOrientations {
+  private final KeyframeTimeline timeline;
+  private final float[] rotations; // Pitch, yaw, roll per keyframe, as built from
+  private final float[] keys; // xyzw per keyframe, each on the hemisphere of the one before
+  private final float[] controls; // xyzw of the inner control at each keyframe
+
+  private final Quaternionf prev = new Quaternionf();
+  private final Quaternionf curr = new Quaternionf();
+  private final Quaternionf next = new Quaternionf();
+  private final Quaternionf control = new Quaternionf();
+
+  CameraPathOrientations(KeyframeTimeline timeline) {
+    this.timeline = timeline;
+    int count = timeline.size();
+    rotations = new float[count * 3];
+    keys = new float[count * 4];
+    controls = new float[count * 4];
+    rebuild();
+  }
+
+  /** Timeline the arrays index into. */
+  public KeyframeTimeline getTimeline() {
+    return timeline;
+  }
+
+  /**
+   * SQUAD orientation at {@code t} of segment {@code segment}, between timeline keyframes {@code
+   * segment} and {@code segment + 1}. The end keyframes stand in for missing neighbours.
+   */
+  public Quaternionf squad(int segment, float t, Quaternionf dest) {
+    if (edited(segment - 1) || edited(segment) || edited(segment + 1) || edited(segment + 2)) {
+      rebuild();
+    }
+    return OrientationUtil.squad(keys, controls, segment, Math.max(0f, Math.min(1f, t)), dest);
+  }
+
+  /** Whether the rotation of a keyframe, clamped to the ends, differs from the recorded one. */
+  private boolean edited(int index) {
+    int keyframe = Math.max(0, Math.min(index, timeline.size() - 1));
+    int at = keyframe * 3;
+    Vector3f rotation = timeline.getKeyframe(keyframe).getRot();
+    return Float.floatToIntBits(rotations[at]) != Float.floatToIntBits(rotation.x)
+        || Float.floatToIntBits(rotations[at + 1]) != Float.floatToIntBits(rotation.y)
+        || Float.floatToIntBits(rotations[at + 2]) != Float.floatToIntBits(rotation.z);
+  }
+
+  private void rebuild() {
+    int count = timeline.size();
+    for (int i = 0; i < count; i++) {
+      Vector3f rotation = timeline.getKeyframe(i).getRot();
+      rotations[i * 3] = rotation.x;
+      rotations[i * 3 + 1] = rotation.y;
+      rotations[i * 3 + 2] = rotation.z;
+      OrientationUtil.yprDegToQuat(rotation.y, rotation.x, rotation.z, curr);
+      if (i > 0 && dot(curr, i - 1) < 0f) {
+        curr.set(-curr.x, -curr.y, -curr.z, -curr.w); // keep a common hemisphere
+      }
+      store(keys, i, curr);
+    }
+
+    for (int i = 0; i < count; i++) {
+      load(Math.max(0, i - 1), prev);
+      load(i, curr);
+      load(Math.min(count - 1, i + 1), next);
+      store(controls, i, OrientationUtil.squadControl(prev, curr, next, control));
+    }
+  }
+
+  private float dot(Quaternionf q, int index) {
+    int at = index * 4;
+    return q.x * keys[at] + q.y * keys[at + 1] + q.z * keys[at + 2] + q.w * keys[at + 3];
+  }
+
+  private void load(int index, Quaternionf dest) {
+    int at = index * 4;
+    dest.set(keys[at], keys[at + 1], keys[at + 2], keys[at + 3]);
+  }
+
+  private static void store(float[] packed, int index, Quaternionf q) {
+    int at = index * 4;
+    packed[at] = q.x;
+    packed[at + 1] = q.y;
+    packed[at + 2] = q.z;
+    packed[at + 3] = q.w;
+  }
+}
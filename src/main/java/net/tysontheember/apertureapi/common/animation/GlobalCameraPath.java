@@ -10,8 +10,10 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.util.Mth;
 import net.minecraft.world.entity.player.Player;
+import net.tysontheember.apertureapi.path.PathSimplifier;
 import org.jetbrains.annotations.Nullable;
 import org.joml.Matrix3f;
+import org.joml.Vector3d;
 import org.joml.Vector3f;
 
 /// Global camera path (timeline of keyframes)
@@ -20,11 +22,17 @@ public class GlobalCameraPath {
   private final Int2ObjectOpenHashMap<CameraKeyframe> keyframeMapCache;
   private final ArrayList<CameraKeyframe> keyframeListCache;
   private boolean dirty;
+  private int editCount; // Bumped whenever keyframe times change; stamps the timeline
+  private @Nullable KeyframeTimeline timeline;
+  private @Nullable CameraPathArcLengths arcLengths;
+  private @Nullable CameraPathOrientations orientations;
   private final String id;
   private long version;
   private UUID lastModifier;
 
   private boolean nativeMode;
+  // World position keyframe positions and Bezier handles are relative to
+  private final Vector3d anchor = new Vector3d();
 
   public GlobalCameraPath(String id, @Nullable Player lastModifier) {
     keyframes = new TreeMap<>();
@@ -76,6 +84,7 @@ public class GlobalCameraPath {
   /// Overwrites any existing keyframe at the same time index
   public void add(int time, CameraKeyframe point) {
     // Handle empty map safely (TreeMap.lastKey() throws when empty)
+    editCount++;
     if (keyframes.isEmpty()) {
       keyframes.put(time, point);
       keyframeMapCache.put(time, point);
@@ -97,6 +106,7 @@ public class GlobalCameraPath {
   }
 
   public void add(CameraKeyframe point) {
+    editCount++;
     if (keyframes.isEmpty()) {
       keyframes.put(0, point);
       keyframeMapCache.put(0, point);
@@ -110,6 +120,48 @@ public class GlobalCameraPath {
     keyframeListCache.add(point);
   }
 
+  /// World position that keyframe positions and Bezier handles are relative to; zero unless the
+  /// path was rebased. Change it with {@link #rebase}
+  public Vector3d getAnchor(Vector3d dest) {
+    return dest.set(anchor);
+  }
+
+  /// Set the anchor without moving keyframes, for decoders whose positions are already relative
+  /// to it
+  public void setAnchor(double x, double y, double z) {
+    anchor.set(x, y, z);
+  }
+
+  /// Move the anchor to a new world position, re-expressing every keyframe position and Bezier
+  /// handle relative to it so their world positions stay put. Anchoring near the path keeps its
+  /// float coordinates small wherever it is in the world
+  public void rebase(double x, double y, double z) {
+    for (CameraKeyframe keyframe : keyframes.values()) {
+      rebase(keyframe.getPos(), x, y, z);
+      rebase(keyframe.getPathBezier().getLeft(), x, y, z);
+      rebase(keyframe.getPathBezier().getRight(), x, y, z);
+    }
+    anchor.set(x, y, z);
+  }
+
+  private void rebase(Vector3f position, double x, double y, double z) {
+    position.set(
+        (float) (anchor.x + position.x - x),
+        (float) (anchor.y + position.y - y),
+        (float) (anchor.z + position.z - z));
+  }
+
+  /// Copy with its own keyframes, e.g. to rebase for playback without touching the original
+  public GlobalCameraPath copy() {
+    TreeMap<Integer, CameraKeyframe> map = new TreeMap<>();
+    for (Map.Entry<Integer, CameraKeyframe> entry : keyframes.entrySet()) {
+      map.put(entry.getKey(), entry.getValue().copy());
+    }
+    GlobalCameraPath copy = new GlobalCameraPath(map, id, version, lastModifier, nativeMode);
+    copy.anchor.set(anchor);
+    return copy;
+  }
+
   public Int2ObjectMap.FastEntrySet<CameraKeyframe> getEntries() {
     return keyframeMapCache.int2ObjectEntrySet();
   }
@@ -119,6 +171,41 @@ public class GlobalCameraPath {
     return keyframeListCache;
   }
 
+  /// Flat index of the keyframes for playback lookups, rebuilt on first use after keyframes are
+  /// added, removed or moved
+  public KeyframeTimeline getTimeline() {
+    KeyframeTimeline current = timeline;
+    if (current == null || current.getStamp() != editCount) {
+      current = new KeyframeTimeline(keyframes, editCount);
+      timeline = current;
+    }
+    return current;
+  }
+
+  /// Arc-length tables of all segments, shared by every player and renderer of this path; built
+  /// with the timeline and kept up to date with in-place keyframe edits
+  public CameraPathArcLengths getArcLengths() {
+    KeyframeTimeline current = getTimeline();
+    CameraPathArcLengths lengths = arcLengths;
+    if (lengths == null || lengths.getTimeline() != current) {
+      lengths = new CameraPathArcLengths(current);
+      arcLengths = lengths;
+    }
+    return lengths;
+  }
+
+  /// Keyframe quaternions and SQUAD controls of all keyframes; built with the timeline and kept up
+  /// to date with in-place rotation edits
+  public CameraPathOrientations getOrientations() {
+    KeyframeTimeline current = getTimeline();
+    CameraPathOrientations packed = orientations;
+    if (packed == null || packed.getTimeline() != current) {
+      packed = new CameraPathOrientations(current);
+      orientations = packed;
+    }
+    return packed;
+  }
+
   private void updateList() {
     if (!dirty) {
       return;
@@ -169,6 +256,7 @@ public class GlobalCameraPath {
     keyframes.remove(time);
     keyframeMapCache.remove(time);
     dirty = true;
+    editCount++;
 
     if (next == null || pre == null) {
       return;
@@ -233,6 +321,7 @@ public class GlobalCameraPath {
     Integer next = keyframes.higherKey(oldTime);
     keyframes.remove(oldTime);
     keyframes.put(newTime, point);
+    editCount++;
 
     if (pre != null && newTime < pre || next != null && newTime > next) {
       updateBezier(newTime);
@@ -282,18 +371,22 @@ public class GlobalCameraPath {
 
     Matrix3f matrix3f = new Matrix3f();
     matrix3f.rotateY(yRot * Mth.DEG_TO_RAD);
+    // Offset from the center to the anchor, taken in double
+    float dx = (float) (anchor.x - pos.x);
+    float dy = (float) (anchor.y - pos.y);
+    float dz = (float) (anchor.z - pos.z);
 
     for (CameraKeyframe keyframe : map.values()) {
-      Vector3f pos1 = keyframe.getPos().sub(pos);
+      Vector3f pos1 = keyframe.getPos().add(dx, dy, dz);
       matrix3f.transform(pos1);
       keyframe.getRot().sub(0, yRot, 0);
 
       if (keyframe.getPathInterpolator() == PathInterpolator.BEZIER) {
         Vector3f left = keyframe.getPathBezier().getLeft();
         Vector3f right = keyframe.getPathBezier().getRight();
-        left.sub(pos);
+        left.add(dx, dy, dz);
         matrix3f.transform(left);
-        right.sub(pos);
+        right.add(dx, dy, dz);
         matrix3f.transform(right);
       }
     }
@@ -332,6 +425,9 @@ public class GlobalCameraPath {
     root.putLong("version", path.version);
     root.putUUID("lastModifier", path.lastModifier);
     root.putBoolean("native", path.nativeMode);
+    root.putDouble("anchorX", path.anchor.x);
+    root.putDouble("anchorY", path.anchor.y);
+    root.putDouble("anchorZ", path.anchor.z);
     ListTag keyframes = new ListTag();
 
     for (Map.Entry<Integer, CameraKeyframe> entry : path.keyframes.entrySet()) {
@@ -358,7 +454,11 @@ public class GlobalCameraPath {
     long version = root.getLong("version");
     UUID lastModifier = root.getUUID("lastModifier");
     boolean nativeMode = root.getBoolean("native");
-    return new GlobalCameraPath(map, id, version, lastModifier, nativeMode);
+    GlobalCameraPath path = new GlobalCameraPath(map, id, version, lastModifier, nativeMode);
+    // Paths saved before anchors existed read as zero, i.e. absolute positions
+    path.anchor.set(
+        root.getDouble("anchorX"), root.getDouble("anchorY"), root.getDouble("anchorZ"));
+    return path;
   }
 
   /**
@@ -399,4 +499,16 @@ public class GlobalCameraPath {
     // Apply overall smoothing for extra polish
     autoSmooth();
   }
+
+  /// Remove the keyframes this camera path can do without while position stays within `tolerance`
+  /// blocks, and rotation and FOV within ten times as many degrees. Returns how many were removed
+  public int simplify(float tolerance) {
+    return simplify(PathSimplifier.Tolerance.forPosition(tolerance));
+  }
+
+  /// Remove the keyframes this camera path can do without while every channel stays within its
+  /// tolerance, see {@link KeyframeSimplifier}. Returns how many were removed
+  public int simplify(PathSimplifier.Tolerance tolerance) {
+    return KeyframeSimplifier.simplify(this, tolerance);
+  }
 }
@@ -0,0 +1,112 @@
+package net.tysontheember.apertureapi.common.animation;
+
+import net.tysontheember.apertureapi.path.ArcLengthLUT;
+import net.tysontheember.apertureapi.path.OrientationUtil;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+/**
+ * Camera pose between two keyframes of a {@link GlobalCameraPath}: the evaluation shared by the
+ * cutscene and preview players, which only decide which segment to play and how far into it.
+ *
+ * <p>Segment {@code i} runs from timeline keyframe {@code i} to {@code i + 1}, and {@code t} is the
+ * fraction of it played before the end keyframe's per-channel time easing. Positions are evaluated
+ * in float relative to the path's {@link GlobalCameraPath#getAnchor anchor}, so an anchored path
+ * keeps full precision far from spawn; add the anchor back in double. The evaluator keeps no
+ * playback state, only the blending options and preallocated scratch, so evaluation allocates
+ * nothing. Use one per player; it is not thread-safe.
+ */
+public final class KeyframeEvaluator {
+  private boolean constantSpeed = true;
+  private boolean quaternionOrientation = true;
+  private boolean squadOrientation = false;
+
+  private final Quaternionf from = new Quaternionf();
+  private final Quaternionf to = new Quaternionf();
+  private final Quaternionf blended = new Quaternionf();
+
+  /** Move at constant speed along each segment, using the path's arc-length tables. */
+  public void setConstantSpeed(boolean enabled) {
+    constantSpeed = enabled;
+  }
+
+  /** Blend rotations as quaternions instead of per-angle lerp. */
+  public void setQuaternionOrientation(boolean enabled) {
+    quaternionOrientation = enabled;
+  }
+
+  /** SQUAD instead of slerp between quaternion keyframes; smooth angular velocity through keys. */
+  public void setSquadOrientation(boolean enabled) {
+    squadOrientation = enabled;
+  }
+
+  /** Position, rotation and FOV at {@code t} of segment {@code segment}. */
+  public void evaluate(
+      GlobalCameraPath path,
+      int segment,
+      float t,
+      Vector3f posDest,
+      Vector3f rotDest,
+      float[] fov) {
+    evaluatePosition(path, segment, t, posDest);
+    evaluateRotation(path, segment, t, rotDest);
+    fov[0] = evaluateFov(path, segment, t);
+  }
+
+  public Vector3f evaluatePosition(GlobalCameraPath path, int segment, float t, Vector3f dest) {
+    KeyframeTimeline timeline = path.getTimeline();
+    CameraKeyframe next = timeline.getKeyframe(segment + 1);
+    float tPos = ease(next.getPosTimeInterpolator(), next.getPosBezier(), t);
+
+    // If constantSpeed is on, remap by the path's arc-length table for this segment
+    if (constantSpeed && next.getPathInterpolator() != PathInterpolator.STEP) {
+      ArcLengthLUT lut = path.getArcLengths().get(segment);
+      if (lut.totalLength() > 1e-6f) {
+        tPos = lut.tForDistance(lut.totalLength() * tPos);
+      }
+    }
+    return CameraPathArcLengths.eval(timeline, segment, tPos, dest);
+  }
+
+  /** Rotation as pitch, yaw, roll in degrees. */
+  public Vector3f evaluateRotation(GlobalCameraPath path, int segment, float t, Vector3f dest) {
+    KeyframeTimeline timeline = path.getTimeline();
+    CameraKeyframe next = timeline.getKeyframe(segment + 1);
+    float tRot = ease(next.getRotTimeInterpolator(), next.getRotBezier(), t);
+    Vector3f preRot = timeline.getKeyframe(segment).getRot();
+    Vector3f nextRot = next.getRot();
+
+    if (!quaternionOrientation) {
+      // Angle-aware lerp
+      return JitterPrevention.smoothRotationLerp(tRot, preRot, nextRot, dest);
+    }
+    if (squadOrientation) {
+      path.getOrientations().squad(segment, tRot, blended);
+    } else {
+      OrientationUtil.yprDegToQuat(preRot.y, preRot.x, preRot.z, from);
+      OrientationUtil.yprDegToQuat(nextRot.y, nextRot.x, nextRot.z, to);
+      OrientationUtil.slerp(from, to, tRot, blended);
+    }
+    return OrientationUtil.quatToYprDeg(blended, dest);
+  }
+
+  public float evaluateFov(GlobalCameraPath path, int segment, float t) {
+    KeyframeTimeline timeline = path.getTimeline();
+    CameraKeyframe next = timeline.getKeyframe(segment + 1);
+    float tFov = ease(next.getFovTimeInterpolator(), next.getFovBezier(), t);
+    float preFov = timeline.getKeyframe(segment).getFov();
+    return JitterPrevention.smoothFovLerp(tFov, preFov, next.getFov());
+  }
+
+  /** Pose of a single keyframe, e.g. before the first or after the last keyframe of a path. */
+  public static void hold(
+      CameraKeyframe keyframe, Vector3f posDest, Vector3f rotDest, float[] fov) {
+    posDest.set(keyframe.getPos());
+    rotDest.set(keyframe.getRot());
+    fov[0] = keyframe.getFov();
+  }
+
+  private static float ease(TimeInterpolator type, TimeBezierController bezier, float t) {
+    return type == TimeInterpolator.BEZIER ? bezier.interpolate(t) : t;
+  }
+}
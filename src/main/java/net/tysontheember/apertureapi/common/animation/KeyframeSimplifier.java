@@ -0,0 +1,192 @@
+package net.tysontheember.apertureapi.common.animation;
+
+import net.tysontheember.apertureapi.path.OrientationUtil;
+import net.tysontheember.apertureapi.path.PathSimplifier;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+/**
+ * Removes keyframes from a camera path while position, rotation and FOV stay within a tolerance,
+ * for dense paths such as recordings. Uses the fitting in {@link PathSimplifier} on points sampled
+ * along the current curve; each merged span becomes a Bezier segment with refitted handles, and
+ * kept segments whose shape depends on a removed neighbour become the identical Bezier.
+ */
+public final class KeyframeSimplifier {
+  private KeyframeSimplifier() {}
+
+  /**
+   * Simplify {@code path} in place and return the number of keyframes removed.
+   *
+   * <p>Kept keyframes keep their time, so playback reaches them when it did before. The end
+   * keyframe of a merged span gets Bezier path interpolation with linear time curves. At each
+   * removed keyframe's time, rotation is checked against the players' quaternion slerp between the
+   * span ends, FOV against their blend, and position against where constant-speed playback of the
+   * span would be, so pauses and speed changes are kept. Spans are never merged across a step
+   * segment.
+   */
+  public static int simplify(GlobalCameraPath path, PathSimplifier.Tolerance tolerance) {
+    KeyframeTimeline timeline = path.getTimeline();
+    int count = timeline.size();
+    if (count < 3) {
+      return 0;
+    }
+
+    // Keyframe k is sample k * stride; the samples in between are points on the current curve
+    int stride = PathSimplifier.SAMPLES_PER_SEGMENT;
+    int[] times = new int[count];
+    CameraKeyframe[] keyframes = new CameraKeyframe[count];
+    float[] samples = new float[((count - 1) * stride + 1) * 3];
+    float[] distances = new float[count]; // along the sampled curve
+    Quaternionf[] orientations = new Quaternionf[count];
+    Vector3f position = new Vector3f();
+    Vector3f previous = new Vector3f();
+    for (int k = 0; k < count; k++) {
+      times[k] = timeline.getTime(k);
+      keyframes[k] = timeline.getKeyframe(k);
+      orientations[k] = toQuaternion(keyframes[k].getRot(), new Quaternionf());
+      if (k == 0) {
+        position.set(keyframes[0].getPos());
+        putSample(samples, 0, position);
+        continue;
+      }
+      distances[k] = distances[k - 1];
+      for (int i = 1; i <= stride; i++) {
+        previous.set(position);
+        CameraPathArcLengths.eval(timeline, k - 1, (float) i / stride, position);
+        putSample(samples, (k - 1) * stride + i, position);
+        distances[k] += previous.distance(position);
+      }
+    }
+
+    Quaternionf expected = new Quaternionf();
+    PathSimplifier.SpanCheck check =
+        (s0, s1, parameters) -> {
+          int from = s0 / stride;
+          int to = s1 / stride;
+          for (int k = from + 1; k <= to; k++) {
+            if (keyframes[k].getPathInterpolator() == PathInterpolator.STEP) {
+              return Math.min(k, to - 1) * stride;
+            }
+          }
+
+          CameraKeyframe start = keyframes[from];
+          CameraKeyframe end = keyframes[to];
+          float length = distances[to] - distances[from];
+          int worst = -1;
+          float worstExcess = 1f;
+          for (int k = from + 1; k < to; k++) {
+            float t = (float) (times[k] - times[from]) / (times[to] - times[from]);
+            OrientationUtil.slerp(orientations[from], orientations[to], t, expected);
+            float angle = PathSimplifier.angleDegrees(expected, orientations[k]);
+            float fov = JitterPrevention.smoothFovLerp(t, start.getFov(), end.getFov());
+            // A merged span is played at constant speed, so the camera passes each removed
+            // keyframe at the matching fraction of the distance rather than at its own time
+            float lag = Math.abs(distances[k] - distances[from] - t * length);
+            float excess =
+                Math.max(
+                    Math.max(
+                        PathSimplifier.excess(angle, tolerance.rotation()),
+                        PathSimplifier.excess(lag, tolerance.position())),
+                    PathSimplifier.excess(
+                        Math.abs(fov - keyframes[k].getFov()), tolerance.fov()));
+            if (excess > worstExcess) {
+              worstExcess = excess;
+              worst = k * stride;
+            }
+          }
+          return worst;
+        };
+
+    PathSimplifier.Fit fit = PathSimplifier.fit(samples, stride, tolerance.position(), check);
+    if (fit.size() == count) {
+      return 0;
+    }
+
+    // Kept Catmull-Rom style segments are shaped by their neighbours, which may be removed; take
+    // their Bezier form from the current keyframes before anything changes
+    boolean[] converted = new boolean[fit.size() - 1];
+    float[] handles = new float[converted.length * 6]; // out then in, xyz each, per segment
+    for (int i = 0; i < converted.length; i++) {
+      if (fit.isMerged(i) || !dependsOnNeighbours(keyframes[fit.keyframe(i + 1)])) {
+        continue;
+      }
+      int from = fit.keyframe(i);
+      int before = i > 0 ? fit.keyframe(i - 1) : from;
+      int after = i + 2 < fit.size() ? fit.keyframe(i + 2) : from + 1;
+      if (before != Math.max(0, from - 1) || after != Math.min(count - 1, from + 2)) {
+        converted[i] = true;
+        toBezier(timeline, from, handles, i * 6);
+      }
+    }
+
+    // Remove first: removing a keyframe resets the Bezier handles of the one after it
+    int next = 0;
+    for (int k = 0; k < count; k++) {
+      if (next < fit.size() && fit.keyframe(next) == k) {
+        next++;
+      } else {
+        path.remove(times[k]);
+      }
+    }
+
+    Vector3f handle = new Vector3f();
+    for (int i = 0; i < fit.size() - 1; i++) {
+      CameraKeyframe end = keyframes[fit.keyframe(i + 1)];
+      if (converted[i]) {
+        // Same curve, so timing and the other channels stay as they were
+        int at = i * 6;
+        end.setPathInterpolator(PathInterpolator.BEZIER);
+        end.getPathBezier().setLeft(handles[at], handles[at + 1], handles[at + 2]);
+        end.getPathBezier().setRight(handles[at + 3], handles[at + 4], handles[at + 5]);
+        continue;
+      }
+      if (!fit.isMerged(i)) {
+        continue;
+      }
+      end.setPathInterpolator(PathInterpolator.BEZIER);
+      end.setPosTimeInterpolator(TimeInterpolator.LINEAR);
+      end.setRotTimeInterpolator(TimeInterpolator.LINEAR);
+      end.setFovTimeInterpolator(TimeInterpolator.LINEAR);
+      fit.handleOut(i, handle);
+      end.getPathBezier().setLeft(handle.x, handle.y, handle.z);
+      fit.handleIn(i, handle);
+      end.getPathBezier().setRight(handle.x, handle.y, handle.z);
+    }
+    return count - fit.size();
+  }
+
+  private static void putSample(float[] samples, int sample, Vector3f position) {
+    samples[sample * 3] = position.x;
+    samples[sample * 3 + 1] = position.y;
+    samples[sample * 3 + 2] = position.z;
+  }
+
+  private static boolean dependsOnNeighbours(CameraKeyframe end) {
+    return switch (end.getPathInterpolator()) {
+      case SMOOTH, CATMULL_UNIFORM, CATMULL_CENTRIPETAL, CATMULL_CHORDAL -> true;
+      default -> false;
+    };
+  }
+
+  /**
+   * Bezier control points of a cubic segment, from its points at a third and two thirds; exact for
+   * the Catmull-Rom interpolators, which are cubic in the segment parameter.
+   */
+  private static void toBezier(KeyframeTimeline timeline, int segment, float[] dest, int offset) {
+    Vector3f start = timeline.getKeyframe(segment).getPos();
+    Vector3f end = timeline.getKeyframe(segment + 1).getPos();
+    Vector3f third = CameraPathArcLengths.eval(timeline, segment, 1f / 3f, new Vector3f());
+    Vector3f twoThirds = CameraPathArcLengths.eval(timeline, segment, 2f / 3f, new Vector3f());
+    for (int axis = 0; axis < 3; axis++) {
+      // 27 B(1/3) = 8 P0 + 12 P1 + 6 P2 + P3 and 27 B(2/3) = P0 + 6 P1 + 12 P2 + 8 P3
+      float a = 27f * third.get(axis) - 8f * start.get(axis) - end.get(axis);
+      float b = 27f * twoThirds.get(axis) - start.get(axis) - 8f * end.get(axis);
+      dest[offset + axis] = (2f * a - b) / 18f;
+      dest[offset + 3 + axis] = (2f * b - a) / 18f;
+    }
+  }
+
+  private static Quaternionf toQuaternion(Vector3f rot, Quaternionf dest) {
+    return OrientationUtil.yprDegToQuat(rot.y, rot.x, rot.z, dest);
+  }
+}
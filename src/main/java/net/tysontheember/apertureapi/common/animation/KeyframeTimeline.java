@@ -0,0 +1,102 @@
+package net.tysontheember.apertureapi.common.animation;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Flat sorted copy of a path's keyframes for playback lookups. Times and keyframes sit in parallel
+ * arrays, so finding the segment around a time reads contiguous ints instead of walking tree nodes
+ * and boxing keys. Lookups take a hint, normally the index the previous frame found, and walk from
+ * there; playback moving forward or backward costs O(1) amortized and larger jumps fall back to
+ * binary search.
+ *
+ * <p>Built by {@link GlobalCameraPath#getTimeline()}, which stamps it with the path's edit count
+ * and builds a new one after keyframes are added, removed or moved.
+ */
+public final class KeyframeTimeline {
+  /** Keyframes walked from the hint before a lookup is treated as a seek. */
+  private static final int MAX_WALK = 8;
+
+  private final int[] times;
+  private final CameraKeyframe[] keyframes;
+  private final int stamp;
+
+  KeyframeTimeline(TreeMap<Integer, CameraKeyframe> source, int stamp) {
+    times = new int[source.size()];
+    keyframes = new CameraKeyframe[source.size()];
+    int i = 0;
+    for (Map.Entry<Integer, CameraKeyframe> entry : source.entrySet()) {
+      times[i] = entry.getKey();
+      keyframes[i] = entry.getValue();
+      i++;
+    }
+    this.stamp = stamp;
+  }
+
+  /** Edit count of the path this was built from. */
+  int getStamp() {
+    return stamp;
+  }
+
+  public int size() {
+    return times.length;
+  }
+
+  public int getTime(int index) {
+    return times[index];
+  }
+
+  public CameraKeyframe getKeyframe(int index) {
+    return keyframes[index];
+  }
+
+  /**
+   * Keyframe at an index clamped to the ends, so the end keyframe stands in for the missing
+   * neighbour of an end segment.
+   */
+  public CameraKeyframe getKeyframeClamped(int index) {
+    return keyframes[Math.max(0, Math.min(index, keyframes.length - 1))];
+  }
+
+  /**
+   * Index of the last keyframe at or before {@code time}, or -1 if there is none; the segment
+   * being played starts there. Any {@code hint} is valid, a nearby one is fast.
+   */
+  public int floorIndex(int time, int hint) {
+    int n = times.length;
+    if (n == 0 || time < times[0]) {
+      return -1;
+    }
+
+    int i = Math.max(0, Math.min(hint, n - 1));
+    if (times[i] <= time) {
+      for (int walked = 0; i + 1 < n && times[i + 1] <= time; walked++) {
+        if (walked == MAX_WALK) {
+          return search(time);
+        }
+        i++;
+      }
+    } else {
+      // times[0] <= time, so this stops before running off the start
+      for (int walked = 0; times[i] > time; walked++) {
+        if (walked == MAX_WALK) {
+          return search(time);
+        }
+        i--;
+      }
+    }
+    return i;
+  }
+
+  /** Index of the keyframe at exactly {@code time}, or -1. */
+  public int indexOf(int time, int hint) {
+    int i = floorIndex(time, hint);
+    return i >= 0 && times[i] == time ? i : -1;
+  }
+
+  private int search(int time) {
+    int i = Arrays.binarySearch(times, time);
+    return i >= 0 ? i : -i - 2;
+  }
+}
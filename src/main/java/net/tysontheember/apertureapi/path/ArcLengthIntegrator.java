@@ -0,0 +1,118 @@
+package net.tysontheember.apertureapi.path;
+
+import it.unimi.dsi.fastutil.floats.FloatList;
+
+/**
+ * Error-bounded arc-length integration. Each interval is integrated with 5-point Gauss-Legendre
+ * quadrature and split in half only where the quadrature or the linear t<->s interpolation of the
+ * resulting table would exceed the tolerance, so straight spans cost one table entry and tight
+ * curves get as many as they need.
+ */
+final class ArcLengthIntegrator {
+  /** Upper bound on recursive halving of a single segment (2^16 intervals). */
+  static final int MAX_DEPTH = 16;
+
+  // 5-point Gauss-Legendre nodes and weights on [-1,1]
+  private static final double[] NODES = {
+    0.0, -0.5384693101056831, 0.5384693101056831, -0.9061798459386640, 0.9061798459386640
+  };
+  private static final double[] WEIGHTS = {
+    0.5688888888888889, 0.4786286704993665, 0.4786286704993665, 0.2369268850561891,
+    0.2369268850561891
+  };
+
+  private ArcLengthIntegrator() {}
+
+  /** Speed |dP/dt| of a curve at parameter t. */
+  @FunctionalInterface
+  interface Speed {
+    double at(double t);
+  }
+
+  /** Integrate speed over [a,b] with a single 5-point Gauss-Legendre rule. */
+  static double gaussLegendre(Speed speed, double a, double b) {
+    double half = (b - a) * 0.5;
+    double center = (a + b) * 0.5;
+    double sum = 0.0;
+    for (int i = 0; i < NODES.length; i++) {
+      sum += WEIGHTS[i] * speed.at(center + half * NODES[i]);
+    }
+    return sum * half;
+  }
+
+  /**
+   * Append table entries for one segment with local parameter t in [0,1]. The segment start is
+   * assumed to already be in the table; entries for the interior breakpoints and t = 1 are appended
+   * as (globalStart + t * globalSpan, startLength + s(t)).
+   *
+   * @param tolerance maximum error in blocks, both for the segment length and for any lookup
+   *     interpolated between two entries
+   * @return the segment length
+   */
+  static double appendSegment(
+      Speed speed,
+      double tolerance,
+      double globalStart,
+      double globalSpan,
+      double startLength,
+      FloatList parameters,
+      FloatList arcLengths) {
+    Table table = new Table(speed, globalStart, globalSpan, startLength, parameters, arcLengths);
+    tolerance = Math.max(tolerance, 1e-6);
+    table.subdivide(0.0, 1.0, gaussLegendre(speed, 0.0, 1.0), tolerance, tolerance, 0);
+    return table.length - startLength;
+  }
+
+  private static final class Table {
+    private final Speed speed;
+    private final double globalStart;
+    private final double globalSpan;
+    private final FloatList parameters;
+    private final FloatList arcLengths;
+    private double length;
+
+    Table(
+        Speed speed,
+        double globalStart,
+        double globalSpan,
+        double startLength,
+        FloatList parameters,
+        FloatList arcLengths) {
+      this.speed = speed;
+      this.globalStart = globalStart;
+      this.globalSpan = globalSpan;
+      this.parameters = parameters;
+      this.arcLengths = arcLengths;
+      this.length = startLength;
+    }
+
+    void subdivide(
+        double a,
+        double b,
+        double whole,
+        double lengthTolerance,
+        double lookupTolerance,
+        int depth) {
+      double mid = (a + b) * 0.5;
+      double left = gaussLegendre(speed, a, mid);
+      double right = gaussLegendre(speed, mid, b);
+
+      // Quadrature error of this interval, and how far a straight t->s line through its ends
+      // misses the midpoint
+      double quadratureError = Math.abs(left + right - whole);
+      double interpolationError = Math.abs(left - (left + right) * 0.5);
+
+      if (depth >= MAX_DEPTH
+          || (quadratureError <= lengthTolerance && interpolationError <= lookupTolerance)) {
+        length += left + right;
+        parameters.add((float) (globalStart + b * globalSpan));
+        arcLengths.add((float) length);
+        return;
+      }
+
+      // The length error budget is shared by both halves; the lookup bound is local
+      subdivide(a, mid, left, lengthTolerance * 0.5, lookupTolerance, depth + 1);
+      subdivide(mid, b, right, lengthTolerance * 0.5, lookupTolerance, depth + 1);
+    }
+  }
+}
@@ -1,15 +1,21 @@
 package net.tysontheember.apertureapi.path;
 
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
 import org.joml.Vector3f;
 
 /**
- * Fixed-sample arc-length lookup table for a curve segment P(t), t in [0,1]. Provides t->s and s->t
- * mappings for constant-speed traversal.
+ * Arc-length lookup table for a curve segment P(t), t in [0,1]. Provides t->s and s->t mappings
+ * for constant-speed traversal. Built either from a fixed number of uniform samples or adaptively
+ * to an error tolerance with {@link #adaptive(Evaluator, float)}.
  */
 public final class ArcLengthLUT {
+  /** Subdivision depth limit for {@link #adaptive}, i.e. at most 2^12 intervals. */
+  private static final int MAX_ADAPTIVE_DEPTH = 12;
+
   private final float[] t;
   private final float[] s;
   private final float totalLength;
+  private final float[] slopes; // dt/ds at both ends of each interval for s -> t lookup
 
   @FunctionalInterface
   public interface Evaluator {
@@ -41,6 +47,73 @@ public final class ArcLengthLUT {
       // avoid division by zero later
       for (int i = 0; i < samples; i++) s[i] = 0f;
     }
+    this.slopes = MonotoneCubic.slopes(s, t, null, null);
+  }
+
+  private ArcLengthLUT(float[] t, float[] s, float totalLength) {
+    this.t = t;
+    this.s = s;
+    this.totalLength = totalLength;
+    this.slopes = MonotoneCubic.slopes(s, t, null, null);
+  }
+
+  /**
+   * Build a table whose length and lookups are within {@code tolerance} blocks of the true curve.
+   * Only the curve's positions are available here, so each interval's length is estimated from its
+   * chord and the two half chords with Richardson extrapolation, and intervals are halved only
+   * where that estimate or the linear t<->s interpolation is not yet within tolerance.
+   */
+  public static ArcLengthLUT adaptive(Evaluator f, float tolerance) {
+    FloatArrayList ts = new FloatArrayList();
+    FloatArrayList ss = new FloatArrayList();
+    ts.add(0f);
+    ss.add(0f);
+    Vector3f start = f.eval(0f, new Vector3f());
+    Vector3f end = f.eval(1f, new Vector3f());
+    double[] length = {0.0};
+    tolerance = Math.max(tolerance, 1e-5f);
+    subdivide(f, 0f, 1f, start, end, tolerance, tolerance, 0, ts, ss, length);
+
+    float total = (float) length[0];
+    if (total <= 1e-6f) {
+      return new ArcLengthLUT(new float[] {0f, 1f}, new float[] {0f, 0f}, 0f);
+    }
+    return new ArcLengthLUT(ts.toFloatArray(), ss.toFloatArray(), total);
+  }
+
+  private static void subdivide(
+      Evaluator f,
+      float a,
+      float b,
+      Vector3f pa,
+      Vector3f pb,
+      float lengthTolerance,
+      float lookupTolerance,
+      int depth,
+      FloatArrayList ts,
+      FloatArrayList ss,
+      double[] length) {
+    float mid = (a + b) * 0.5f;
+    Vector3f pm = f.eval(mid, new Vector3f());
+    double chord = pa.distance(pb);
+    double left = pa.distance(pm);
+    double right = pm.distance(pb);
+    double halves = left + right;
+    // Chord sums converge as h^2, so the correction term also estimates the remaining error
+    double correction = (halves - chord) / 3.0;
+
+    if (depth >= MAX_ADAPTIVE_DEPTH
+        || (correction <= lengthTolerance && Math.abs(left - right) * 0.5 <= lookupTolerance)) {
+      length[0] += halves + correction;
+      ts.add(b);
+      ss.add((float) length[0]);
+      return;
+    }
+
+    // The length error budget is shared by both halves; the lookup bound is local
+    float half = lengthTolerance * 0.5f;
+    subdivide(f, a, mid, pa, pm, half, lookupTolerance, depth + 1, ts, ss, length);
+    subdivide(f, mid, b, pm, pb, half, lookupTolerance, depth + 1, ts, ss, length);
   }
 
   public float totalLength() {
@@ -58,20 +131,24 @@ public final class ArcLengthLUT {
       if (s[mid] < d) lo = mid;
       else hi = mid;
     }
-    float segLen = s[hi] - s[lo];
-    if (segLen <= 1e-6f) return t[lo];
-    float alpha = (d - s[lo]) / segLen;
-    return t[lo] + (t[hi] - t[lo]) * alpha;
+    // monotone cubic between entries keeps the speed continuous across them
+    return MonotoneCubic.eval(s, t, slopes, lo, d);
   }
 
   /** Map parameter t in [0,1] to arc distance in [0,totalLength]. */
   public float distanceForT(float tt) {
     if (tt <= 0f) return 0f;
     if (tt >= 1f) return totalLength;
-    float d = tt * (s.length - 1);
-    int i = (int) Math.floor(d);
-    int j = Math.min(i + 1, s.length - 1);
-    float frac = d - i;
-    return s[i] + (s[j] - s[i]) * frac;
+    // binary search on t[], which need not be uniform
+    int lo = 0, hi = t.length - 1;
+    while (lo + 1 < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (t[mid] < tt) lo = mid;
+      else hi = mid;
+    }
+    float span = t[hi] - t[lo];
+    if (span <= 1e-9f) return s[lo];
+    float frac = (tt - t[lo]) / span;
+    return s[lo] + (s[hi] - s[lo]) * frac;
   }
 }
@@ -0,0 +1,58 @@
+package net.tysontheember.apertureapi.path;
+
+import java.util.Arrays;
+
+/**
+ * Arc-length table for a single segment in local coordinates (t in (0,1], s from 0 at the segment
+ * start). Spans are keyed by the segment's compiled polynomial and sampling settings, so a span
+ * built for one LUT can be spliced into the next one whenever that segment's curve did not change.
+ * Because Catmull-Rom and Hermite coefficients already fold in the neighbouring keyframes, an edit
+ * to keyframe k invalidates exactly the spans whose curve it moves.
+ */
+final class ArcLengthSpan {
+  private final float[] key;
+  private final int hash;
+
+  // Local table, excluding the implicit (0, 0) entry
+  float[] parameters;
+  float[] arcLengths;
+  float length;
+
+  // Analytic dt/ds at t = 0 and at each table entry (NaN where the curve stalls)
+  float startSlope = Float.NaN;
+  float[] slopes;
+
+  private ArcLengthSpan(float[] key) {
+    this.key = key;
+    this.hash = Arrays.hashCode(key);
+  }
+
+  /**
+   * Lookup key for a segment of {@code compiled}.
+   *
+   * @param samples fixed sample count, or 0 for adaptive tables
+   * @param tolerance adaptive error tolerance, or 0 for fixed sampling
+   */
+  static ArcLengthSpan key(CompiledPath compiled, int segment, int samples, float tolerance) {
+    float[] key = new float[CompiledPath.STRIDE + 3];
+    compiled.copyCoefficients(segment, key);
+    key[CompiledPath.STRIDE] = compiled.getKind(segment);
+    key[CompiledPath.STRIDE + 1] = samples;
+    key[CompiledPath.STRIDE + 2] = tolerance;
+    return new ArcLengthSpan(key);
+  }
+
+  int size() {
+    return parameters.length;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof ArcLengthSpan other && hash == other.hash && Arrays.equals(key, other.key);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+}
@@ -25,23 +25,19 @@ public final class CatmullRom {
     if (t12 < 1e-6f) t12 = 1e-6f;
     if (t23 < 1e-6f) t23 = 1e-6f;
 
-    // Tangents m1, m2
-    // Using finite differences per centripetal CR formula
+    // Tangents m1, m2 from finite differences per the centripetal CR formula, scaled by
+    // (1 - tension) * t12 with default tension 0; per component so nothing is allocated
     float invT01 = 1f / t01;
     float invT12 = 1f / t12;
     float invT23 = 1f / t23;
-
-    Vector3f term1 = new Vector3f(p1).sub(p0).mul(invT01);
-    Vector3f term2 = new Vector3f(p2).sub(p0).mul(1f / (t01 + t12));
-    Vector3f term3 = new Vector3f(p2).sub(p1).mul(invT12);
-    Vector3f m1 = term1.sub(term2).add(term3);
-    m1.mul((1f - 0f) * t12); // (1 - tension) with default tension 0
-
-    term1.set(p2).sub(p1).mul(invT12);
-    term2.set(p3).sub(p1).mul(1f / (t12 + t23));
-    term3.set(p3).sub(p2).mul(invT23);
-    Vector3f m2 = term1.sub(term2).add(term3);
-    m2.mul((1f - 0f) * t12);
+    float inv012 = 1f / (t01 + t12);
+    float inv123 = 1f / (t12 + t23);
+    float m1x = ((p1.x - p0.x) * invT01 - (p2.x - p0.x) * inv012 + (p2.x - p1.x) * invT12) * t12;
+    float m1y = ((p1.y - p0.y) * invT01 - (p2.y - p0.y) * inv012 + (p2.y - p1.y) * invT12) * t12;
+    float m1z = ((p1.z - p0.z) * invT01 - (p2.z - p0.z) * inv012 + (p2.z - p1.z) * invT12) * t12;
+    float m2x = ((p2.x - p1.x) * invT12 - (p3.x - p1.x) * inv123 + (p3.x - p2.x) * invT23) * t12;
+    float m2y = ((p2.y - p1.y) * invT12 - (p3.y - p1.y) * inv123 + (p3.y - p2.y) * invT23) * t12;
+    float m2z = ((p2.z - p1.z) * invT12 - (p3.z - p1.z) * inv123 + (p3.z - p2.z) * invT23) * t12;
 
     // Hermite basis blending between p1 and p2
     float t2 = t * t;
@@ -52,11 +48,9 @@ public final class CatmullRom {
     float h11 = t3 - t2;
 
     return out.set(
-        new Vector3f(p1)
-            .mul(h00)
-            .add(new Vector3f(m1).mul(h10))
-            .add(new Vector3f(p2).mul(h01))
-            .add(new Vector3f(m2).mul(h11)));
+        p1.x * h00 + m1x * h10 + p2.x * h01 + m2x * h11,
+        p1.y * h00 + m1y * h10 + p2.y * h01 + m2y * h11,
+        p1.z * h00 + m1z * h10 + p2.z * h01 + m2z * h11);
   }
 
   private static float dist(Vector3f a, Vector3f b) {
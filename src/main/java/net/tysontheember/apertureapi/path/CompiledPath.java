@@ -0,0 +1,486 @@
+package net.tysontheember.apertureapi.path;
+
+import java.util.List;
+import net.tysontheember.apertureapi.path.interpolation.EasingType;
+import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+/**
+ * Evaluation-ready form of a {@link PathModel}. Every segment's position curve is reduced once to a
+ * cubic polynomial per axis, so playback never recomputes Catmull-Rom knot spacing, TCB tangents or
+ * Bezier handles. Keyframe channels are copied into flat primitive arrays. Instances are immutable;
+ * {@link PathModel#getCompiled()} rebuilds one after each edit.
+ */
+public final class CompiledPath {
+  /** Floats per segment in {@link #coefficients}: {a, b, c, d} for x, then y, then z. */
+  static final int STRIDE = 12;
+
+  /** Plain polynomial, evaluated for any parameter (linear, Hermite and Bezier extrapolate). */
+  static final byte KIND_POLY = 0;
+
+  /** Polynomial whose parameter is clamped to [0,1] (Catmull-Rom holds its end points). */
+  static final byte KIND_CLAMPED = 1;
+
+  /** Linear polynomial driven by the cosine-remapped parameter. */
+  static final byte KIND_COSINE = 2;
+
+  private final int keyframeCount;
+  private final float[] coefficients;
+  private final byte[] kinds;
+  private final InterpolationType[] interpolationTypes;
+  private final EasingType[] easingTypes;
+
+  // Keyframe channels
+  private final float[] positions; // xyz per keyframe
+  private final float[] orientations; // xyzw per keyframe, on a common hemisphere
+  private final float[] orientationControls; // SQUAD inner control, xyzw per keyframe
+  private final float[] rolls;
+  private final float[] fovs;
+
+  // Defaults the per-segment types were resolved against
+  private final InterpolationType defaultInterpolation;
+  private final EasingType defaultEasing;
+
+  private CompiledPath(int keyframeCount, PathModel.PathDefaults defaults) {
+    int segmentCount = Math.max(0, keyframeCount - 1);
+    this.keyframeCount = keyframeCount;
+    this.coefficients = new float[segmentCount * STRIDE];
+    this.kinds = new byte[segmentCount];
+    this.interpolationTypes = new InterpolationType[segmentCount];
+    this.easingTypes = new EasingType[segmentCount];
+    this.positions = new float[keyframeCount * 3];
+    this.orientations = new float[keyframeCount * 4];
+    this.orientationControls = new float[keyframeCount * 4];
+    this.rolls = new float[keyframeCount];
+    this.fovs = new float[keyframeCount];
+    this.defaultInterpolation = defaults.interpolationType;
+    this.defaultEasing = defaults.easingType;
+  }
+
+  /** Compile the given keyframes against the path defaults. */
+  public static CompiledPath compile(
+      List<PathModel.Segment> segments, PathModel.PathDefaults defaults) {
+    int n = segments.size();
+    CompiledPath compiled = new CompiledPath(n, defaults);
+
+    for (int k = 0; k < n; k++) {
+      PathModel.Segment segment = segments.get(k);
+      compiled.positions[k * 3] = segment.position.x;
+      compiled.positions[k * 3 + 1] = segment.position.y;
+      compiled.positions[k * 3 + 2] = segment.position.z;
+      compiled.orientations[k * 4] = segment.orientation.x;
+      compiled.orientations[k * 4 + 1] = segment.orientation.y;
+      compiled.orientations[k * 4 + 2] = segment.orientation.z;
+      compiled.orientations[k * 4 + 3] = segment.orientation.w;
+      compiled.rolls[k] = segment.roll;
+      compiled.fovs[k] = segment.fov;
+    }
+
+    compiled.compileOrientationControls();
+
+    for (int i = 0; i < n - 1; i++) {
+      PathModel.Segment current = segments.get(i);
+      InterpolationType type =
+          current.interpolationType != null
+              ? current.interpolationType
+              : defaults.interpolationType;
+      compiled.interpolationTypes[i] = type;
+      compiled.easingTypes[i] =
+          current.easingType != null ? current.easingType : defaults.easingType;
+      compiled.compileSegment(i, type, segments);
+    }
+
+    return compiled;
+  }
+
+  /** True if this was compiled against the given defaults and is still valid for them. */
+  boolean isCompiledFor(PathModel.PathDefaults defaults) {
+    return defaultInterpolation == defaults.interpolationType
+        && defaultEasing == defaults.easingType;
+  }
+
+  // ===== COMPILATION =====
+
+  private void compileSegment(int i, InterpolationType type, List<PathModel.Segment> segments) {
+    PathModel.Segment current = segments.get(i);
+    PathModel.Segment next = segments.get(i + 1);
+    int base = i * STRIDE;
+
+    switch (type) {
+      case LINEAR, COSINE -> {
+        for (int axis = 0; axis < 3; axis++) {
+          double p0 = component(current.position, axis);
+          double p1 = component(next.position, axis);
+          store(base + axis * 4, p0, p1 - p0, 0.0, 0.0);
+        }
+        kinds[i] = type == InterpolationType.COSINE ? KIND_COSINE : KIND_POLY;
+      }
+      case HERMITE -> {
+        for (int axis = 0; axis < 3; axis++) {
+          double m0 = hermiteTangent(segments, i, axis, true);
+          double m1 = hermiteTangent(segments, i + 1, axis, false);
+          storeHermite(
+              base + axis * 4,
+              component(current.position, axis),
+              m0,
+              component(next.position, axis),
+              m1);
+        }
+        kinds[i] = KIND_POLY;
+      }
+      case BEZIER -> {
+        for (int axis = 0; axis < 3; axis++) {
+          double p0 = component(current.position, axis);
+          double p3 = component(next.position, axis);
+          double p1 =
+              current.bezierOut != null
+                  ? p0 + component(current.bezierOut, axis)
+                  : lerp(p0, p3, 0.33f); // auto handle, 1/3 toward next point
+          double p2 =
+              next.bezierIn != null
+                  ? p3 + component(next.bezierIn, axis)
+                  : lerp(p3, p0, 0.33f); // auto handle, 1/3 back from next point
+          store(
+              base + axis * 4,
+              p0,
+              3.0 * (p1 - p0),
+              3.0 * (p0 - 2.0 * p1 + p2),
+              3.0 * (p1 - p2) + p3 - p0);
+        }
+        kinds[i] = KIND_POLY;
+      }
+      case CATMULL_UNIFORM, CATMULL_CENTRIPETAL, CATMULL_CHORDAL -> {
+        compileCatmullRom(i, type.getCatmullAlpha(), segments);
+        kinds[i] = KIND_CLAMPED;
+      }
+    }
+  }
+
+  private void compileCatmullRom(int i, float alpha, List<PathModel.Segment> segments) {
+    int n = segments.size();
+    Vector3f p1 = segments.get(i).position;
+    Vector3f p2 = segments.get(i + 1).position;
+
+    // End points are extrapolated when there is no neighbour
+    Vector3f p0 = i > 0 ? segments.get(i - 1).position : new Vector3f(p1).mul(2f).sub(p2);
+    Vector3f p3 = i + 2 < n ? segments.get(i + 2).position : new Vector3f(p2).mul(2f).sub(p1);
+
+    // Knot spacing and tangents are computed once per edit instead of per evaluation
+    CubicBatch.catmullRomCoefficients(p0, p1, p2, p3, alpha, coefficients, i * STRIDE);
+  }
+
+  /**
+   * Flip keyframe orientations onto a common hemisphere, so the spline never takes the long way
+   * round, then derive each keyframe's SQUAD control from its neighbours.
+   */
+  private void compileOrientationControls() {
+    for (int k = 1; k < keyframeCount; k++) {
+      int base = k * 4;
+      float dot =
+          orientations[base] * orientations[base - 4]
+              + orientations[base + 1] * orientations[base - 3]
+              + orientations[base + 2] * orientations[base - 2]
+              + orientations[base + 3] * orientations[base - 1];
+      if (dot < 0f) {
+        for (int c = 0; c < 4; c++) {
+          orientations[base + c] = -orientations[base + c];
+        }
+      }
+    }
+
+    Quaternionf prev = new Quaternionf();
+    Quaternionf curr = new Quaternionf();
+    Quaternionf next = new Quaternionf();
+    Quaternionf control = new Quaternionf();
+    for (int k = 0; k < keyframeCount; k++) {
+      getOrientation(k, curr);
+      getOrientation(Math.max(0, k - 1), prev);
+      getOrientation(Math.min(keyframeCount - 1, k + 1), next);
+      OrientationUtil.squadControl(prev, curr, next, control);
+      int base = k * 4;
+      orientationControls[base] = control.x;
+      orientationControls[base + 1] = control.y;
+      orientationControls[base + 2] = control.z;
+      orientationControls[base + 3] = control.w;
+    }
+  }
+
+  /** TCB tangent at keyframe {@code index}, matching PathInterpolationEngine. */
+  private static double hermiteTangent(
+      List<PathModel.Segment> segments, int index, int axis, boolean incoming) {
+    PathModel.Segment segment = segments.get(index);
+    double curr = component(segment.position, axis);
+    double prev = index > 0 ? component(segments.get(index - 1).position, axis) : curr;
+    double next =
+        index < segments.size() - 1 ? component(segments.get(index + 1).position, axis) : curr;
+
+    double tension = segment.tension;
+    double continuity = segment.continuity;
+    double bias = segment.bias;
+    double in = curr - prev;
+    double out = next - curr;
+
+    if (incoming) {
+      return in * (1 - tension) * (1 + continuity) * (1 + bias) / 2
+          + out * (1 - tension) * (1 - continuity) * (1 - bias) / 2;
+    }
+    return in * (1 - tension) * (1 + continuity) * (1 - bias) / 2
+        + out * (1 - tension) * (1 - continuity) * (1 + bias) / 2;
+  }
+
+  /** Store the monomial form of the cubic Hermite curve (p0, m0) -> (p1, m1). */
+  private void storeHermite(int offset, double p0, double m0, double p1, double m1) {
+    store(offset, p0, m0, -3.0 * p0 - 2.0 * m0 + 3.0 * p1 - m1, 2.0 * p0 + m0 - 2.0 * p1 + m1);
+  }
+
+  private void store(int offset, double a, double b, double c, double d) {
+    coefficients[offset] = (float) a;
+    coefficients[offset + 1] = (float) b;
+    coefficients[offset + 2] = (float) c;
+    coefficients[offset + 3] = (float) d;
+  }
+
+  private static double component(Vector3f v, int axis) {
+    return axis == 0 ? v.x : axis == 1 ? v.y : v.z;
+  }
+
+  private static double lerp(double a, double b, float t) {
+    return a + (b - a) * t;
+  }
+
+  // ===== EVALUATION =====
+
+  /**
+   * Evaluate the position of a segment at its curve parameter (easing already applied) and write it
+   * into {@code dest}. Allocation-free.
+   */
+  public Vector3f evaluatePosition(int segment, float t, Vector3f dest) {
+    float u = curveParameter(segment, t);
+    int base = segment * STRIDE;
+    float[] c = coefficients;
+    return dest.set(
+        ((c[base + 3] * u + c[base + 2]) * u + c[base + 1]) * u + c[base],
+        ((c[base + 7] * u + c[base + 6]) * u + c[base + 5]) * u + c[base + 4],
+        ((c[base + 11] * u + c[base + 10]) * u + c[base + 9]) * u + c[base + 8]);
+  }
+
+  /**
+   * Evaluate a segment at {@code count} curve parameters (easing already applied, clamped to
+   * [0,1]) into the coordinate arrays via {@link CubicBatch}. {@code t} may be the same array as
+   * {@code x}.
+   */
+  public void evaluatePositions(
+      int segment, float[] t, int count, float[] x, float[] y, float[] z) {
+    float[] u = t;
+    if (kinds[segment] == KIND_COSINE) {
+      // Remap into the output array first; the kernel reads each parameter before writing it
+      for (int i = 0; i < count; i++) {
+        x[i] = curveParameter(segment, Math.max(0f, Math.min(1f, t[i])));
+      }
+      u = x;
+    }
+    CubicBatch.evaluate(coefficients, segment * STRIDE, u, count, x, y, z);
+  }
+
+  /**
+   * Speed |dP/dt| of a segment with respect to its curve parameter t in [0,1], from the analytic
+   * derivative of the segment polynomial.
+   */
+  public double parameterSpeed(int segment, double t) {
+    double du;
+    double u;
+    switch (kinds[segment]) {
+      case KIND_CLAMPED -> {
+        if (t < 0.0 || t > 1.0) {
+          return 0.0;
+        }
+        u = t;
+        du = 1.0;
+      }
+      case KIND_COSINE -> {
+        u = (1.0 - Math.cos(t * Math.PI)) * 0.5;
+        du = Math.PI * 0.5 * Math.sin(t * Math.PI);
+      }
+      default -> {
+        u = t;
+        du = 1.0;
+      }
+    }
+
+    int base = segment * STRIDE;
+    float[] c = coefficients;
+    double dx = (3.0 * c[base + 3] * u + 2.0 * c[base + 2]) * u + c[base + 1];
+    double dy = (3.0 * c[base + 7] * u + 2.0 * c[base + 6]) * u + c[base + 5];
+    double dz = (3.0 * c[base + 11] * u + 2.0 * c[base + 10]) * u + c[base + 9];
+    return Math.sqrt(dx * dx + dy * dy + dz * dz) * Math.abs(du);
+  }
+
+  /**
+   * SQUAD orientation of a segment at {@code t} (easing already applied) from the keyframe
+   * orientations and their precomputed controls. Angular velocity is continuous across keyframes.
+   * Allocation-free.
+   */
+  public Quaternionf evaluateSquadOrientation(int segment, float t, Quaternionf dest) {
+    float u = Math.max(0f, Math.min(1f, t));
+    return OrientationUtil.squad(orientations, orientationControls, segment, u, dest);
+  }
+
+  /**
+   * First derivative dP/dt of a segment at curve parameter {@code t} (easing already applied), as
+   * evaluated by {@link #evaluatePosition}. Zero outside [0,1] for Catmull-Rom segments, which hold
+   * their end points. Allocation-free.
+   */
+  public Vector3f evaluateTangent(int segment, float t, Vector3f dest) {
+    float u = curveParameter(segment, t);
+    float du = curveParameterDerivative(segment, t);
+    int base = segment * STRIDE;
+    float[] c = coefficients;
+    return dest.set(
+        ((3f * c[base + 3] * u + 2f * c[base + 2]) * u + c[base + 1]) * du,
+        ((3f * c[base + 7] * u + 2f * c[base + 6]) * u + c[base + 5]) * du,
+        ((3f * c[base + 11] * u + 2f * c[base + 10]) * u + c[base + 9]) * du);
+  }
+
+  /**
+   * Second derivative d²P/dt² of a segment at curve parameter {@code t} (easing already applied).
+   * Allocation-free.
+   */
+  public Vector3f evaluateSecondDerivative(int segment, float t, Vector3f dest) {
+    int base = segment * STRIDE;
+    float[] c = coefficients;
+    if (kinds[segment] == KIND_COSINE) {
+      // Linear in u, so only the remap's own curvature contributes: P'(u) * u''
+      float ddu = (float) (Math.PI * Math.PI * 0.5 * Math.cos(t * Math.PI));
+      return dest.set(c[base + 1] * ddu, c[base + 5] * ddu, c[base + 9] * ddu);
+    }
+    if (kinds[segment] == KIND_CLAMPED && (t < 0f || t > 1f)) {
+      return dest.zero();
+    }
+    return dest.set(
+        6f * c[base + 3] * t + 2f * c[base + 2],
+        6f * c[base + 7] * t + 2f * c[base + 6],
+        6f * c[base + 11] * t + 2f * c[base + 10]);
+  }
+
+  /**
+   * Curvature |P' x P''| / |P'|^3 of a segment at curve parameter {@code t}, in 1/blocks. The
+   * inverse of the radius of the osculating circle; independent of easing. Zero where the curve is
+   * straight or momentarily stationary.
+   */
+  public float curvature(int segment, float t) {
+    int base = segment * STRIDE;
+    float[] c = coefficients;
+    if (kinds[segment] == KIND_COSINE) {
+      return 0f; // straight line
+    }
+    float u = kinds[segment] == KIND_CLAMPED ? Math.max(0f, Math.min(1f, t)) : t;
+
+    float dx = (3f * c[base + 3] * u + 2f * c[base + 2]) * u + c[base + 1];
+    float dy = (3f * c[base + 7] * u + 2f * c[base + 6]) * u + c[base + 5];
+    float dz = (3f * c[base + 11] * u + 2f * c[base + 10]) * u + c[base + 9];
+    float ddx = 6f * c[base + 3] * u + 2f * c[base + 2];
+    float ddy = 6f * c[base + 7] * u + 2f * c[base + 6];
+    float ddz = 6f * c[base + 11] * u + 2f * c[base + 10];
+
+    float speedSquared = dx * dx + dy * dy + dz * dz;
+    if (speedSquared < 1e-12f) {
+      return 0f;
+    }
+    float cx = dy * ddz - dz * ddy;
+    float cy = dz * ddx - dx * ddz;
+    float cz = dx * ddy - dy * ddx;
+    float speed = (float) Math.sqrt(speedSquared);
+    return (float) Math.sqrt(cx * cx + cy * cy + cz * cz) / (speedSquared * speed);
+  }
+
+  /**
+   * Upper bound on |d²P/dt²| over t in [0,1] for a segment. P'' of a cubic is linear in t, so its
+   * norm peaks at an end point; the cosine remap contributes at most |P'| * pi²/2.
+   */
+  public float secondDerivativeBound(int segment) {
+    int base = segment * STRIDE;
+    float[] c = coefficients;
+    if (kinds[segment] == KIND_COSINE) {
+      float speed = length(c[base + 1], c[base + 5], c[base + 9]);
+      return speed * (float) (Math.PI * Math.PI * 0.5);
+    }
+    float start = length(2f * c[base + 2], 2f * c[base + 6], 2f * c[base + 10]);
+    float end =
+        length(
+            6f * c[base + 3] + 2f * c[base + 2],
+            6f * c[base + 7] + 2f * c[base + 6],
+            6f * c[base + 11] + 2f * c[base + 10]);
+    return Math.max(start, end);
+  }
+
+  private static float length(float x, float y, float z) {
+    return (float) Math.sqrt(x * x + y * y + z * z);
+  }
+
+  /** d(curveParameter)/dt for a segment. */
+  private float curveParameterDerivative(int segment, float t) {
+    return switch (kinds[segment]) {
+      case KIND_CLAMPED -> t < 0f || t > 1f ? 0f : 1f;
+      case KIND_COSINE -> (float) (Math.PI * 0.5 * Math.sin(t * Math.PI));
+      default -> 1f;
+    };
+  }
+
+  /** Map a segment parameter to the polynomial parameter for that segment's kind. */
+  float curveParameter(int segment, float t) {
+    return switch (kinds[segment]) {
+      case KIND_CLAMPED -> t <= 0f ? 0f : Math.min(t, 1f);
+      case KIND_COSINE -> (1f - (float) Math.cos(t * Math.PI)) * 0.5f;
+      default -> t;
+    };
+  }
+
+  // ===== ACCESSORS =====
+
+  /** Copy a segment's {@link #STRIDE} polynomial coefficients into {@code dest}. */
+  void copyCoefficients(int segment, float[] dest) {
+    System.arraycopy(coefficients, segment * STRIDE, dest, 0, STRIDE);
+  }
+
+  byte getKind(int segment) {
+    return kinds[segment];
+  }
+
+  /** Number of keyframes. */
+  public int size() {
+    return keyframeCount;
+  }
+
+  /** Number of interpolation segments (keyframes - 1). */
+  public int segmentCount() {
+    return kinds.length;
+  }
+
+  public InterpolationType getInterpolationType(int segment) {
+    return interpolationTypes[segment];
+  }
+
+  public EasingType getEasingType(int segment) {
+    return easingTypes[segment];
+  }
+
+  public Vector3f getPosition(int keyframe, Vector3f dest) {
+    int base = keyframe * 3;
+    return dest.set(positions[base], positions[base + 1], positions[base + 2]);
+  }
+
+  public Quaternionf getOrientation(int keyframe, Quaternionf dest) {
+    int base = keyframe * 4;
+    return dest.set(
+        orientations[base], orientations[base + 1], orientations[base + 2], orientations[base + 3]);
+  }
+
+  public float getRoll(int keyframe) {
+    return rolls[keyframe];
+  }
+
+  public float getFov(int keyframe) {
+    return fovs[keyframe];
+  }
+}
@@ -0,0 +1,96 @@
+package net.tysontheember.apertureapi.path;
+
+import org.joml.Vector3f;
+
+/**
+ * Batch evaluation of cubic curve segments at many parameter values at once, for bulk work such as
+ * baking, LUT building and debug rendering. Segments are given in the monomial layout used by
+ * {@link CompiledPath} ({a, b, c, d} per axis, x then y then z); the Catmull-Rom and Bezier helpers
+ * convert control points into it once per segment.
+ */
+public final class CubicBatch {
+  private CubicBatch() {}
+
+  /**
+   * Evaluate the segment whose coefficients start at {@code offset} for {@code count} parameters.
+   * Parameters are clamped to [0,1]. {@code t} may be the same array as {@code x}: each parameter
+   * is read before the position at that index is written. The loop is plain Horner form, which C2
+   * auto-vectorizes well.
+   */
+  public static void evaluate(
+      float[] coefficients,
+      int offset,
+      float[] t,
+      int count,
+      float[] x,
+      float[] y,
+      float[] z) {
+    float xa = coefficients[offset];
+    float xb = coefficients[offset + 1];
+    float xc = coefficients[offset + 2];
+    float xd = coefficients[offset + 3];
+    float ya = coefficients[offset + 4];
+    float yb = coefficients[offset + 5];
+    float yc = coefficients[offset + 6];
+    float yd = coefficients[offset + 7];
+    float za = coefficients[offset + 8];
+    float zb = coefficients[offset + 9];
+    float zc = coefficients[offset + 10];
+    float zd = coefficients[offset + 11];
+    for (int i = 0; i < count; i++) {
+      float u = Math.max(0f, Math.min(1f, t[i]));
+      x[i] = ((xd * u + xc) * u + xb) * u + xa;
+      y[i] = ((yd * u + yc) * u + yb) * u + ya;
+      z[i] = ((zd * u + zc) * u + zb) * u + za;
+    }
+  }
+
+  /**
+   * Write the monomial coefficients of the Catmull-Rom segment p1 -> p2 into {@code dest} at
+   * {@code offset}, using the same knot spacing and tangents as {@link PathInterpolationEngine}.
+   */
+  public static void catmullRomCoefficients(
+      Vector3f p0, Vector3f p1, Vector3f p2, Vector3f p3, float alpha, float[] dest, int offset) {
+    alpha = Math.max(0f, Math.min(1f, alpha));
+    double t01 = Math.max(1e-6, Math.pow(p0.distance(p1), alpha));
+    double t12 = Math.max(1e-6, Math.pow(p1.distance(p2), alpha));
+    double t23 = Math.max(1e-6, Math.pow(p2.distance(p3), alpha));
+
+    for (int axis = 0; axis < 3; axis++) {
+      double v0 = component(p0, axis);
+      double v1 = component(p1, axis);
+      double v2 = component(p2, axis);
+      double v3 = component(p3, axis);
+      double m1 = ((v1 - v0) / t01 - (v2 - v0) / (t01 + t12) + (v2 - v1) / t12) * t12;
+      double m2 = ((v2 - v1) / t12 - (v3 - v1) / (t12 + t23) + (v3 - v2) / t23) * t12;
+      int base = offset + axis * 4;
+      dest[base] = (float) v1;
+      dest[base + 1] = (float) m1;
+      dest[base + 2] = (float) (-3.0 * v1 - 2.0 * m1 + 3.0 * v2 - m2);
+      dest[base + 3] = (float) (2.0 * v1 + m1 - 2.0 * v2 + m2);
+    }
+  }
+
+  /**
+   * Write the monomial coefficients of the cubic Bezier curve with control points p0..p3 into
+   * {@code dest} at {@code offset}.
+   */
+  public static void bezierCoefficients(
+      Vector3f p0, Vector3f p1, Vector3f p2, Vector3f p3, float[] dest, int offset) {
+    for (int axis = 0; axis < 3; axis++) {
+      double v0 = component(p0, axis);
+      double v1 = component(p1, axis);
+      double v2 = component(p2, axis);
+      double v3 = component(p3, axis);
+      int base = offset + axis * 4;
+      dest[base] = (float) v0;
+      dest[base + 1] = (float) (3.0 * (v1 - v0));
+      dest[base + 2] = (float) (3.0 * (v0 - 2.0 * v1 + v2));
+      dest[base + 3] = (float) (3.0 * (v1 - v2) + v3 - v0);
+    }
+  }
+
+  private static double component(Vector3f v, int axis) {
+    return axis == 0 ? v.x : axis == 1 ? v.y : v.z;
+  }
+}
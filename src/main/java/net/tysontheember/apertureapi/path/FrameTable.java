@@ -0,0 +1,260 @@
+package net.tysontheember.apertureapi.path;
+
+import org.joml.Matrix3f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+/**
+ * Baked orientation data for a path, sampled at even arc-length spacing: a rotation-minimizing
+ * (parallel-transport) frame and a smoothed bank angle per sample. Built once per arc-length table
+ * by {@link PathModel#getFrameTable()}; lookups are a table index plus a slerp or lerp and do not
+ * allocate.
+ *
+ * <p>Frames are stored as quaternions mapping local axes to world axes: +Z along the path tangent,
+ * +Y the transported normal (starting as close to world up as the tangent allows) and +X = Y x Z.
+ * They are propagated with the double reflection method, so they do not twist around the tangent
+ * the way Frenet frames do and stay defined on straight runs.
+ */
+public final class FrameTable {
+  /** Target distance between samples, in blocks. */
+  private static final float SPACING = 0.25f;
+
+  private static final int MAX_SAMPLES = 1 << 17;
+
+  /** Bank angle reached at or below this turn radius, in degrees. */
+  private static final float MAX_BANK_DEGREES = 30f;
+
+  /** Turn radius in blocks at which the bank reaches {@link #MAX_BANK_DEGREES}. */
+  private static final float FULL_BANK_RADIUS = 10f;
+
+  /** Width of the moving average applied (twice) to the bank profile, in blocks. */
+  private static final float BANK_SMOOTHING = 6f;
+
+  private final PathModel.ArcLengthLUT lut;
+  private final float totalLength;
+  private final float step;
+  private final float[] frames; // xyzw per sample
+  private final float[] banks; // degrees per sample, before bankingStrength
+
+  private FrameTable(PathModel.ArcLengthLUT lut, int samples) {
+    this.lut = lut;
+    this.totalLength = lut.getTotalLength();
+    this.step = samples > 1 ? totalLength / (samples - 1) : 0f;
+    this.frames = new float[samples * 4];
+    this.banks = new float[samples];
+  }
+
+  /** Bake frames and bank angles for a compiled path and its arc-length table. */
+  static FrameTable build(CompiledPath kernels, PathModel.ArcLengthLUT lut) {
+    int numSegments = kernels.segmentCount();
+    float totalLength = lut.getTotalLength();
+    int samples =
+        numSegments < 1 || totalLength <= 0f
+            ? 1
+            : Math.min(MAX_SAMPLES, (int) Math.ceil(totalLength / SPACING) + 1);
+    FrameTable table = new FrameTable(lut, samples);
+
+    float[] positions = new float[samples * 3];
+    float[] tangents = new float[samples * 3];
+    float[] rawBanks = new float[samples];
+    Vector3f position = new Vector3f();
+    Vector3f velocity = new Vector3f();
+    Vector3f acceleration = new Vector3f();
+    Vector3f lastTangent = new Vector3f(0f, 0f, 1f);
+
+    int bracket = 0;
+    for (int i = 0; i < samples; i++) {
+      if (numSegments < 1) {
+        break;
+      }
+      float s = i * table.step;
+      bracket = lut.bracketArcLength(s, bracket, 8);
+      float globalT = samples > 1 ? lut.parameterInBracket(bracket, s) : 0f;
+      float segmentFloat = Math.max(0f, Math.min(1f, globalT)) * numSegments;
+      int segment = Math.min((int) segmentFloat, numSegments - 1);
+      float t = segmentFloat - segment;
+
+      kernels.evaluatePosition(segment, t, position);
+      kernels.evaluateTangent(segment, t, velocity);
+      kernels.evaluateSecondDerivative(segment, t, acceleration);
+      float speed = velocity.length();
+      if (speed > 1e-6f) {
+        lastTangent.set(velocity).div(speed);
+        // Signed curvature of the turn about world up; positive turns left
+        float turn = velocity.z * acceleration.x - velocity.x * acceleration.z;
+        float curvature = turn / (speed * speed * speed);
+        rawBanks[i] =
+            Math.max(-1f, Math.min(1f, curvature * FULL_BANK_RADIUS)) * MAX_BANK_DEGREES;
+      }
+      store(positions, i, position);
+      store(tangents, i, lastTangent);
+    }
+
+    table.transportFrames(positions, tangents, samples);
+    table.smoothBanks(rawBanks, samples);
+    return table;
+  }
+
+  /** Propagate a normal along the samples by double reflection and store each frame. */
+  private void transportFrames(float[] positions, float[] tangents, int samples) {
+    Vector3f tangent = load(tangents, 0, new Vector3f());
+    Vector3f normal = new Vector3f(0f, 1f, 0f);
+    if (Math.abs(tangent.y) > 0.999f) {
+      normal.set(1f, 0f, 0f); // looking straight up or down
+    }
+    normal.sub(new Vector3f(tangent).mul(normal.dot(tangent))).normalize();
+
+    Vector3f chord = new Vector3f();
+    Vector3f nextTangent = new Vector3f();
+    Vector3f reflectedNormal = new Vector3f();
+    Vector3f reflectedTangent = new Vector3f();
+    Vector3f correction = new Vector3f();
+    Vector3f right = new Vector3f();
+    Matrix3f basis = new Matrix3f();
+    Quaternionf frame = new Quaternionf();
+
+    for (int i = 0; i < samples; i++) {
+      if (i > 0) {
+        load(tangents, i, nextTangent);
+        load(positions, i, chord).sub(load(positions, i - 1, correction));
+        float c1 = chord.lengthSquared();
+        if (c1 > 1e-12f) {
+          // First reflection across the plane bisecting the two sample points
+          reflectedNormal.set(chord).mul(-2f * chord.dot(normal) / c1).add(normal);
+          reflectedTangent.set(chord).mul(-2f * chord.dot(tangent) / c1).add(tangent);
+          // Second reflection maps the reflected tangent onto the new tangent
+          correction.set(nextTangent).sub(reflectedTangent);
+          float c2 = correction.lengthSquared();
+          if (c2 > 1e-12f) {
+            reflectedNormal.sub(correction.mul(2f * correction.dot(reflectedNormal) / c2));
+          }
+          normal.set(reflectedNormal);
+        }
+        tangent.set(nextTangent);
+        // Re-orthonormalize against drift
+        normal.sub(correction.set(tangent).mul(normal.dot(tangent))).normalize();
+      }
+
+      normal.cross(tangent, right);
+      basis.setColumn(0, right).setColumn(1, normal).setColumn(2, tangent);
+      basis.getNormalizedRotation(frame);
+      frames[i * 4] = frame.x;
+      frames[i * 4 + 1] = frame.y;
+      frames[i * 4 + 2] = frame.z;
+      frames[i * 4 + 3] = frame.w;
+    }
+  }
+
+  /**
+   * Smooth the raw bank profile with two passes of a centred moving average (a triangle filter),
+   * so the bank eases in and out of turns instead of following curvature jumps at keyframes.
+   */
+  private void smoothBanks(float[] rawBanks, int samples) {
+    int radius = step > 0f ? (int) (BANK_SMOOTHING * 0.5f / step) : 0;
+    double[] prefix = new double[samples + 1];
+    boxFilter(rawBanks, banks, samples, radius, prefix);
+    boxFilter(banks, rawBanks, samples, radius, prefix);
+    System.arraycopy(rawBanks, 0, banks, 0, samples);
+  }
+
+  private static void boxFilter(
+      float[] source, float[] dest, int samples, int radius, double[] prefix) {
+    for (int i = 0; i < samples; i++) {
+      prefix[i + 1] = prefix[i] + source[i];
+    }
+    for (int i = 0; i < samples; i++) {
+      int from = Math.max(0, i - radius);
+      int to = Math.min(samples, i + radius + 1);
+      dest[i] = (float) ((prefix[to] - prefix[from]) / (to - from));
+    }
+  }
+
+  private static void store(float[] array, int index, Vector3f v) {
+    array[index * 3] = v.x;
+    array[index * 3 + 1] = v.y;
+    array[index * 3 + 2] = v.z;
+  }
+
+  private static Vector3f load(float[] array, int index, Vector3f dest) {
+    return dest.set(array[index * 3], array[index * 3 + 1], array[index * 3 + 2]);
+  }
+
+  /** True if this table was baked from the given arc-length table. */
+  boolean isBuiltFor(PathModel.ArcLengthLUT table) {
+    return lut == table;
+  }
+
+  /** Rotation-minimizing frame at arc length {@code s}, slerped between samples. */
+  public Quaternionf frameAt(float s, Quaternionf dest) {
+    int count = banks.length;
+    if (count == 1 || s <= 0f) {
+      return loadFrame(0, dest);
+    }
+    if (s >= totalLength) {
+      return loadFrame(count - 1, dest);
+    }
+    float position = s / step;
+    int index = Math.min((int) position, count - 2);
+    return slerp(index, position - index, dest);
+  }
+
+  /** Slerp between samples {@code index} and {@code index + 1} straight from the table. */
+  private Quaternionf slerp(int index, float alpha, Quaternionf dest) {
+    int a = index * 4;
+    int b = a + 4;
+    float dot =
+        frames[a] * frames[b]
+            + frames[a + 1] * frames[b + 1]
+            + frames[a + 2] * frames[b + 2]
+            + frames[a + 3] * frames[b + 3];
+    float sign = dot < 0f ? -1f : 1f; // take the short way round
+    dot = Math.abs(dot);
+    float wa;
+    float wb;
+    if (dot > 0.9995f) {
+      wa = 1f - alpha;
+      wb = alpha;
+    } else {
+      float angle = (float) Math.acos(dot);
+      float invSin = 1f / (float) Math.sin(angle);
+      wa = (float) Math.sin((1f - alpha) * angle) * invSin;
+      wb = (float) Math.sin(alpha * angle) * invSin;
+    }
+    wb *= sign;
+    return dest.set(
+            wa * frames[a] + wb * frames[b],
+            wa * frames[a + 1] + wb * frames[b + 1],
+            wa * frames[a + 2] + wb * frames[b + 2],
+            wa * frames[a + 3] + wb * frames[b + 3])
+        .normalize();
+  }
+
+  /** Smoothed bank angle at arc length {@code s}, in degrees, at full banking strength. */
+  public float bankAngle(float s) {
+    int count = banks.length;
+    if (count == 1 || s <= 0f) {
+      return banks[0];
+    }
+    if (s >= totalLength) {
+      return banks[count - 1];
+    }
+    float position = s / step;
+    int index = Math.min((int) position, count - 2);
+    float fraction = position - index;
+    return banks[index] + (banks[index + 1] - banks[index]) * fraction;
+  }
+
+  private Quaternionf loadFrame(int index, Quaternionf dest) {
+    int base = index * 4;
+    return dest.set(frames[base], frames[base + 1], frames[base + 2], frames[base + 3]);
+  }
+
+  /** Number of baked samples. */
+  public int size() {
+    return banks.length;
+  }
+
+  public float getTotalLength() {
+    return totalLength;
+  }
+}
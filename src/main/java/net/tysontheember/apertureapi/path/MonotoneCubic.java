@@ -0,0 +1,132 @@
+package net.tysontheember.apertureapi.path;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Monotone piecewise cubic Hermite interpolation (Fritsch-Carlson) over a sorted table. Used for
+ * the inverse arc-length mapping s -> t: unlike piecewise-linear lookup it has a continuous first
+ * derivative, so playback speed does not jump at table entries, and unlike an unconstrained spline
+ * it never overshoots, so t stays monotone in s.
+ *
+ * <p>Slopes are stored per interval ({@code m[2k]} at the start of interval k, {@code m[2k+1]} at
+ * its end) so that knots where the underlying curve really has a kink in dt/ds, such as joins
+ * between path segments, can keep a different slope on each side.
+ */
+final class MonotoneCubic {
+  private MonotoneCubic() {}
+
+  /**
+   * Compute interval end slopes dy/dx for a non-decreasing table.
+   *
+   * @param initial optional known slopes in the per-interval layout (e.g. from the analytic curve
+   *     speed); NaN entries, or a null array, are estimated from the data
+   * @param breaks optional flags for knots where the slope may differ on either side
+   */
+  static float[] slopes(
+      float[] x, float[] y, @Nullable float[] initial, @Nullable boolean[] breaks) {
+    int n = x.length;
+    if (n < 2) return new float[0];
+
+    // Secant slopes per interval (0 for empty intervals)
+    float[] h = new float[n - 1];
+    float[] delta = new float[n - 1];
+    for (int k = 0; k < n - 1; k++) {
+      h[k] = x[k + 1] - x[k];
+      delta[k] = h[k] > 1e-9f ? (y[k + 1] - y[k]) / h[k] : 0f;
+    }
+
+    // Slope arriving at each knot from the left, and leaving it to the right
+    float[] in = new float[n];
+    float[] out = new float[n];
+    for (int k = 0; k < n; k++) {
+      boolean split = breaks != null && breaks[k];
+      if (k > 0) {
+        float known = initial != null ? initial[2 * (k - 1) + 1] : Float.NaN;
+        in[k] =
+            !Float.isNaN(known)
+                ? known
+                : k == n - 1 || split ? endSlope(h, delta, k - 1, -1) : interior(delta, k);
+      }
+      if (k < n - 1) {
+        float known = initial != null ? initial[2 * k] : Float.NaN;
+        out[k] =
+            !Float.isNaN(known)
+                ? known
+                : k == 0 || split ? endSlope(h, delta, k, 1) : interior(delta, k);
+      }
+      if (k > 0 && k < n - 1 && !split) {
+        // Smooth knot: one shared slope
+        float shared = (in[k] + out[k]) * 0.5f;
+        in[k] = shared;
+        out[k] = shared;
+      }
+    }
+
+    // Limit slopes so every interval stays monotone. Limiting only ever shrinks a slope, so an
+    // interval already limited stays monotone when its shared knot is shrunk again
+    for (int k = 0; k < n - 1; k++) {
+      if (delta[k] == 0f) {
+        setSlope(in, out, breaks, k, true, 0f);
+        setSlope(in, out, breaks, k + 1, false, 0f);
+        continue;
+      }
+      float a = Math.max(0f, out[k] / delta[k]);
+      float b = Math.max(0f, in[k + 1] / delta[k]);
+      float sum = a * a + b * b;
+      if (sum > 9f) {
+        float tau = 3f / (float) Math.sqrt(sum);
+        a *= tau;
+        b *= tau;
+      }
+      setSlope(in, out, breaks, k, true, a * delta[k]);
+      setSlope(in, out, breaks, k + 1, false, b * delta[k]);
+    }
+
+    float[] m = new float[2 * (n - 1)];
+    for (int k = 0; k < n - 1; k++) {
+      m[2 * k] = out[k];
+      m[2 * k + 1] = in[k + 1];
+    }
+    return m;
+  }
+
+  private static float interior(float[] delta, int k) {
+    return delta[k - 1] * delta[k] <= 0f ? 0f : (delta[k - 1] + delta[k]) * 0.5f;
+  }
+
+  /**
+   * One-sided three-point slope at the start ({@code direction} 1) or end ({@code direction} -1) of
+   * interval {@code k}, using the next interval in that direction when there is one.
+   */
+  private static float endSlope(float[] h, float[] delta, int k, int direction) {
+    int j = k + direction;
+    if (j < 0 || j >= delta.length || h[j] <= 1e-9f) return delta[k];
+    float slope = ((2f * h[k] + h[j]) * delta[k] - h[k] * delta[j]) / (h[k] + h[j]);
+    if (slope * delta[k] <= 0f) return 0f;
+    if (delta[k] * delta[j] <= 0f && Math.abs(slope) > Math.abs(3f * delta[k])) {
+      return 3f * delta[k];
+    }
+    return slope;
+  }
+
+  private static void setSlope(
+      float[] in, float[] out, @Nullable boolean[] breaks, int k, boolean outgoing, float value) {
+    boolean split = breaks != null && breaks[k];
+    if (outgoing || !split) out[k] = value;
+    if (!outgoing || !split) in[k] = value;
+  }
+
+  /** Evaluate the interpolant at {@code xq} inside interval {@code k} = [x[k], x[k+1]]. */
+  static float eval(float[] x, float[] y, float[] m, int k, float xq) {
+    float h = x[k + 1] - x[k];
+    if (h <= 1e-9f) return y[k];
+    float u = Math.max(0f, Math.min(1f, (xq - x[k]) / h));
+    float u2 = u * u;
+    float u3 = u2 * u;
+    float h00 = 2f * u3 - 3f * u2 + 1f;
+    float h10 = u3 - 2f * u2 + u;
+    float h01 = -2f * u3 + 3f * u2;
+    float h11 = u3 - u2;
+    return h00 * y[k] + h10 * h * m[2 * k] + h01 * y[k + 1] + h11 * h * m[2 * k + 1];
+  }
+}
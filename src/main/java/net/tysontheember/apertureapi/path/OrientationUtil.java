@@ -17,15 +17,14 @@ public final class OrientationUtil {
     return out.identity().rotationYXZ(yaw, pitch, roll);
   }
 
-  /** Convert quaternion to yaw/pitch/roll degrees with YXZ order. */
+  /** Convert quaternion to yaw/pitch/roll degrees with YXZ order. Allocation-free. */
   public static Vector3f quatToYprDeg(Quaternionf q, Vector3f outDeg) {
-    // Extract Euler YXZ from quaternion
+    // Extract Euler YXZ from quaternion into outDeg as radians, then convert in place
     // JOML can compute Euler angles via getEulerAnglesYXZ
-    Vector3f rad = new Vector3f();
-    q.getEulerAnglesYXZ(rad);
-    float yawDeg = -rad.y * Mth.RAD_TO_DEG; // invert to match convention
-    float pitchDeg = rad.x * Mth.RAD_TO_DEG;
-    float rollDeg = rad.z * Mth.RAD_TO_DEG;
+    q.getEulerAnglesYXZ(outDeg);
+    float yawDeg = -outDeg.y * Mth.RAD_TO_DEG; // invert to match convention
+    float pitchDeg = outDeg.x * Mth.RAD_TO_DEG;
+    float rollDeg = outDeg.z * Mth.RAD_TO_DEG;
     return outDeg.set(pitchDeg, yawDeg, rollDeg);
   }
 
@@ -33,4 +32,104 @@ public final class OrientationUtil {
   public static Quaternionf slerp(Quaternionf a, Quaternionf b, float t, Quaternionf out) {
     return out.set(a).slerp(b, t);
   }
+
+  /**
+   * Inner control quaternion for SQUAD at keyframe {@code curr}:
+   * curr * exp(-(log(curr^-1 * next) + log(curr^-1 * prev)) / 4). Neighbours are taken on the same
+   * hemisphere as {@code curr}. Pass {@code curr} as a missing neighbour at the ends of a path.
+   * Allocation-free; {@code out} may be any of the inputs.
+   */
+  public static Quaternionf squadControl(
+      Quaternionf prev, Quaternionf curr, Quaternionf next, Quaternionf out) {
+    // Relative rotations curr^-1 * next and curr^-1 * prev, as logarithm vectors
+    double vx = 0.0;
+    double vy = 0.0;
+    double vz = 0.0;
+    for (int i = 0; i < 2; i++) {
+      Quaternionf q = i == 0 ? next : prev;
+      float x = curr.w * q.x - curr.x * q.w - curr.y * q.z + curr.z * q.y;
+      float y = curr.w * q.y + curr.x * q.z - curr.y * q.w - curr.z * q.x;
+      float z = curr.w * q.z - curr.x * q.y + curr.y * q.x - curr.z * q.w;
+      float w = curr.w * q.w + curr.x * q.x + curr.y * q.y + curr.z * q.z;
+      double scale = logScale(x, y, z, w) * (w < 0f ? -1.0 : 1.0);
+      vx += x * scale;
+      vy += y * scale;
+      vz += z * scale;
+    }
+    vx *= -0.25;
+    vy *= -0.25;
+    vz *= -0.25;
+
+    // exp of the pure quaternion (vx, vy, vz)
+    double angle = Math.sqrt(vx * vx + vy * vy + vz * vz);
+    double scale = angle > 1e-9 ? Math.sin(angle) / angle : 1.0;
+    float sx = (float) (vx * scale);
+    float sy = (float) (vy * scale);
+    float sz = (float) (vz * scale);
+    float sw = (float) Math.cos(angle);
+    return out.set(curr).mul(sx, sy, sz, sw).normalize();
+  }
+
+  /**
+   * Factor taking the vector part of a unit quaternion to its logarithm; the quaternion is read on
+   * the hemisphere with {@code w >= 0}.
+   */
+  private static double logScale(float x, float y, float z, float w) {
+    double sin = Math.sqrt(x * x + y * y + z * z);
+    double angle = Math.atan2(sin, Math.abs(w));
+    return sin > 1e-9 ? angle / sin : 1.0;
+  }
+
+  /**
+   * SQUAD over packed xyzw arrays, between the quaternions at {@code index} and {@code index + 1}
+   * of {@code keys} and their inner controls in {@code controls}: slerp(slerp(a, b, t), slerp(sa,
+   * sb, t), 2t(1 - t)). Keys should already be on a common hemisphere. Allocation-free.
+   */
+  public static Quaternionf squad(
+      float[] keys, float[] controls, int index, float t, Quaternionf out) {
+    int a = index * 4;
+    int b = a + 4;
+
+    // Outer curve between the keyframes
+    float dot = dot(keys, a, keys, b);
+    float w0 = slerpWeight(dot, 1f - t);
+    float w1 = slerpWeight(dot, t);
+    float qx = w0 * keys[a] + w1 * keys[b];
+    float qy = w0 * keys[a + 1] + w1 * keys[b + 1];
+    float qz = w0 * keys[a + 2] + w1 * keys[b + 2];
+    float qw = w0 * keys[a + 3] + w1 * keys[b + 3];
+
+    // Inner curve between the controls
+    dot = dot(controls, a, controls, b);
+    w0 = slerpWeight(dot, 1f - t);
+    w1 = slerpWeight(dot, t);
+    float cx = w0 * controls[a] + w1 * controls[b];
+    float cy = w0 * controls[a + 1] + w1 * controls[b + 1];
+    float cz = w0 * controls[a + 2] + w1 * controls[b + 2];
+    float cw = w0 * controls[a + 3] + w1 * controls[b + 3];
+
+    // Blend, without flipping hemispheres so the spline stays continuous
+    // (the lerp fallback leaves both slightly short of unit length)
+    float h = 2f * t * (1f - t);
+    float outerLength = qx * qx + qy * qy + qz * qz + qw * qw;
+    float innerLength = cx * cx + cy * cy + cz * cz + cw * cw;
+    dot = (qx * cx + qy * cy + qz * cz + qw * cw) / (float) Math.sqrt(outerLength * innerLength);
+    w0 = slerpWeight(dot, 1f - h);
+    w1 = slerpWeight(dot, h);
+    return out.set(w0 * qx + w1 * cx, w0 * qy + w1 * cy, w0 * qz + w1 * cz, w0 * qw + w1 * cw)
+        .normalize();
+  }
+
+  private static float dot(float[] p, int i, float[] q, int j) {
+    return p[i] * q[j] + p[i + 1] * q[j + 1] + p[i + 2] * q[j + 2] + p[i + 3] * q[j + 3];
+  }
+
+  /** sin(t * angle) / sin(angle) for the angle between two unit quaternions with this dot. */
+  private static float slerpWeight(float dot, float t) {
+    if (Math.abs(dot) > 0.9995f) {
+      return t; // nearly parallel: lerp, renormalized by the caller
+    }
+    double angle = Math.acos(Math.max(-1f, Math.min(1f, dot)));
+    return (float) (Math.sin(t * angle) / Math.sin(angle));
+  }
 }
@@ -0,0 +1,505 @@
+package net.tysontheember.apertureapi.path;
+
+import org.joml.Vector3f;
+
+/**
+ * Bounding-volume hierarchy over the segments of a compiled path, for closest-point and ray
+ * queries (editor snapping, re-entering a path, proximity triggers). Built once per compiled path
+ * by {@link PathModel#getBvh()}; coordinates are relative to the path's anchor like the keyframes.
+ *
+ * <p>Each segment is boxed by the control hull of its cubic (the Bezier control points of its
+ * polynomial over [0,1]), which contains the curve. Nodes split the segments at the median along
+ * the longest axis of their centers, so the tree is balanced and a query only descends into the
+ * few boxes near the answer. Within a segment the closest parameter is found from a few samples
+ * and refined with Newton's method.
+ *
+ * <p>The tree is immutable once built and safe to query from several threads. Queries only
+ * allocate a traversal stack of the tree's depth, and ray queries a small holder for the
+ * normalized ray.
+ */
+public final class PathBvh {
+  /** Evenly spaced starting guesses per segment before Newton refinement. */
+  private static final int INITIAL_SAMPLES = 8;
+
+  private static final int NEWTON_ITERATIONS = 4;
+
+  private final CompiledPath kernels;
+  private final float[] coefficients; // CompiledPath.STRIDE per segment, polynomial in u on [0,1]
+  private final boolean[] cosine; // segment parameter t maps to u through the cosine ramp
+  private final float[] bounds; // min xyz, max xyz per node
+  private final int[] children; // first of two adjacent children, or ~segment for a leaf
+  private int nodeCount;
+  private int depth;
+
+  /** Result of a query; reuse one per caller. */
+  public static final class Hit {
+    /** Segment the hit lies on. */
+    public int segment;
+
+    /** Segment parameter of the hit, as passed to {@link CompiledPath#evaluatePosition}. */
+    public float t;
+
+    /** Closest point on the path. */
+    public final Vector3f position = new Vector3f();
+
+    /** Distance from the query point, or from the ray, to {@link #position}. */
+    public float distance;
+
+    /** Distance along the ray to the point closest to {@link #position}; 0 for point queries. */
+    public float rayDistance;
+  }
+
+  private PathBvh(CompiledPath kernels) {
+    int segments = kernels.segmentCount();
+    this.kernels = kernels;
+    this.coefficients = new float[segments * CompiledPath.STRIDE];
+    this.cosine = new boolean[segments];
+    int nodes = Math.max(0, 2 * segments - 1);
+    this.bounds = new float[nodes * 6];
+    this.children = new int[nodes];
+  }
+
+  /** Build the hierarchy for a compiled path. */
+  static PathBvh build(CompiledPath kernels) {
+    PathBvh bvh = new PathBvh(kernels);
+    int segments = kernels.segmentCount();
+    if (segments == 0) {
+      return bvh;
+    }
+
+    float[] segmentBounds = new float[segments * 6];
+    float[] centers = new float[segments * 3];
+    float[] segment = new float[CompiledPath.STRIDE];
+    int[] order = new int[segments];
+    for (int i = 0; i < segments; i++) {
+      kernels.copyCoefficients(i, segment);
+      System.arraycopy(segment, 0, bvh.coefficients, i * CompiledPath.STRIDE, segment.length);
+      bvh.cosine[i] = kernels.getKind(i) == CompiledPath.KIND_COSINE;
+      order[i] = i;
+
+      for (int axis = 0; axis < 3; axis++) {
+        // Bezier control points of a + b u + c u^2 + d u^3
+        float a = segment[axis * 4];
+        float b = segment[axis * 4 + 1];
+        float c = segment[axis * 4 + 2];
+        float d = segment[axis * 4 + 3];
+        float p1 = a + b / 3f;
+        float p2 = a + (2f * b + c) / 3f;
+        float p3 = a + b + c + d;
+        float min = Math.min(Math.min(a, p1), Math.min(p2, p3));
+        float max = Math.max(Math.max(a, p1), Math.max(p2, p3));
+        segmentBounds[i * 6 + axis] = min;
+        segmentBounds[i * 6 + 3 + axis] = max;
+        centers[i * 3 + axis] = (min + max) * 0.5f;
+      }
+    }
+
+    bvh.nodeCount = 1;
+    bvh.buildNode(0, order, 0, segments, segmentBounds, centers, 1);
+    return bvh;
+  }
+
+  private void buildNode(
+      int node,
+      int[] order,
+      int from,
+      int to,
+      float[] segmentBounds,
+      float[] centers,
+      int level) {
+    depth = Math.max(depth, level);
+    int base = node * 6;
+    for (int axis = 0; axis < 3; axis++) {
+      bounds[base + axis] = Float.POSITIVE_INFINITY;
+      bounds[base + 3 + axis] = Float.NEGATIVE_INFINITY;
+    }
+    float[] centerMin = {Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY};
+    float[] centerMax = {Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY};
+    for (int i = from; i < to; i++) {
+      int segment = order[i];
+      for (int axis = 0; axis < 3; axis++) {
+        bounds[base + axis] = Math.min(bounds[base + axis], segmentBounds[segment * 6 + axis]);
+        bounds[base + 3 + axis] =
+            Math.max(bounds[base + 3 + axis], segmentBounds[segment * 6 + 3 + axis]);
+        centerMin[axis] = Math.min(centerMin[axis], centers[segment * 3 + axis]);
+        centerMax[axis] = Math.max(centerMax[axis], centers[segment * 3 + axis]);
+      }
+    }
+
+    if (to - from == 1) {
+      children[node] = ~order[from];
+      return;
+    }
+
+    int axis = 0;
+    for (int a = 1; a < 3; a++) {
+      if (centerMax[a] - centerMin[a] > centerMax[axis] - centerMin[axis]) {
+        axis = a;
+      }
+    }
+    int mid = (from + to) >>> 1;
+    select(order, from, to - 1, mid, centers, axis);
+
+    int first = nodeCount;
+    nodeCount += 2;
+    children[node] = first;
+    buildNode(first, order, from, mid, segmentBounds, centers, level + 1);
+    buildNode(first + 1, order, mid, to, segmentBounds, centers, level + 1);
+  }
+
+  /** Partially sort {@code order[low..high]} so index {@code k} holds the median by center. */
+  private static void select(int[] order, int low, int high, int k, float[] centers, int axis) {
+    while (low < high) {
+      float pivot = centers[order[(low + high) >>> 1] * 3 + axis];
+      int i = low;
+      int j = high;
+      while (i <= j) {
+        while (centers[order[i] * 3 + axis] < pivot) {
+          i++;
+        }
+        while (centers[order[j] * 3 + axis] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          int swap = order[i];
+          order[i] = order[j];
+          order[j] = swap;
+          i++;
+          j--;
+        }
+      }
+      if (k <= j) {
+        high = j;
+      } else if (k >= i) {
+        low = i;
+      } else {
+        return;
+      }
+    }
+  }
+
+  /** True if this was built from {@code compiled}. */
+  boolean isBuiltFor(CompiledPath compiled) {
+    return kernels == compiled;
+  }
+
+  // ===== QUERIES =====
+
+  /**
+   * Find the point on the path closest to ({@code x}, {@code y}, {@code z}). Returns false for a
+   * path without segments.
+   */
+  public boolean nearest(float x, float y, float z, Hit hit) {
+    if (nodeCount == 0) {
+      return false;
+    }
+
+    float best = Float.POSITIVE_INFINITY; // squared distance
+    int[] stack = new int[depth + 1];
+    int top = 0;
+    stack[top++] = 0;
+    while (top > 0) {
+      int node = stack[--top];
+      if (boxDistanceSquared(node, x, y, z) >= best) {
+        continue;
+      }
+
+      int first = children[node];
+      if (first < 0) {
+        int segment = ~first;
+        float u = closestToPoint(segment, x, y, z);
+        float dx = value(segment, 0, u) - x;
+        float dy = value(segment, 1, u) - y;
+        float dz = value(segment, 2, u) - z;
+        float distance = dx * dx + dy * dy + dz * dz;
+        if (distance < best) {
+          best = distance;
+          setHit(hit, segment, u);
+        }
+        continue;
+      }
+
+      // Push the farther child first so the nearer one is searched first
+      float left = boxDistanceSquared(first, x, y, z);
+      float right = boxDistanceSquared(first + 1, x, y, z);
+      int near = left <= right ? first : first + 1;
+      int far = left <= right ? first + 1 : first;
+      if (Math.max(left, right) < best) {
+        stack[top++] = far;
+      }
+      if (Math.min(left, right) < best) {
+        stack[top++] = near;
+      }
+    }
+
+    hit.distance = (float) Math.sqrt(best);
+    hit.rayDistance = 0f;
+    return true;
+  }
+
+  /**
+   * Find where a ray passes within {@code radius} of the path, up to {@code maxDistance} along the
+   * ray. Each segment is tested at one point, its closest approach to the ray's line, and the hit
+   * is the tested point nearest the ray's origin. A segment that comes within {@code radius} more
+   * than once, such as a loop around the ray, is therefore reported at its closest approach, which
+   * need not be where the ray first passes it. Returns false if the ray misses.
+   */
+  public boolean raycast(
+      float originX,
+      float originY,
+      float originZ,
+      float directionX,
+      float directionY,
+      float directionZ,
+      float radius,
+      float maxDistance,
+      Hit hit) {
+    float length =
+        (float)
+            Math.sqrt(
+                directionX * directionX + directionY * directionY + directionZ * directionZ);
+    if (nodeCount == 0 || length == 0f) {
+      return false;
+    }
+    Ray ray =
+        new Ray(
+            originX,
+            originY,
+            originZ,
+            directionX / length,
+            directionY / length,
+            directionZ / length,
+            radius);
+
+    float best = maxDistance; // along the ray
+    boolean found = false;
+    int[] stack = new int[depth + 1];
+    int top = 0;
+    stack[top++] = 0;
+    while (top > 0) {
+      int node = stack[--top];
+      if (ray.enter(bounds, node) > best) {
+        continue;
+      }
+
+      int first = children[node];
+      if (first < 0) {
+        int segment = ~first;
+        float u = closestToRay(segment, ray);
+        float wx = value(segment, 0, u) - ray.originX;
+        float wy = value(segment, 1, u) - ray.originY;
+        float wz = value(segment, 2, u) - ray.originZ;
+        float along = Math.max(0f, wx * ray.x + wy * ray.y + wz * ray.z);
+        float px = wx - along * ray.x;
+        float py = wy - along * ray.y;
+        float pz = wz - along * ray.z;
+        float distance = (float) Math.sqrt(px * px + py * py + pz * pz);
+        if (distance <= radius && along <= best) {
+          best = along;
+          found = true;
+          setHit(hit, segment, u);
+          hit.distance = distance;
+          hit.rayDistance = along;
+        }
+        continue;
+      }
+
+      float left = ray.enter(bounds, first);
+      float right = ray.enter(bounds, first + 1);
+      int near = left <= right ? first : first + 1;
+      int far = left <= right ? first + 1 : first;
+      if (Math.max(left, right) <= best) {
+        stack[top++] = far;
+      }
+      if (Math.min(left, right) <= best) {
+        stack[top++] = near;
+      }
+    }
+    return found;
+  }
+
+  public int getDepth() {
+    return depth;
+  }
+
+  // ===== SEGMENT SEARCH =====
+
+  /** Polynomial parameter of the point of a segment closest to a point. */
+  private float closestToPoint(int segment, float x, float y, float z) {
+    float bestU = 0f;
+    float best = Float.POSITIVE_INFINITY;
+    for (int i = 0; i <= INITIAL_SAMPLES; i++) {
+      float u = (float) i / INITIAL_SAMPLES;
+      float dx = value(segment, 0, u) - x;
+      float dy = value(segment, 1, u) - y;
+      float dz = value(segment, 2, u) - z;
+      float distance = dx * dx + dy * dy + dz * dz;
+      if (distance < best) {
+        best = distance;
+        bestU = u;
+      }
+    }
+
+    // Newton on d/du |B(u) - p|^2 / 2 = (B - p) . B'
+    float u = bestU;
+    for (int iteration = 0; iteration < NEWTON_ITERATIONS; iteration++) {
+      float numerator = 0f;
+      float denominator = 0f;
+      for (int axis = 0; axis < 3; axis++) {
+        float difference = value(segment, axis, u) - (axis == 0 ? x : axis == 1 ? y : z);
+        float first = first(segment, axis, u);
+        numerator += difference * first;
+        denominator += first * first + difference * second(segment, axis, u);
+      }
+      if (denominator <= 0f) {
+        break;
+      }
+      u = Math.max(0f, Math.min(1f, u - numerator / denominator));
+    }
+    return u;
+  }
+
+  /** Polynomial parameter of the point of a segment closest to a ray's line. */
+  private float closestToRay(int segment, Ray ray) {
+    float bestU = 0f;
+    float best = Float.POSITIVE_INFINITY;
+    for (int i = 0; i <= INITIAL_SAMPLES; i++) {
+      float u = (float) i / INITIAL_SAMPLES;
+      float distance = ray.perpendicularSquared(this, segment, u);
+      if (distance < best) {
+        best = distance;
+        bestU = u;
+      }
+    }
+
+    // Newton on the derivative of the squared distance, using components across the ray
+    float u = bestU;
+    for (int iteration = 0; iteration < NEWTON_ITERATIONS; iteration++) {
+      float wx = value(segment, 0, u) - ray.originX;
+      float wy = value(segment, 1, u) - ray.originY;
+      float wz = value(segment, 2, u) - ray.originZ;
+      float fx = first(segment, 0, u);
+      float fy = first(segment, 1, u);
+      float fz = first(segment, 2, u);
+      float sx = second(segment, 0, u);
+      float sy = second(segment, 1, u);
+      float sz = second(segment, 2, u);
+      float w = wx * ray.x + wy * ray.y + wz * ray.z;
+      float f = fx * ray.x + fy * ray.y + fz * ray.z;
+      float s = sx * ray.x + sy * ray.y + sz * ray.z;
+      float px = wx - w * ray.x;
+      float py = wy - w * ray.y;
+      float pz = wz - w * ray.z;
+      float qx = fx - f * ray.x;
+      float qy = fy - f * ray.y;
+      float qz = fz - f * ray.z;
+      float numerator = px * qx + py * qy + pz * qz;
+      float denominator =
+          qx * qx
+              + qy * qy
+              + qz * qz
+              + px * (sx - s * ray.x)
+              + py * (sy - s * ray.y)
+              + pz * (sz - s * ray.z);
+      if (denominator <= 0f) {
+        break;
+      }
+      u = Math.max(0f, Math.min(1f, u - numerator / denominator));
+    }
+    return u;
+  }
+
+  private void setHit(Hit hit, int segment, float u) {
+    hit.segment = segment;
+    hit.t = cosine[segment] ? (float) (Math.acos(1.0 - 2.0 * u) / Math.PI) : u;
+    hit.position.set(value(segment, 0, u), value(segment, 1, u), value(segment, 2, u));
+  }
+
+  private float value(int segment, int axis, float u) {
+    int base = segment * CompiledPath.STRIDE + axis * 4;
+    float[] c = coefficients;
+    return ((c[base + 3] * u + c[base + 2]) * u + c[base + 1]) * u + c[base];
+  }
+
+  private float first(int segment, int axis, float u) {
+    int base = segment * CompiledPath.STRIDE + axis * 4;
+    float[] c = coefficients;
+    return (3f * c[base + 3] * u + 2f * c[base + 2]) * u + c[base + 1];
+  }
+
+  private float second(int segment, int axis, float u) {
+    int base = segment * CompiledPath.STRIDE + axis * 4;
+    return 6f * coefficients[base + 3] * u + 2f * coefficients[base + 2];
+  }
+
+  private float boxDistanceSquared(int node, float x, float y, float z) {
+    int base = node * 6;
+    float dx = Math.max(0f, Math.max(bounds[base] - x, x - bounds[base + 3]));
+    float dy = Math.max(0f, Math.max(bounds[base + 1] - y, y - bounds[base + 4]));
+    float dz = Math.max(0f, Math.max(bounds[base + 2] - z, z - bounds[base + 5]));
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  /** A normalized ray and the radius boxes are grown by. */
+  private static final class Ray {
+    final float originX;
+    final float originY;
+    final float originZ;
+    final float x;
+    final float y;
+    final float z;
+    final float radius;
+
+    Ray(float originX, float originY, float originZ, float x, float y, float z, float radius) {
+      this.originX = originX;
+      this.originY = originY;
+      this.originZ = originZ;
+      this.x = x;
+      this.y = y;
+      this.z = z;
+      this.radius = radius;
+    }
+
+    /**
+     * Distance along the ray at which it enters a node's box grown by the radius (0 if it starts
+     * inside), or +infinity if it misses.
+     */
+    float enter(float[] bounds, int node) {
+      int base = node * 6;
+      float near = 0f;
+      float far = Float.POSITIVE_INFINITY;
+      for (int axis = 0; axis < 3; axis++) {
+        float origin = axis == 0 ? originX : axis == 1 ? originY : originZ;
+        float direction = axis == 0 ? x : axis == 1 ? y : z;
+        float min = bounds[base + axis] - radius;
+        float max = bounds[base + 3 + axis] + radius;
+        if (direction == 0f) {
+          if (origin < min || origin > max) {
+            return Float.POSITIVE_INFINITY;
+          }
+          continue;
+        }
+        float t0 = (min - origin) / direction;
+        float t1 = (max - origin) / direction;
+        near = Math.max(near, Math.min(t0, t1));
+        far = Math.min(far, Math.max(t0, t1));
+        if (near > far) {
+          return Float.POSITIVE_INFINITY;
+        }
+      }
+      return near;
+    }
+
+    /** Squared distance from a point of a segment to the ray's line. */
+    float perpendicularSquared(PathBvh bvh, int segment, float u) {
+      float wx = bvh.value(segment, 0, u) - originX;
+      float wy = bvh.value(segment, 1, u) - originY;
+      float wz = bvh.value(segment, 2, u) - originZ;
+      float w = wx * x + wy * y + wz * z;
+      float px = wx - w * x;
+      float py = wy - w * y;
+      float pz = wz - w * z;
+      return px * px + py * py + pz * pz;
+    }
+  }
+}
@@ -0,0 +1,580 @@
+package net.tysontheember.apertureapi.path;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.tysontheember.apertureapi.path.interpolation.EasingType;
+import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import net.tysontheember.apertureapi.path.interpolation.OrientationMode;
+import org.joml.Quaternionf;
+import org.joml.Vector3d;
+import org.joml.Vector3f;
+
+/**
+ * Compact encodings of a {@link PathModel}, as an NBT compound for saves and as a raw binary stream
+ * for network transfer. Both start with a {@link #FORMAT} version byte and share one layout.
+ *
+ * <p>Segment data is stored by channel rather than by segment: one packed array each for
+ * positions, orientations, roll and FOV, so a path is written and read as a handful of arrays
+ * instead of a JSON object per keyframe. Floats are kept as their raw bits (NBT has no float array
+ * tag), which is exact and needs no text parsing. Optional fields (timing, overrides, TCB, Bezier
+ * handles, follow targets) are marked in a per-segment flags channel, and their arrays only hold
+ * entries for the segments that set them. Interpolation and easing overrides are indices into a
+ * palette of names, so reordering the enums does not break old data.
+ *
+ * <p>Encoding reads a {@link PathSnapshot}, so a path can be encoded off the thread that edits it.
+ * {@link PathModel#fromNBT} still reads the older form that embeds the JSON as a string.
+ */
+public final class PathCodec {
+  /** Layout version written first in both encodings. */
+  public static final byte FORMAT = 1;
+
+  /** NBT key of the version byte; its presence marks the packed layout. */
+  public static final String FORMAT_KEY = "format";
+
+  // Per-segment flags
+  private static final int HAS_DURATION = 1;
+  private static final int HAS_WEIGHT = 1 << 1;
+  private static final int HAS_TCB = 1 << 2;
+  private static final int HAS_BEZIER_IN = 1 << 3;
+  private static final int HAS_BEZIER_OUT = 1 << 4;
+  private static final int HAS_FOLLOW = 1 << 5;
+  private static final int INTERP_SHIFT = 8; // Palette index + 1, 0 for the path default
+  private static final int EASE_SHIFT = 16;
+  private static final int PALETTE_MASK = 0xFF;
+
+  private PathCodec() {}
+
+  // ===== NBT =====
+
+  public static CompoundTag toNBT(PathModel path) {
+    return toNBT(path.snapshot());
+  }
+
+  /** Encode a snapshot; safe off the thread that edits the path. */
+  public static CompoundTag toNBT(PathSnapshot path) {
+    Channels channels = Channels.pack(path.getSegments());
+    Vector3d anchor = path.getAnchor(new Vector3d());
+    CompoundTag nbt = new CompoundTag();
+    nbt.putByte(FORMAT_KEY, FORMAT);
+    nbt.putString("id", path.getId());
+    nbt.putString("name", path.getName());
+    nbt.putBoolean("loop", path.isLoop());
+    nbt.putDouble("anchorX", anchor.x);
+    nbt.putDouble("anchorY", anchor.y);
+    nbt.putDouble("anchorZ", anchor.z);
+
+    PathModel.PathDefaults defaults = path.getDefaults();
+    CompoundTag defaultsTag = new CompoundTag();
+    defaultsTag.putString("interp", defaults.interpolationType.getName());
+    defaultsTag.putString("ease", defaults.easingType.getName());
+    defaultsTag.putString("speedMode", defaults.speedMode.name().toLowerCase());
+    defaultsTag.putBoolean("banking", defaults.banking);
+    defaultsTag.putFloat("bankingStrength", defaults.bankingStrength);
+    defaultsTag.putFloat("rollMix", defaults.rollMix);
+    defaultsTag.putString("orientation", defaults.orientationMode.getName());
+    defaultsTag.putBoolean("tabulatedEasing", defaults.tabulatedEasing);
+    nbt.put("defaults", defaultsTag);
+
+    PathModel.SpeedSettings speed = path.getSpeed();
+    nbt.putFloat("durationSec", speed.durationSec);
+    if (speed.blocksPerSec != null) {
+      nbt.putFloat("blocksPerSec", speed.blocksPerSec);
+    }
+    if (speed.arcLengthTolerance != null) {
+      nbt.putFloat("arcLengthTolerance", speed.arcLengthTolerance);
+    }
+
+    ListTag palette = new ListTag();
+    for (String name : channels.palette) {
+      palette.add(StringTag.valueOf(name));
+    }
+    nbt.put("palette", palette);
+    nbt.putIntArray("flags", channels.flags);
+    nbt.putIntArray("pos", bits(channels.positions));
+    nbt.putIntArray("rot", bits(channels.orientations));
+    nbt.putIntArray("roll", bits(channels.rolls));
+    nbt.putIntArray("fov", bits(channels.fovs));
+    nbt.putIntArray("duration", bits(channels.durations));
+    nbt.putIntArray("weight", bits(channels.weights));
+    nbt.putIntArray("tcb", bits(channels.tcb));
+    nbt.putIntArray("bezierIn", bits(channels.bezierIn));
+    nbt.putIntArray("bezierOut", bits(channels.bezierOut));
+
+    ListTag follow = new ListTag();
+    for (PathModel.FollowTarget target : channels.follow) {
+      CompoundTag tag = new CompoundTag();
+      tag.putString("type", target.type.name());
+      if (target.entityId != null) {
+        tag.putUUID("entity", target.entityId);
+      }
+      if (target.position != null) {
+        tag.putIntArray(
+            "pos", bits(new float[] {target.position.x, target.position.y, target.position.z}));
+      }
+      tag.putFloat("followSpeed", target.followSpeed);
+      follow.add(tag);
+    }
+    nbt.put("follow", follow);
+
+    nbt.putLong("lastModified", path.getLastModified());
+    nbt.putUUID("lastModifier", path.getLastModifier());
+    return nbt;
+  }
+
+  /**
+   * Decode a compound written by {@link #toNBT}.
+   *
+   * @throws IllegalArgumentException if it was written by a newer layout version
+   */
+  public static PathModel fromNBT(CompoundTag nbt) {
+    checkFormat(nbt.getByte(FORMAT_KEY));
+    String id = nbt.getString("id");
+    PathModel path = new PathModel(id, nbt.contains("name") ? nbt.getString("name") : id);
+    path.setLoop(nbt.getBoolean("loop"));
+    path.setAnchor(nbt.getDouble("anchorX"), nbt.getDouble("anchorY"), nbt.getDouble("anchorZ"));
+
+    CompoundTag defaultsTag = nbt.getCompound("defaults");
+    PathModel.PathDefaults defaults = path.getDefaults();
+    defaults.interpolationType = InterpolationType.fromString(defaultsTag.getString("interp"));
+    defaults.easingType = EasingType.fromString(defaultsTag.getString("ease"));
+    defaults.speedMode =
+        defaultsTag.getString("speedMode").equals("speed")
+            ? PathModel.PathDefaults.SpeedMode.SPEED
+            : PathModel.PathDefaults.SpeedMode.DURATION;
+    defaults.banking = defaultsTag.getBoolean("banking");
+    defaults.bankingStrength = defaultsTag.getFloat("bankingStrength");
+    defaults.rollMix = defaultsTag.getFloat("rollMix");
+    defaults.orientationMode = OrientationMode.fromString(defaultsTag.getString("orientation"));
+    defaults.tabulatedEasing = defaultsTag.getBoolean("tabulatedEasing");
+
+    PathModel.SpeedSettings speed = path.getSpeed();
+    speed.durationSec = nbt.getFloat("durationSec");
+    speed.blocksPerSec = nbt.contains("blocksPerSec") ? nbt.getFloat("blocksPerSec") : null;
+    speed.arcLengthTolerance =
+        nbt.contains("arcLengthTolerance") ? nbt.getFloat("arcLengthTolerance") : null;
+
+    Channels channels = new Channels();
+    ListTag palette = nbt.getList("palette", Tag.TAG_STRING);
+    for (int i = 0; i < palette.size(); i++) {
+      channels.palette.add(palette.getString(i));
+    }
+    channels.flags = nbt.getIntArray("flags");
+    channels.positions = floats(nbt.getIntArray("pos"));
+    channels.orientations = floats(nbt.getIntArray("rot"));
+    channels.rolls = floats(nbt.getIntArray("roll"));
+    channels.fovs = floats(nbt.getIntArray("fov"));
+    channels.durations = floats(nbt.getIntArray("duration"));
+    channels.weights = floats(nbt.getIntArray("weight"));
+    channels.tcb = floats(nbt.getIntArray("tcb"));
+    channels.bezierIn = floats(nbt.getIntArray("bezierIn"));
+    channels.bezierOut = floats(nbt.getIntArray("bezierOut"));
+
+    ListTag follow = nbt.getList("follow", Tag.TAG_COMPOUND);
+    for (int i = 0; i < follow.size(); i++) {
+      CompoundTag tag = follow.getCompound(i);
+      PathModel.FollowTarget target = new PathModel.FollowTarget();
+      target.type = PathModel.FollowTarget.FollowType.valueOf(tag.getString("type"));
+      if (tag.contains("entity")) {
+        target.entityId = tag.getUUID("entity");
+      }
+      if (tag.contains("pos")) {
+        float[] pos = floats(tag.getIntArray("pos"));
+        target.position = new Vector3f(pos[0], pos[1], pos[2]);
+      }
+      target.followSpeed = tag.getFloat("followSpeed");
+      channels.follow.add(target);
+    }
+
+    path.replaceSegments(channels.unpack());
+    path.restoreMetadata(nbt.getLong("lastModified"), nbt.getUUID("lastModifier"));
+    return path;
+  }
+
+  // ===== BINARY =====
+
+  /** Write a path in the packed layout, for network buffers and files. */
+  public static void write(PathModel path, DataOutput out) throws IOException {
+    write(path.snapshot(), out);
+  }
+
+  /** Write a snapshot; safe off the thread that edits the path. */
+  public static void write(PathSnapshot path, DataOutput out) throws IOException {
+    Channels channels = Channels.pack(path.getSegments());
+    Vector3d anchor = path.getAnchor(new Vector3d());
+    out.writeByte(FORMAT);
+    out.writeUTF(path.getId());
+    out.writeUTF(path.getName());
+    out.writeBoolean(path.isLoop());
+    out.writeDouble(anchor.x);
+    out.writeDouble(anchor.y);
+    out.writeDouble(anchor.z);
+
+    PathModel.PathDefaults defaults = path.getDefaults();
+    out.writeUTF(defaults.interpolationType.getName());
+    out.writeUTF(defaults.easingType.getName());
+    out.writeBoolean(defaults.speedMode == PathModel.PathDefaults.SpeedMode.SPEED);
+    out.writeBoolean(defaults.banking);
+    out.writeFloat(defaults.bankingStrength);
+    out.writeFloat(defaults.rollMix);
+    out.writeUTF(defaults.orientationMode.getName());
+    out.writeBoolean(defaults.tabulatedEasing);
+
+    PathModel.SpeedSettings speed = path.getSpeed();
+    out.writeFloat(speed.durationSec);
+    writeOptional(out, speed.blocksPerSec);
+    writeOptional(out, speed.arcLengthTolerance);
+
+    out.writeByte(channels.palette.size());
+    for (String name : channels.palette) {
+      out.writeUTF(name);
+    }
+    int count = channels.flags.length;
+    out.writeInt(count);
+    for (int flags : channels.flags) {
+      out.writeInt(flags);
+    }
+    // Lengths of the remaining channels follow from the count and flags
+    writeFloats(out, channels.positions);
+    writeFloats(out, channels.orientations);
+    writeFloats(out, channels.rolls);
+    writeFloats(out, channels.fovs);
+    writeFloats(out, channels.durations);
+    writeFloats(out, channels.weights);
+    writeFloats(out, channels.tcb);
+    writeFloats(out, channels.bezierIn);
+    writeFloats(out, channels.bezierOut);
+    for (PathModel.FollowTarget target : channels.follow) {
+      out.writeUTF(target.type.name());
+      out.writeBoolean(target.entityId != null);
+      if (target.entityId != null) {
+        out.writeLong(target.entityId.getMostSignificantBits());
+        out.writeLong(target.entityId.getLeastSignificantBits());
+      }
+      out.writeBoolean(target.position != null);
+      if (target.position != null) {
+        out.writeFloat(target.position.x);
+        out.writeFloat(target.position.y);
+        out.writeFloat(target.position.z);
+      }
+      out.writeFloat(target.followSpeed);
+    }
+
+    out.writeLong(path.getLastModified());
+    out.writeLong(path.getLastModifier().getMostSignificantBits());
+    out.writeLong(path.getLastModifier().getLeastSignificantBits());
+  }
+
+  /**
+   * Read a path written by {@link #write}.
+   *
+   * @throws IOException if the stream ends early or was written by a newer layout version
+   */
+  public static PathModel read(DataInput in) throws IOException {
+    byte format = in.readByte();
+    if (format < 1 || format > FORMAT) {
+      throw new IOException("Unsupported path format " + format);
+    }
+    String id = in.readUTF();
+    PathModel path = new PathModel(id, in.readUTF());
+    path.setLoop(in.readBoolean());
+    path.setAnchor(in.readDouble(), in.readDouble(), in.readDouble());
+
+    PathModel.PathDefaults defaults = path.getDefaults();
+    defaults.interpolationType = InterpolationType.fromString(in.readUTF());
+    defaults.easingType = EasingType.fromString(in.readUTF());
+    defaults.speedMode =
+        in.readBoolean()
+            ? PathModel.PathDefaults.SpeedMode.SPEED
+            : PathModel.PathDefaults.SpeedMode.DURATION;
+    defaults.banking = in.readBoolean();
+    defaults.bankingStrength = in.readFloat();
+    defaults.rollMix = in.readFloat();
+    defaults.orientationMode = OrientationMode.fromString(in.readUTF());
+    defaults.tabulatedEasing = in.readBoolean();
+
+    PathModel.SpeedSettings speed = path.getSpeed();
+    speed.durationSec = in.readFloat();
+    speed.blocksPerSec = readOptional(in);
+    speed.arcLengthTolerance = readOptional(in);
+
+    Channels channels = new Channels();
+    int paletteSize = in.readUnsignedByte();
+    for (int i = 0; i < paletteSize; i++) {
+      channels.palette.add(in.readUTF());
+    }
+    int count = in.readInt();
+    channels.flags = new int[count];
+    int[] present = new int[6]; // Segments with each optional field
+    for (int i = 0; i < count; i++) {
+      int flags = in.readInt();
+      channels.flags[i] = flags;
+      for (int bit = 0; bit < present.length; bit++) {
+        present[bit] += (flags >> bit) & 1;
+      }
+    }
+    channels.positions = readFloats(in, count * 3);
+    channels.orientations = readFloats(in, count * 4);
+    channels.rolls = readFloats(in, count);
+    channels.fovs = readFloats(in, count);
+    channels.durations = readFloats(in, present[0]);
+    channels.weights = readFloats(in, present[1]);
+    channels.tcb = readFloats(in, present[2] * 3);
+    channels.bezierIn = readFloats(in, present[3] * 3);
+    channels.bezierOut = readFloats(in, present[4] * 3);
+    for (int i = 0; i < present[5]; i++) {
+      PathModel.FollowTarget target = new PathModel.FollowTarget();
+      target.type = PathModel.FollowTarget.FollowType.valueOf(in.readUTF());
+      if (in.readBoolean()) {
+        target.entityId = new UUID(in.readLong(), in.readLong());
+      }
+      if (in.readBoolean()) {
+        target.position = new Vector3f(in.readFloat(), in.readFloat(), in.readFloat());
+      }
+      target.followSpeed = in.readFloat();
+      channels.follow.add(target);
+    }
+
+    path.replaceSegments(channels.unpack());
+    path.restoreMetadata(in.readLong(), new UUID(in.readLong(), in.readLong()));
+    return path;
+  }
+
+  // ===== CHANNELS =====
+
+  /** Segment data split into packed per-field arrays. */
+  private static final class Channels {
+    final List<String> palette = new ArrayList<>();
+    final List<PathModel.FollowTarget> follow = new ArrayList<>();
+    int[] flags;
+    float[] positions;
+    float[] orientations;
+    float[] rolls;
+    float[] fovs;
+    float[] durations;
+    float[] weights;
+    float[] tcb;
+    float[] bezierIn;
+    float[] bezierOut;
+
+    static Channels pack(List<PathModel.Segment> segments) {
+      Channels channels = new Channels();
+      int count = segments.size();
+      channels.flags = new int[count];
+      channels.positions = new float[count * 3];
+      channels.orientations = new float[count * 4];
+      channels.rolls = new float[count];
+      channels.fovs = new float[count];
+
+      int durations = 0;
+      int weights = 0;
+      int tcb = 0;
+      int bezierIn = 0;
+      int bezierOut = 0;
+      for (int i = 0; i < count; i++) {
+        PathModel.Segment segment = segments.get(i);
+        int flags = 0;
+        if (segment.durationSec != null) {
+          flags |= HAS_DURATION;
+          durations++;
+        }
+        if (segment.weight != null) {
+          flags |= HAS_WEIGHT;
+          weights++;
+        }
+        if (segment.tension != 0f || segment.continuity != 0f || segment.bias != 0f) {
+          flags |= HAS_TCB;
+          tcb++;
+        }
+        if (segment.bezierIn != null) {
+          flags |= HAS_BEZIER_IN;
+          bezierIn++;
+        }
+        if (segment.bezierOut != null) {
+          flags |= HAS_BEZIER_OUT;
+          bezierOut++;
+        }
+        if (segment.followTarget != null) {
+          flags |= HAS_FOLLOW;
+          channels.follow.add(segment.followTarget);
+        }
+        if (segment.interpolationType != null) {
+          flags |= channels.paletteIndex(segment.interpolationType.getName()) << INTERP_SHIFT;
+        }
+        if (segment.easingType != null) {
+          flags |= channels.paletteIndex(segment.easingType.getName()) << EASE_SHIFT;
+        }
+        channels.flags[i] = flags;
+      }
+      channels.durations = new float[durations];
+      channels.weights = new float[weights];
+      channels.tcb = new float[tcb * 3];
+      channels.bezierIn = new float[bezierIn * 3];
+      channels.bezierOut = new float[bezierOut * 3];
+
+      durations = weights = tcb = bezierIn = bezierOut = 0;
+      for (int i = 0; i < count; i++) {
+        PathModel.Segment segment = segments.get(i);
+        put(channels.positions, i, segment.position);
+        Quaternionf q = segment.orientation;
+        channels.orientations[i * 4] = q.x;
+        channels.orientations[i * 4 + 1] = q.y;
+        channels.orientations[i * 4 + 2] = q.z;
+        channels.orientations[i * 4 + 3] = q.w;
+        channels.rolls[i] = segment.roll;
+        channels.fovs[i] = segment.fov;
+
+        int flags = channels.flags[i];
+        if ((flags & HAS_DURATION) != 0) {
+          channels.durations[durations++] = segment.durationSec;
+        }
+        if ((flags & HAS_WEIGHT) != 0) {
+          channels.weights[weights++] = segment.weight;
+        }
+        if ((flags & HAS_TCB) != 0) {
+          channels.tcb[tcb * 3] = segment.tension;
+          channels.tcb[tcb * 3 + 1] = segment.continuity;
+          channels.tcb[tcb * 3 + 2] = segment.bias;
+          tcb++;
+        }
+        if ((flags & HAS_BEZIER_IN) != 0) {
+          put(channels.bezierIn, bezierIn++, segment.bezierIn);
+        }
+        if ((flags & HAS_BEZIER_OUT) != 0) {
+          put(channels.bezierOut, bezierOut++, segment.bezierOut);
+        }
+      }
+      return channels;
+    }
+
+    List<PathModel.Segment> unpack() {
+      int count = flags.length;
+      List<PathModel.Segment> segments = new ArrayList<>(count);
+      int durations = 0;
+      int weights = 0;
+      int tcb = 0;
+      int bezierIn = 0;
+      int bezierOut = 0;
+      int follows = 0;
+      Vector3f position = new Vector3f();
+      Quaternionf orientation = new Quaternionf();
+      for (int i = 0; i < count; i++) {
+        orientation.set(
+            orientations[i * 4],
+            orientations[i * 4 + 1],
+            orientations[i * 4 + 2],
+            orientations[i * 4 + 3]);
+        PathModel.Segment segment = new PathModel.Segment(get(positions, i, position), orientation);
+        segment.roll = rolls[i];
+        segment.fov = fovs[i];
+
+        int flags = this.flags[i];
+        if ((flags & HAS_DURATION) != 0) {
+          segment.durationSec = this.durations[durations++];
+        }
+        if ((flags & HAS_WEIGHT) != 0) {
+          segment.weight = this.weights[weights++];
+        }
+        if ((flags & HAS_TCB) != 0) {
+          segment.tension = this.tcb[tcb * 3];
+          segment.continuity = this.tcb[tcb * 3 + 1];
+          segment.bias = this.tcb[tcb * 3 + 2];
+          tcb++;
+        }
+        if ((flags & HAS_BEZIER_IN) != 0) {
+          segment.bezierIn = get(this.bezierIn, bezierIn++, new Vector3f());
+        }
+        if ((flags & HAS_BEZIER_OUT) != 0) {
+          segment.bezierOut = get(this.bezierOut, bezierOut++, new Vector3f());
+        }
+        if ((flags & HAS_FOLLOW) != 0) {
+          segment.followTarget = follow.get(follows++);
+        }
+        int interp = (flags >> INTERP_SHIFT) & PALETTE_MASK;
+        if (interp != 0) {
+          segment.interpolationType = InterpolationType.fromString(palette.get(interp - 1));
+        }
+        int ease = (flags >> EASE_SHIFT) & PALETTE_MASK;
+        if (ease != 0) {
+          segment.easingType = EasingType.fromString(palette.get(ease - 1));
+        }
+        segments.add(segment);
+      }
+      return segments;
+    }
+
+    /** Palette index + 1 of an enum name, adding it if new. */
+    private int paletteIndex(String name) {
+      int index = palette.indexOf(name);
+      if (index < 0) {
+        palette.add(name);
+        index = palette.size() - 1;
+      }
+      return index + 1;
+    }
+
+    private static void put(float[] array, int index, Vector3f value) {
+      array[index * 3] = value.x;
+      array[index * 3 + 1] = value.y;
+      array[index * 3 + 2] = value.z;
+    }
+
+    private static Vector3f get(float[] array, int index, Vector3f dest) {
+      return dest.set(array[index * 3], array[index * 3 + 1], array[index * 3 + 2]);
+    }
+  }
+
+  private static void checkFormat(byte format) {
+    if (format < 1 || format > FORMAT) {
+      throw new IllegalArgumentException("Unsupported path format " + format);
+    }
+  }
+
+  private static int[] bits(float[] values) {
+    int[] bits = new int[values.length];
+    for (int i = 0; i < values.length; i++) {
+      bits[i] = Float.floatToRawIntBits(values[i]);
+    }
+    return bits;
+  }
+
+  private static float[] floats(int[] bits) {
+    float[] values = new float[bits.length];
+    for (int i = 0; i < bits.length; i++) {
+      values[i] = Float.intBitsToFloat(bits[i]);
+    }
+    return values;
+  }
+
+  private static void writeFloats(DataOutput out, float[] values) throws IOException {
+    for (float value : values) {
+      out.writeFloat(value);
+    }
+  }
+
+  private static float[] readFloats(DataInput in, int count) throws IOException {
+    float[] values = new float[count];
+    for (int i = 0; i < count; i++) {
+      values[i] = in.readFloat();
+    }
+    return values;
+  }
+
+  private static void writeOptional(DataOutput out, Float value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeFloat(value);
+    }
+  }
+
+  private static Float readOptional(DataInput in) throws IOException {
+    return in.readBoolean() ? in.readFloat() : null;
+  }
+}
@@ -0,0 +1,144 @@
+package net.tysontheember.apertureapi.path;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the compiled kernels and lookup tables of edited paths in the background, so playback
+ * never waits for a rebuild.
+ *
+ * <p>{@link #current} returns the newest {@link PathSnapshot} of a model whose tables are built.
+ * When the model has been edited since, it enqueues a rebuild of the latest snapshot and keeps
+ * returning the previous one until the rebuild is published; only the very first call for a model
+ * builds on the calling thread. Edits made while a rebuild is still queued are folded into it, so a
+ * burst of edits costs one build. {@link #awaitCompiled} waits for the latest state instead, e.g.
+ * before a cutscene starts.
+ *
+ * <p>Call {@link #current} and {@link #rebuild} on the thread that edits the model, as they take
+ * its snapshot. Builds run on a small bounded pool; when its queue is full the caller builds
+ * inline.
+ */
+public final class PathCompileService {
+  public static final PathCompileService INSTANCE = new PathCompileService(2, 64);
+
+  private final Executor executor;
+  private final Object lock = new Object();
+
+  public PathCompileService(int threads, int queueCapacity) {
+    AtomicInteger count = new AtomicInteger();
+    ThreadPoolExecutor pool =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            30L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            task -> {
+              Thread thread = new Thread(task, "Aperture path compiler " + count.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    pool.allowCoreThreadTimeOut(true);
+    this.executor = pool;
+  }
+
+  PathCompileService(Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Newest compiled snapshot of {@code model}. After an edit this is the previous snapshot while
+   * the new one builds in the background; it blocks only if nothing was built for the model yet.
+   */
+  public PathSnapshot current(PathModel model) {
+    PathSnapshot latest = model.snapshot();
+    PathSnapshot published = model.compiledSnapshot;
+    if (published == latest) {
+      return published;
+    }
+    if (published == null) {
+      // Nothing stale to show; build the first one here rather than wait on the pool
+      latest.prepare();
+      publish(model, latest);
+      return latest;
+    }
+    rebuild(model);
+    return published;
+  }
+
+  /**
+   * Enqueue a build of the model's latest snapshot. The future completes with the snapshot once it
+   * is published, or with a newer one if later edits were folded into the same build.
+   */
+  public CompletableFuture<PathSnapshot> rebuild(PathModel model) {
+    PathSnapshot target = model.snapshot();
+    Rebuild rebuild;
+    synchronized (lock) {
+      Rebuild pending = model.pendingRebuild;
+      if (pending != null && (!pending.started || pending.target == target)) {
+        if (pending.target.getVersion() < target.getVersion()) {
+          pending.target = target;
+        }
+        return pending.future;
+      }
+      rebuild = new Rebuild(target);
+      model.pendingRebuild = rebuild;
+    }
+    executor.execute(() -> run(model, rebuild));
+    return rebuild.future;
+  }
+
+  /** Block until the model's latest state is compiled and published, and return it. */
+  public PathSnapshot awaitCompiled(PathModel model) {
+    PathSnapshot latest = model.snapshot();
+    return model.compiledSnapshot == latest ? latest : rebuild(model).join();
+  }
+
+  private void run(PathModel model, Rebuild rebuild) {
+    PathSnapshot target;
+    synchronized (lock) {
+      rebuild.started = true;
+      target = rebuild.target;
+    }
+    try {
+      target.prepare();
+      publish(model, target);
+      rebuild.future.complete(target);
+    } catch (Throwable e) {
+      // Complete on errors too, or awaitCompiled would wait forever
+      rebuild.future.completeExceptionally(e);
+    } finally {
+      synchronized (lock) {
+        if (model.pendingRebuild == rebuild) {
+          model.pendingRebuild = null;
+        }
+      }
+    }
+  }
+
+  private void publish(PathModel model, PathSnapshot snapshot) {
+    synchronized (lock) {
+      PathSnapshot published = model.compiledSnapshot;
+      // Builds can finish out of order; never replace a newer snapshot with an older one
+      if (published == null || published.getVersion() <= snapshot.getVersion()) {
+        model.compiledSnapshot = snapshot;
+      }
+    }
+  }
+
+  /** One queued or running build; until it starts, later edits replace its target. */
+  static final class Rebuild {
+    private final CompletableFuture<PathSnapshot> future = new CompletableFuture<>();
+    private PathSnapshot target;
+    private boolean started;
+
+    private Rebuild(PathSnapshot target) {
+      this.target = target;
+    }
+  }
+}
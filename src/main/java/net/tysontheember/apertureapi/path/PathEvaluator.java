@@ -1,8 +1,10 @@
 package net.tysontheember.apertureapi.path;
 
 import java.util.List;
+import net.minecraft.util.Mth;
 import net.tysontheember.apertureapi.path.interpolation.EasingType;
 import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import net.tysontheember.apertureapi.path.interpolation.OrientationMode;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
@@ -41,10 +43,15 @@ public class PathEvaluator {
   }
 
   /** Evaluate path at a given time in seconds */
-  public static EvaluationResult evaluateAtTime(PathModel path, float timeSeconds) {
+  public static EvaluationResult evaluateAtTime(PathView path, float timeSeconds) {
+    return evaluateAtTime(path, timeSeconds, new PathPose()).toResult();
+  }
+
+  /** Evaluate path at a given time in seconds into {@code dest}. Allocation-free. */
+  public static PathPose evaluateAtTime(PathView path, float timeSeconds, PathPose dest) {
     List<PathModel.Segment> segments = path.getSegments();
     if (segments.size() < 2) {
-      return createDefaultResult(segments.isEmpty() ? null : segments.get(0));
+      return segments.isEmpty() ? dest.reset() : dest.set(segments.get(0));
     }
 
     // Convert time to path parameter based on speed mode
@@ -55,27 +62,30 @@ public class PathEvaluator {
       float arcLength = timeSeconds * blocksPerSec;
       globalT = path.getArcLengthLUT().arcLengthToParameter(arcLength);
     } else {
-      // Duration mode: normalize time by total duration
-      float totalDuration = path.getSpeed().durationSec;
-      globalT = Math.max(0f, Math.min(1f, timeSeconds / totalDuration));
+      // Duration mode: per-segment durations and weights through the prefix-sum time map
+      globalT = path.getTimeMap().timeToParameter(timeSeconds, path.getSpeed().durationSec);
     }
 
-    return evaluateAtParameter(path, globalT);
+    return evaluateAtParameter(path, globalT, dest);
   }
 
   /** Evaluate path at a normalized parameter [0,1] */
-  public static EvaluationResult evaluateAtParameter(PathModel path, float globalT) {
+  public static EvaluationResult evaluateAtParameter(PathView path, float globalT) {
+    return evaluateAtParameter(path, globalT, new PathPose()).toResult();
+  }
+
+  /**
+   * Evaluate path at a normalized parameter [0,1] into {@code dest}. Allocation-free once the
+   * path's compiled kernels and arc-length LUT are built.
+   */
+  public static PathPose evaluateAtParameter(PathView path, float globalT, PathPose dest) {
     List<PathModel.Segment> segments = path.getSegments();
     if (segments.size() < 2) {
-      return createDefaultResult(segments.isEmpty() ? null : segments.get(0));
+      return segments.isEmpty() ? dest.reset() : dest.set(segments.get(0));
     }
 
     // Handle looping
-    if (path.isLoop() && globalT >= 1f) {
-      globalT = globalT - (float) Math.floor(globalT); // Wrap around
-    } else {
-      globalT = Math.max(0f, Math.min(1f, globalT)); // Clamp
-    }
+    globalT = wrapParameter(path, globalT);
 
     // Find the current segment
     int numSegments = segments.size() - 1; // Number of interpolation segments
@@ -91,96 +101,216 @@ public class PathEvaluator {
 
     PathModel.Segment current = segments.get(segmentIndex);
     PathModel.Segment next = segments.get(segmentIndex + 1);
+    PathModel.PathDefaults defaults = path.getDefaults();
 
-    // Get interpolation settings (per-segment or fallback to defaults)
-    InterpolationType interpType =
-        current.interpolationType != null
-            ? current.interpolationType
-            : path.getDefaults().interpolationType;
-    EasingType easingType =
-        current.easingType != null ? current.easingType : path.getDefaults().easingType;
+    // Interpolation settings are resolved per segment when the path is compiled
+    CompiledPath compiled = path.getCompiled();
+    EasingType easingType = compiled.getEasingType(segmentIndex);
 
     // Apply easing to local parameter
-    float easedT = easingType.apply(localT);
+    float easedT = ease(defaults, easingType, localT);
 
-    // Interpolate position
-    Vector3f position =
-        PathInterpolationEngine.interpolatePosition(
-            current, next, easedT, interpType, segmentIndex, segments);
+    // Interpolate position from the precomputed segment polynomial
+    compiled.evaluatePosition(segmentIndex, easedT, dest.position);
 
-    // Interpolate orientation with banking
-    Quaternionf orientation =
-        PathInterpolationEngine.interpolateOrientation(
-            current, next, easedT, path.getDefaults().banking, path.getDefaults().bankingStrength);
+    // Interpolate orientation; banking is applied through roll below
+    if (defaults.orientationMode == OrientationMode.SQUAD) {
+      compiled.evaluateSquadOrientation(segmentIndex, easedT, dest.orientation);
+    } else {
+      PathInterpolationEngine.interpolateOrientation(
+          current, next, easedT, false, defaults.bankingStrength, dest.orientation);
+    }
 
-    // Calculate banking roll if enabled
+    // Banking roll from the smoothed curvature profile at this point on the curve
     float bankingRoll = 0f;
-    if (path.getDefaults().banking) {
-      bankingRoll =
-          PathInterpolationEngine.calculateBankingRoll(
-              current, next, segmentIndex, segments, path.getDefaults().bankingStrength);
+    if (defaults.banking) {
+      float arcLength =
+          path.getArcLengthLUT().parameterToArcLength((segmentIndex + easedT) / numSegments);
+      bankingRoll = path.getFrameTable().bankAngle(arcLength) * defaults.bankingStrength;
     }
 
+    // Roll and FOV ease the eased parameter again (as interpolateRoll and interpolateFOV do when
+    // handed easedT); evaluate that once and share it
+    float channelT = ease(defaults, easingType, easedT);
+
     // Interpolate roll (combines keyframed roll with banking)
-    float roll =
-        PathInterpolationEngine.interpolateRoll(
-            current.roll, next.roll, easedT, easingType, bankingRoll, path.getDefaults().rollMix);
+    float keyframedRoll = Mth.lerp(channelT, current.roll, next.roll);
+    dest.roll = Mth.lerp(defaults.rollMix, keyframedRoll, bankingRoll);
 
     // Interpolate FOV
-    float fov = PathInterpolationEngine.interpolateFOV(current.fov, next.fov, easedT, easingType);
+    dest.fov = Mth.lerp(channelT, current.fov, next.fov);
 
     // Calculate current speed
-    float speed = calculateCurrentSpeed(path, globalT, segmentIndex, localT);
-
-    return new EvaluationResult(position, orientation, roll, fov, speed, segmentIndex, localT);
+    dest.speed = calculateCurrentSpeed(path, compiled, segmentIndex, localT, easedT);
+    dest.segmentIndex = segmentIndex;
+    dest.segmentProgress = localT;
+    return dest;
   }
 
   /** Evaluate path at arc-length (distance along curve) */
-  public static EvaluationResult evaluateAtArcLength(PathModel path, float arcLength) {
+  public static EvaluationResult evaluateAtArcLength(PathView path, float arcLength) {
+    return evaluateAtArcLength(path, arcLength, new PathPose()).toResult();
+  }
+
+  /** Evaluate path at arc-length into {@code dest}. Allocation-free. */
+  public static PathPose evaluateAtArcLength(PathView path, float arcLength, PathPose dest) {
     PathModel.ArcLengthLUT lut = path.getArcLengthLUT();
     float globalT = lut.arcLengthToParameter(arcLength);
-    return evaluateAtParameter(path, globalT);
+    return evaluateAtParameter(path, globalT, dest);
   }
 
   /** Get the total duration of the path in seconds */
-  public static float getTotalDuration(PathModel path) {
+  public static float getTotalDuration(PathView path) {
     if (path.getSpeed().isSpeedMode()) {
       // Speed mode: duration = length / speed
       float totalLength = path.getArcLengthLUT().getTotalLength();
       return totalLength / path.getSpeed().blocksPerSec;
     } else {
-      // Duration mode: use specified duration
-      return path.getSpeed().durationSec;
+      // Duration mode: specified duration, stretched if fixed segment durations exceed it
+      return path.getTimeMap().getTotalDuration(path.getSpeed().durationSec);
     }
   }
 
   /** Get the total arc-length of the path in blocks */
-  public static float getTotalLength(PathModel path) {
+  public static float getTotalLength(PathView path) {
     return path.getArcLengthLUT().getTotalLength();
   }
 
-  /** Get velocity vector at a given time */
-  public static Vector3f getVelocityAtTime(PathModel path, float timeSeconds) {
-    float dt = 0.016f; // ~1 frame at 60fps
+  /** Get velocity vector at a given time, in blocks per second */
+  public static Vector3f getVelocityAtTime(PathView path, float timeSeconds) {
+    return getVelocityAtTime(path, timeSeconds, new Vector3f());
+  }
+
+  /**
+   * Velocity at a given time in blocks per second, written into {@code dest}. Computed from the
+   * analytic curve and easing derivatives; zero before the start and after the end of playback.
+   */
+  public static Vector3f getVelocityAtTime(PathView path, float timeSeconds, Vector3f dest) {
+    if (path.getSegments().size() < 2) {
+      return dest.zero();
+    }
 
-    EvaluationResult current = evaluateAtTime(path, timeSeconds);
-    EvaluationResult next = evaluateAtTime(path, timeSeconds + dt);
+    if (!path.getSpeed().isSpeedMode()) {
+      float pathDuration = path.getSpeed().durationSec;
+      TimeMap timeMap = path.getTimeMap();
+      if (timeSeconds < 0f || timeSeconds > timeMap.getTotalDuration(pathDuration)) {
+        return dest.zero();
+      }
+      // d(globalT)/d(time) is constant within each segment in duration mode
+      float globalT = timeMap.timeToParameter(timeSeconds, pathDuration);
+      int numSegments = timeMap.segmentCount();
+      int segmentIndex = Math.min((int) (globalT * numSegments), numSegments - 1);
+      return getVelocityAtParameter(path, globalT, dest)
+          .mul(timeMap.parameterRate(segmentIndex, pathDuration));
+    }
 
-    return new Vector3f(next.position).sub(current.position).div(dt);
+    // Speed mode: d(globalT)/d(time) = blocksPerSec / (ds/d(globalT)) from the same curve the LUT
+    // was built on (un-eased segment parameters)
+    PathModel.ArcLengthLUT lut = path.getArcLengthLUT();
+    float arcLength = timeSeconds * path.getSpeed().blocksPerSec;
+    if (arcLength < 0f || arcLength > lut.getTotalLength()) {
+      return dest.zero();
+    }
+    float globalT = lut.arcLengthToParameter(arcLength);
+    getVelocityAtParameter(path, globalT, dest);
+
+    int numSegments = path.getSegments().size() - 1;
+    float segmentFloat = Math.max(0f, Math.min(1f, globalT)) * numSegments;
+    int segmentIndex = Math.min((int) segmentFloat, numSegments - 1);
+    double arcLengthRate =
+        path.getCompiled().parameterSpeed(segmentIndex, segmentFloat - segmentIndex) * numSegments;
+    if (arcLengthRate < 1e-6) {
+      return dest.zero();
+    }
+    return dest.mul((float) (path.getSpeed().blocksPerSec / arcLengthRate));
   }
 
-  /** Get velocity vector at parameter */
-  public static Vector3f getVelocityAtParameter(PathModel path, float globalT) {
-    float dt = 0.001f; // Small parameter delta
+  /** Get velocity vector at parameter, per unit of normalized parameter */
+  public static Vector3f getVelocityAtParameter(PathView path, float globalT) {
+    return getVelocityAtParameter(path, globalT, new Vector3f());
+  }
 
-    EvaluationResult current = evaluateAtParameter(path, globalT);
-    EvaluationResult next = evaluateAtParameter(path, globalT + dt);
+  /**
+   * Derivative of position with respect to the normalized path parameter at {@code globalT},
+   * including easing, written into {@code dest}. One analytic evaluation; allocation-free.
+   */
+  public static Vector3f getVelocityAtParameter(PathView path, float globalT, Vector3f dest) {
+    List<PathModel.Segment> segments = path.getSegments();
+    if (segments.size() < 2) {
+      return dest.zero();
+    }
 
-    return new Vector3f(next.position).sub(current.position).div(dt);
+    globalT = wrapParameter(path, globalT);
+    int numSegments = segments.size() - 1;
+    float segmentFloat = globalT * numSegments;
+    int segmentIndex = Math.min((int) segmentFloat, numSegments - 1);
+    float localT = segmentFloat - segmentIndex;
+
+    CompiledPath compiled = path.getCompiled();
+    EasingType easingType = compiled.getEasingType(segmentIndex);
+    compiled.evaluateTangent(segmentIndex, ease(path.getDefaults(), easingType, localT), dest);
+    return dest.mul(easingType.derivative(localT) * numSegments);
+  }
+
+  /**
+   * Curvature of the path at {@code globalT} in 1/blocks (the inverse turning radius). Independent
+   * of easing and speed.
+   */
+  public static float getCurvatureAtParameter(PathView path, float globalT) {
+    List<PathModel.Segment> segments = path.getSegments();
+    if (segments.size() < 2) {
+      return 0f;
+    }
+
+    globalT = wrapParameter(path, globalT);
+    int numSegments = segments.size() - 1;
+    float segmentFloat = globalT * numSegments;
+    int segmentIndex = Math.min((int) segmentFloat, numSegments - 1);
+    float localT = segmentFloat - segmentIndex;
+
+    CompiledPath compiled = path.getCompiled();
+    return compiled.curvature(
+        segmentIndex, ease(path.getDefaults(), compiled.getEasingType(segmentIndex), localT));
+  }
+
+  /**
+   * Rotation-minimizing frame of the path at {@code globalT}, written into {@code dest}: local +Z
+   * along the direction of travel and +Y a normal that does not twist around it. Looked up from
+   * the path's {@link FrameTable}.
+   */
+  public static Quaternionf getFrameAtParameter(PathView path, float globalT, Quaternionf dest) {
+    List<PathModel.Segment> segments = path.getSegments();
+    if (segments.size() < 2) {
+      return dest.identity();
+    }
+
+    globalT = wrapParameter(path, globalT);
+    int numSegments = segments.size() - 1;
+    float segmentFloat = globalT * numSegments;
+    int segmentIndex = Math.min((int) segmentFloat, numSegments - 1);
+    float localT = segmentFloat - segmentIndex;
+    float easedT =
+        ease(path.getDefaults(), path.getCompiled().getEasingType(segmentIndex), localT);
+    float arcLength =
+        path.getArcLengthLUT().parameterToArcLength((segmentIndex + easedT) / numSegments);
+    return path.getFrameTable().frameAt(arcLength, dest);
+  }
+
+  /** Apply a segment's easing, from the shared table when the path opts into it. */
+  private static float ease(PathModel.PathDefaults defaults, EasingType easing, float localT) {
+    return defaults.tabulatedEasing ? easing.applyTabulated(localT) : easing.apply(localT);
+  }
+
+  /** Wrap a looping path's parameter into [0,1), or clamp it to [0,1]. */
+  private static float wrapParameter(PathView path, float globalT) {
+    if (path.isLoop() && globalT >= 1f) {
+      return globalT - (float) Math.floor(globalT);
+    }
+    return Math.max(0f, Math.min(1f, globalT));
   }
 
   /** Sample the path at regular intervals for preview/debugging */
-  public static EvaluationResult[] samplePath(PathModel path, int numSamples) {
+  public static EvaluationResult[] samplePath(PathView path, int numSamples) {
     EvaluationResult[] samples = new EvaluationResult[numSamples];
 
     for (int i = 0; i < numSamples; i++) {
@@ -192,7 +322,7 @@ public class PathEvaluator {
   }
 
   /** Get debug information for a specific time */
-  public static String getDebugInfo(PathModel path, float timeSeconds) {
+  public static String getDebugInfo(PathView path, float timeSeconds) {
     EvaluationResult result = evaluateAtTime(path, timeSeconds);
     Vector3f velocity = getVelocityAtTime(path, timeSeconds);
 
@@ -217,40 +347,20 @@ public class PathEvaluator {
         result.segmentProgress * 100);
   }
 
-  private static EvaluationResult createDefaultResult(PathModel.Segment segment) {
-    if (segment == null) {
-      return new EvaluationResult(new Vector3f(0, 0, 0), new Quaternionf(), 0f, 90f, 0f, 0, 0f);
-    }
-
-    return new EvaluationResult(
-        new Vector3f(segment.position),
-        new Quaternionf(segment.orientation),
-        segment.roll,
-        segment.fov,
-        0f,
-        0,
-        0f);
-  }
-
   private static float calculateCurrentSpeed(
-      PathModel path, float globalT, int segmentIndex, float localT) {
+      PathView path, CompiledPath compiled, int segmentIndex, float localT, float easedT) {
     if (path.getSpeed().isSpeedMode()) {
       return path.getSpeed().blocksPerSec;
     }
 
-    // For duration mode, calculate instantaneous speed based on arc-length derivative
-    PathModel.ArcLengthLUT lut = path.getArcLengthLUT();
-    float currentArcLength = lut.parameterToArcLength(globalT);
-
-    // Approximate derivative using finite difference
-    float dt = 0.001f;
-    float nextT = Math.min(1f, globalT + dt);
-    float nextArcLength = lut.parameterToArcLength(nextT);
-
-    float dsdt = (nextArcLength - currentArcLength) / dt; // ds/dt in parameter space
-    float dtds_time = path.getSpeed().durationSec; // dt/ds in time space
-
-    return dsdt / dtds_time; // ds/dt_time = (ds/dt_param) / (dt_time/dt_param)
+    // Duration mode: |dP/d(time)| = |dP/du| * du/d(localT) * d(localT)/d(globalT) *
+    // d(globalT)/d(time), all analytic, so there is no step size to tune
+    int numSegments = compiled.segmentCount();
+    double parameterSpeed = compiled.parameterSpeed(segmentIndex, easedT);
+    float easingRate = compiled.getEasingType(segmentIndex).derivative(localT);
+    float parameterRate =
+        path.getTimeMap().parameterRate(segmentIndex, path.getSpeed().durationSec);
+    return (float) (parameterSpeed * easingRate * numSegments * parameterRate);
   }
 
   /** Create a simple linear path between two points for testing */
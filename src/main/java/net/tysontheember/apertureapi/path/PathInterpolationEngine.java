@@ -38,33 +38,26 @@ public class PathInterpolationEngine {
       float localT,
       boolean banking,
       float bankingStrength) {
-    Quaternionf result = new Quaternionf();
+    return interpolateOrientation(
+        current, next, localT, banking, bankingStrength, new Quaternionf());
+  }
 
+  /**
+   * Interpolate orientation into {@code dest}. Allocation-free. Banking is not applied to the
+   * orientation: it is a roll taken from {@link FrameTable#bankAngle(float)}, as {@link
+   * PathEvaluator} does, so {@code banking} and {@code bankingStrength} are ignored here.
+   */
+  public static Quaternionf interpolateOrientation(
+      PathModel.Segment current,
+      PathModel.Segment next,
+      float localT,
+      boolean banking,
+      float bankingStrength,
+      Quaternionf dest) {
     // Base orientation interpolation using slerp for smooth rotation
-    current.orientation.slerp(next.orientation, localT, result);
-
-    // Add banking if enabled
-    if (banking && bankingStrength > 0f) {
-      // Calculate velocity direction for banking
-      Vector3f velocity = new Vector3f(next.position).sub(current.position);
-      if (velocity.lengthSquared() > 1e-6f) {
-        velocity.normalize();
-
-        // Compute banking rotation (roll around velocity direction)
-        // This simulates aircraft-like banking in turns
-        Vector3f up = new Vector3f(0, 1, 0);
-        Vector3f right = new Vector3f(velocity).cross(up);
-        if (right.lengthSquared() > 1e-6f) {
-          right.normalize();
-          float bankAngle =
-              right.dot(velocity) * bankingStrength * (float) (Math.PI / 6); // Max 30 degrees
-          Quaternionf bankingRotation = new Quaternionf().rotateAxis(bankAngle, velocity);
-          result.mul(bankingRotation);
-        }
-      }
-    }
+    current.orientation.slerp(next.orientation, localT, dest);
 
-    return result;
+    return dest;
   }
 
   /** Interpolate FOV with easing */
@@ -311,25 +304,39 @@ public class PathInterpolationEngine {
     Vector3f prev =
         segmentIndex > 0 ? allSegments.get(segmentIndex - 1).position : current.position;
     Vector3f curr = current.position;
-    Vector3f next_pos = next.position;
+    Vector3f nextPos = next.position;
 
     // Calculate vectors
-    Vector3f v1 = new Vector3f(curr).sub(prev);
-    Vector3f v2 = new Vector3f(next_pos).sub(curr);
-
-    if (v1.lengthSquared() < 1e-6f || v2.lengthSquared() < 1e-6f) {
+    float v1x = curr.x - prev.x;
+    float v1y = curr.y - prev.y;
+    float v1z = curr.z - prev.z;
+    float v2x = nextPos.x - curr.x;
+    float v2y = nextPos.y - curr.y;
+    float v2z = nextPos.z - curr.z;
+    float v1Sq = v1x * v1x + v1y * v1y + v1z * v1z;
+    float v2Sq = v2x * v2x + v2y * v2y + v2z * v2z;
+
+    if (v1Sq < 1e-6f || v2Sq < 1e-6f) {
       return 0f;
     }
 
-    v1.normalize();
-    v2.normalize();
+    float inv1 = 1f / (float) Math.sqrt(v1Sq);
+    float inv2 = 1f / (float) Math.sqrt(v2Sq);
+    v1x *= inv1;
+    v1y *= inv1;
+    v1z *= inv1;
+    v2x *= inv2;
+    v2y *= inv2;
+    v2z *= inv2;
 
     // Calculate curvature using cross product
-    Vector3f cross = new Vector3f(v1).cross(v2);
-    float curvature = cross.length();
+    float cx = v1y * v2z - v1z * v2y;
+    float cy = v1z * v2x - v1x * v2z;
+    float cz = v1x * v2y - v1y * v2x;
+    float curvature = (float) Math.sqrt(cx * cx + cy * cy + cz * cz);
 
     // Determine banking direction (left or right turn)
-    float bankDirection = cross.y; // Y component indicates left/right
+    float bankDirection = cy; // Y component indicates left/right
 
     // Convert to banking angle (in degrees)
     float maxBankAngle = 30f; // Maximum banking angle
@@ -1,32 +1,53 @@
 package net.tysontheember.apertureapi.path;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import it.unimi.dsi.fastutil.floats.FloatArrayList;
 import it.unimi.dsi.fastutil.floats.FloatList;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import net.minecraft.nbt.CompoundTag;
 import net.tysontheember.apertureapi.path.interpolation.EasingType;
 import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import net.tysontheember.apertureapi.path.interpolation.OrientationMode;
 import org.jetbrains.annotations.Nullable;
 import org.joml.Quaternionf;
+import org.joml.Vector3d;
 import org.joml.Vector3f;
 
 /**
  * Enhanced path model for CMDCam parity featuring arc-length parameterization, quaternion
  * orientations, and advanced interpolation modes.
  */
-public class PathModel {
+public class PathModel implements PathView {
   public static final int VERSION = 2;
 
+  /** Max distance in blocks between a segment and its sampled polyline in fixed sampling mode */
+  private static final float FLATNESS_TOLERANCE = 5e-4f;
+
+  private static final int MIN_SAMPLES = 2;
+  private static final int MAX_SAMPLES = 64;
+
   private final String id;
   private final String name;
   private int version = VERSION;
   private boolean loop = false;
 
+  // World origin that segment and follow-target positions are stored relative to, so float
+  // path math keeps its precision far from spawn
+  private final Vector3d anchor = new Vector3d();
+
   // Default settings
   private final PathDefaults defaults;
 
@@ -36,19 +57,48 @@ public class PathModel {
   // Segments (keyframes)
   private final List<Segment> segments;
 
+  // Compiled segment kernels (cached)
+  private volatile CompiledPath compiled;
+  private volatile boolean compiledDirty = true;
+
   // Arc-length lookup table (cached)
   private volatile ArcLengthLUT arcLengthLUT;
   private volatile boolean lutDirty = true;
+  private @Nullable Float lutTolerance; // Tolerance the cached LUT was built with
+  private Map<ArcLengthSpan, ArcLengthSpan> spanCache = new HashMap<>(); // Reusable segment spans
+
+  // Rotation-minimizing frames and bank profile (cached per arc-length table)
+  private volatile FrameTable frameTable;
+
+  // Segment bounding-volume hierarchy (cached per compiled path)
+  private volatile PathBvh bvh;
+
+  // Immutable copy published for other threads; editCount is bumped by every edit
+  private volatile PathSnapshot snapshot;
+  private volatile long editCount;
+  private int snapshotTimingFrom = 0; // First segment with timing edits since that snapshot
+
+  // Latest snapshot built by PathCompileService and its queued or running build, if any
+  volatile PathSnapshot compiledSnapshot;
+  PathCompileService.Rebuild pendingRebuild;
+
+  // Duration-mode playback timing (cached); sums before timingDirtyFrom are still valid
+  private volatile TimeMap timeMap;
+  private volatile int timingDirtyFrom = 0;
 
   // Metadata
   private long lastModified;
   private UUID lastModifier;
 
   public PathModel(String id, String name) {
+    this(id, name, new PathDefaults(), new SpeedSettings());
+  }
+
+  private PathModel(String id, String name, PathDefaults defaults, SpeedSettings speed) {
     this.id = id;
     this.name = name;
-    this.defaults = new PathDefaults();
-    this.speed = new SpeedSettings();
+    this.defaults = defaults;
+    this.speed = speed;
     this.segments = new ArrayList<>();
     this.lastModified = System.currentTimeMillis();
     this.lastModifier = UUID.fromString("00000000-0000-0000-0000-000000000000");
@@ -67,18 +117,43 @@ public class PathModel {
     return version;
   }
 
+  @Override
   public boolean isLoop() {
     return loop;
   }
 
+  @Override
   public PathDefaults getDefaults() {
     return defaults;
   }
 
+  /** World position that segment positions are relative to. Change it with {@link #rebase}. */
+  public Vector3d getAnchor(Vector3d dest) {
+    return dest.set(anchor);
+  }
+
+  /** Set the anchor without moving segments, for codecs decoding already-relative positions. */
+  void setAnchor(double x, double y, double z) {
+    anchor.set(x, y, z);
+    markDirty();
+  }
+
+  /** World position of a path-local point, summed in double precision. */
+  public Vector3d toWorld(Vector3f local, Vector3d dest) {
+    return dest.set(anchor.x + local.x, anchor.y + local.y, anchor.z + local.z);
+  }
+
+  /** Path-local position of a world point, for building segments far from the world origin. */
+  public Vector3f toLocal(double x, double y, double z, Vector3f dest) {
+    return dest.set((float) (x - anchor.x), (float) (y - anchor.y), (float) (z - anchor.z));
+  }
+
+  @Override
   public SpeedSettings getSpeed() {
     return speed;
   }
 
+  @Override
   public List<Segment> getSegments() {
     return segments;
   }
@@ -97,20 +172,51 @@ public class PathModel {
     markDirty();
   }
 
+  /**
+   * Move the anchor to a new world position, re-expressing every segment and follow-target position
+   * relative to it so their world positions stay put. Rebasing near the middle of a path keeps its
+   * float coordinates small wherever it is in the world.
+   */
+  public void rebase(double x, double y, double z) {
+    for (Segment segment : segments) {
+      rebase(segment.position, anchor, x, y, z);
+      if (segment.followTarget != null && segment.followTarget.position != null) {
+        rebase(segment.followTarget.position, anchor, x, y, z);
+      }
+    }
+    anchor.set(x, y, z);
+    markDirty();
+  }
+
+  private static void rebase(Vector3f position, Vector3d from, double x, double y, double z) {
+    position.set(
+        (float) (from.x + position.x - x),
+        (float) (from.y + position.y - y),
+        (float) (from.z + position.z - z));
+  }
+
   public void setLastModifier(UUID modifier) {
     this.lastModifier = modifier;
     this.lastModified = System.currentTimeMillis();
   }
 
+  /** Restore saved metadata after loading, since every edit while loading stamps the time. */
+  void restoreMetadata(long lastModified, UUID lastModifier) {
+    this.lastModified = lastModified;
+    this.lastModifier = lastModifier;
+  }
+
   /** Add a segment to the path */
   public void addSegment(Segment segment) {
     segments.add(segment);
+    markTimingDirty(segments.size() - 2);
     markDirty();
   }
 
   /** Insert segment at specific index */
   public void insertSegment(int index, Segment segment) {
     segments.add(index, segment);
+    markTimingDirty(index - 1);
     markDirty();
   }
 
@@ -118,27 +224,118 @@ public class PathModel {
   public void removeSegment(int index) {
     if (index >= 0 && index < segments.size()) {
       segments.remove(index);
+      markTimingDirty(index - 1);
       markDirty();
     }
   }
 
+  /** Replace every keyframe at once, e.g. with the ones a simplifier kept. */
+  void replaceSegments(List<Segment> replacement) {
+    segments.clear();
+    segments.addAll(replacement);
+    markTimingDirty(0);
+    markDirty();
+  }
+
   /** Get segment at index */
   public @Nullable Segment getSegment(int index) {
     return (index >= 0 && index < segments.size()) ? segments.get(index) : null;
   }
 
-  /** Mark LUT as dirty - will be rebuilt on next evaluation */
+  /**
+   * Notify the path that a keyframe was edited in place (position, handles, TCB, interpolation,
+   * timing). Only the segments whose curve the keyframe influences are resampled on the next LUT
+   * build, and timing sums are only recomputed from this keyframe onward.
+   */
+  public void markSegmentDirty(int index) {
+    if (index >= 0 && index < segments.size()) {
+      markTimingDirty(index);
+      markDirty();
+    }
+  }
+
+  /** Mark compiled kernels and LUT as dirty - will be rebuilt on next evaluation */
   private void markDirty() {
+    compiledDirty = true;
     lutDirty = true;
+    editCount++;
     lastModified = System.currentTimeMillis();
   }
 
+  private synchronized void markTimingDirty(int fromSegment) {
+    timingDirtyFrom = Math.max(0, Math.min(timingDirtyFrom, fromSegment));
+    snapshotTimingFrom = Math.max(0, Math.min(snapshotTimingFrom, fromSegment));
+  }
+
+  /**
+   * Get an immutable copy of the path as of the latest edit, for reading it from other threads
+   * without locks. Call this on the thread that edits the path and pass the result on; the same
+   * snapshot is returned until the next edit or change to the defaults or speed settings.
+   */
+  public PathSnapshot snapshot() {
+    PathSnapshot current = snapshot;
+    if (current == null || !current.isTakenFrom(editCount, defaults, speed)) {
+      synchronized (this) {
+        current = snapshot;
+        if (current == null || !current.isTakenFrom(editCount, defaults, speed)) {
+          if (current != null && current.getVersion() == editCount) {
+            editCount++; // Only the settings changed; still give the new snapshot a new version
+          }
+          current = new PathSnapshot(this, editCount, current, snapshotTimingFrom);
+          snapshot = current;
+          snapshotTimingFrom = Integer.MAX_VALUE;
+        }
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Get the newest snapshot whose tables are built. After an edit this keeps returning the previous
+   * one while {@link PathCompileService#INSTANCE} rebuilds in the background, so playback never
+   * waits for a rebuild. Call it on the thread that edits the path.
+   */
+  public PathSnapshot getCompiledSnapshot() {
+    return PathCompileService.INSTANCE.current(this);
+  }
+
+  /** Wait until the latest edit is compiled in the background, and return its snapshot. */
+  public PathSnapshot awaitCompiled() {
+    return PathCompileService.INSTANCE.awaitCompiled(this);
+  }
+
+  /**
+   * Get the compiled segment kernels, rebuilding them if the path was edited or the default
+   * interpolation/easing changed since the last build.
+   */
+  @Override
+  public CompiledPath getCompiled() {
+    CompiledPath current = compiled;
+    if (compiledDirty || current == null || !current.isCompiledFor(defaults)) {
+      synchronized (this) {
+        current = compiled;
+        if (compiledDirty || current == null || !current.isCompiledFor(defaults)) {
+          current = CompiledPath.compile(segments, defaults);
+          compiled = current;
+          compiledDirty = false;
+          lutDirty = true;
+        }
+      }
+    }
+    return current;
+  }
+
   /** Get the arc-length lookup table, building if necessary */
+  @Override
   public ArcLengthLUT getArcLengthLUT() {
-    if (lutDirty || arcLengthLUT == null) {
+    CompiledPath kernels = getCompiled();
+    if (lutDirty || arcLengthLUT == null || !isLUTBuiltFor(speed.arcLengthTolerance)) {
       synchronized (this) {
-        if (lutDirty || arcLengthLUT == null) {
-          arcLengthLUT = buildArcLengthLUT();
+        Float tolerance = speed.arcLengthTolerance;
+        if (lutDirty || arcLengthLUT == null || !isLUTBuiltFor(tolerance)) {
+          arcLengthLUT =
+              buildArcLengthLUT(kernels, tolerance != null && tolerance > 0f ? tolerance : 0f);
+          lutTolerance = tolerance;
           lutDirty = false;
         }
       }
@@ -146,102 +343,225 @@ public class PathModel {
     return arcLengthLUT;
   }
 
-  /** Build arc-length lookup table using adaptive sampling */
-  private ArcLengthLUT buildArcLengthLUT() {
-    if (segments.size() < 2) {
-      return ArcLengthLUT.empty();
+  /**
+   * Get the baked rotation-minimizing frames and bank profile, rebuilding them whenever the
+   * arc-length table they were sampled from is rebuilt.
+   */
+  @Override
+  public FrameTable getFrameTable() {
+    ArcLengthLUT lut = getArcLengthLUT();
+    FrameTable current = frameTable;
+    if (current == null || !current.isBuiltFor(lut)) {
+      synchronized (this) {
+        lut = getArcLengthLUT();
+        current = frameTable;
+        if (current == null || !current.isBuiltFor(lut)) {
+          current = FrameTable.build(getCompiled(), lut);
+          frameTable = current;
+        }
+      }
     }
+    return current;
+  }
 
-    // Adaptive sampling based on curvature
-    FloatList parameterValues = new FloatArrayList();
-    FloatList arcLengthValues = new FloatArrayList();
-
-    float totalLength = 0f;
-    parameterValues.add(0f);
-    arcLengthValues.add(0f);
-
-    // Sample each segment
-    for (int i = 0; i < segments.size() - 1; i++) {
-      Segment current = segments.get(i);
-      Segment next = segments.get(i + 1);
+  /**
+   * Get the spatial index over the compiled segments for closest-point and ray queries, rebuilding
+   * it whenever the segments are recompiled.
+   */
+  public PathBvh getBvh() {
+    CompiledPath kernels = getCompiled();
+    PathBvh current = bvh;
+    if (current == null || !current.isBuiltFor(kernels)) {
+      synchronized (this) {
+        kernels = getCompiled();
+        current = bvh;
+        if (current == null || !current.isBuiltFor(kernels)) {
+          current = PathBvh.build(kernels);
+          bvh = current;
+        }
+      }
+    }
+    return current;
+  }
 
-      // Adaptive sampling - more samples for curves with higher curvature
-      int samples = calculateOptimalSamples(current, next);
-      Vector3f prevPos = current.position;
+  /**
+   * Get the duration-mode time map, recomputing its prefix sums from the first segment edited
+   * since the last build.
+   */
+  @Override
+  public TimeMap getTimeMap() {
+    TimeMap current = timeMap;
+    if (current == null || timingDirtyFrom != Integer.MAX_VALUE) {
+      synchronized (this) {
+        current = timeMap;
+        if (current == null || timingDirtyFrom != Integer.MAX_VALUE) {
+          current = TimeMap.build(segments, current, timingDirtyFrom);
+          timeMap = current;
+          timingDirtyFrom = Integer.MAX_VALUE;
+        }
+      }
+    }
+    return current;
+  }
 
-      for (int s = 1; s <= samples; s++) {
-        float t = (float) s / samples;
-        float globalT = (i + t) / (segments.size() - 1);
+  private boolean isLUTBuiltFor(@Nullable Float tolerance) {
+    return tolerance == null ? lutTolerance == null : tolerance.equals(lutTolerance);
+  }
 
-        // Evaluate position at this parameter
-        Vector3f currentPos = evaluatePositionAt(i, t);
+  /**
+   * Build the arc-length lookup table from per-segment spans. Spans whose segment curve is
+   * unchanged since the previous build are reused as-is, so an edit only resamples the segments it
+   * actually moved; the rest of the work is splicing the spans together with running prefix sums.
+   *
+   * @param tolerance adaptive error tolerance in blocks, or 0 for fixed per-segment sampling
+   */
+  private ArcLengthLUT buildArcLengthLUT(CompiledPath kernels, float tolerance) {
+    Map<ArcLengthSpan, ArcLengthSpan> retained = new HashMap<>();
+    ArcLengthLUT lut = buildArcLengthLUT(kernels, tolerance, spanCache, retained);
+    spanCache = retained;
+    return lut;
+  }
 
-        // Add arc length
-        float segmentLength = prevPos.distance(currentPos);
-        totalLength += segmentLength;
+  /**
+   * Build an arc-length table without touching any model state, reusing spans from {@code
+   * previous} and collecting every span used into {@code retained}.
+   */
+  static ArcLengthLUT buildArcLengthLUT(
+      CompiledPath kernels,
+      float tolerance,
+      Map<ArcLengthSpan, ArcLengthSpan> previous,
+      Map<ArcLengthSpan, ArcLengthSpan> retained) {
+    int numSegments = kernels.segmentCount();
+    if (numSegments < 1) {
+      return ArcLengthLUT.empty();
+    }
 
-        parameterValues.add(globalT);
-        arcLengthValues.add(totalLength);
+    ArcLengthSpan[] spans = new ArcLengthSpan[numSegments];
+    int entries = 1;
 
-        prevPos = currentPos;
+    for (int i = 0; i < numSegments; i++) {
+      int samples = tolerance > 0f ? 0 : calculateOptimalSamples(kernels, i);
+      ArcLengthSpan key = ArcLengthSpan.key(kernels, i, samples, tolerance);
+      ArcLengthSpan span = previous.get(key);
+      if (span == null) {
+        span = retained.get(key);
       }
+      if (span == null) {
+        span = key;
+        if (tolerance > 0f) {
+          sampleSpanAdaptive(kernels, i, tolerance, span);
+        } else {
+          sampleSpan(kernels, i, samples, span);
+        }
+      }
+      retained.put(span, span);
+      spans[i] = span;
+      entries += span.size();
     }
 
-    return new ArcLengthLUT(
-        parameterValues.toFloatArray(), arcLengthValues.toFloatArray(), totalLength);
-  }
-
-  /** Calculate optimal sample count based on segment curvature */
-  private int calculateOptimalSamples(Segment current, Segment next) {
-    // Base samples
-    int baseSamples = 8;
+    // Splice spans into global parameter space with running arc-length offsets
+    float[] parameterValues = new float[entries];
+    float[] arcLengthValues = new float[entries];
+    float[] slopes = new float[2 * (entries - 1)];
+    boolean[] joins = new boolean[entries];
+    double totalLength = 0.0;
+    int index = 1;
+    for (int i = 0; i < numSegments; i++) {
+      ArcLengthSpan span = spans[i];
+      for (int k = 0; k < span.size(); k++) {
+        parameterValues[index] = (i + span.parameters[k]) / numSegments;
+        arcLengthValues[index] = (float) (totalLength + span.arcLengths[k]);
+        // Global dt/ds at both ends of the interval ending at this entry
+        float start = k == 0 ? span.startSlope : span.slopes[k - 1];
+        slopes[2 * (index - 1)] = start / numSegments;
+        slopes[2 * (index - 1) + 1] = span.slopes[k] / numSegments;
+        index++;
+      }
+      totalLength += span.length;
 
-    // Increase samples based on distance and potential curvature
-    float distance = current.position.distance(next.position);
-    float curvatureFactor = 1f;
+      // dt/ds generally jumps where two segments meet, so keep their slopes apart
+      joins[index - 1] = i + 1 < numSegments;
+    }
 
-    // Check for sharp direction changes (approximate curvature)
-    if (segments.size() > 2) {
-      // Simple curvature approximation using three points
-      Vector3f dir1 = new Vector3f(current.position).sub(getPrevPosition(current));
-      Vector3f dir2 = new Vector3f(next.position).sub(current.position);
-      dir1.normalize();
-      dir2.normalize();
+    return new ArcLengthLUT(parameterValues, arcLengthValues, (float) totalLength, slopes, joins);
+  }
 
-      float dot = dir1.dot(dir2);
-      // More samples for sharper turns (lower dot product)
-      curvatureFactor = (2f - dot) / 2f; // Range 0-1, higher for sharper turns
+  /** Sample one segment with a fixed number of chords */
+  private static void sampleSpan(
+      CompiledPath kernels, int segment, int samples, ArcLengthSpan span) {
+    float[] parameters = new float[samples];
+    float[] arcLengths = new float[samples];
+
+    // Evaluate all sample positions in one batch
+    float[] x = new float[samples + 1];
+    float[] y = new float[samples + 1];
+    float[] z = new float[samples + 1];
+    for (int s = 0; s <= samples; s++) {
+      x[s] = (float) s / samples;
+    }
+    kernels.evaluatePositions(segment, x, samples + 1, x, y, z);
+
+    float length = 0f;
+    for (int s = 1; s <= samples; s++) {
+      // Add arc length
+      float dx = x[s] - x[s - 1];
+      float dy = y[s] - y[s - 1];
+      float dz = z[s] - z[s - 1];
+      length += (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+      parameters[s - 1] = (float) s / samples;
+      arcLengths[s - 1] = length;
     }
 
-    // Scale samples based on distance and curvature
-    int samples =
-        Math.max(baseSamples, (int) (baseSamples * (1 + distance * 0.1f + curvatureFactor * 2f)));
-    return Math.min(samples, 64); // Cap at 64 samples per segment
+    span.parameters = parameters;
+    span.arcLengths = arcLengths;
+    span.length = length;
+    assignInverseSlopes(kernels, segment, span);
   }
 
-  /** Get position of segment before given segment */
-  private Vector3f getPrevPosition(Segment segment) {
-    int index = segments.indexOf(segment);
-    return index > 0 ? segments.get(index - 1).position : segment.position;
+  /**
+   * Integrate one segment to an error tolerance. Lengths come from Gauss-Legendre quadrature of
+   * the analytic curve speed, and the segment is only subdivided where the table would otherwise
+   * be off by more than {@code tolerance} blocks.
+   */
+  private static void sampleSpanAdaptive(
+      CompiledPath kernels, int segment, float tolerance, ArcLengthSpan span) {
+    FloatList parameters = new FloatArrayList();
+    FloatList arcLengths = new FloatArrayList();
+    ArcLengthIntegrator.Speed segmentSpeed = t -> kernels.parameterSpeed(segment, t);
+    double length =
+        ArcLengthIntegrator.appendSegment(
+            segmentSpeed, tolerance, 0.0, 1.0, 0.0, parameters, arcLengths);
+
+    span.parameters = parameters.toFloatArray();
+    span.arcLengths = arcLengths.toFloatArray();
+    span.length = (float) length;
+    assignInverseSlopes(kernels, segment, span);
   }
 
-  /** Evaluate position at segment + local parameter */
-  private Vector3f evaluatePositionAt(int segmentIndex, float localT) {
-    if (segmentIndex < 0 || segmentIndex >= segments.size() - 1) {
-      return segmentIndex < 0
-          ? segments.get(0).position
-          : segments.get(segments.size() - 1).position;
+  /** Exact inverse slopes dt/ds = 1 / |dP/dt| for the smooth s -> t mapping */
+  private static void assignInverseSlopes(CompiledPath kernels, int segment, ArcLengthSpan span) {
+    span.startSlope = inverseSpeed(kernels.parameterSpeed(segment, 0.0));
+    span.slopes = new float[span.parameters.length];
+    for (int k = 0; k < span.parameters.length; k++) {
+      span.slopes[k] = inverseSpeed(kernels.parameterSpeed(segment, span.parameters[k]));
     }
+  }
 
-    Segment current = segments.get(segmentIndex);
-    Segment next = segments.get(segmentIndex + 1);
-
-    // Use segment's interpolation type or fallback to defaults
-    InterpolationType interpType =
-        current.interpolationType != null ? current.interpolationType : defaults.interpolationType;
+  private static float inverseSpeed(double speed) {
+    return speed > 1e-6 ? (float) (1.0 / speed) : Float.NaN;
+  }
 
-    return PathInterpolationEngine.interpolatePosition(
-        current, next, localT, interpType, segmentIndex, segments);
+  /**
+   * Number of uniform samples that keeps the polyline through a segment within {@link
+   * #FLATNESS_TOLERANCE} of the curve. A chord spanning a parameter step h deviates from the
+   * curve by at most |P''|max * h² / 8, and the same bound limits how far the sampled
+   * parameter-to-length mapping can bend between entries. Uses only the segment's own polynomial,
+   * so a full build is linear in segment count and straight segments need no extra samples.
+   */
+  private static int calculateOptimalSamples(CompiledPath kernels, int index) {
+    float bound = kernels.secondDerivativeBound(index);
+    int samples = (int) Math.ceil(Math.sqrt(bound / (8f * FLATNESS_TOLERANCE)));
+    return Math.max(MIN_SAMPLES, Math.min(samples, MAX_SAMPLES));
   }
 
   /** Path defaults */
@@ -252,6 +572,32 @@ public class PathModel {
     public boolean banking = false;
     public float bankingStrength = 1.0f;
     public float rollMix = 0.5f;
+    public OrientationMode orientationMode = OrientationMode.SLERP;
+    public boolean tabulatedEasing = false; // Evaluate expensive easings from shared tables
+
+    PathDefaults copy() {
+      PathDefaults copy = new PathDefaults();
+      copy.interpolationType = interpolationType;
+      copy.easingType = easingType;
+      copy.speedMode = speedMode;
+      copy.banking = banking;
+      copy.bankingStrength = bankingStrength;
+      copy.rollMix = rollMix;
+      copy.orientationMode = orientationMode;
+      copy.tabulatedEasing = tabulatedEasing;
+      return copy;
+    }
+
+    boolean sameAs(PathDefaults other) {
+      return interpolationType == other.interpolationType
+          && easingType == other.easingType
+          && speedMode == other.speedMode
+          && banking == other.banking
+          && bankingStrength == other.bankingStrength
+          && rollMix == other.rollMix
+          && orientationMode == other.orientationMode
+          && tabulatedEasing == other.tabulatedEasing;
+    }
 
     public enum SpeedMode {
       DURATION, // Total path duration in seconds
@@ -264,6 +610,26 @@ public class PathModel {
     public float durationSec = 10.0f;
     public @Nullable Float blocksPerSec = null; // null means use duration mode
 
+    /**
+     * Maximum arc-length error in blocks for the constant-speed lookup table. When set, the table
+     * is built by adaptive Gauss-Legendre quadrature; null keeps the fixed per-segment sampling.
+     */
+    public @Nullable Float arcLengthTolerance = null;
+
+    SpeedSettings copy() {
+      SpeedSettings copy = new SpeedSettings();
+      copy.durationSec = durationSec;
+      copy.blocksPerSec = blocksPerSec;
+      copy.arcLengthTolerance = arcLengthTolerance;
+      return copy;
+    }
+
+    boolean sameAs(SpeedSettings other) {
+      return durationSec == other.durationSec
+          && Objects.equals(blocksPerSec, other.blocksPerSec)
+          && Objects.equals(arcLengthTolerance, other.arcLengthTolerance);
+    }
+
     public boolean isSpeedMode() {
       return blocksPerSec != null;
     }
@@ -328,6 +694,24 @@ public class PathModel {
       orientation.getEulerAnglesYXZ(euler);
       return euler.mul((float) (180.0 / Math.PI));
     }
+
+    /** Deep copy, sharing no mutable vectors with this segment */
+    public Segment copy() {
+      Segment copy = new Segment(position, orientation);
+      copy.roll = roll;
+      copy.fov = fov;
+      copy.durationSec = durationSec;
+      copy.weight = weight;
+      copy.interpolationType = interpolationType;
+      copy.easingType = easingType;
+      copy.followTarget = followTarget != null ? followTarget.copy() : null;
+      copy.tension = tension;
+      copy.continuity = continuity;
+      copy.bias = bias;
+      copy.bezierIn = bezierIn != null ? new Vector3f(bezierIn) : null;
+      copy.bezierOut = bezierOut != null ? new Vector3f(bezierOut) : null;
+      return copy;
+    }
   }
 
   /** Follow target configuration */
@@ -337,6 +721,15 @@ public class PathModel {
     public @Nullable Vector3f position = null;
     public float followSpeed = 1.0f; // Lag factor
 
+    public FollowTarget copy() {
+      FollowTarget copy = new FollowTarget();
+      copy.type = type;
+      copy.entityId = entityId;
+      copy.position = position != null ? new Vector3f(position) : null;
+      copy.followSpeed = followSpeed;
+      return copy;
+    }
+
     public enum FollowType {
       NONE,
       SELF,
@@ -350,11 +743,27 @@ public class PathModel {
     private final float[] parameters; // t values
     private final float[] arcLengths; // s values
     private final float totalLength;
+    private final float[] slopes; // dt/ds at both ends of each interval for s -> t lookup
 
     public ArcLengthLUT(float[] parameters, float[] arcLengths, float totalLength) {
+      this(parameters, arcLengths, totalLength, null, null);
+    }
+
+    /**
+     * @param slopes known dt/ds at the start and end of each interval (NaN where unknown), or null
+     *     to estimate all of them from the table
+     * @param joins entries where dt/ds may differ on either side, such as segment joins
+     */
+    public ArcLengthLUT(
+        float[] parameters,
+        float[] arcLengths,
+        float totalLength,
+        @Nullable float[] slopes,
+        @Nullable boolean[] joins) {
       this.parameters = parameters;
       this.arcLengths = arcLengths;
       this.totalLength = totalLength;
+      this.slopes = MonotoneCubic.slopes(arcLengths, parameters, slopes, joins);
     }
 
     public static ArcLengthLUT empty() {
@@ -371,14 +780,41 @@ public class PathModel {
       if (index < 0) index = 0;
       if (index >= arcLengths.length - 1) return 1f;
 
-      // Linear interpolation between the two closest points
-      float s1 = arcLengths[index];
-      float s2 = arcLengths[index + 1];
-      float t1 = parameters[index];
-      float t2 = parameters[index + 1];
+      return parameterInBracket(index, s);
+    }
 
-      float alpha = (s - s1) / (s2 - s1);
-      return t1 + alpha * (t2 - t1);
+    /**
+     * Find the table interval containing arc-length {@code s}, walking from {@code hint} (a
+     * previous result) for up to {@code maxSteps} entries before falling back to binary search.
+     * Playback that advances a little each frame resolves in O(1).
+     */
+    int bracketArcLength(float s, int hint, int maxSteps) {
+      int last = arcLengths.length - 2;
+      if (last < 0) return 0;
+      int index = Math.max(0, Math.min(hint, last));
+      int steps = 0;
+      while (index < last && arcLengths[index + 1] < s) {
+        if (++steps > maxSteps) return clampBracket(binarySearchArcLength(s));
+        index++;
+      }
+      while (index > 0 && arcLengths[index] > s) {
+        if (++steps > maxSteps) return clampBracket(binarySearchArcLength(s));
+        index--;
+      }
+      return index;
+    }
+
+    private int clampBracket(int index) {
+      return Math.max(0, Math.min(index, arcLengths.length - 2));
+    }
+
+    /**
+     * Interpolate the parameter for arc-length {@code s} inside table interval {@code index}. Uses
+     * a monotone cubic through the neighbouring entries rather than a straight line, so the
+     * resulting speed is continuous across entries and small tables play back without ripple.
+     */
+    float parameterInBracket(int index, float s) {
+      return MonotoneCubic.eval(arcLengths, parameters, slopes, index, s);
     }
 
     /** Convert parameter to arc-length (t -> s) */
@@ -438,440 +874,474 @@ public class PathModel {
     public float getTotalLength() {
       return totalLength;
     }
+
+    /** Number of table entries, including the origin. */
+    int size() {
+      return parameters.length;
+    }
   }
 
-  /** Convert to JSON (v2 format) */
+  /**
+   * Gson adapter for the JSON format of {@link #writeJson} and {@link #readJson}. Register it with
+   * a {@code GsonBuilder} to have Gson write paths as part of other objects.
+   */
+  public static final TypeAdapter<PathModel> JSON_ADAPTER =
+      new TypeAdapter<>() {
+        @Override
+        public void write(JsonWriter out, PathModel path) throws IOException {
+          path.writeJson(out);
+        }
+
+        @Override
+        public PathModel read(JsonReader in) throws IOException {
+          return readJson(in);
+        }
+      };
+
+  /**
+   * Convert to a JSON tree (v2 format), written straight into the tree by {@link #JSON_ADAPTER}.
+   * Prefer {@link #writeJson} for files and large paths. {@code gson} is not used.
+   */
   public JsonObject toJson(Gson gson) {
-    JsonObject json = new JsonObject();
+    return JSON_ADAPTER.toJsonTree(this).getAsJsonObject();
+  }
+
+  /** Write as JSON (v2 format), one segment at a time */
+  public void writeJson(JsonWriter out) throws IOException {
+    out.beginObject();
 
     // Header
-    json.addProperty("version", VERSION);
-    json.addProperty("id", id);
-    json.addProperty("name", name);
-    json.addProperty("loop", loop);
+    out.name("version").value(VERSION);
+    out.name("id").value(id);
+    out.name("name").value(name);
+    out.name("loop").value(loop);
+
+    // Anchor (segment positions below are relative to it)
+    out.name("anchor").beginArray().value(anchor.x).value(anchor.y).value(anchor.z).endArray();
 
     // Defaults
-    JsonObject defaultsObj = new JsonObject();
-    defaultsObj.addProperty("interp", defaults.interpolationType.getName());
-    defaultsObj.addProperty("ease", defaults.easingType.getName());
-    defaultsObj.addProperty("speedMode", defaults.speedMode.name().toLowerCase());
-    defaultsObj.addProperty("banking", defaults.banking);
-    defaultsObj.addProperty("bankingStrength", defaults.bankingStrength);
-    defaultsObj.addProperty("rollMix", defaults.rollMix);
-    json.add("defaults", defaultsObj);
+    out.name("defaults").beginObject();
+    out.name("interp").value(defaults.interpolationType.getName());
+    out.name("ease").value(defaults.easingType.getName());
+    out.name("speedMode").value(defaults.speedMode.name().toLowerCase());
+    out.name("banking").value(defaults.banking);
+    out.name("bankingStrength").value(defaults.bankingStrength);
+    out.name("rollMix").value(defaults.rollMix);
+    out.name("orientation").value(defaults.orientationMode.getName());
+    out.name("tabulatedEasing").value(defaults.tabulatedEasing);
+    out.endObject();
 
     // Speed settings
-    JsonObject speedObj = new JsonObject();
-    speedObj.addProperty("durationSec", speed.durationSec);
+    out.name("speed").beginObject();
+    out.name("durationSec").value(speed.durationSec);
     if (speed.blocksPerSec != null) {
-      speedObj.addProperty("blocksPerSec", speed.blocksPerSec);
+      out.name("blocksPerSec").value(speed.blocksPerSec.floatValue());
+    }
+    if (speed.arcLengthTolerance != null) {
+      out.name("arcLengthTolerance").value(speed.arcLengthTolerance.floatValue());
     }
-    json.add("speed", speedObj);
+    out.endObject();
 
     // Segments
-    JsonArray segmentsArray = new JsonArray();
+    out.name("segments").beginArray();
+    Vector3f euler = new Vector3f();
     for (Segment segment : segments) {
-      segmentsArray.add(segmentToJson(segment));
+      writeSegment(out, segment, euler);
     }
-    json.add("segments", segmentsArray);
+    out.endArray();
 
     // Metadata
-    json.addProperty("lastModified", lastModified);
-    json.addProperty("lastModifier", lastModifier.toString());
+    out.name("lastModified").value(lastModified);
+    out.name("lastModifier").value(lastModifier.toString());
 
-    return json;
+    out.endObject();
   }
 
-  private JsonObject segmentToJson(Segment segment) {
-    JsonObject json = new JsonObject();
+  private static void writeSegment(JsonWriter out, Segment segment, Vector3f euler)
+      throws IOException {
+    out.beginObject();
 
     // Position
-    JsonArray pos = new JsonArray();
-    pos.add(segment.position.x);
-    pos.add(segment.position.y);
-    pos.add(segment.position.z);
-    json.add("p", pos);
+    writeVector(out.name("p"), segment.position);
 
     // Orientation as quaternion and Euler
-    JsonObject rot = new JsonObject();
-    Vector3f euler = segment.toEulerDegrees();
-    rot.addProperty("yaw", euler.y);
-    rot.addProperty("pitch", euler.x);
-    rot.addProperty("roll", euler.z);
+    segment.orientation.getEulerAnglesYXZ(euler).mul((float) (180.0 / Math.PI));
+    out.name("rot").beginObject();
+    out.name("yaw").value(euler.y);
+    out.name("pitch").value(euler.x);
+    out.name("roll").value(euler.z);
 
     // Also store quaternion for precision
-    JsonArray quat = new JsonArray();
-    quat.add(segment.orientation.x);
-    quat.add(segment.orientation.y);
-    quat.add(segment.orientation.z);
-    quat.add(segment.orientation.w);
-    rot.add("q", quat);
-    json.add("rot", rot);
+    Quaternionf q = segment.orientation;
+    out.name("q").beginArray().value(q.x).value(q.y).value(q.z).value(q.w).endArray();
+    out.endObject();
 
     // Additional roll for banking
-    json.addProperty("roll", segment.roll);
-    json.addProperty("fov", segment.fov);
+    out.name("roll").value(segment.roll);
+    out.name("fov").value(segment.fov);
 
     // Timing
     if (segment.durationSec != null) {
-      json.addProperty("durationSec", segment.durationSec);
+      out.name("durationSec").value(segment.durationSec.floatValue());
     }
     if (segment.weight != null) {
-      json.addProperty("weight", segment.weight);
+      out.name("weight").value(segment.weight.floatValue());
     }
 
     // Per-segment overrides
     if (segment.interpolationType != null) {
-      json.addProperty("interp", segment.interpolationType.getName());
+      out.name("interp").value(segment.interpolationType.getName());
     }
     if (segment.easingType != null) {
-      json.addProperty("ease", segment.easingType.getName());
+      out.name("ease").value(segment.easingType.getName());
     }
 
     // Follow target
     if (segment.followTarget != null) {
-      JsonObject followObj = new JsonObject();
-      followObj.addProperty("type", segment.followTarget.type.name().toLowerCase());
+      out.name("lookAt").beginObject();
+      out.name("type").value(segment.followTarget.type.name().toLowerCase());
       if (segment.followTarget.entityId != null) {
-        followObj.addProperty("id", segment.followTarget.entityId.toString());
+        out.name("id").value(segment.followTarget.entityId.toString());
       }
       if (segment.followTarget.position != null) {
-        JsonArray followPos = new JsonArray();
-        followPos.add(segment.followTarget.position.x);
-        followPos.add(segment.followTarget.position.y);
-        followPos.add(segment.followTarget.position.z);
-        followObj.add("pos", followPos);
+        writeVector(out.name("pos"), segment.followTarget.position);
       }
-      followObj.addProperty("followSpeed", segment.followTarget.followSpeed);
-      json.add("lookAt", followObj);
+      out.name("followSpeed").value(segment.followTarget.followSpeed);
+      out.endObject();
     }
 
     // TCB parameters
     if (segment.tension != 0f || segment.continuity != 0f || segment.bias != 0f) {
-      JsonObject tcb = new JsonObject();
-      tcb.addProperty("t", segment.tension);
-      tcb.addProperty("c", segment.continuity);
-      tcb.addProperty("b", segment.bias);
-      json.add("tcb", tcb);
+      out.name("tcb").beginObject();
+      out.name("t").value(segment.tension);
+      out.name("c").value(segment.continuity);
+      out.name("b").value(segment.bias);
+      out.endObject();
     }
 
     // Bezier handles
     if (segment.bezierIn != null || segment.bezierOut != null) {
-      JsonObject bezier = new JsonObject();
+      out.name("bezier").beginObject();
       if (segment.bezierIn != null) {
-        JsonArray inArray = new JsonArray();
-        inArray.add(segment.bezierIn.x);
-        inArray.add(segment.bezierIn.y);
-        inArray.add(segment.bezierIn.z);
-        bezier.add("in", inArray);
+        writeVector(out.name("in"), segment.bezierIn);
       }
       if (segment.bezierOut != null) {
-        JsonArray outArray = new JsonArray();
-        outArray.add(segment.bezierOut.x);
-        outArray.add(segment.bezierOut.y);
-        outArray.add(segment.bezierOut.z);
-        bezier.add("out", outArray);
+        writeVector(out.name("out"), segment.bezierOut);
       }
-      json.add("bezier", bezier);
+      out.endObject();
     }
 
-    return json;
+    out.endObject();
   }
 
-  /** Load from JSON */
-  public static PathModel fromJson(JsonObject json, Gson gson) {
-    // Check version
-    int version = json.has("version") ? json.get("version").getAsInt() : 1;
-
-    if (version == 1) {
-      // Migrate from v1
-      return migrateFromV1(json);
-    }
-
-    // Parse v2
-    String id = json.get("id").getAsString();
-    String name = json.has("name") ? json.get("name").getAsString() : id;
-
-    PathModel path = new PathModel(id, name);
+  private static void writeVector(JsonWriter out, Vector3f vector) throws IOException {
+    out.beginArray().value(vector.x).value(vector.y).value(vector.z).endArray();
+  }
 
-    // Basic properties
-    if (json.has("loop")) {
-      path.setLoop(json.get("loop").getAsBoolean());
-    }
+  /**
+   * Load from a JSON tree, read straight from the tree by {@link #JSON_ADAPTER}. Prefer {@link
+   * #readJson} for files, which it reads without a tree. {@code gson} is not used.
+   */
+  public static PathModel fromJson(JsonObject json, Gson gson) {
+    return JSON_ADAPTER.fromJsonTree(json);
+  }
 
-    // Defaults
-    if (json.has("defaults")) {
-      JsonObject defaults = json.getAsJsonObject("defaults");
-      if (defaults.has("interp")) {
-        path.defaults.interpolationType =
-            InterpolationType.fromString(defaults.get("interp").getAsString());
-      }
-      if (defaults.has("ease")) {
-        path.defaults.easingType = EasingType.fromString(defaults.get("ease").getAsString());
-      }
-      if (defaults.has("speedMode")) {
-        String speedMode = defaults.get("speedMode").getAsString();
-        path.defaults.speedMode =
-            speedMode.equals("speed")
-                ? PathDefaults.SpeedMode.SPEED
-                : PathDefaults.SpeedMode.DURATION;
-      }
-      if (defaults.has("banking")) {
-        path.defaults.banking = defaults.get("banking").getAsBoolean();
-      }
-      if (defaults.has("bankingStrength")) {
-        path.defaults.bankingStrength = defaults.get("bankingStrength").getAsFloat();
-      }
-      if (defaults.has("rollMix")) {
-        path.defaults.rollMix = defaults.get("rollMix").getAsFloat();
+  /**
+   * Read JSON written by {@link #writeJson}, or the v1 format, one segment at a time. The path is
+   * assembled once its header fields have been read, wherever they appear in the object.
+   */
+  public static PathModel readJson(JsonReader in) throws IOException {
+    int version = 1; // Files without a version are v1
+    String id = null;
+    String name = null;
+    boolean loop = false;
+    double[] anchor = new double[3];
+    PathDefaults defaults = new PathDefaults();
+    SpeedSettings speed = new SpeedSettings();
+    List<Segment> segments = new ArrayList<>();
+    long lastModified = -1L;
+    UUID lastModifier = null;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "version" -> version = in.nextInt();
+        case "id" -> id = in.nextString();
+        case "name" -> name = in.nextString();
+        case "loop" -> loop = in.nextBoolean();
+        case "anchor" -> {
+          in.beginArray();
+          anchor[0] = in.nextDouble();
+          anchor[1] = in.nextDouble();
+          anchor[2] = in.nextDouble();
+          in.endArray();
+        }
+        case "defaults" -> readDefaults(in, defaults);
+        case "speed" -> {
+          if (in.peek() == JsonToken.NUMBER) {
+            // v1 used a simple float; assume it's a duration multiplier of a 10 second path
+            speed.setDurationMode(10f / (float) in.nextDouble());
+          } else {
+            readSpeed(in, speed);
+          }
+        }
+        case "segments" -> {
+          in.beginArray();
+          while (in.hasNext()) {
+            segments.add(readSegment(in));
+          }
+          in.endArray();
+        }
+        case "keyframes" -> {
+          // v1 keyframes migrate to segments
+          in.beginArray();
+          while (in.hasNext()) {
+            segments.add(migrateV1Keyframe(in));
+          }
+          in.endArray();
+        }
+        case "lastModified" -> lastModified = in.nextLong();
+        case "lastModifier" -> lastModifier = UUID.fromString(in.nextString());
+        default -> in.skipValue();
       }
     }
-
-    // Speed settings
-    if (json.has("speed")) {
-      JsonObject speed = json.getAsJsonObject("speed");
-      if (speed.has("durationSec")) {
-        path.speed.durationSec = speed.get("durationSec").getAsFloat();
-      }
-      if (speed.has("blocksPerSec")) {
-        path.speed.blocksPerSec = speed.get("blocksPerSec").getAsFloat();
-      }
+    in.endObject();
+    if (id == null) {
+      throw new IOException("Path without an id");
     }
 
-    // Segments
-    if (json.has("segments")) {
-      JsonArray segments = json.getAsJsonArray("segments");
-      for (int i = 0; i < segments.size(); i++) {
-        Segment segment = segmentFromJson(segments.get(i).getAsJsonObject());
-        path.addSegment(segment);
-      }
+    if (version == 1) {
+      // v1 had no display name or defaults; use reasonable defaults for migrated paths
+      name = id;
+      defaults.interpolationType = InterpolationType.CATMULL_CENTRIPETAL;
+      defaults.easingType = EasingType.CUBIC_IN_OUT;
     }
-
-    // Metadata
-    if (json.has("lastModified")) {
-      path.lastModified = json.get("lastModified").getAsLong();
+    PathModel path = new PathModel(id, name != null ? name : id, defaults, speed);
+    path.loop = loop;
+    path.anchor.set(anchor[0], anchor[1], anchor[2]);
+    path.replaceSegments(segments);
+    if (lastModified >= 0L) {
+      path.lastModified = lastModified;
     }
-    if (json.has("lastModifier")) {
-      path.lastModifier = UUID.fromString(json.get("lastModifier").getAsString());
+    if (lastModifier != null) {
+      path.lastModifier = lastModifier;
     }
-
     return path;
   }
 
-  private static Segment segmentFromJson(JsonObject json) {
-    // Position
-    JsonArray posArray = json.getAsJsonArray("p");
-    Vector3f position =
-        new Vector3f(
-            posArray.get(0).getAsFloat(),
-            posArray.get(1).getAsFloat(),
-            posArray.get(2).getAsFloat());
-
-    // Orientation
-    Quaternionf orientation = new Quaternionf();
-    if (json.has("rot")) {
-      JsonObject rot = json.getAsJsonObject("rot");
-      if (rot.has("q")) {
-        // Use quaternion if available (more precise)
-        JsonArray quat = rot.getAsJsonArray("q");
-        orientation.set(
-            quat.get(0).getAsFloat(),
-            quat.get(1).getAsFloat(),
-            quat.get(2).getAsFloat(),
-            quat.get(3).getAsFloat());
-      } else {
-        // Convert from Euler angles
-        float yaw = rot.has("yaw") ? rot.get("yaw").getAsFloat() : 0f;
-        float pitch = rot.has("pitch") ? rot.get("pitch").getAsFloat() : 0f;
-        float roll = rot.has("roll") ? rot.get("roll").getAsFloat() : 0f;
-
-        orientation.rotateYXZ(
-            (float) Math.toRadians(yaw),
-            (float) Math.toRadians(pitch),
-            (float) Math.toRadians(roll));
+  private static void readDefaults(JsonReader in, PathDefaults defaults) throws IOException {
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "interp" -> defaults.interpolationType = InterpolationType.fromString(in.nextString());
+        case "ease" -> defaults.easingType = EasingType.fromString(in.nextString());
+        case "speedMode" ->
+            defaults.speedMode =
+                in.nextString().equals("speed")
+                    ? PathDefaults.SpeedMode.SPEED
+                    : PathDefaults.SpeedMode.DURATION;
+        case "banking" -> defaults.banking = in.nextBoolean();
+        case "bankingStrength" -> defaults.bankingStrength = (float) in.nextDouble();
+        case "rollMix" -> defaults.rollMix = (float) in.nextDouble();
+        case "orientation" ->
+            defaults.orientationMode = OrientationMode.fromString(in.nextString());
+        case "tabulatedEasing" -> defaults.tabulatedEasing = in.nextBoolean();
+        default -> in.skipValue();
       }
     }
+    in.endObject();
+  }
 
-    Segment segment = new Segment(position, orientation);
-
-    // Additional roll for banking
-    if (json.has("roll")) {
-      segment.roll = json.get("roll").getAsFloat();
+  private static void readSpeed(JsonReader in, SpeedSettings speed) throws IOException {
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "durationSec" -> speed.durationSec = (float) in.nextDouble();
+        case "blocksPerSec" -> speed.blocksPerSec = (float) in.nextDouble();
+        case "arcLengthTolerance" -> speed.arcLengthTolerance = (float) in.nextDouble();
+        default -> in.skipValue();
+      }
     }
+    in.endObject();
+  }
 
-    // FOV
-    if (json.has("fov")) {
-      segment.fov = json.get("fov").getAsFloat();
+  private static Segment readSegment(JsonReader in) throws IOException {
+    Segment segment = new Segment(new Vector3f(), new Quaternionf());
+    boolean hasQuaternion = false;
+    float yaw = 0f, pitch = 0f, roll = 0f;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "p" -> readVector(in, segment.position);
+        case "rot" -> {
+          in.beginObject();
+          while (in.hasNext()) {
+            switch (in.nextName()) {
+              case "yaw" -> yaw = (float) in.nextDouble();
+              case "pitch" -> pitch = (float) in.nextDouble();
+              case "roll" -> roll = (float) in.nextDouble();
+              case "q" -> {
+                // Use quaternion if available (more precise)
+                in.beginArray();
+                segment.orientation.set(
+                    (float) in.nextDouble(),
+                    (float) in.nextDouble(),
+                    (float) in.nextDouble(),
+                    (float) in.nextDouble());
+                in.endArray();
+                hasQuaternion = true;
+              }
+              default -> in.skipValue();
+            }
+          }
+          in.endObject();
+        }
+        case "roll" -> segment.roll = (float) in.nextDouble();
+        case "fov" -> segment.fov = (float) in.nextDouble();
+        case "durationSec" -> segment.durationSec = (float) in.nextDouble();
+        case "weight" -> segment.weight = (float) in.nextDouble();
+        case "interp" -> segment.interpolationType = InterpolationType.fromString(in.nextString());
+        case "ease" -> segment.easingType = EasingType.fromString(in.nextString());
+        case "lookAt" -> segment.followTarget = readFollowTarget(in);
+        case "tcb" -> {
+          in.beginObject();
+          while (in.hasNext()) {
+            switch (in.nextName()) {
+              case "t" -> segment.tension = (float) in.nextDouble();
+              case "c" -> segment.continuity = (float) in.nextDouble();
+              case "b" -> segment.bias = (float) in.nextDouble();
+              default -> in.skipValue();
+            }
+          }
+          in.endObject();
+        }
+        case "bezier" -> {
+          in.beginObject();
+          while (in.hasNext()) {
+            switch (in.nextName()) {
+              case "in" -> segment.bezierIn = readVector(in, new Vector3f());
+              case "out" -> segment.bezierOut = readVector(in, new Vector3f());
+              default -> in.skipValue();
+            }
+          }
+          in.endObject();
+        }
+        default -> in.skipValue();
+      }
     }
+    in.endObject();
 
-    // Timing
-    if (json.has("durationSec")) {
-      segment.durationSec = json.get("durationSec").getAsFloat();
-    }
-    if (json.has("weight")) {
-      segment.weight = json.get("weight").getAsFloat();
+    if (!hasQuaternion) {
+      // Convert from Euler angles
+      segment.orientation.rotateYXZ(
+          (float) Math.toRadians(yaw), (float) Math.toRadians(pitch), (float) Math.toRadians(roll));
     }
+    return segment;
+  }
 
-    // Per-segment overrides
-    if (json.has("interp")) {
-      segment.interpolationType = InterpolationType.fromString(json.get("interp").getAsString());
-    }
-    if (json.has("ease")) {
-      segment.easingType = EasingType.fromString(json.get("ease").getAsString());
+  private static FollowTarget readFollowTarget(JsonReader in) throws IOException {
+    FollowTarget target = new FollowTarget();
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "type" -> target.type = FollowTarget.FollowType.valueOf(in.nextString().toUpperCase());
+        case "id" -> target.entityId = UUID.fromString(in.nextString());
+        case "pos" -> target.position = readVector(in, new Vector3f());
+        case "followSpeed" -> target.followSpeed = (float) in.nextDouble();
+        default -> in.skipValue();
+      }
     }
+    in.endObject();
+    return target;
+  }
 
-    // Follow target
-    if (json.has("lookAt")) {
-      JsonObject lookAt = json.getAsJsonObject("lookAt");
-      FollowTarget target = new FollowTarget();
+  private static Vector3f readVector(JsonReader in, Vector3f dest) throws IOException {
+    in.beginArray();
+    dest.set((float) in.nextDouble(), (float) in.nextDouble(), (float) in.nextDouble());
+    in.endArray();
+    return dest;
+  }
 
-      if (lookAt.has("type")) {
-        String type = lookAt.get("type").getAsString().toUpperCase();
-        target.type = FollowTarget.FollowType.valueOf(type);
-      }
-      if (lookAt.has("id")) {
-        target.entityId = UUID.fromString(lookAt.get("id").getAsString());
-      }
-      if (lookAt.has("pos")) {
-        JsonArray pos = lookAt.getAsJsonArray("pos");
-        target.position =
-            new Vector3f(pos.get(0).getAsFloat(), pos.get(1).getAsFloat(), pos.get(2).getAsFloat());
-      }
-      if (lookAt.has("followSpeed")) {
-        target.followSpeed = lookAt.get("followSpeed").getAsFloat();
+  /** Migrate a JSON v1 keyframe to a v2 segment */
+  private static Segment migrateV1Keyframe(JsonReader in) throws IOException {
+    Vector3f position = new Vector3f();
+    float yaw = 0f, pitch = 0f, roll = 0f;
+    @Nullable Float fov = null;
+    @Nullable Vector3f lookAt = null;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "pos" -> readV1Vector(in, position);
+        case "rot" -> {
+          // Orientation from Euler
+          in.beginObject();
+          while (in.hasNext()) {
+            switch (in.nextName()) {
+              case "yaw" -> yaw = (float) in.nextDouble();
+              case "pitch" -> pitch = (float) in.nextDouble();
+              case "roll" -> roll = (float) in.nextDouble();
+              default -> in.skipValue();
+            }
+          }
+          in.endObject();
+        }
+        case "fov" -> fov = (float) in.nextDouble();
+        case "lookAt" -> lookAt = readV1Vector(in, new Vector3f());
+        default -> in.skipValue();
       }
-
-      segment.followTarget = target;
     }
+    in.endObject();
 
-    // TCB parameters
-    if (json.has("tcb")) {
-      JsonObject tcb = json.getAsJsonObject("tcb");
-      if (tcb.has("t")) segment.tension = tcb.get("t").getAsFloat();
-      if (tcb.has("c")) segment.continuity = tcb.get("c").getAsFloat();
-      if (tcb.has("b")) segment.bias = tcb.get("b").getAsFloat();
+    Segment segment = new Segment(position, yaw, pitch, roll);
+    if (fov != null) {
+      segment.fov = fov;
     }
 
-    // Bezier handles
-    if (json.has("bezier")) {
-      JsonObject bezier = json.getAsJsonObject("bezier");
-      if (bezier.has("in")) {
-        JsonArray inArray = bezier.getAsJsonArray("in");
-        segment.bezierIn =
-            new Vector3f(
-                inArray.get(0).getAsFloat(),
-                inArray.get(1).getAsFloat(),
-                inArray.get(2).getAsFloat());
-      }
-      if (bezier.has("out")) {
-        JsonArray outArray = bezier.getAsJsonArray("out");
-        segment.bezierOut =
-            new Vector3f(
-                outArray.get(0).getAsFloat(),
-                outArray.get(1).getAsFloat(),
-                outArray.get(2).getAsFloat());
-      }
+    // Handle lookAt by creating follow target
+    if (lookAt != null) {
+      FollowTarget target = new FollowTarget();
+      target.type = FollowTarget.FollowType.BLOCK;
+      target.position = lookAt;
+      segment.followTarget = target;
     }
-
     return segment;
   }
 
-  /** Migrate from JSON v1 to PathModel v2 */
-  private static PathModel migrateFromV1(JsonObject json) {
-    String id = json.get("id").getAsString();
-    PathModel path = new PathModel(id, id);
-
-    // Migrate basic properties
-    if (json.has("loop")) {
-      path.setLoop(json.get("loop").getAsBoolean());
-    }
-
-    // Migrate speed (v1 used simple float)
-    if (json.has("speed")) {
-      float speed = json.get("speed").getAsFloat();
-      // Assume it's a duration multiplier, convert to actual duration
-      path.getSpeed().setDurationMode(10f / speed); // Base 10 second path
-    }
-
-    // Migrate keyframes to segments
-    if (json.has("keyframes")) {
-      JsonArray keyframes = json.getAsJsonArray("keyframes");
-      for (int i = 0; i < keyframes.size(); i++) {
-        JsonObject kf = keyframes.get(i).getAsJsonObject();
-
-        // Position
-        JsonObject pos = kf.getAsJsonObject("pos");
-        Vector3f position =
-            new Vector3f(
-                (float) pos.get("x").getAsDouble(),
-                (float) pos.get("y").getAsDouble(),
-                (float) pos.get("z").getAsDouble());
-
-        // Orientation from Euler or lookAt
-        float yaw = 0f, pitch = 0f, roll = 0f;
-        if (kf.has("rot")) {
-          JsonObject rot = kf.getAsJsonObject("rot");
-          yaw = rot.has("yaw") ? rot.get("yaw").getAsFloat() : 0f;
-          pitch = rot.has("pitch") ? rot.get("pitch").getAsFloat() : 0f;
-          roll = rot.has("roll") ? rot.get("roll").getAsFloat() : 0f;
-        }
-
-        Segment segment = new Segment(position, yaw, pitch, roll);
-
-        // FOV
-        if (kf.has("fov")) {
-          segment.fov = kf.get("fov").getAsFloat();
-        }
-
-        // Handle lookAt by creating follow target
-        if (kf.has("lookAt")) {
-          JsonObject lookAt = kf.getAsJsonObject("lookAt");
-          FollowTarget target = new FollowTarget();
-          target.type = FollowTarget.FollowType.BLOCK;
-          target.position =
-              new Vector3f(
-                  (float) lookAt.get("x").getAsDouble(),
-                  (float) lookAt.get("y").getAsDouble(),
-                  (float) lookAt.get("z").getAsDouble());
-          segment.followTarget = target;
-        }
-
-        path.addSegment(segment);
+  /** Read a v1 {x, y, z} object */
+  private static Vector3f readV1Vector(JsonReader in, Vector3f dest) throws IOException {
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "x" -> dest.x = (float) in.nextDouble();
+        case "y" -> dest.y = (float) in.nextDouble();
+        case "z" -> dest.z = (float) in.nextDouble();
+        default -> in.skipValue();
       }
     }
-
-    // Set reasonable defaults for migrated paths
-    path.getDefaults().interpolationType = InterpolationType.CATMULL_CENTRIPETAL;
-    path.getDefaults().easingType = EasingType.CUBIC_IN_OUT;
-
-    return path;
+    in.endObject();
+    return dest;
   }
 
-  /** Convert to NBT */
+  /** Convert to NBT in the packed layout of {@link PathCodec} */
   public CompoundTag toNBT() {
-    CompoundTag nbt = new CompoundTag();
-
-    nbt.putString("id", id);
-    nbt.putString("name", name);
-    nbt.putInt("version", version);
-    nbt.putBoolean("loop", loop);
-
-    // Serialize as JSON string for now (NBT is mainly for save data)
-    nbt.putString("jsonData", toJson(new Gson()).toString());
-
-    nbt.putLong("lastModified", lastModified);
-    nbt.putString("lastModifier", lastModifier.toString());
-
-    return nbt;
+    return PathCodec.toNBT(this);
   }
 
-  /** Load from NBT */
+  /** Load from NBT, migrating compounds that embed the path as a JSON string */
   public static PathModel fromNBT(CompoundTag nbt) {
+    if (nbt.contains(PathCodec.FORMAT_KEY)) {
+      return PathCodec.fromNBT(nbt);
+    }
+
     if (nbt.contains("jsonData")) {
-      // Load from embedded JSON
-      String jsonData = nbt.getString("jsonData");
-      JsonObject json = new Gson().fromJson(jsonData, JsonObject.class);
-      return fromJson(json, new Gson());
+      // Load from embedded JSON (written before the packed layout)
+      try {
+        return readJson(new JsonReader(new StringReader(nbt.getString("jsonData"))));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
     }
 
     // Fallback for basic NBT-only data
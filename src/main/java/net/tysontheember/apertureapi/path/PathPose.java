@@ -0,0 +1,66 @@
+package net.tysontheember.apertureapi.path;
+
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+/**
+ * Mutable camera pose filled by {@link PathEvaluator}'s allocation-free overloads. Keep one per
+ * consumer (e.g. per animator) and reuse it every frame; each evaluation overwrites all fields.
+ */
+public final class PathPose {
+  public final Vector3f position = new Vector3f(); // Relative to the path's anchor
+  public final Quaternionf orientation = new Quaternionf();
+  public float roll;
+  public float fov = 90f;
+  public float speed; // Current speed in blocks/second
+  public int segmentIndex;
+  public float segmentProgress; // 0-1 within current segment
+
+  /** Reset to the pose used for an empty path */
+  public PathPose reset() {
+    position.set(0f, 0f, 0f);
+    orientation.identity();
+    roll = 0f;
+    fov = 90f;
+    speed = 0f;
+    segmentIndex = 0;
+    segmentProgress = 0f;
+    return this;
+  }
+
+  /** Hold still on a single keyframe */
+  public PathPose set(PathModel.Segment segment) {
+    position.set(segment.position);
+    orientation.set(segment.orientation);
+    roll = segment.roll;
+    fov = segment.fov;
+    speed = 0f;
+    segmentIndex = 0;
+    segmentProgress = 0f;
+    return this;
+  }
+
+  /** Copy another pose into this one */
+  public PathPose set(PathPose other) {
+    position.set(other.position);
+    orientation.set(other.orientation);
+    roll = other.roll;
+    fov = other.fov;
+    speed = other.speed;
+    segmentIndex = other.segmentIndex;
+    segmentProgress = other.segmentProgress;
+    return this;
+  }
+
+  /** Snapshot this pose into a freshly allocated result */
+  public PathEvaluator.EvaluationResult toResult() {
+    return new PathEvaluator.EvaluationResult(
+        new Vector3f(position),
+        new Quaternionf(orientation),
+        roll,
+        fov,
+        speed,
+        segmentIndex,
+        segmentProgress);
+  }
+}
@@ -0,0 +1,155 @@
+package net.tysontheember.apertureapi.path;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Batch evaluation of a {@link PathView} into {@link PathSamples}. Batches below {@link
+ * #PARALLEL_THRESHOLD} run on the calling thread using this sampler's scratch pose and allocate
+ * nothing; larger batches are split across a {@link ForkJoinPool}.
+ *
+ * <p>A {@link PathModel} must not be edited while a batch is running; sample a {@link PathSnapshot}
+ * to keep editing. A sampler instance is not thread-safe, but any number of samplers may share one
+ * pool.
+ */
+public final class PathSampler {
+  /** Batches smaller than this are evaluated on the calling thread. */
+  public static final int PARALLEL_THRESHOLD = 4096;
+
+  /** Samples evaluated by one fork/join leaf task. */
+  private static final int LEAF_SIZE = 1024;
+
+  private final ForkJoinPool pool;
+  private final PathPose scratch = new PathPose();
+
+  public PathSampler() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  public PathSampler(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /** Evaluate the path at each of {@code times} (seconds) into {@code out}. */
+  public PathSamples sampleTimes(PathView path, float[] times, PathSamples out) {
+    return sample(path, times, times.length, false, out);
+  }
+
+  /** Evaluate the path at each normalized parameter in {@code parameters} into {@code out}. */
+  public PathSamples sampleParameters(PathView path, float[] parameters, PathSamples out) {
+    return sample(path, parameters, parameters.length, true, out);
+  }
+
+  /** Evaluate {@code count} evenly spaced parameters from 0 to 1 into {@code out}. */
+  public PathSamples sampleUniform(PathView path, int count, PathSamples out) {
+    return sample(path, null, count, true, out);
+  }
+
+  /**
+   * Evaluate the path at each of {@code times} off the calling thread. The returned samples are
+   * freshly allocated; {@code times} must not be modified until the future completes.
+   */
+  public CompletableFuture<PathSamples> sampleTimesAsync(PathView path, float[] times) {
+    prepare(path);
+    return CompletableFuture.supplyAsync(
+        () -> {
+          PathSamples out = new PathSamples(times.length);
+          pool.invoke(new SampleTask(path, times, times.length, false, out, 0, times.length));
+          out.setSize(times.length);
+          return out;
+        },
+        pool);
+  }
+
+  private PathSamples sample(
+      PathView path, @Nullable float[] inputs, int count, boolean parameters, PathSamples out) {
+    if (count > out.capacity()) {
+      throw new IllegalArgumentException(
+          "Sample buffer too small: " + count + " > " + out.capacity());
+    }
+
+    prepare(path);
+    if (count < PARALLEL_THRESHOLD) {
+      evaluateRange(path, inputs, count, parameters, out, 0, count, scratch);
+    } else {
+      pool.invoke(new SampleTask(path, inputs, count, parameters, out, 0, count));
+    }
+    out.setSize(count);
+    return out;
+  }
+
+  /**
+   * Build every table evaluation reads up front, as {@link PathSnapshot} does before publishing,
+   * so workers only read them
+   */
+  private static void prepare(PathView path) {
+    path.getCompiled();
+    path.getArcLengthLUT();
+    path.getTimeMap();
+    if (path.getDefaults().banking) {
+      path.getFrameTable();
+    }
+  }
+
+  private static void evaluateRange(
+      PathView path,
+      @Nullable float[] inputs,
+      int count,
+      boolean parameters,
+      PathSamples out,
+      int from,
+      int to,
+      PathPose pose) {
+    for (int i = from; i < to; i++) {
+      if (inputs == null) {
+        PathEvaluator.evaluateAtParameter(path, count > 1 ? (float) i / (count - 1) : 0f, pose);
+      } else if (parameters) {
+        PathEvaluator.evaluateAtParameter(path, inputs[i], pose);
+      } else {
+        PathEvaluator.evaluateAtTime(path, inputs[i], pose);
+      }
+      out.set(i, pose);
+    }
+  }
+
+  private static final class SampleTask extends RecursiveAction {
+    private final PathView path;
+    private final @Nullable float[] inputs;
+    private final boolean parameters;
+    private final PathSamples out;
+    private final int from;
+    private final int to;
+    private final int count;
+
+    SampleTask(
+        PathView path,
+        @Nullable float[] inputs,
+        int count,
+        boolean parameters,
+        PathSamples out,
+        int from,
+        int to) {
+      this.path = path;
+      this.inputs = inputs;
+      this.count = count;
+      this.parameters = parameters;
+      this.out = out;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= LEAF_SIZE) {
+        evaluateRange(path, inputs, count, parameters, out, from, to, new PathPose());
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(
+          new SampleTask(path, inputs, count, parameters, out, from, mid),
+          new SampleTask(path, inputs, count, parameters, out, mid, to));
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package net.tysontheember.apertureapi.path;
+
+/**
+ * Struct-of-arrays buffer of sampled camera poses, filled by {@link PathSampler}. One primitive
+ * array per channel keeps large batches compact and cache-friendly for export, baking and debug
+ * rendering. Buffers can be reused across batches of up to {@link #capacity()} samples.
+ */
+public final class PathSamples {
+  public final float[] x;
+  public final float[] y;
+  public final float[] z;
+  public final float[] qx;
+  public final float[] qy;
+  public final float[] qz;
+  public final float[] qw;
+  public final float[] roll;
+  public final float[] fov;
+  private int size;
+
+  public PathSamples(int capacity) {
+    this.x = new float[capacity];
+    this.y = new float[capacity];
+    this.z = new float[capacity];
+    this.qx = new float[capacity];
+    this.qy = new float[capacity];
+    this.qz = new float[capacity];
+    this.qw = new float[capacity];
+    this.roll = new float[capacity];
+    this.fov = new float[capacity];
+  }
+
+  public int capacity() {
+    return x.length;
+  }
+
+  /** Number of valid samples from the last batch */
+  public int size() {
+    return size;
+  }
+
+  void setSize(int size) {
+    this.size = size;
+  }
+
+  /** Store a pose at index {@code i} */
+  public void set(int i, PathPose pose) {
+    x[i] = pose.position.x;
+    y[i] = pose.position.y;
+    z[i] = pose.position.z;
+    qx[i] = pose.orientation.x;
+    qy[i] = pose.orientation.y;
+    qz[i] = pose.orientation.z;
+    qw[i] = pose.orientation.w;
+    roll[i] = pose.roll;
+    fov[i] = pose.fov;
+  }
+}
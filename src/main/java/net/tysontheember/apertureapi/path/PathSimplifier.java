@@ -0,0 +1,559 @@
+package net.tysontheember.apertureapi.path;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.util.Mth;
+import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import net.tysontheember.apertureapi.path.interpolation.OrientationMode;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+/**
+ * Keyframe reduction for dense paths, such as ones generated from recordings. Runs of keyframes
+ * that one cubic Bezier follows within a tolerance are replaced by that Bezier, so the path keeps
+ * its shape with far fewer keyframes.
+ *
+ * <p>The reduction is top-down like Douglas-Peucker: a span of keyframes is fitted with one cubic
+ * and, when any sample leaves the tolerance, split at the keyframe nearest the worst sample. Each
+ * fit keeps the span's end points, takes its end tangent directions from the original samples (so
+ * neighbouring fits meet smoothly) and solves the handle lengths by least squares with Newton
+ * reparameterization, as in Schneider's curve fitter.
+ *
+ * <p>{@link #fit} works on plain sample arrays and is shared with the keyframe timeline; {@link
+ * #simplify(PathModel, Tolerance)} applies it to a path model.
+ */
+public final class PathSimplifier {
+  /** Curve samples per original segment when simplifying a path. */
+  public static final int SAMPLES_PER_SEGMENT = 4;
+
+  private static final int NEWTON_ITERATIONS = 3;
+  private static final double EPSILON = 1e-9;
+
+  private PathSimplifier() {}
+
+  /** Allowed deviation per channel: position in blocks, rotation and FOV in degrees. */
+  public record Tolerance(float position, float rotation, float fov) {
+    /** Degrees of rotation and FOV allowed per block of position by {@link #forPosition}. */
+    public static final float DEGREES_PER_BLOCK = 10f;
+
+    /** The same tolerance for every channel. */
+    public static Tolerance of(float tolerance) {
+      return new Tolerance(tolerance, tolerance, tolerance);
+    }
+
+    /**
+     * A position tolerance in blocks, with rotation and FOV scaled from it by {@link
+     * #DEGREES_PER_BLOCK}: 0.05 blocks allows 0.5 degrees.
+     */
+    public static Tolerance forPosition(float position) {
+      return new Tolerance(position, position * DEGREES_PER_BLOCK, position * DEGREES_PER_BLOCK);
+    }
+  }
+
+  /** Checks the channels other than position for a span that is about to be merged. */
+  @FunctionalInterface
+  public interface SpanCheck {
+    /**
+     * Sample strictly between {@code from} and {@code to} that is furthest out of tolerance when
+     * the samples in between are dropped, or -1 if all of them stay within it. {@code
+     * parameters[i]} is the fitted curve parameter of sample {@code from + i}.
+     */
+    int worstSample(int from, int to, double[] parameters);
+  }
+
+  /** Keyframes kept by {@link #fit} and the fitted Bezier handles of the segments between them. */
+  public static final class Fit {
+    private final int[] kept;
+    private final boolean[] merged;
+    private final float[] handles; // two absolute control points, xyz each, per segment
+
+    private Fit(int[] kept, boolean[] merged, float[] handles) {
+      this.kept = kept;
+      this.merged = merged;
+      this.handles = handles;
+    }
+
+    /** Number of kept keyframes. */
+    public int size() {
+      return kept.length;
+    }
+
+    /** Original index of the {@code index}-th kept keyframe. */
+    public int keyframe(int index) {
+      return kept[index];
+    }
+
+    /** True if segment {@code segment} replaces more than one original segment. */
+    public boolean isMerged(int segment) {
+      return merged[segment];
+    }
+
+    /** First inner control point of a merged segment, in absolute coordinates. */
+    public Vector3f handleOut(int segment, Vector3f dest) {
+      int base = segment * 6;
+      return dest.set(handles[base], handles[base + 1], handles[base + 2]);
+    }
+
+    /** Second inner control point of a merged segment, in absolute coordinates. */
+    public Vector3f handleIn(int segment, Vector3f dest) {
+      int base = segment * 6 + 3;
+      return dest.set(handles[base], handles[base + 1], handles[base + 2]);
+    }
+  }
+
+  /**
+   * Choose the keyframes to keep from a sampled path. {@code samples} holds xyz per sample and
+   * keyframe {@code k} is sample {@code k * stride}; the samples in between are points on the
+   * original curve that the fit must also follow. Segments between kept keyframes that were
+   * adjacent originally are reported as not merged and carry no handles.
+   */
+  public static Fit fit(float[] samples, int stride, float tolerance, SpanCheck check) {
+    int sampleCount = samples.length / 3;
+    if (stride < 1 || sampleCount < 1 || (sampleCount - 1) % stride != 0) {
+      throw new IllegalArgumentException(
+          "Expected keyframe samples every " + stride + " samples, got " + sampleCount);
+    }
+    int keyframes = (sampleCount - 1) / stride + 1;
+    if (keyframes < 3) {
+      int[] kept = new int[keyframes];
+      for (int k = 0; k < keyframes; k++) {
+        kept[k] = k;
+      }
+      int segments = Math.max(0, keyframes - 1);
+      return new Fit(kept, new boolean[segments], new float[segments * 6]);
+    }
+
+    float[] tangents = estimateTangents(samples, sampleCount);
+    List<int[]> accepted = new ArrayList<>();
+    List<float[]> acceptedHandles = new ArrayList<>();
+    ArrayDeque<int[]> pending = new ArrayDeque<>();
+    pending.push(new int[] {0, keyframes - 1});
+    double[] bezier = new double[12];
+
+    // Depth-first, left span first, so spans are accepted in path order
+    while (!pending.isEmpty()) {
+      int[] span = pending.pop();
+      int from = span[0];
+      int to = span[1];
+      if (to - from == 1) {
+        accepted.add(span);
+        acceptedHandles.add(null);
+        continue;
+      }
+
+      int s0 = from * stride;
+      int s1 = to * stride;
+      double[] parameters = new double[s1 - s0 + 1];
+      int worst = fitSpan(samples, tangents, s0, s1, tolerance, parameters, bezier);
+      if (worst < 0) {
+        worst = check.worstSample(s0, s1, parameters);
+      }
+      if (worst < 0) {
+        accepted.add(span);
+        float[] handles = new float[6];
+        for (int i = 0; i < 6; i++) {
+          handles[i] = (float) bezier[3 + i];
+        }
+        acceptedHandles.add(handles);
+        continue;
+      }
+
+      int split = Math.max(from + 1, Math.min(to - 1, Math.round((float) worst / stride)));
+      pending.push(new int[] {split, to});
+      pending.push(new int[] {from, split});
+    }
+
+    int segments = accepted.size();
+    int[] kept = new int[segments + 1];
+    boolean[] merged = new boolean[segments];
+    float[] handles = new float[segments * 6];
+    for (int i = 0; i < segments; i++) {
+      kept[i] = accepted.get(i)[0];
+      float[] spanHandles = acceptedHandles.get(i);
+      if (spanHandles != null) {
+        merged[i] = true;
+        System.arraycopy(spanHandles, 0, handles, i * 6, 6);
+      }
+    }
+    kept[segments] = keyframes - 1;
+    return new Fit(kept, merged, handles);
+  }
+
+  /**
+   * Simplify a path model in place and return the number of keyframes removed. Merged spans
+   * become Bezier segments and take the summed timing of the segments they replace, so kept
+   * keyframes are reached at the same time; segments whose shape depends on removed neighbours
+   * (Catmull-Rom, Hermite, TCB) are converted to the Bezier with the same curve.
+   *
+   * <p>Orientation is checked against a slerp across each merged span (a SQUAD path is compared
+   * with the slerp too) and roll and FOV against a lerp, at the fitted curve parameter. Easing and
+   * follow targets of removed keyframes are dropped.
+   */
+  public static int simplify(PathModel path, Tolerance tolerance) {
+    CompiledPath compiled = path.getCompiled();
+    int keyframes = compiled.size();
+    if (keyframes < 3) {
+      return 0;
+    }
+
+    int stride = SAMPLES_PER_SEGMENT;
+    int sampleCount = (keyframes - 1) * stride + 1;
+    float[] samples = new float[sampleCount * 3];
+    Quaternionf[] orientations = new Quaternionf[sampleCount];
+    float[] rolls = new float[sampleCount];
+    float[] fovs = new float[sampleCount];
+    boolean squad = path.getDefaults().orientationMode == OrientationMode.SQUAD;
+    Vector3f position = new Vector3f();
+    Quaternionf next = new Quaternionf();
+    for (int s = 0; s < sampleCount; s++) {
+      int segment = Math.min(s / stride, keyframes - 2);
+      float t = (float) (s - segment * stride) / stride;
+      compiled.evaluatePosition(segment, t, position);
+      samples[s * 3] = position.x;
+      samples[s * 3 + 1] = position.y;
+      samples[s * 3 + 2] = position.z;
+
+      Quaternionf orientation = new Quaternionf();
+      if (squad) {
+        compiled.evaluateSquadOrientation(segment, t, orientation);
+      } else {
+        compiled.getOrientation(segment, orientation);
+        orientation.slerp(compiled.getOrientation(segment + 1, next), t);
+      }
+      orientations[s] = orientation;
+      rolls[s] = Mth.lerp(t, compiled.getRoll(segment), compiled.getRoll(segment + 1));
+      fovs[s] = Mth.lerp(t, compiled.getFov(segment), compiled.getFov(segment + 1));
+    }
+
+    Quaternionf expected = new Quaternionf();
+    SpanCheck check =
+        (from, to, parameters) -> {
+          int worst = -1;
+          float worstExcess = 1f;
+          for (int s = from + 1; s < to; s++) {
+            float t = (float) parameters[s - from];
+            orientations[from].slerp(orientations[to], t, expected);
+            float excess =
+                Math.max(
+                    excess(angleDegrees(expected, orientations[s]), tolerance.rotation()),
+                    Math.max(
+                        excess(
+                            Math.abs(Mth.lerp(t, rolls[from], rolls[to]) - rolls[s]),
+                            tolerance.rotation()),
+                        excess(
+                            Math.abs(Mth.lerp(t, fovs[from], fovs[to]) - fovs[s]),
+                            tolerance.fov())));
+            if (excess > worstExcess) {
+              worstExcess = excess;
+              worst = s;
+            }
+          }
+          return worst;
+        };
+
+    Fit fit = fit(samples, stride, tolerance.position(), check);
+    if (fit.size() == keyframes) {
+      return 0;
+    }
+
+    List<PathModel.Segment> segments = path.getSegments();
+    TimeMap timeMap = path.getTimeMap();
+    float duration = path.getSpeed().durationSec;
+    List<PathModel.Segment> kept = new ArrayList<>(fit.size());
+    float[] coefficients = new float[CompiledPath.STRIDE];
+    Vector3f handleOut = new Vector3f();
+    Vector3f handleIn = new Vector3f();
+    for (int i = 0; i < fit.size(); i++) {
+      PathModel.Segment start = segments.get(fit.keyframe(i));
+      kept.add(start);
+      if (i == fit.size() - 1) {
+        break;
+      }
+
+      int from = fit.keyframe(i);
+      int to = fit.keyframe(i + 1);
+      PathModel.Segment end = segments.get(to);
+      if (fit.isMerged(i)) {
+        fit.handleOut(i, handleOut);
+        fit.handleIn(i, handleIn);
+        retime(start, segments, from, to, timeMap, duration);
+      } else {
+        InterpolationType type = compiled.getInterpolationType(from);
+        if (type == InterpolationType.LINEAR
+            || type == InterpolationType.COSINE
+            || type == InterpolationType.BEZIER) {
+          continue; // Shape depends on this segment's own keyframes only
+        }
+        int before = i > 0 ? fit.keyframe(i - 1) : from;
+        int after = i + 2 < fit.size() ? fit.keyframe(i + 2) : to;
+        if (before == Math.max(0, from - 1) && after == Math.min(keyframes - 1, to + 1)) {
+          continue; // The neighbours that shape it are kept too
+        }
+        // Power basis a + b t + c t^2 + d t^3 to Bezier control points
+        compiled.copyCoefficients(from, coefficients);
+        handleOut.set(
+            coefficients[0] + coefficients[1] / 3f,
+            coefficients[4] + coefficients[5] / 3f,
+            coefficients[8] + coefficients[9] / 3f);
+        handleIn.set(
+            coefficients[0] + (2f * coefficients[1] + coefficients[2]) / 3f,
+            coefficients[4] + (2f * coefficients[5] + coefficients[6]) / 3f,
+            coefficients[8] + (2f * coefficients[9] + coefficients[10]) / 3f);
+      }
+      start.interpolationType = InterpolationType.BEZIER;
+      start.bezierOut = new Vector3f(handleOut).sub(start.position);
+      end.bezierIn = new Vector3f(handleIn).sub(end.position);
+    }
+
+    path.replaceSegments(kept);
+    return keyframes - kept.size();
+  }
+
+  /**
+   * Give the first keyframe of a merged span the combined timing of the segments it replaces:
+   * summed weights when they are all flexible, summed durations when they are all fixed, and
+   * otherwise their current combined duration.
+   */
+  private static void retime(
+      PathModel.Segment start,
+      List<PathModel.Segment> segments,
+      int from,
+      int to,
+      TimeMap timeMap,
+      float duration) {
+    boolean anyFixed = false;
+    boolean allFixed = true;
+    float weight = 0f;
+    float fixed = 0f;
+    for (int i = from; i < to; i++) {
+      PathModel.Segment segment = segments.get(i);
+      if (segment.durationSec != null) {
+        anyFixed = true;
+        fixed += Math.max(0f, segment.durationSec);
+      } else {
+        allFixed = false;
+        weight += segment.weight != null ? Math.max(0f, segment.weight) : 1f;
+      }
+    }
+
+    if (!anyFixed) {
+      start.weight = weight;
+    } else if (allFixed) {
+      start.durationSec = fixed;
+    } else {
+      start.durationSec =
+          timeMap.segmentStartTime(to, duration) - timeMap.segmentStartTime(from, duration);
+      start.weight = null;
+    }
+  }
+
+  /** Angle between two orientations in degrees. */
+  public static float angleDegrees(Quaternionf a, Quaternionf b) {
+    float dot = Math.min(1f, Math.abs(a.dot(b)));
+    return 2f * (float) Math.acos(dot) * Mth.RAD_TO_DEG;
+  }
+
+  /** Error as a multiple of its tolerance; above 1 is out of tolerance. */
+  public static float excess(float error, float tolerance) {
+    return error / Math.max(tolerance, 1e-6f);
+  }
+
+  // ===== FITTING =====
+
+  /**
+   * Fit one cubic to samples {@code s0..s1} into {@code bezier} (four control points, xyz each) and
+   * their curve parameters into {@code parameters}. Returns the sample furthest from the curve if
+   * it is out of tolerance, otherwise -1.
+   */
+  private static int fitSpan(
+      float[] samples,
+      float[] tangents,
+      int s0,
+      int s1,
+      float tolerance,
+      double[] parameters,
+      double[] bezier) {
+    int count = s1 - s0 + 1;
+    double length = 0.0;
+    parameters[0] = 0.0;
+    for (int i = 1; i < count; i++) {
+      length += distance(samples, s0 + i - 1, s0 + i);
+      parameters[i] = length;
+    }
+    for (int i = 1; i < count; i++) {
+      parameters[i] = length > EPSILON ? parameters[i] / length : (double) i / (count - 1);
+    }
+
+    // Unit end tangents: forward at the start, backward at the end; the chord when unknown
+    double[] startTangent = new double[3];
+    double[] endTangent = new double[3];
+    for (int axis = 0; axis < 3; axis++) {
+      startTangent[axis] = tangents[s0 * 3 + axis];
+      endTangent[axis] = -tangents[s1 * 3 + axis];
+      bezier[axis] = samples[s0 * 3 + axis];
+      bezier[9 + axis] = samples[s1 * 3 + axis];
+    }
+    double chordLength = distance(samples, s0, s1);
+    if (isZero(startTangent) && chordLength > EPSILON) {
+      for (int axis = 0; axis < 3; axis++) {
+        startTangent[axis] = (bezier[9 + axis] - bezier[axis]) / chordLength;
+      }
+    }
+    if (isZero(endTangent) && chordLength > EPSILON) {
+      for (int axis = 0; axis < 3; axis++) {
+        endTangent[axis] = (bezier[axis] - bezier[9 + axis]) / chordLength;
+      }
+    }
+
+    solveHandles(samples, s0, count, parameters, startTangent, endTangent, length, bezier);
+    for (int iteration = 0; iteration < NEWTON_ITERATIONS; iteration++) {
+      reparameterize(samples, s0, count, parameters, bezier);
+      solveHandles(samples, s0, count, parameters, startTangent, endTangent, length, bezier);
+    }
+
+    int worst = -1;
+    double worstError = tolerance;
+    double[] point = new double[3];
+    for (int i = 1; i < count - 1; i++) {
+      evaluate(bezier, parameters[i], point);
+      double dx = point[0] - samples[(s0 + i) * 3];
+      double dy = point[1] - samples[(s0 + i) * 3 + 1];
+      double dz = point[2] - samples[(s0 + i) * 3 + 2];
+      double error = Math.sqrt(dx * dx + dy * dy + dz * dz);
+      if (error > worstError) {
+        worstError = error;
+        worst = s0 + i;
+      }
+    }
+    return worst;
+  }
+
+  /**
+   * Least-squares handle lengths along the fixed end tangents. Falls back to a third of the chord
+   * when the system is singular or gives a non-positive length, and caps lengths at the sampled
+   * arc length so a fit cannot loop between samples.
+   */
+  private static void solveHandles(
+      float[] samples,
+      int s0,
+      int count,
+      double[] parameters,
+      double[] startTangent,
+      double[] endTangent,
+      double length,
+      double[] bezier) {
+    double c00 = 0.0;
+    double c01 = 0.0;
+    double c11 = 0.0;
+    double x0 = 0.0;
+    double x1 = 0.0;
+    for (int i = 0; i < count; i++) {
+      double u = parameters[i];
+      double v = 1.0 - u;
+      double b0 = v * v * v;
+      double b1 = 3.0 * u * v * v;
+      double b2 = 3.0 * u * u * v;
+      double b3 = u * u * u;
+      for (int axis = 0; axis < 3; axis++) {
+        double a1 = startTangent[axis] * b1;
+        double a2 = endTangent[axis] * b2;
+        double residual =
+            samples[(s0 + i) * 3 + axis] - bezier[axis] * (b0 + b1) - bezier[9 + axis] * (b2 + b3);
+        c00 += a1 * a1;
+        c01 += a1 * a2;
+        c11 += a2 * a2;
+        x0 += a1 * residual;
+        x1 += a2 * residual;
+      }
+    }
+
+    double determinant = c00 * c11 - c01 * c01;
+    double fallback = length / 3.0;
+    double alpha1 = fallback;
+    double alpha2 = fallback;
+    if (Math.abs(determinant) > EPSILON) {
+      alpha1 = (x0 * c11 - x1 * c01) / determinant;
+      alpha2 = (c00 * x1 - c01 * x0) / determinant;
+      if (alpha1 <= EPSILON * length || alpha2 <= EPSILON * length) {
+        alpha1 = fallback;
+        alpha2 = fallback;
+      }
+    }
+    alpha1 = Math.min(alpha1, length);
+    alpha2 = Math.min(alpha2, length);
+    for (int axis = 0; axis < 3; axis++) {
+      bezier[3 + axis] = bezier[axis] + startTangent[axis] * alpha1;
+      bezier[6 + axis] = bezier[9 + axis] + endTangent[axis] * alpha2;
+    }
+  }
+
+  /** One Newton step per sample towards the closest point of the curve. */
+  private static void reparameterize(
+      float[] samples, int s0, int count, double[] parameters, double[] bezier) {
+    for (int i = 1; i < count - 1; i++) {
+      double u = parameters[i];
+      double v = 1.0 - u;
+      double numerator = 0.0;
+      double denominator = 0.0;
+      for (int axis = 0; axis < 3; axis++) {
+        double p0 = bezier[axis];
+        double p1 = bezier[3 + axis];
+        double p2 = bezier[6 + axis];
+        double p3 = bezier[9 + axis];
+        double point =
+            v * v * v * p0 + 3.0 * u * v * v * p1 + 3.0 * u * u * v * p2 + u * u * u * p3;
+        double first = 3.0 * (v * v * (p1 - p0) + 2.0 * u * v * (p2 - p1) + u * u * (p3 - p2));
+        double second = 6.0 * (v * (p2 - 2.0 * p1 + p0) + u * (p3 - 2.0 * p2 + p1));
+        double difference = point - samples[(s0 + i) * 3 + axis];
+        numerator += difference * first;
+        denominator += first * first + difference * second;
+      }
+      if (Math.abs(denominator) > EPSILON) {
+        parameters[i] = Math.max(0.0, Math.min(1.0, u - numerator / denominator));
+      }
+    }
+  }
+
+  /** Unit tangent direction at every sample from its neighbours, zero where the path is still. */
+  private static float[] estimateTangents(float[] samples, int sampleCount) {
+    float[] tangents = new float[sampleCount * 3];
+    for (int s = 0; s < sampleCount; s++) {
+      int before = Math.max(0, s - 1);
+      int after = Math.min(sampleCount - 1, s + 1);
+      float dx = samples[after * 3] - samples[before * 3];
+      float dy = samples[after * 3 + 1] - samples[before * 3 + 1];
+      float dz = samples[after * 3 + 2] - samples[before * 3 + 2];
+      float length = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+      if (length > 1e-6f) {
+        tangents[s * 3] = dx / length;
+        tangents[s * 3 + 1] = dy / length;
+        tangents[s * 3 + 2] = dz / length;
+      }
+    }
+    return tangents;
+  }
+
+  private static void evaluate(double[] bezier, double u, double[] dest) {
+    double v = 1.0 - u;
+    double b0 = v * v * v;
+    double b1 = 3.0 * u * v * v;
+    double b2 = 3.0 * u * u * v;
+    double b3 = u * u * u;
+    for (int axis = 0; axis < 3; axis++) {
+      dest[axis] =
+          b0 * bezier[axis] + b1 * bezier[3 + axis] + b2 * bezier[6 + axis] + b3 * bezier[9 + axis];
+    }
+  }
+
+  private static double distance(float[] samples, int a, int b) {
+    double dx = samples[b * 3] - samples[a * 3];
+    double dy = samples[b * 3 + 1] - samples[a * 3 + 1];
+    double dz = samples[b * 3 + 2] - samples[a * 3 + 2];
+    return Math.sqrt(dx * dx + dy * dy + dz * dz);
+  }
+
+  private static boolean isZero(double[] v) {
+    return v[0] == 0.0 && v[1] == 0.0 && v[2] == 0.0;
+  }
+}
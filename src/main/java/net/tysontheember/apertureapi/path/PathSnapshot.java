@@ -0,0 +1,249 @@
+package net.tysontheember.apertureapi.path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Quaternionf;
+import org.joml.Vector3d;
+import org.joml.Vector3f;
+
+/**
+ * Immutable copy of a {@link PathModel} as of one edit, for reading a path away from the thread
+ * that edits it: render-thread playback, background table builds, network encoding.
+ *
+ * <p>Take one with {@link PathModel#snapshot()} on the editing thread and hand it on. It owns deep
+ * copies of the keyframes, defaults and speed settings, so later edits never show through and any
+ * number of threads can read it without locks. The model keeps returning the same snapshot until
+ * the next edit, so taking one every frame is cheap.
+ *
+ * <p>It is a {@link PathView}, so it can be evaluated like the model. Compiled kernels and the
+ * other tables are built from the snapshot's own copies on first use, or up front by {@link
+ * PathCompileService}. Threads racing on the first call may each build one; the results are
+ * identical and the fields are volatile, so whichever is published is complete.
+ *
+ * <p>Tables are built incrementally from the newest earlier snapshot that has them: arc-length
+ * spans of unchanged segments are reused, and timing sums are only recomputed from the first
+ * segment whose timing was edited since.
+ */
+public final class PathSnapshot implements PathView {
+  private final long version;
+  private final String id;
+  private final String name;
+  private final boolean loop;
+  private final double anchorX;
+  private final double anchorY;
+  private final double anchorZ;
+  private final PathModel.PathDefaults defaults;
+  private final PathModel.SpeedSettings speed;
+  private final List<PathModel.Segment> segments;
+  private final long lastModified;
+  private final UUID lastModifier;
+
+  private volatile CompiledPath compiled;
+  private volatile PathModel.ArcLengthLUT arcLengthLUT;
+  private volatile FrameTable frameTable;
+  private volatile TimeMap timeMap;
+  // Spans of arcLengthLUT, reused by later snapshots
+  private volatile Map<ArcLengthSpan, ArcLengthSpan> spans;
+
+  // Tables of an earlier snapshot to build from; dropped once this snapshot's own are built
+  private @Nullable TimeMap timingBase;
+  private int timingFrom; // First segment whose timing differs from timingBase
+  private @Nullable Map<ArcLengthSpan, ArcLengthSpan> spanBase;
+
+  /**
+   * @param previous the model's previous snapshot, if any
+   * @param timingFrom first segment whose timing was edited since {@code previous}
+   */
+  PathSnapshot(PathModel path, long version, @Nullable PathSnapshot previous, int timingFrom) {
+    this.version = version;
+    this.id = path.getId();
+    this.name = path.getName();
+    this.loop = path.isLoop();
+    Vector3d anchor = path.getAnchor(new Vector3d());
+    this.anchorX = anchor.x;
+    this.anchorY = anchor.y;
+    this.anchorZ = anchor.z;
+    this.defaults = path.getDefaults().copy();
+    this.speed = path.getSpeed().copy();
+    List<PathModel.Segment> copies = new ArrayList<>(path.getSegments().size());
+    for (PathModel.Segment segment : path.getSegments()) {
+      copies.add(segment.copy());
+    }
+    this.segments = Collections.unmodifiableList(copies);
+    this.lastModified = path.getLastModified();
+    this.lastModifier = path.getLastModifier();
+
+    if (previous != null) {
+      // Build on the previous snapshot's tables, or on what it would have built on if it has none
+      TimeMap previousTiming = previous.timeMap;
+      if (previousTiming != null) {
+        this.timingBase = previousTiming;
+        this.timingFrom = timingFrom;
+      } else {
+        this.timingBase = previous.timingBase;
+        this.timingFrom = Math.min(previous.timingFrom, timingFrom);
+      }
+      Map<ArcLengthSpan, ArcLengthSpan> previousSpans = previous.spans;
+      this.spanBase = previousSpans != null ? previousSpans : previous.spanBase;
+    }
+  }
+
+  /** True if this still matches a model at {@code editCount} with these settings. */
+  boolean isTakenFrom(
+      long editCount, PathModel.PathDefaults defaults, PathModel.SpeedSettings speed) {
+    return version == editCount && this.defaults.sameAs(defaults) && this.speed.sameAs(speed);
+  }
+
+  /** Edit count of the model when this was taken; later snapshots of it have larger versions. */
+  public long getVersion() {
+    return version;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public boolean isLoop() {
+    return loop;
+  }
+
+  public Vector3d getAnchor(Vector3d dest) {
+    return dest.set(anchorX, anchorY, anchorZ);
+  }
+
+  /** World position of a path-local point, summed in double precision. */
+  public Vector3d toWorld(Vector3f local, Vector3d dest) {
+    return dest.set(anchorX + local.x, anchorY + local.y, anchorZ + local.z);
+  }
+
+  public long getLastModified() {
+    return lastModified;
+  }
+
+  public UUID getLastModifier() {
+    return lastModifier;
+  }
+
+  /** Number of keyframes. */
+  public int size() {
+    return segments.size();
+  }
+
+  public Vector3f getPosition(int keyframe, Vector3f dest) {
+    return dest.set(segments.get(keyframe).position);
+  }
+
+  public Quaternionf getOrientation(int keyframe, Quaternionf dest) {
+    return dest.set(segments.get(keyframe).orientation);
+  }
+
+  public float getRoll(int keyframe) {
+    return segments.get(keyframe).roll;
+  }
+
+  public float getFov(int keyframe) {
+    return segments.get(keyframe).fov;
+  }
+
+  /** Mutable copy of one keyframe, e.g. to edit into another path. */
+  public PathModel.Segment copySegment(int keyframe) {
+    return segments.get(keyframe).copy();
+  }
+
+  /** Copies of the keyframes; unmodifiable, and the segments must not be edited either. */
+  @Override
+  public List<PathModel.Segment> getSegments() {
+    return segments;
+  }
+
+  /** Defaults as of this snapshot; read-only. */
+  @Override
+  public PathModel.PathDefaults getDefaults() {
+    return defaults;
+  }
+
+  /** Speed settings as of this snapshot; read-only. */
+  @Override
+  public PathModel.SpeedSettings getSpeed() {
+    return speed;
+  }
+
+  /** Compiled segment kernels of this snapshot. */
+  @Override
+  public CompiledPath getCompiled() {
+    CompiledPath current = compiled;
+    if (current == null) {
+      current = CompiledPath.compile(segments, defaults);
+      compiled = current;
+    }
+    return current;
+  }
+
+  /** Arc-length table of this snapshot, built to the snapshot's arc-length tolerance. */
+  @Override
+  public PathModel.ArcLengthLUT getArcLengthLUT() {
+    PathModel.ArcLengthLUT current = arcLengthLUT;
+    if (current == null) {
+      Float tolerance = speed.arcLengthTolerance;
+      Map<ArcLengthSpan, ArcLengthSpan> previous = spanBase;
+      Map<ArcLengthSpan, ArcLengthSpan> retained = new HashMap<>();
+      current =
+          PathModel.buildArcLengthLUT(
+              getCompiled(),
+              tolerance != null && tolerance > 0f ? tolerance : 0f,
+              previous != null ? previous : Collections.emptyMap(),
+              retained);
+      spans = retained;
+      arcLengthLUT = current;
+      spanBase = null;
+    }
+    return current;
+  }
+
+  @Override
+  public FrameTable getFrameTable() {
+    FrameTable current = frameTable;
+    if (current == null) {
+      current = FrameTable.build(getCompiled(), getArcLengthLUT());
+      frameTable = current;
+    }
+    return current;
+  }
+
+  @Override
+  public TimeMap getTimeMap() {
+    TimeMap current = timeMap;
+    if (current == null) {
+      current = TimeMap.build(segments, timingBase, timingFrom);
+      timeMap = current;
+      timingBase = null;
+    }
+    return current;
+  }
+
+  /** Spans of the arc-length table, keyed by segment curve; null until the table is built. */
+  @Nullable
+  Map<ArcLengthSpan, ArcLengthSpan> getSpans() {
+    return spans;
+  }
+
+  /** Build every table playback of this snapshot reads, so evaluation only does lookups. */
+  void prepare() {
+    getCompiled();
+    getArcLengthLUT();
+    getTimeMap();
+    if (defaults.banking) {
+      getFrameTable();
+    }
+  }
+}
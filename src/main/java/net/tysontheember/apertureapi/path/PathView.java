@@ -0,0 +1,29 @@
+package net.tysontheember.apertureapi.path;
+
+import java.util.List;
+
+/**
+ * Read access to a camera path for evaluation, implemented by the live {@link PathModel} and by
+ * its immutable {@link PathSnapshot}s. {@link PathEvaluator}, {@link PathCursor} and {@link
+ * PathSampler} work on either, so playback can read a snapshot whose tables were built off-thread
+ * while the model is being edited.
+ *
+ * <p>Everything returned belongs to the path; treat it as read-only.
+ */
+public interface PathView {
+  List<PathModel.Segment> getSegments();
+
+  PathModel.PathDefaults getDefaults();
+
+  PathModel.SpeedSettings getSpeed();
+
+  boolean isLoop();
+
+  CompiledPath getCompiled();
+
+  PathModel.ArcLengthLUT getArcLengthLUT();
+
+  FrameTable getFrameTable();
+
+  TimeMap getTimeMap();
+}
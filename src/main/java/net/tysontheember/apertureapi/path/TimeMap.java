@@ -0,0 +1,168 @@
+package net.tysontheember.apertureapi.path;
+
+import java.util.List;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Playback timing for duration-mode paths: maps time to (segment, local parameter) from the
+ * per-segment {@link PathModel.Segment#durationSec} and {@link PathModel.Segment#weight}.
+ *
+ * <p>Segment {@code i} (keyframe {@code i} to {@code i + 1}) takes its timing from keyframe {@code
+ * i}. A segment with {@code durationSec} set lasts exactly that long; the remaining segments split
+ * whatever is left of the path duration in proportion to their weight (1 when unset). With no
+ * timing set anywhere every segment gets an equal share, as before.
+ *
+ * <p>Fixed durations and weights are kept as separate prefix sums, so changing the path duration
+ * needs no rebuild and an edit only recomputes the sums from the edited segment onward. Lookups
+ * are a binary search over segment start times and do not allocate.
+ */
+public final class TimeMap {
+  private static final TimeMap EMPTY = new TimeMap(0);
+
+  private final int segmentCount;
+  private final double[] fixedPrefix; // sum of fixed durations before each boundary
+  private final double[] weightPrefix; // sum of weights of flexible segments before each boundary
+  private final int[] timedPrefix; // segments with any timing set before each boundary
+
+  private TimeMap(int segmentCount) {
+    this.segmentCount = segmentCount;
+    this.fixedPrefix = new double[segmentCount + 1];
+    this.weightPrefix = new double[segmentCount + 1];
+    this.timedPrefix = new int[segmentCount + 1];
+  }
+
+  /**
+   * Build the time map for {@code segments}, reusing the sums of {@code previous} before segment
+   * {@code from}. Pass 0 (or no previous map) for a full build.
+   */
+  static TimeMap build(List<PathModel.Segment> segments, @Nullable TimeMap previous, int from) {
+    int numSegments = Math.max(0, segments.size() - 1);
+    if (numSegments == 0) {
+      return EMPTY;
+    }
+
+    TimeMap map = new TimeMap(numSegments);
+    int start = previous == null ? 0 : Math.max(0, Math.min(from, previous.segmentCount));
+    if (start > numSegments) {
+      start = numSegments;
+    }
+    if (start > 0) {
+      System.arraycopy(previous.fixedPrefix, 0, map.fixedPrefix, 0, start + 1);
+      System.arraycopy(previous.weightPrefix, 0, map.weightPrefix, 0, start + 1);
+      System.arraycopy(previous.timedPrefix, 0, map.timedPrefix, 0, start + 1);
+    }
+
+    for (int i = start; i < numSegments; i++) {
+      PathModel.Segment segment = segments.get(i);
+      double fixed = 0.0;
+      double weight = 0.0;
+      if (segment.durationSec != null) {
+        fixed = Math.max(0f, segment.durationSec);
+      } else {
+        weight = segment.weight != null ? Math.max(0f, segment.weight) : 1.0;
+      }
+      boolean timed = segment.durationSec != null || segment.weight != null;
+      map.fixedPrefix[i + 1] = map.fixedPrefix[i] + fixed;
+      map.weightPrefix[i + 1] = map.weightPrefix[i] + weight;
+      map.timedPrefix[i + 1] = map.timedPrefix[i] + (timed ? 1 : 0);
+    }
+    return map;
+  }
+
+  public int segmentCount() {
+    return segmentCount;
+  }
+
+  /** True when no segment sets its own timing, so time is spread evenly across segments. */
+  public boolean isUniform() {
+    return timedPrefix[segmentCount] == 0;
+  }
+
+  /**
+   * Total playback time in seconds. Equals {@code pathDuration} unless the fixed segment
+   * durations alone exceed it, or every segment is fixed.
+   */
+  public float getTotalDuration(float pathDuration) {
+    double fixed = fixedPrefix[segmentCount];
+    if (weightPrefix[segmentCount] <= 0.0) {
+      return (float) fixed;
+    }
+    return (float) Math.max(fixed, pathDuration);
+  }
+
+  /** Seconds per unit of weight for the flexible segments. */
+  private double secondsPerWeight(float pathDuration) {
+    double weight = weightPrefix[segmentCount];
+    if (weight <= 0.0) {
+      return 0.0;
+    }
+    return Math.max(0.0, pathDuration - fixedPrefix[segmentCount]) / weight;
+  }
+
+  private double boundaryTime(int boundary, double secondsPerWeight) {
+    return fixedPrefix[boundary] + weightPrefix[boundary] * secondsPerWeight;
+  }
+
+  /** Start time of segment {@code segment} in seconds ({@code segmentCount} gives the end). */
+  public float segmentStartTime(int segment, float pathDuration) {
+    int boundary = Math.max(0, Math.min(segment, segmentCount));
+    return (float) boundaryTime(boundary, secondsPerWeight(pathDuration));
+  }
+
+  /** Duration of segment {@code segment} in seconds. */
+  public float segmentDuration(int segment, float pathDuration) {
+    double secondsPerWeight = secondsPerWeight(pathDuration);
+    return (float)
+        (boundaryTime(segment + 1, secondsPerWeight) - boundaryTime(segment, secondsPerWeight));
+  }
+
+  /**
+   * Normalized path parameter [0,1] reached at {@code timeSeconds}, clamped to the ends of
+   * playback. Segments with zero duration are cut over instantly.
+   */
+  public float timeToParameter(float timeSeconds, float pathDuration) {
+    if (segmentCount == 0) {
+      return 0f;
+    }
+    if (isUniform()) {
+      return pathDuration > 0f ? Math.max(0f, Math.min(1f, timeSeconds / pathDuration)) : 1f;
+    }
+
+    double secondsPerWeight = secondsPerWeight(pathDuration);
+    if (timeSeconds <= 0f) {
+      return 0f;
+    }
+    if (timeSeconds >= boundaryTime(segmentCount, secondsPerWeight)) {
+      return 1f;
+    }
+
+    // Last segment starting at or before the time
+    int low = 0;
+    int high = segmentCount - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (boundaryTime(mid, secondsPerWeight) <= timeSeconds) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+
+    double start = boundaryTime(low, secondsPerWeight);
+    double duration = boundaryTime(low + 1, secondsPerWeight) - start;
+    double localT = duration > 0.0 ? Math.min(1.0, (timeSeconds - start) / duration) : 1.0;
+    return (float) ((low + localT) / segmentCount);
+  }
+
+  /**
+   * Rate of change of the normalized path parameter with time inside {@code segment}, in 1/s.
+   * Zero for a segment that is cut over instantly.
+   */
+  public float parameterRate(int segment, float pathDuration) {
+    if (isUniform()) {
+      return pathDuration > 0f ? 1f / pathDuration : 0f;
+    }
+    float duration = segmentDuration(segment, pathDuration);
+    return duration > 0f ? 1f / (duration * segmentCount) : 0f;
+  }
+}
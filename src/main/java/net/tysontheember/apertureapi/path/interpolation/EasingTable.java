@@ -0,0 +1,105 @@
+package net.tysontheember.apertureapi.path.interpolation;
+
+/**
+ * Precomputed piecewise-cubic approximation of one {@link EasingType}, for the easings whose
+ * analytic form calls {@code Math.pow}, {@code Math.sin} or {@code Math.exp}. Each interval stores
+ * the cubic Hermite polynomial through the curve's values and analytic derivatives at its ends, so
+ * a lookup is an index computation and a Horner evaluation.
+ *
+ * <p>The interval count is a multiple of 22 so the slope breaks of the bounce easings (at
+ * multiples of 1/22) fall on interval ends, where the table uses one-sided derivatives. Every
+ * tabulated curve is otherwise smooth, and the Hermite error h^4/384 * max|f''''| is below float
+ * rounding at this resolution: every table stays within 2e-6 of the analytic curve, and {@link
+ * #maxError()} reports the largest difference measured while building.
+ *
+ * <p>Tables are built lazily on first use and shared; each is about 5.5 KiB.
+ */
+public final class EasingTable {
+  /** Number of cubic intervals over [0,1]. */
+  static final int INTERVALS = 352;
+
+  /** Error probes per interval when measuring {@link #maxError()}. */
+  private static final int PROBES = 8;
+
+  // Tables are immutable once built, so publishing them through a plain array is safe
+  private static final EasingTable[] TABLES = new EasingTable[EasingType.values().length];
+
+  private final EasingType type;
+  private final float[] coefficients; // c0..c3 per interval, in the interval's local parameter
+  private final float start;
+  private final float end;
+  private final float maxError;
+
+  private EasingTable(EasingType type) {
+    this.type = type;
+    this.coefficients = new float[INTERVALS * 4];
+    this.start = type.apply(0f);
+    this.end = type.apply(1f);
+
+    float h = 1f / INTERVALS;
+    for (int i = 0; i < INTERVALS; i++) {
+      // Sample just inside the interval so endpoint special cases and slope breaks at the interval
+      // ends resolve to the limit from this side
+      double a = i == 0 ? Math.ulp(0f) : (double) i / INTERVALS;
+      double b = i == INTERVALS - 1 ? 1.0 - Math.ulp(1f) : (double) (i + 1) / INTERVALS;
+      float inside = h * 1e-4f;
+      float p0 = type.apply((float) a);
+      float p1 = type.apply((float) b);
+      float m0 = type.derivative((float) (i * (double) h) + inside) * h;
+      float m1 = type.derivative((float) ((i + 1) * (double) h) - inside) * h;
+
+      int base = i * 4;
+      coefficients[base] = p0;
+      coefficients[base + 1] = m0;
+      coefficients[base + 2] = 3f * (p1 - p0) - 2f * m0 - m1;
+      coefficients[base + 3] = 2f * (p0 - p1) + m0 + m1;
+    }
+
+    float error = 0f;
+    for (int i = 0; i < INTERVALS * PROBES; i++) {
+      float t = (i + 0.5f) / (INTERVALS * PROBES);
+      error = Math.max(error, Math.abs(apply(t) - type.apply(t)));
+    }
+    this.maxError = error;
+  }
+
+  /** Shared table for {@code type}, built on first use. */
+  public static EasingTable of(EasingType type) {
+    EasingTable table = TABLES[type.ordinal()];
+    if (table == null) {
+      synchronized (TABLES) {
+        table = TABLES[type.ordinal()];
+        if (table == null) {
+          table = new EasingTable(type);
+          TABLES[type.ordinal()] = table;
+        }
+      }
+    }
+    return table;
+  }
+
+  /** Tabulated value of the easing at {@code t}, clamped to [0,1] like {@link EasingType#apply}. */
+  public float apply(float t) {
+    if (!(t > 0f)) {
+      return start;
+    }
+    if (t >= 1f) {
+      return end;
+    }
+    float x = t * INTERVALS;
+    int i = Math.min((int) x, INTERVALS - 1);
+    float u = x - i;
+    int base = i * 4;
+    return coefficients[base]
+        + u * (coefficients[base + 1] + u * (coefficients[base + 2] + u * coefficients[base + 3]));
+  }
+
+  public EasingType getType() {
+    return type;
+  }
+
+  /** Largest difference from {@link EasingType#apply} found while building the table. */
+  public float maxError() {
+    return maxError;
+  }
+}
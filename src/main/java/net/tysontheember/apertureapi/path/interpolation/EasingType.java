@@ -177,6 +177,153 @@ public enum EasingType {
     };
   }
 
+  /**
+   * Analytic derivative of {@link #apply} with respect to t, for t in [0,1]. Used to turn
+   * curve-parameter tangents into tangents over the un-eased segment parameter without a finite
+   * difference.
+   */
+  public float derivative(float t) {
+    t = Math.max(0f, Math.min(1f, t));
+    float ln2 = (float) Math.log(2.0);
+
+    return switch (this) {
+      case LINEAR -> 1f;
+
+        // Quadratic
+      case QUAD_IN -> 2f * t;
+      case QUAD_OUT -> 2f * (1f - t);
+      case QUAD_IN_OUT -> t < 0.5f ? 4f * t : 4f * (1f - t);
+
+        // Cubic
+      case CUBIC_IN -> 3f * t * t;
+      case CUBIC_OUT -> 3f * (1f - t) * (1f - t);
+      case CUBIC_IN_OUT -> t < 0.5f ? 12f * t * t : 3f * (2f - 2f * t) * (2f - 2f * t);
+
+        // Quartic
+      case QUART_IN -> 4f * t * t * t;
+      case QUART_OUT -> 4f * (float) Math.pow(1f - t, 3);
+      case QUART_IN_OUT -> t < 0.5f ? 32f * t * t * t : 4f * (float) Math.pow(2f - 2f * t, 3);
+
+        // Quintic
+      case QUINT_IN -> 5f * t * t * t * t;
+      case QUINT_OUT -> 5f * (float) Math.pow(1f - t, 4);
+      case QUINT_IN_OUT -> t < 0.5f
+          ? 80f * t * t * t * t
+          : 5f * (float) Math.pow(2f - 2f * t, 4);
+
+        // Sinusoidal
+      case SINE_IN -> (float) (Math.PI / 2 * Math.sin(t * Math.PI / 2));
+      case SINE_OUT -> (float) (Math.PI / 2 * Math.cos(t * Math.PI / 2));
+      case SINE_IN_OUT -> (float) (Math.PI / 2 * Math.sin(Math.PI * t));
+
+        // Exponential
+      case EXPO_IN -> 10f * ln2 * (float) Math.pow(2f, 10f * (t - 1f));
+      case EXPO_OUT -> 10f * ln2 * (float) Math.pow(2f, -10f * t);
+      case EXPO_IN_OUT -> t < 0.5f
+          ? 10f * ln2 * (float) Math.pow(2f, 20f * t - 10f)
+          : 10f * ln2 * (float) Math.pow(2f, -20f * t + 10f);
+
+        // Circular (unbounded where the curve turns vertical)
+      case CIRC_IN -> t / safeSqrt(1f - t * t);
+      case CIRC_OUT -> (1f - t) / safeSqrt(1f - (t - 1f) * (t - 1f));
+      case CIRC_IN_OUT -> t < 0.5f
+          ? 2f * t / safeSqrt(1f - 4f * t * t)
+          : (2f - 2f * t) / safeSqrt(1f - (2f - 2f * t) * (2f - 2f * t));
+
+        // Back
+      case BACK_IN -> {
+        float c1 = 1.70158f;
+        float c3 = c1 + 1f;
+        yield 3f * c3 * t * t - 2f * c1 * t;
+      }
+      case BACK_OUT -> {
+        float c1 = 1.70158f;
+        float c3 = c1 + 1f;
+        yield 3f * c3 * (t - 1f) * (t - 1f) + 2f * c1 * (t - 1f);
+      }
+      case BACK_IN_OUT -> {
+        float c2 = 1.70158f * 1.525f;
+        if (t < 0.5f) {
+          yield 12f * (c2 + 1f) * t * t - 4f * c2 * t;
+        }
+        float u = 2f * t - 2f;
+        yield 3f * (c2 + 1f) * u * u + 2f * c2 * u;
+      }
+
+        // Elastic
+      case ELASTIC_IN -> {
+        float c4 = (float) (2f * Math.PI / 3f);
+        double a = (t - 1f) * c4;
+        double g = Math.pow(2f, 10f * (t - 1f));
+        yield (float) (-g * (10f * ln2 * Math.sin(a) + c4 * Math.cos(a)));
+      }
+      case ELASTIC_OUT -> {
+        float c4 = (float) (2f * Math.PI / 3f);
+        double a = t * c4;
+        double g = Math.pow(2f, -10f * t);
+        yield (float) (g * (c4 * Math.cos(a) - 10f * ln2 * Math.sin(a)));
+      }
+      case ELASTIC_IN_OUT -> {
+        float c5 = (float) (2f * Math.PI / 4.5f);
+        double a = (20f * t - 11.125f) * c5;
+        if (t < 0.5f) {
+          double g = Math.pow(2f, 20f * t - 10f);
+          yield (float) (-g * (20f * ln2 * Math.sin(a) + 20f * c5 * Math.cos(a)) / 2f);
+        }
+        double g = Math.pow(2f, -20f * t + 10f);
+        yield (float) (g * (20f * c5 * Math.cos(a) - 20f * ln2 * Math.sin(a)) / 2f);
+      }
+
+        // Bounce
+      case BOUNCE_IN -> bounceOutDerivative(1f - t);
+      case BOUNCE_OUT -> bounceOutDerivative(t);
+      case BOUNCE_IN_OUT -> t < 0.5f
+          ? bounceOutDerivative(1f - 2f * t)
+          : bounceOutDerivative(2f * t - 1f);
+    };
+  }
+
+  /**
+   * Whether {@link #applyTabulated} uses an {@link EasingTable} for this easing: the sinusoidal,
+   * exponential, back, elastic and bounce families. Polynomial easings are already cheaper than a
+   * table lookup, and the circular ones have vertical tangents a cubic table cannot follow.
+   */
+  public boolean isTabulated() {
+    return switch (this) {
+      case SINE_IN, SINE_OUT, SINE_IN_OUT, EXPO_IN, EXPO_OUT, EXPO_IN_OUT -> true;
+      case BACK_IN, BACK_OUT, BACK_IN_OUT, ELASTIC_IN, ELASTIC_OUT, ELASTIC_IN_OUT -> true;
+      case BOUNCE_IN, BOUNCE_OUT, BOUNCE_IN_OUT -> true;
+      default -> false;
+    };
+  }
+
+  /**
+   * {@link #apply} through the shared lookup table when {@link #isTabulated}, otherwise the
+   * analytic curve. Within {@link EasingTable#maxError()} of {@link #apply}.
+   */
+  public float applyTabulated(float t) {
+    return isTabulated() ? EasingTable.of(this).apply(t) : apply(t);
+  }
+
+  private static float safeSqrt(float v) {
+    return (float) Math.sqrt(Math.max(v, 1e-6f));
+  }
+
+  private static float bounceOutDerivative(float t) {
+    float n1 = 7.5625f;
+    float d1 = 2.75f;
+
+    if (t < 1f / d1) {
+      return 2f * n1 * t;
+    } else if (t < 2f / d1) {
+      return 2f * n1 * (t - 1.5f / d1);
+    } else if (t < 2.5f / d1) {
+      return 2f * n1 * (t - 2.25f / d1);
+    } else {
+      return 2f * n1 * (t - 2.625f / d1);
+    }
+  }
+
   private static float bounceOut(float t) {
     float n1 = 7.5625f;
     float d1 = 2.75f;
@@ -0,0 +1,38 @@
+package net.tysontheember.apertureapi.path.interpolation;
+
+/** How keyframe orientations are blended along a path. */
+public enum OrientationMode {
+  // Slerp between neighbouring keyframes; angular velocity jumps at every keyframe
+  SLERP("slerp"),
+
+  // Spherical quadrangle spline; angular velocity is continuous through keyframes
+  SQUAD("squad");
+
+  private final String name;
+
+  OrientationMode(String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /** Parse from string (case insensitive) */
+  public static OrientationMode fromString(String str) {
+    if (str == null) return SLERP;
+
+    String lower = str.toLowerCase().trim();
+    for (OrientationMode mode : values()) {
+      if (mode.name.equals(lower)) {
+        return mode;
+      }
+    }
+    return SLERP;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
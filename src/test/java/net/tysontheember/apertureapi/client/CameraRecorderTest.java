@@ -0,0 +1,72 @@
+package net.tysontheember.apertureapi.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import net.tysontheember.apertureapi.common.animation.CameraKeyframe;
+import net.tysontheember.apertureapi.common.animation.GlobalCameraPath;
+import net.tysontheember.apertureapi.common.animation.KeyframeTimeline;
+import net.tysontheember.apertureapi.path.PathSimplifier;
+import org.joml.Vector3d;
+import org.junit.jupiter.api.Test;
+
+/** Tests for turning camera recordings into paths. */
+public class CameraRecorderTest {
+  private static final long NANOS_PER_TICK = 50_000_000L;
+  private static final PathSimplifier.Tolerance TOLERANCE =
+      new PathSimplifier.Tolerance(0.01f, 0.5f, 0.5f);
+
+  @Test
+  public void testWrappedRecordingKeepsNewestFramesInOrder() {
+    CameraRecorder recorder = new CameraRecorder(8);
+    recorder.start();
+    for (int frame = 0; frame < 20; frame++) {
+      capture(recorder, frame);
+    }
+    recorder.stop();
+    assertEquals(8, recorder.size());
+    assertEquals(7f, recorder.getDuration(), 1e-3f);
+
+    // The oldest frames sit at the end of the buffer and the newest at its start
+    GlobalCameraPath path = recorder.toPathAsync("wrapped", TOLERANCE).join();
+    KeyframeTimeline timeline = path.getTimeline();
+    Vector3d anchor = path.getAnchor(new Vector3d());
+    assertEquals(8, timeline.size());
+    for (int i = 0; i < timeline.size(); i++) {
+      assertEquals(i, timeline.getTime(i));
+      CameraKeyframe keyframe = timeline.getKeyframe(i);
+      int frame = 12 + i;
+      assertEquals(frame, anchor.x + keyframe.getPos().x, 1e-3);
+      assertEquals(zigzag(frame), anchor.y + keyframe.getPos().y, 1e-3);
+      assertEquals(60f + frame, keyframe.getFov(), 1e-3f);
+    }
+  }
+
+  @Test
+  public void testUnwrappedRecordingStartsAtFirstFrame() {
+    CameraRecorder recorder = new CameraRecorder(8);
+    recorder.start();
+    for (int frame = 0; frame < 5; frame++) {
+      capture(recorder, frame);
+    }
+
+    // Recording may go on while the path is built from what was captured so far
+    GlobalCameraPath path = recorder.toPathAsync("partial", TOLERANCE).join();
+    KeyframeTimeline timeline = path.getTimeline();
+    Vector3d anchor = path.getAnchor(new Vector3d());
+    assertEquals(5, timeline.size());
+    for (int i = 0; i < timeline.size(); i++) {
+      assertEquals(i, timeline.getTime(i));
+      assertEquals(i, anchor.x + timeline.getKeyframe(i).getPos().x, 1e-3);
+    }
+  }
+
+  /** One frame per tick, on a zigzag so no keyframe can be simplified away. */
+  private static void capture(CameraRecorder recorder, int frame) {
+    recorder.capture(
+        1L + frame * NANOS_PER_TICK, frame, zigzag(frame), 0.0, 0f, 0f, 0f, 60f + frame);
+  }
+
+  private static float zigzag(int frame) {
+    return 64f + (frame % 2) * 4f;
+  }
+}
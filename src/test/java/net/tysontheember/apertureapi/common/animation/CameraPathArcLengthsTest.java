@@ -0,0 +1,70 @@
+package net.tysontheember.apertureapi.common.animation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import net.tysontheember.apertureapi.path.ArcLengthLUT;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the shared arc-length tables of camera paths. */
+public class CameraPathArcLengthsTest {
+  @Test
+  public void testPositionEditRebuildsOnlyNeighbouringSegments() {
+    GlobalCameraPath path = path(PathInterpolator.CATMULL_CENTRIPETAL);
+    CameraPathArcLengths lengths = path.getArcLengths();
+    ArcLengthLUT[] before = tables(lengths);
+
+    // Catmull-Rom segments 2 to 5 use keyframe 4 as an end or a neighbour
+    path.getPoint(40).getPos().y += 3f;
+    for (int segment = 0; segment < before.length; segment++) {
+      ArcLengthLUT table = lengths.get(segment);
+      if (segment >= 2 && segment <= 5) {
+        assertNotSame(before[segment], table, "segment " + segment);
+      } else {
+        assertSame(before[segment], table, "segment " + segment);
+      }
+    }
+    assertSame(lengths, path.getArcLengths());
+
+    // The rebuilt tables measure the edited curve
+    ArcLengthLUT edited = lengths.get(3);
+    assertTrue(edited.totalLength() > before[3].totalLength());
+    assertSame(edited, lengths.get(3));
+  }
+
+  @Test
+  public void testBezierHandleEditRebuildsOnlyItsSegment() {
+    GlobalCameraPath path = path(PathInterpolator.BEZIER);
+    CameraPathArcLengths lengths = path.getArcLengths();
+    ArcLengthLUT[] before = tables(lengths);
+
+    // Handles belong to the end keyframe of segment 3
+    path.getPoint(40).getPathBezier().getLeft().add(0f, 5f, 0f);
+    for (int segment = 0; segment < before.length; segment++) {
+      if (segment == 3) {
+        assertNotSame(before[segment], lengths.get(segment));
+      } else {
+        assertSame(before[segment], lengths.get(segment), "segment " + segment);
+      }
+    }
+    assertTrue(lengths.get(3).totalLength() > before[3].totalLength());
+  }
+
+  private static ArcLengthLUT[] tables(CameraPathArcLengths lengths) {
+    ArcLengthLUT[] tables = new ArcLengthLUT[lengths.segmentCount()];
+    for (int segment = 0; segment < tables.length; segment++) {
+      tables[segment] = lengths.get(segment);
+      assertSame(tables[segment], lengths.get(segment));
+    }
+    return tables;
+  }
+
+  private static GlobalCameraPath path(PathInterpolator interpolator) {
+    GlobalCameraPath path = new GlobalCameraPath("lengths");
+    for (int k = 0; k < 8; k++) {
+      Vector3f pos = new Vector3f(k * 4f, 64f + (k % 2), k * k * 0.5f);
+      path.add(k * 10, new CameraKeyframe(pos, new Vector3f(), 70f, interpolator));
+    }
+    return path;
+  }
+}
@@ -0,0 +1,67 @@
+package net.tysontheember.apertureapi.common.animation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import net.tysontheember.apertureapi.path.OrientationUtil;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the packed SQUAD controls of camera paths. */
+public class CameraPathOrientationsTest {
+  @Test
+  public void testSquadPassesThroughKeyframes() {
+    GlobalCameraPath path = path();
+    CameraPathOrientations orientations = path.getOrientations();
+    Quaternionf q = new Quaternionf();
+    for (int segment = 0; segment < 3; segment++) {
+      orientations.squad(segment, 0f, q);
+      assertEquals(1f, Math.abs(q.dot(key(path, segment))), 1e-5f, "segment " + segment);
+      orientations.squad(segment, 1f, q);
+      assertEquals(1f, Math.abs(q.dot(key(path, segment + 1))), 1e-5f, "segment " + segment);
+    }
+  }
+
+  @Test
+  public void testControlsFollowEdits() {
+    GlobalCameraPath path = path();
+    CameraPathOrientations orientations = path.getOrientations();
+    Quaternionf q = new Quaternionf();
+    orientations.squad(1, 0.5f, q);
+    assertSame(orientations, path.getOrientations());
+
+    // Editing a rotation in place rebuilds the controls without a new table
+    path.getPoint(20).getRot().set(20f, 90f, 0f);
+    orientations.squad(1, 1f, q);
+    assertEquals(1f, Math.abs(q.dot(key(path, 2))), 1e-5f);
+    assertSame(orientations, path.getOrientations());
+
+    // Adding a keyframe stamps a new timeline and table
+    path.add(40, keyframe(0f, 200f, 0f));
+    assertNotSame(orientations, path.getOrientations());
+    path.getOrientations().squad(3, 1f, q);
+    assertEquals(1f, Math.abs(q.dot(key(path, 4))), 1e-5f);
+  }
+
+  private static Quaternionf key(GlobalCameraPath path, int index) {
+    Vector3f rot = path.getTimeline().getKeyframe(index).getRot();
+    return OrientationUtil.yprDegToQuat(rot.y, rot.x, rot.z, new Quaternionf());
+  }
+
+  private static GlobalCameraPath path() {
+    GlobalCameraPath path = new GlobalCameraPath("squad");
+    path.add(0, keyframe(0f, 0f, 0f));
+    path.add(10, keyframe(10f, 45f, 0f));
+    path.add(20, keyframe(-5f, 120f, 10f));
+    path.add(30, keyframe(0f, 180f, 0f));
+    return path;
+  }
+
+  private static CameraKeyframe keyframe(float pitch, float yaw, float roll) {
+    return new CameraKeyframe(
+        new Vector3f(yaw, 64f, 0f),
+        new Vector3f(pitch, yaw, roll),
+        70f,
+        PathInterpolator.CATMULL_CENTRIPETAL);
+  }
+}
@@ -0,0 +1,139 @@
+package net.tysontheember.apertureapi.common.animation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import net.tysontheember.apertureapi.path.OrientationUtil;
+import org.joml.Quaternionf;
+import org.joml.Vector3d;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the keyframe evaluation shared by the players. */
+public class KeyframeEvaluatorTest {
+  @Test
+  public void testSegmentEndsHitKeyframes() {
+    GlobalCameraPath path = path();
+    KeyframeEvaluator evaluator = new KeyframeEvaluator();
+    Vector3f pos = new Vector3f();
+    Vector3f rot = new Vector3f();
+    float[] fov = new float[1];
+    for (boolean squad : new boolean[] {false, true}) {
+      evaluator.setSquadOrientation(squad);
+      for (int segment = 0; segment < 3; segment++) {
+        for (int end = 0; end <= 1; end++) {
+          CameraKeyframe keyframe = path.getTimeline().getKeyframe(segment + end);
+          evaluator.evaluate(path, segment, end, pos, rot, fov);
+          assertEquals(0f, pos.distance(keyframe.getPos()), 1e-4f);
+          assertEquals(1f, Math.abs(quat(rot).dot(quat(keyframe.getRot()))), 1e-5f);
+          assertEquals(keyframe.getFov(), fov[0], 1e-4f);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testConstantSpeedSpacesSamplesEvenly() {
+    GlobalCameraPath path = path();
+    KeyframeEvaluator evaluator = new KeyframeEvaluator();
+    Vector3f previous = evaluator.evaluatePosition(path, 1, 0f, new Vector3f());
+    Vector3f pos = new Vector3f();
+    float length = path.getArcLengths().get(1).totalLength();
+    for (int i = 1; i <= 10; i++) {
+      evaluator.evaluatePosition(path, 1, i / 10f, pos);
+      assertEquals(length / 10f, pos.distance(previous), 0.02f, "step " + i);
+      previous.set(pos);
+    }
+
+    // Without it the segment is played at the curve's own parameter
+    evaluator.setConstantSpeed(false);
+    Vector3f expected = CameraPathArcLengths.eval(path.getTimeline(), 1, 0.3f, new Vector3f());
+    assertEquals(0f, evaluator.evaluatePosition(path, 1, 0.3f, pos).distance(expected), 1e-6f);
+  }
+
+  @Test
+  public void testAngleLerpWithoutQuaternions() {
+    GlobalCameraPath path = path();
+    KeyframeEvaluator evaluator = new KeyframeEvaluator();
+    evaluator.setQuaternionOrientation(false);
+    Vector3f rot = evaluator.evaluateRotation(path, 0, 0.5f, new Vector3f());
+    assertEquals(5f, rot.x, 1e-3f);
+    assertEquals(22.5f, rot.y, 1e-3f);
+  }
+
+  @Test
+  public void testHoldCopiesKeyframe() {
+    CameraKeyframe keyframe = path().getTimeline().getKeyframe(2);
+    Vector3f pos = new Vector3f();
+    Vector3f rot = new Vector3f();
+    float[] fov = new float[1];
+    KeyframeEvaluator.hold(keyframe, pos, rot, fov);
+    assertEquals(keyframe.getPos(), pos);
+    assertEquals(keyframe.getRot(), rot);
+    assertEquals(keyframe.getFov(), fov[0]);
+    assertNotSame(keyframe.getPos(), pos);
+  }
+
+  @Test
+  public void testAnchoredPathKeepsPrecisionFarFromSpawn() {
+    double far = 3_000_000.0;
+    // The same path moved far out, in float world coordinates as paths were stored before
+    GlobalCameraPath absolute = path();
+    absolute.rebase(-far, 0.0, -far);
+    absolute.setAnchor(0.0, 0.0, 0.0);
+    GlobalCameraPath anchored = absolute.copy();
+    anchored.rebase(far, 64.0, far);
+
+    KeyframeEvaluator evaluator = new KeyframeEvaluator();
+    Vector3f expected = evaluator.evaluatePosition(path(), 1, 0.37f, new Vector3f());
+    Vector3f local = evaluator.evaluatePosition(anchored, 1, 0.37f, new Vector3f());
+    Vector3d anchor = anchored.getAnchor(new Vector3d());
+    assertEquals(expected.x, anchor.x + local.x - far, 1e-4);
+    assertEquals(expected.y, anchor.y + local.y, 1e-4);
+    assertEquals(expected.z, anchor.z + local.z - far, 1e-4);
+
+    // Floats this far out are a quarter of a block apart
+    Vector3f world = evaluator.evaluatePosition(absolute, 1, 0.37f, new Vector3f());
+    assertTrue(Math.abs(world.x - far - expected.x) > 1e-2);
+  }
+
+  @Test
+  public void testRebaseKeepsWorldPositions() {
+    GlobalCameraPath path = path();
+    path.rebase(100.5, 60.0, -20.25);
+    Vector3d anchor = path.getAnchor(new Vector3d());
+    Vector3f pos = path.getTimeline().getKeyframe(2).getPos();
+    assertEquals(18.0, anchor.x + pos.x, 1e-5);
+    assertEquals(64.0, anchor.y + pos.y, 1e-5);
+    assertEquals(12.0, anchor.z + pos.z, 1e-5);
+
+    GlobalCameraPath copy = path.copy();
+    copy.rebase(0.0, 0.0, 0.0);
+    assertEquals(18f, copy.getTimeline().getKeyframe(2).getPos().x, 1e-5f);
+    assertEquals(18.0, anchor.x + pos.x, 1e-5, "the original is untouched");
+  }
+
+  private static Quaternionf quat(Vector3f rot) {
+    return OrientationUtil.yprDegToQuat(rot.y, rot.x, rot.z, new Quaternionf());
+  }
+
+  private static GlobalCameraPath path() {
+    GlobalCameraPath path = new GlobalCameraPath("evaluator");
+    float[][] keyframes = {
+      {0f, 64f, 0f, 0f, 0f, 70f},
+      {10f, 66f, 4f, 10f, 45f, 60f},
+      {18f, 64f, 12f, -5f, 120f, 80f},
+      {30f, 70f, 10f, 0f, 170f, 70f},
+    };
+    for (int k = 0; k < keyframes.length; k++) {
+      float[] f = keyframes[k];
+      path.add(
+          k * 20,
+          new CameraKeyframe(
+              new Vector3f(f[0], f[1], f[2]),
+              new Vector3f(f[3], f[4], 0f),
+              f[5],
+              PathInterpolator.CATMULL_CENTRIPETAL));
+    }
+    return path;
+  }
+}
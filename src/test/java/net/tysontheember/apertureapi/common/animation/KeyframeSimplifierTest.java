@@ -0,0 +1,97 @@
+package net.tysontheember.apertureapi.common.animation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.tysontheember.apertureapi.path.PathSimplifier;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests for keyframe reduction of dense camera paths. */
+public class KeyframeSimplifierTest {
+  private static final float TOLERANCE = 0.02f;
+  private static final PathSimplifier.Tolerance PATH_TOLERANCE =
+      new PathSimplifier.Tolerance(TOLERANCE, 0.5f, 0.5f);
+
+  @Test
+  public void testDenseCatmullPathKeepsShapeWithinTolerance() {
+    GlobalCameraPath original = arcThenZigzag();
+    GlobalCameraPath simplified = arcThenZigzag();
+    int removed = KeyframeSimplifier.simplify(simplified, PATH_TOLERANCE);
+    assertTrue(removed > 30, "removed " + removed);
+
+    // Every point of the original curve lies within tolerance of the simplified one
+    List<Vector3f> dense = sample(simplified, 4000);
+    for (Vector3f point : sample(original, 20)) {
+      float nearest = Float.MAX_VALUE;
+      for (Vector3f candidate : dense) {
+        nearest = Math.min(nearest, point.distance(candidate));
+      }
+      assertTrue(nearest < TOLERANCE + 0.01f, "deviation " + nearest + " at " + point);
+    }
+  }
+
+  @Test
+  public void testKeptSegmentsKeepTheirShape() {
+    KeyframeTimeline original = arcThenZigzag().getTimeline();
+    GlobalCameraPath path = arcThenZigzag();
+    KeyframeSimplifier.simplify(path, PATH_TOLERANCE);
+
+    // Keyframes are 2 ticks apart, so a segment that was not merged spans 2 ticks. It must trace
+    // the same curve even when a neighbour it was shaped by is gone.
+    KeyframeTimeline timeline = path.getTimeline();
+    Vector3f expected = new Vector3f();
+    Vector3f actual = new Vector3f();
+    int converted = 0;
+    for (int i = 0; i + 1 < timeline.size(); i++) {
+      if (timeline.getTime(i + 1) - timeline.getTime(i) != 2) {
+        continue;
+      }
+      int segment = original.indexOf(timeline.getTime(i), 0);
+      for (float t = 0f; t <= 1f; t += 0.125f) {
+        CameraPathArcLengths.eval(original, segment, t, expected);
+        CameraPathArcLengths.eval(timeline, i, t, actual);
+        assertEquals(0f, expected.distance(actual), 1e-3f, "segment " + i + " at " + t);
+      }
+      if (timeline.getKeyframe(i + 1).getPathInterpolator() == PathInterpolator.BEZIER) {
+        converted++;
+      }
+    }
+    assertTrue(converted > 0, "no kept segment lost a neighbour");
+  }
+
+  /** Quarter circle of radius 20 with a keyframe every 1.5 degrees, then a sharp zigzag. */
+  private static GlobalCameraPath arcThenZigzag() {
+    GlobalCameraPath path = new GlobalCameraPath("arc");
+    int time = 0;
+    for (int k = 0; k <= 40; k++, time += 2) {
+      double angle = Math.toRadians(k * 1.5);
+      Vector3f position =
+          new Vector3f((float) (20.0 * Math.cos(angle)), 64f, (float) (20.0 * Math.sin(angle)));
+      path.add(time, keyframe(position));
+    }
+    Vector3f end = path.getPoint(time - 2).getPos();
+    for (int k = 1; k <= 6; k++, time += 2) {
+      path.add(time, keyframe(new Vector3f(end.x - 3f * k, 64f + (k % 2) * 4f, end.z)));
+    }
+    return path;
+  }
+
+  private static CameraKeyframe keyframe(Vector3f position) {
+    return new CameraKeyframe(
+        position, new Vector3f(), 70f, PathInterpolator.CATMULL_CENTRIPETAL);
+  }
+
+  private static List<Vector3f> sample(GlobalCameraPath path, int perSegment) {
+    KeyframeTimeline timeline = path.getTimeline();
+    List<Vector3f> points = new ArrayList<>();
+    for (int segment = 0; segment < timeline.size() - 1; segment++) {
+      for (int i = 0; i <= perSegment; i++) {
+        float t = (float) i / perSegment;
+        points.add(CameraPathArcLengths.eval(timeline, segment, t, new Vector3f()));
+      }
+    }
+    return points;
+  }
+}
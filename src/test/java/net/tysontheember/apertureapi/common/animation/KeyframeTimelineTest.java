@@ -0,0 +1,94 @@
+package net.tysontheember.apertureapi.common.animation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.TreeMap;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the flat keyframe index used by playback. */
+public class KeyframeTimelineTest {
+  @Test
+  public void testFloorIndexWalksFromHint() {
+    KeyframeTimeline timeline = timeline(40); // keyframes at 0, 5, 10, ..., 195
+
+    // Forward and backward from a nearby hint, within the walk limit
+    assertEquals(13, timeline.floorIndex(67, 10));
+    assertEquals(7, timeline.floorIndex(37, 10));
+    assertEquals(10, timeline.floorIndex(54, 10));
+    assertEquals(39, timeline.floorIndex(1000, 36));
+  }
+
+  @Test
+  public void testFloorIndexSeeksFarFromHint() {
+    KeyframeTimeline timeline = timeline(40);
+
+    // Beyond the walk limit in both directions the lookup falls back to binary search
+    for (int hint = 0; hint < 40; hint++) {
+      for (int time = 0; time < 210; time++) {
+        assertEquals(Math.min(39, time / 5), timeline.floorIndex(time, hint), time + "@" + hint);
+      }
+    }
+  }
+
+  @Test
+  public void testFloorIndexEdges() {
+    KeyframeTimeline timeline = timeline(40);
+
+    // Before the first keyframe there is no segment
+    assertEquals(-1, timeline.floorIndex(-1, 0));
+    assertEquals(-1, timeline.floorIndex(-1, 25));
+
+    // A time on a keyframe starts the segment there
+    assertEquals(0, timeline.floorIndex(0, 20));
+    assertEquals(8, timeline.floorIndex(40, 8));
+    assertEquals(8, timeline.floorIndex(40, 9));
+    assertEquals(8, timeline.indexOf(40, 0));
+    assertEquals(-1, timeline.indexOf(41, 8));
+
+    // Out-of-range hints are clamped
+    assertEquals(4, timeline.floorIndex(22, -7));
+    assertEquals(4, timeline.floorIndex(22, 1000));
+    assertEquals(-1, new KeyframeTimeline(new TreeMap<>(), 0).floorIndex(0, 3));
+  }
+
+  @Test
+  public void testTimelineRebuiltAfterEdits() {
+    GlobalCameraPath path = new GlobalCameraPath("timeline");
+    path.add(0, keyframe());
+    path.add(10, keyframe());
+    path.add(20, keyframe());
+    KeyframeTimeline first = path.getTimeline();
+    assertSame(first, path.getTimeline());
+
+    path.add(30, keyframe());
+    KeyframeTimeline added = path.getTimeline();
+    assertNotSame(first, added);
+    assertEquals(4, added.size());
+    assertSame(added, path.getTimeline());
+
+    path.remove(10);
+    KeyframeTimeline removed = path.getTimeline();
+    assertNotSame(added, removed);
+    assertEquals(3, removed.size());
+    assertEquals(20, removed.getTime(1));
+
+    path.setTime(20, 25);
+    KeyframeTimeline moved = path.getTimeline();
+    assertNotSame(removed, moved);
+    assertEquals(25, moved.getTime(1));
+    assertEquals(1, moved.floorIndex(27, 0));
+  }
+
+  private static KeyframeTimeline timeline(int keyframes) {
+    TreeMap<Integer, CameraKeyframe> source = new TreeMap<>();
+    for (int i = 0; i < keyframes; i++) {
+      source.put(i * 5, keyframe());
+    }
+    return new KeyframeTimeline(source, 0);
+  }
+
+  private static CameraKeyframe keyframe() {
+    return new CameraKeyframe(new Vector3f(), new Vector3f(), 70f);
+  }
+}
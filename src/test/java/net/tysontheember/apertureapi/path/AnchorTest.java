@@ -0,0 +1,88 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import net.tysontheember.apertureapi.path.interpolation.EasingType;
+import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import org.joml.Vector3d;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests for origin-rebased paths far from the world origin. */
+public class AnchorTest {
+  private static final double FAR = 1_000_000.0;
+
+  @Test
+  public void testAnchoredPathKeepsPrecisionFarFromSpawn() {
+    PathModel anchored = farLine(true);
+    PathModel absolute = farLine(false);
+    PathPose pose = new PathPose();
+    Vector3d world = new Vector3d();
+
+    double anchoredError = 0.0;
+    double absoluteError = 0.0;
+    for (int i = 0; i <= 100; i++) {
+      float t = i / 100f;
+      double expectedX = FAR + 0.123 + 7.0 * t; // straight line, linear easing
+
+      PathEvaluator.evaluateAtParameter(anchored, t, pose);
+      anchored.toWorld(pose.position, world);
+      anchoredError = Math.max(anchoredError, Math.abs(world.x - expectedX));
+
+      PathEvaluator.evaluateAtParameter(absolute, t, pose);
+      absolute.toWorld(pose.position, world);
+      absoluteError = Math.max(absoluteError, Math.abs(world.x - expectedX));
+    }
+    assertTrue(anchoredError < 1e-4, "anchored error " + anchoredError);
+    assertTrue(absoluteError > 1e-2, "plain float error " + absoluteError);
+  }
+
+  @Test
+  public void testRebaseKeepsWorldPositions() {
+    PathModel path = PathEvaluator.createTestPath();
+    Vector3d before = new Vector3d();
+    path.toWorld(PathEvaluator.evaluateAtParameter(path, 0.37f).position, before);
+
+    path.rebase(10.5, 60.0, -3.25);
+    Vector3d anchor = path.getAnchor(new Vector3d());
+    assertEquals(10.5, anchor.x);
+    anchor.x = 99.0; // a copy; moving the anchor takes a rebase
+    assertEquals(10.5, path.getAnchor(new Vector3d()).x);
+    assertEquals(-10.5f, path.getSegment(0).position.x, 1e-6f);
+    Vector3d after = new Vector3d();
+    path.toWorld(PathEvaluator.evaluateAtParameter(path, 0.37f).position, after);
+    assertEquals(0.0, before.distance(after), 1e-4);
+  }
+
+  @Test
+  public void testAnchorSurvivesJson() {
+    Gson gson = new Gson();
+    PathModel path = farLine(true);
+    PathModel loaded = PathModel.fromJson(path.toJson(gson), gson);
+    assertEquals(FAR, loaded.getAnchor(new Vector3d()).x);
+    assertEquals(path.getSegment(1).position.x, loaded.getSegment(1).position.x);
+
+    // Paths saved before anchors existed load with their positions unchanged
+    JsonObject json = PathEvaluator.createTestPath().toJson(gson);
+    json.remove("anchor");
+    PathModel legacy = PathModel.fromJson(json, gson);
+    assertEquals(0.0, legacy.getAnchor(new Vector3d()).x);
+    assertEquals(10f, legacy.getSegment(1).position.x);
+  }
+
+  /** Straight line from x = FAR + 0.123 to x = FAR + 7.123. */
+  private static PathModel farLine(boolean anchored) {
+    PathModel path = new PathModel("far", "Far");
+    path.getDefaults().interpolationType = InterpolationType.LINEAR;
+    path.getDefaults().easingType = EasingType.LINEAR;
+    if (anchored) {
+      path.rebase(FAR, 64.0, FAR);
+    }
+    Vector3f local = new Vector3f();
+    path.addSegment(new PathModel.Segment(path.toLocal(FAR + 0.123, 64, FAR, local), 0f, 0f, 0f));
+    path.addSegment(new PathModel.Segment(path.toLocal(FAR + 7.123, 64, FAR, local), 0f, 0f, 0f));
+    return path;
+  }
+}
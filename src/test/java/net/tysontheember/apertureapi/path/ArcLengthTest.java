@@ -0,0 +1,250 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import net.tysontheember.apertureapi.path.interpolation.EasingType;
+import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Accuracy tests for the error-bounded arc-length tables. */
+public class ArcLengthTest {
+
+  @Test
+  public void testAdaptiveLUTOnCircle() {
+    float radius = 20f;
+    ArcLengthLUT.Evaluator quarterCircle =
+        (t, out) -> {
+          double angle = t * Math.PI * 0.5;
+          return out.set(
+              (float) (radius * Math.cos(angle)), 64f, (float) (radius * Math.sin(angle)));
+        };
+    float exact = (float) (Math.PI * 0.5 * radius);
+
+    ArcLengthLUT fixed = new ArcLengthLUT(quarterCircle, 64);
+    ArcLengthLUT adaptive = ArcLengthLUT.adaptive(quarterCircle, 0.001f);
+
+    assertEquals(exact, adaptive.totalLength(), 0.001f);
+    assertTrue(
+        Math.abs(exact - adaptive.totalLength()) < Math.abs(exact - fixed.totalLength()),
+        "Adaptive table should beat 64 uniform chords");
+
+    // Arc length is proportional to angle on a circle
+    for (int i = 0; i <= 10; i++) {
+      float d = exact * i / 10f;
+      assertEquals(i / 10f, adaptive.tForDistance(d), 1e-3f);
+      assertEquals(d, adaptive.distanceForT(i / 10f), 0.01f);
+    }
+  }
+
+  @Test
+  public void testAdaptiveLUTOnLine() {
+    Vector3f end = new Vector3f(30f, 64f, 40f);
+    ArcLengthLUT line = ArcLengthLUT.adaptive((t, out) -> out.set(0f, 64f, 0f).lerp(end, t), 0.01f);
+    assertEquals(50f, line.totalLength(), 1e-4f);
+    assertEquals(0.25f, line.tForDistance(12.5f), 1e-5f);
+    assertEquals(37.5f, line.distanceForT(0.75f), 1e-4f);
+  }
+
+  @Test
+  public void testPathModelToleranceBoundsLength() {
+    PathModel path = createCurvedPath();
+    float reference = referenceLength(path);
+
+    path.getSpeed().arcLengthTolerance = 0.01f;
+    PathModel.ArcLengthLUT lut = path.getArcLengthLUT();
+    assertEquals(reference, lut.getTotalLength(), 0.01f);
+
+    // Monotonic table covering the whole path
+    assertEquals(0f, lut.arcLengthToParameter(0f), 1e-6f);
+    assertEquals(1f, lut.arcLengthToParameter(lut.getTotalLength()), 1e-6f);
+    float previous = 0f;
+    for (int i = 1; i <= 100; i++) {
+      float t = lut.arcLengthToParameter(lut.getTotalLength() * i / 100f);
+      assertTrue(t >= previous);
+      previous = t;
+    }
+
+    // Changing the tolerance rebuilds the table
+    path.getSpeed().arcLengthTolerance = null;
+    assertNotSame(lut, path.getArcLengthLUT());
+  }
+
+  @Test
+  public void testStraightPathIsExact() {
+    PathModel path = new PathModel("straight", "Straight");
+    path.getDefaults().interpolationType = InterpolationType.LINEAR;
+    for (int i = 0; i < 10; i++) {
+      path.addSegment(new PathModel.Segment(new Vector3f(i * 10f, 64f, 0f), 0f, 0f, 0f));
+    }
+    path.getSpeed().arcLengthTolerance = 0.01f;
+
+    PathModel.ArcLengthLUT lut = path.getArcLengthLUT();
+    assertEquals(90f, lut.getTotalLength(), 1e-3f);
+    assertEquals(0.5f, lut.arcLengthToParameter(45f), 1e-5f);
+  }
+
+  @Test
+  public void testFixedSamplingOnLongRecordedPath() {
+    // A recorded-style path: many short, gently turning segments
+    PathModel path = new PathModel("recorded", "Recorded");
+    path.getDefaults().interpolationType = InterpolationType.CATMULL_CENTRIPETAL;
+    Random random = new Random(7);
+    Vector3f position = new Vector3f(0, 64, 0);
+    Vector3f direction = new Vector3f(1, 0, 0);
+    for (int i = 0; i < 10_000; i++) {
+      direction
+          .add(
+              (random.nextFloat() - 0.5f) * 0.6f,
+              (random.nextFloat() - 0.5f) * 0.2f,
+              (random.nextFloat() - 0.5f) * 0.6f)
+          .normalize();
+      position.add(new Vector3f(direction).mul(0.5f + random.nextFloat() * 3f));
+      path.addSegment(new PathModel.Segment(new Vector3f(position), 0f, 0f, 0f));
+    }
+
+    float fixed = path.getArcLengthLUT().getTotalLength();
+    path.getSpeed().arcLengthTolerance = 1e-4f;
+    float reference = path.getArcLengthLUT().getTotalLength();
+    assertEquals(reference, fixed, reference * 1e-5f);
+  }
+
+  @Test
+  public void testStraightSegmentsUseFewSamples() {
+    PathModel path =
+        PathEvaluator.createSimplePath(
+            "line", new Vector3f(0, 64, 0), new Vector3f(100, 64, 0), 5f);
+    path.getDefaults().interpolationType = InterpolationType.LINEAR;
+    PathModel.ArcLengthLUT lut = path.getArcLengthLUT();
+    assertEquals(100f, lut.getTotalLength(), 1e-4f);
+    assertEquals(0.5f, lut.arcLengthToParameter(50f), 1e-5f);
+    assertTrue(lut.size() <= 4, "A straight segment needs no curvature samples");
+  }
+
+  @Test
+  public void testIncrementalRebuildMatchesFullRebuild() {
+    for (Float tolerance : new Float[] {null, 0.01f}) {
+      PathModel path = createCurvedPath();
+      path.getSpeed().arcLengthTolerance = tolerance;
+      path.getArcLengthLUT();
+
+      // Structural edits
+      path.insertSegment(2, new PathModel.Segment(new Vector3f(5, 66, 18), 0f, 0f, 0f));
+      assertLUTEquals(rebuiltCopy(path), path.getArcLengthLUT());
+      path.removeSegment(4);
+      assertLUTEquals(rebuiltCopy(path), path.getArcLengthLUT());
+      path.addSegment(new PathModel.Segment(new Vector3f(8, 64, -6), 0f, 0f, 0f));
+      assertLUTEquals(rebuiltCopy(path), path.getArcLengthLUT());
+
+      // In-place edit of a keyframe that neighbouring Catmull-Rom segments depend on
+      path.getSegments().get(1).position.add(0f, 3f, 0f);
+      path.markSegmentDirty(1);
+      assertLUTEquals(rebuiltCopy(path), path.getArcLengthLUT());
+    }
+  }
+
+  @Test
+  public void testConstantSpeedHasNoRippleAtTableEntries() {
+    for (Float tolerance : new Float[] {null, 0.05f}) {
+      PathModel path = createCurvedPath();
+      path.getSpeed().arcLengthTolerance = tolerance;
+      PathModel.ArcLengthLUT lut = path.getArcLengthLUT();
+      CompiledPath compiled = path.getCompiled();
+      int steps = 4000;
+      float step = lut.getTotalLength() / steps;
+
+      // Distance covered per equal arc-length step must not jump between consecutive steps
+      Vector3f previous = new Vector3f();
+      Vector3f current = new Vector3f();
+      float previousStep = -1f;
+      for (int i = 0; i <= steps; i++) {
+        float t = lut.arcLengthToParameter(step * i) * compiled.segmentCount();
+        int segment = Math.min(compiled.segmentCount() - 1, (int) t);
+        compiled.evaluatePosition(segment, t - segment, current);
+        if (i > 0) {
+          float covered = previous.distance(current);
+          if (previousStep >= 0f) {
+            assertEquals(previousStep, covered, step * 0.01f, "Speed jump at step " + i);
+          }
+          previousStep = covered;
+        }
+        previous.set(current);
+      }
+    }
+  }
+
+  @Test
+  public void testMonotoneInterpolation() {
+    Random random = new Random(7);
+    float[] x = new float[50];
+    float[] y = new float[50];
+    for (int i = 1; i < x.length; i++) {
+      // Include flat and near-empty intervals
+      x[i] = x[i - 1] + (i % 7 == 0 ? 1e-12f : random.nextFloat());
+      y[i] = y[i - 1] + (i % 5 == 0 ? 0f : random.nextFloat() * 3f);
+    }
+    float[] slopes = MonotoneCubic.slopes(x, y, null, null);
+
+    float previous = y[0];
+    for (int k = 0; k < x.length - 1; k++) {
+      assertEquals(y[k], MonotoneCubic.eval(x, y, slopes, k, x[k]), 1e-5f);
+      for (int j = 0; j <= 20; j++) {
+        float value = MonotoneCubic.eval(x, y, slopes, k, x[k] + (x[k + 1] - x[k]) * j / 20f);
+        assertTrue(value >= previous - 1e-5f, "Not monotone in interval " + k);
+        assertTrue(value <= y[k + 1] + 1e-5f, "Overshoot in interval " + k);
+        previous = value;
+      }
+    }
+  }
+
+  private static PathModel rebuiltCopy(PathModel path) {
+    PathModel copy = new PathModel(path.getId(), path.getName());
+    copy.getDefaults().interpolationType = path.getDefaults().interpolationType;
+    copy.getDefaults().easingType = path.getDefaults().easingType;
+    copy.getSpeed().arcLengthTolerance = path.getSpeed().arcLengthTolerance;
+    for (PathModel.Segment segment : path.getSegments()) {
+      copy.addSegment(new PathModel.Segment(new Vector3f(segment.position), 0f, 0f, 0f));
+    }
+    return copy;
+  }
+
+  private static void assertLUTEquals(PathModel expectedPath, PathModel.ArcLengthLUT actual) {
+    PathModel.ArcLengthLUT expected = expectedPath.getArcLengthLUT();
+    assertEquals(expected.getTotalLength(), actual.getTotalLength(), 1e-4f);
+    for (int i = 0; i <= 200; i++) {
+      float t = i / 200f;
+      assertEquals(expected.parameterToArcLength(t), actual.parameterToArcLength(t), 1e-4f);
+    }
+  }
+
+  private static PathModel createCurvedPath() {
+    PathModel path = new PathModel("curved", "Curved");
+    path.getDefaults().interpolationType = InterpolationType.CATMULL_CENTRIPETAL;
+    path.getDefaults().easingType = EasingType.LINEAR;
+    path.addSegment(new PathModel.Segment(new Vector3f(0, 64, 0), 0f, 0f, 0f));
+    path.addSegment(new PathModel.Segment(new Vector3f(10, 64, 10), 0f, 0f, 0f));
+    path.addSegment(new PathModel.Segment(new Vector3f(0, 70, 20), 0f, 0f, 0f));
+    path.addSegment(new PathModel.Segment(new Vector3f(-10, 64, 10), 0f, 0f, 0f));
+    path.addSegment(new PathModel.Segment(new Vector3f(1, 64, 1), 0f, 0f, 0f));
+    return path;
+  }
+
+  /** Brute-force chord sum at a very fine resolution */
+  private static float referenceLength(PathModel path) {
+    CompiledPath compiled = path.getCompiled();
+    int samples = 20_000;
+    double length = 0.0;
+    Vector3f previous = new Vector3f();
+    Vector3f current = new Vector3f();
+    for (int i = 0; i < compiled.segmentCount(); i++) {
+      compiled.evaluatePosition(i, 0f, previous);
+      for (int s = 1; s <= samples; s++) {
+        compiled.evaluatePosition(i, (float) s / samples, current);
+        length += previous.distance(current);
+        previous.set(current);
+      }
+    }
+    return (float) length;
+  }
+}
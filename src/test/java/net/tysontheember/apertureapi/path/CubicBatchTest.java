@@ -0,0 +1,160 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests the batch cubic kernels against the per-point evaluators. */
+public class CubicBatchTest {
+  private static final Vector3f P0 = new Vector3f(-4, 60, 3);
+  private static final Vector3f P1 = new Vector3f(0, 64, 0);
+  private static final Vector3f P2 = new Vector3f(12, 70, 5);
+  private static final Vector3f P3 = new Vector3f(20, 66, -8);
+
+  @Test
+  public void testCatmullRomMatchesHermiteForm() {
+    for (float alpha : new float[] {0f, 0.5f, 1f}) {
+      float[] coefficients = new float[CompiledPath.STRIDE];
+      CubicBatch.catmullRomCoefficients(P0, P1, P2, P3, alpha, coefficients, 0);
+      float[] t = parameters(37);
+      float[] x = new float[t.length];
+      float[] y = new float[t.length];
+      float[] z = new float[t.length];
+      CubicBatch.evaluate(coefficients, 0, t, t.length, x, y, z);
+
+      Vector3f expected = new Vector3f();
+      for (int i = 0; i < t.length; i++) {
+        catmullRom(t[i], alpha, expected);
+        assertEquals(expected.x, x[i], 1e-3f);
+        assertEquals(expected.y, y[i], 1e-3f);
+        assertEquals(expected.z, z[i], 1e-3f);
+      }
+    }
+  }
+
+  @Test
+  public void testPointCatmullRomMatchesHermiteForm() {
+    Vector3f expected = new Vector3f();
+    Vector3f actual = new Vector3f();
+    for (float alpha : new float[] {0f, 0.5f, 1f}) {
+      for (float t : parameters(37)) {
+        catmullRom(t, alpha, expected);
+        CatmullRom.eval(t, P0, P1, P2, P3, alpha, actual);
+        assertEquals(expected.x, actual.x, 1e-3f);
+        assertEquals(expected.y, actual.y, 1e-3f);
+        assertEquals(expected.z, actual.z, 1e-3f);
+      }
+    }
+  }
+
+  @Test
+  public void testBezierMatchesBernsteinForm() {
+    float[] coefficients = new float[CompiledPath.STRIDE];
+    CubicBatch.bezierCoefficients(P0, P1, P2, P3, coefficients, 0);
+    float[] t = parameters(19);
+    float[] x = new float[t.length];
+    float[] y = new float[t.length];
+    float[] z = new float[t.length];
+    CubicBatch.evaluate(coefficients, 0, t, t.length, x, y, z);
+
+    for (int i = 0; i < t.length; i++) {
+      float u = t[i];
+      float v = 1f - u;
+      float b0 = v * v * v;
+      float b1 = 3f * v * v * u;
+      float b2 = 3f * v * u * u;
+      float b3 = u * u * u;
+      assertEquals(b0 * P0.x + b1 * P1.x + b2 * P2.x + b3 * P3.x, x[i], 1e-3f);
+      assertEquals(b0 * P0.y + b1 * P1.y + b2 * P2.y + b3 * P3.y, y[i], 1e-3f);
+      assertEquals(b0 * P0.z + b1 * P1.z + b2 * P2.z + b3 * P3.z, z[i], 1e-3f);
+    }
+  }
+
+  @Test
+  public void testBatchClampsParameters() {
+    float[] coefficients = new float[CompiledPath.STRIDE];
+    CubicBatch.catmullRomCoefficients(P0, P1, P2, P3, 0.5f, coefficients, 0);
+
+    // Odd sizes and out-of-range values, which evaluate as the clamped parameter
+    Vector3f expected = new Vector3f();
+    for (int count : new int[] {1, 3, 8, 17, 1001}) {
+      float[] t = new float[count];
+      for (int i = 0; i < count; i++) {
+        t[i] = -0.1f + 1.2f * i / Math.max(1, count - 1);
+      }
+      float[] x = new float[count];
+      float[] y = new float[count];
+      float[] z = new float[count];
+      CubicBatch.evaluate(coefficients, 0, t, count, x, y, z);
+      for (int i = 0; i < count; i++) {
+        catmullRom(Math.max(0f, Math.min(1f, t[i])), 0.5f, expected);
+        assertEquals(expected.x, x[i], 1e-3f);
+        assertEquals(expected.y, y[i], 1e-3f);
+        assertEquals(expected.z, z[i], 1e-3f);
+      }
+    }
+  }
+
+  @Test
+  public void testCompiledPathBatchMatchesPointEvaluation() {
+    for (InterpolationType type : InterpolationType.values()) {
+      PathModel path = PathEvaluator.createTestPath();
+      path.getDefaults().interpolationType = type;
+      CompiledPath compiled = path.getCompiled();
+
+      for (int segment = 0; segment < compiled.segmentCount(); segment++) {
+        float[] t = parameters(29);
+        float[] x = t.clone(); // parameters may share the x array
+        float[] y = new float[t.length];
+        float[] z = new float[t.length];
+        compiled.evaluatePositions(segment, x, t.length, x, y, z);
+
+        Vector3f expected = new Vector3f();
+        for (int i = 0; i < t.length; i++) {
+          compiled.evaluatePosition(segment, t[i], expected);
+          assertEquals(expected.x, x[i], 1e-3f, type + " segment " + segment);
+          assertEquals(expected.y, y[i], 1e-3f, type + " segment " + segment);
+          assertEquals(expected.z, z[i], 1e-3f, type + " segment " + segment);
+        }
+      }
+    }
+  }
+
+  /** Reference centripetal-family Catmull-Rom, as in PathInterpolationEngine. */
+  private static void catmullRom(float t, float alpha, Vector3f dest) {
+    float t01 = (float) Math.pow(P0.distance(P1), alpha);
+    float t12 = (float) Math.pow(P1.distance(P2), alpha);
+    float t23 = (float) Math.pow(P2.distance(P3), alpha);
+    Vector3f m1 =
+        new Vector3f(P1)
+            .sub(P0)
+            .div(t01)
+            .sub(new Vector3f(P2).sub(P0).div(t01 + t12))
+            .add(new Vector3f(P2).sub(P1).div(t12))
+            .mul(t12);
+    Vector3f m2 =
+        new Vector3f(P2)
+            .sub(P1)
+            .div(t12)
+            .sub(new Vector3f(P3).sub(P1).div(t12 + t23))
+            .add(new Vector3f(P3).sub(P2).div(t23))
+            .mul(t12);
+    float t2 = t * t;
+    float t3 = t2 * t;
+    dest.set(P1)
+        .mul(2f * t3 - 3f * t2 + 1f)
+        .add(m1.mul(t3 - 2f * t2 + t))
+        .add(new Vector3f(P2).mul(-2f * t3 + 3f * t2))
+        .add(m2.mul(t3 - t2));
+  }
+
+  private static float[] parameters(int count) {
+    float[] t = new float[count];
+    for (int i = 0; i < count; i++) {
+      t[i] = (float) i / (count - 1);
+    }
+    return t;
+  }
+}
@@ -0,0 +1,120 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import net.tysontheember.apertureapi.path.interpolation.EasingType;
+import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Checks the analytic derivatives against central differences. */
+public class DerivativeTest {
+
+  @Test
+  public void testTangentsMatchFiniteDifferences() {
+    for (InterpolationType type : InterpolationType.values()) {
+      CompiledPath compiled = compile(type);
+      Vector3f tangent = new Vector3f();
+      Vector3f second = new Vector3f();
+      Vector3f a = new Vector3f();
+      Vector3f b = new Vector3f();
+      Vector3f da = new Vector3f();
+      Vector3f db = new Vector3f();
+      float h = 1e-3f;
+
+      for (int segment = 0; segment < compiled.segmentCount(); segment++) {
+        for (float t = 0.05f; t < 0.96f; t += 0.1f) {
+          compiled.evaluateTangent(segment, t, tangent);
+          compiled.evaluatePosition(segment, t - h, a);
+          compiled.evaluatePosition(segment, t + h, b);
+          Vector3f expected = b.sub(a).div(2f * h);
+          float tolerance = 0.02f * (1f + expected.length());
+          assertEquals(0f, expected.distance(tangent), tolerance, type.name());
+
+          compiled.evaluateSecondDerivative(segment, t, second);
+          compiled.evaluateTangent(segment, t - h, da);
+          compiled.evaluateTangent(segment, t + h, db);
+          Vector3f expectedSecond = db.sub(da).div(2f * h);
+          tolerance = 0.02f * (1f + expectedSecond.length());
+          assertEquals(0f, expectedSecond.distance(second), tolerance, type.name());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEasingDerivatives() {
+    float h = 1e-3f;
+    for (EasingType easing : EasingType.values()) {
+      for (float t = 0.013f; t < 0.99f; t += 0.0371f) {
+        float derivative = easing.derivative(t);
+        if (Math.abs(easing.derivative(t + h) - easing.derivative(t - h)) > 0.5f) {
+          continue; // the difference straddles a kink (in/out midpoint, bounce)
+        }
+        float expected = (easing.apply(t + h) - easing.apply(t - h)) / (2f * h);
+        assertEquals(expected, derivative, 0.02f * (1f + Math.abs(expected)), easing.getName());
+      }
+    }
+  }
+
+  @Test
+  public void testCurvatureOfCircle() {
+    // Catmull-Rom through points on a circle of radius 10 stays close to 1/10
+    PathModel path = new PathModel("circle", "circle");
+    for (int i = 0; i <= 16; i++) {
+      double angle = i * Math.PI / 8;
+      path.addSegment(
+          new PathModel.Segment(
+              new Vector3f((float) Math.cos(angle) * 10f, 64f, (float) Math.sin(angle) * 10f),
+              0f,
+              0f,
+              0f));
+    }
+    path.getDefaults().interpolationType = InterpolationType.CATMULL_CENTRIPETAL;
+
+    for (float t = 0.2f; t <= 0.8f; t += 0.05f) {
+      assertEquals(0.1f, PathEvaluator.getCurvatureAtParameter(path, t), 0.02f);
+    }
+
+    path.getDefaults().interpolationType = InterpolationType.LINEAR;
+    assertEquals(0f, PathEvaluator.getCurvatureAtParameter(path, 0.3f), 1e-6f);
+  }
+
+  @Test
+  public void testVelocityAndSpeedAgreeWithMotion() {
+    PathModel path = PathEvaluator.createTestPath();
+    path.getSpeed().setDurationMode(10f);
+    float dt = 1e-3f;
+
+    for (float time = 0.3f; time < 9.7f; time += 0.7f) {
+      Vector3f velocity = PathEvaluator.getVelocityAtTime(path, time);
+      Vector3f before = PathEvaluator.evaluateAtTime(path, time - dt).position;
+      Vector3f after = PathEvaluator.evaluateAtTime(path, time + dt).position;
+      Vector3f expected = after.sub(before).div(2f * dt);
+      assertEquals(0f, expected.distance(velocity), 0.02f * (1f + expected.length()));
+
+      float speed = PathEvaluator.evaluateAtTime(path, time).speed;
+      assertEquals(velocity.length(), speed, 1e-3f * (1f + speed));
+    }
+
+    assertEquals(0f, PathEvaluator.getVelocityAtTime(path, 11f).length());
+  }
+
+  @Test
+  public void testSpeedModeVelocityHasConfiguredMagnitude() {
+    PathModel path = PathEvaluator.createTestPath();
+    path.getDefaults().easingType = EasingType.LINEAR;
+    path.getSpeed().setSpeedMode(4f);
+
+    float duration = PathEvaluator.getTotalDuration(path);
+    for (float time = 0.1f * duration; time < 0.9f * duration; time += 0.1f * duration) {
+      assertEquals(4f, PathEvaluator.getVelocityAtTime(path, time).length(), 0.05f);
+    }
+  }
+
+  private static CompiledPath compile(InterpolationType type) {
+    PathModel path = PathEvaluator.createTestPath();
+    path.getDefaults().interpolationType = type;
+    return path.getCompiled();
+  }
+}
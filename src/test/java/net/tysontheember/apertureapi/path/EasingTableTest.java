@@ -0,0 +1,76 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.gson.Gson;
+import java.util.Random;
+import net.tysontheember.apertureapi.path.interpolation.EasingTable;
+import net.tysontheember.apertureapi.path.interpolation.EasingType;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the tabulated easing curves. */
+public class EasingTableTest {
+  /** Largest allowed difference between a table and its analytic curve. */
+  private static final float ERROR_BOUND = 2e-6f;
+
+  @Test
+  public void testTablesStayWithinErrorBound() {
+    Random random = new Random(14);
+    for (EasingType easing : EasingType.values()) {
+      if (!easing.isTabulated()) {
+        continue;
+      }
+      EasingTable table = EasingTable.of(easing);
+      assertTrue(table.maxError() < ERROR_BOUND, easing + " build error " + table.maxError());
+
+      float worst = 0f;
+      for (int i = 0; i < 200_000; i++) {
+        float t = random.nextFloat();
+        worst = Math.max(worst, Math.abs(table.apply(t) - easing.apply(t)));
+      }
+      assertTrue(worst < ERROR_BOUND, easing + " error " + worst);
+
+      // Endpoints and out-of-range input match exactly
+      for (float t : new float[] {-1f, 0f, 1f, 2f}) {
+        assertEquals(easing.apply(t), table.apply(t), easing.getName());
+      }
+    }
+  }
+
+  @Test
+  public void testTablesAreShared() {
+    assertSame(EasingTable.of(EasingType.ELASTIC_OUT), EasingTable.of(EasingType.ELASTIC_OUT));
+  }
+
+  @Test
+  public void testUntabulatedEasingsStayAnalytic() {
+    for (EasingType easing : EasingType.values()) {
+      if (easing.isTabulated()) {
+        continue;
+      }
+      for (float t = 0f; t <= 1f; t += 0.0173f) {
+        assertEquals(easing.apply(t), easing.applyTabulated(t), easing.getName());
+      }
+    }
+  }
+
+  @Test
+  public void testEvaluatorOptsIntoTables() {
+    PathModel path = PathEvaluator.createTestPath();
+    path.getDefaults().easingType = EasingType.ELASTIC_IN_OUT;
+    PathPose analytic = new PathPose();
+    PathPose tabulated = new PathPose();
+    for (float t = 0f; t <= 1f; t += 0.013f) {
+      path.getDefaults().tabulatedEasing = false;
+      PathEvaluator.evaluateAtParameter(path, t, analytic);
+      path.getDefaults().tabulatedEasing = true;
+      PathEvaluator.evaluateAtParameter(path, t, tabulated);
+      assertEquals(0f, analytic.position.distance(tabulated.position), 1e-3f);
+      assertEquals(analytic.roll, tabulated.roll, 1e-3f);
+      assertEquals(analytic.fov, tabulated.fov, 1e-3f);
+    }
+
+    Gson gson = new Gson();
+    assertTrue(PathModel.fromJson(path.toJson(gson), gson).getDefaults().tabulatedEasing);
+  }
+}
@@ -0,0 +1,99 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import net.tysontheember.apertureapi.path.interpolation.EasingType;
+import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the baked rotation-minimizing frames and bank profile. */
+public class FrameTableTest {
+
+  @Test
+  public void testFramesFollowTangent() {
+    PathModel path = PathEvaluator.createTestPath();
+    path.getDefaults().easingType = EasingType.LINEAR;
+    Quaternionf frame = new Quaternionf();
+    Vector3f forward = new Vector3f();
+    Vector3f velocity = new Vector3f();
+
+    for (float t = 0.02f; t < 1f; t += 0.05f) {
+      PathEvaluator.getFrameAtParameter(path, t, frame);
+      frame.transform(forward.set(0f, 0f, 1f));
+      PathEvaluator.getVelocityAtParameter(path, t, velocity).normalize();
+      assertEquals(1f, forward.dot(velocity), 1e-3f, "t=" + t);
+    }
+  }
+
+  @Test
+  public void testPlanarCurveKeepsNormalUp() {
+    // A flat S-curve: parallel transport never tilts the normal out of world up
+    PathModel path = new PathModel("s", "S");
+    path.getDefaults().interpolationType = InterpolationType.CATMULL_CENTRIPETAL;
+    path.addSegment(new PathModel.Segment(new Vector3f(0, 64, 0), 0f, 0f, 0f));
+    path.addSegment(new PathModel.Segment(new Vector3f(20, 64, 10), 0f, 0f, 0f));
+    path.addSegment(new PathModel.Segment(new Vector3f(40, 64, -10), 0f, 0f, 0f));
+    path.addSegment(new PathModel.Segment(new Vector3f(60, 64, 0), 0f, 0f, 0f));
+
+    FrameTable table = path.getFrameTable();
+    Quaternionf frame = new Quaternionf();
+    Vector3f up = new Vector3f();
+    for (float s = 0f; s <= table.getTotalLength(); s += 0.37f) {
+      table.frameAt(s, frame).transform(up.set(0f, 1f, 0f));
+      assertEquals(1f, up.y, 1e-3f, "s=" + s);
+    }
+  }
+
+  @Test
+  public void testBankFollowsTurnDirection() {
+    PathModel path = new PathModel("turns", "Turns");
+    path.getDefaults().interpolationType = InterpolationType.CATMULL_CENTRIPETAL;
+    path.addSegment(new PathModel.Segment(new Vector3f(0, 64, 0), 0f, 0f, 0f));
+    path.addSegment(new PathModel.Segment(new Vector3f(30, 64, 0), 0f, 0f, 0f));
+    path.addSegment(new PathModel.Segment(new Vector3f(40, 64, 10), 0f, 0f, 0f)); // turn
+    path.addSegment(new PathModel.Segment(new Vector3f(40, 64, 40), 0f, 0f, 0f));
+    path.addSegment(new PathModel.Segment(new Vector3f(50, 64, 50), 0f, 0f, 0f)); // turn back
+    path.addSegment(new PathModel.Segment(new Vector3f(80, 64, 50), 0f, 0f, 0f));
+
+    FrameTable table = path.getFrameTable();
+    PathModel.ArcLengthLUT lut = path.getArcLengthLUT();
+    float firstTurn = table.bankAngle(lut.parameterToArcLength(1.5f / 5f));
+    float secondTurn = table.bankAngle(lut.parameterToArcLength(3.5f / 5f));
+    assertTrue(Math.abs(firstTurn) > 1f, "banks into the first turn: " + firstTurn);
+    assertTrue(Math.abs(secondTurn) > 1f, "banks into the second turn: " + secondTurn);
+    assertTrue(firstTurn * secondTurn < 0f, "opposite turns bank opposite ways");
+
+    // Smoothed profile has no steps between neighbouring samples
+    float previous = table.bankAngle(0f);
+    for (float s = 0.25f; s <= table.getTotalLength(); s += 0.25f) {
+      float bank = table.bankAngle(s);
+      assertTrue(Math.abs(bank - previous) < 1f, "jump at s=" + s);
+      previous = bank;
+    }
+  }
+
+  @Test
+  public void testStraightPathHasNoBank() {
+    PathModel path =
+        PathEvaluator.createSimplePath(
+            "line", new Vector3f(0, 64, 0), new Vector3f(50, 70, 20), 5f);
+    path.getDefaults().banking = true;
+    for (float t = 0f; t <= 1f; t += 0.1f) {
+      assertEquals(0f, PathEvaluator.evaluateAtParameter(path, t).roll, 1e-4f);
+    }
+  }
+
+  @Test
+  public void testRebuiltAfterEdit() {
+    PathModel path = PathEvaluator.createTestPath();
+    FrameTable table = path.getFrameTable();
+    assertSame(table, path.getFrameTable());
+
+    path.addSegment(new PathModel.Segment(new Vector3f(40, 64, 40), 0f, 0f, 0f));
+    FrameTable rebuilt = path.getFrameTable();
+    assertNotSame(table, rebuilt);
+    assertEquals(path.getArcLengthLUT().getTotalLength(), rebuilt.getTotalLength(), 1e-4f);
+  }
+}
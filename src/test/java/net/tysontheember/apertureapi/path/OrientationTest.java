@@ -0,0 +1,144 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.gson.Gson;
+import net.tysontheember.apertureapi.path.interpolation.EasingType;
+import net.tysontheember.apertureapi.path.interpolation.OrientationMode;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests for SQUAD orientation and its precomputed controls. */
+public class OrientationTest {
+  private static final float H = 1e-3f;
+
+  @Test
+  public void testSquadPassesThroughKeyframes() {
+    CompiledPath compiled = PathEvaluator.createTestPath().getCompiled();
+    Quaternionf key = new Quaternionf();
+    Quaternionf q = new Quaternionf();
+    for (int segment = 0; segment < compiled.segmentCount(); segment++) {
+      compiled.getOrientation(segment, key);
+      assertEquals(1f, Math.abs(key.dot(compiled.evaluateSquadOrientation(segment, 0f, q))), 1e-5f);
+      compiled.getOrientation(segment + 1, key);
+      assertEquals(1f, Math.abs(key.dot(compiled.evaluateSquadOrientation(segment, 1f, q))), 1e-5f);
+    }
+  }
+
+  @Test
+  public void testAngularVelocityContinuousAtKeyframes() {
+    CompiledPath compiled = PathEvaluator.createTestPath().getCompiled();
+    float squadJump = 0f;
+    float slerpJump = 0f;
+    for (int k = 1; k < compiled.segmentCount(); k++) {
+      Vector3f before = squadRate(compiled, k - 1, 1f - 2f * H);
+      Vector3f after = squadRate(compiled, k, H);
+      squadJump = Math.max(squadJump, before.distance(after));
+
+      before = slerpRate(compiled, k - 1, 1f - 2f * H);
+      after = slerpRate(compiled, k, H);
+      slerpJump = Math.max(slerpJump, before.distance(after));
+    }
+    assertTrue(slerpJump > 0.5f, "slerp kinks at keyframes: " + slerpJump);
+    assertTrue(squadJump < 0.02f, "SQUAD angular velocity jumps by " + squadJump);
+  }
+
+  @Test
+  public void testEvaluatorUsesConfiguredMode() {
+    PathModel path = PathEvaluator.createTestPath();
+    path.getDefaults().easingType = EasingType.LINEAR;
+    Quaternionf slerp = new Quaternionf(PathEvaluator.evaluateAtParameter(path, 0.1f).orientation);
+
+    path.getDefaults().orientationMode = OrientationMode.SQUAD;
+    Quaternionf squad = PathEvaluator.evaluateAtParameter(path, 0.1f).orientation;
+    Quaternionf expected = path.getCompiled().evaluateSquadOrientation(0, 0.4f, new Quaternionf());
+    assertEquals(1f, Math.abs(squad.dot(expected)), 1e-5f);
+    assertTrue(Math.abs(squad.dot(slerp)) < 0.99999f, "modes differ between keyframes");
+
+    // Keyframes are shared by both modes
+    for (int k = 0; k <= 4; k++) {
+      path.getDefaults().orientationMode = OrientationMode.SQUAD;
+      Quaternionf a = new Quaternionf(PathEvaluator.evaluateAtParameter(path, k / 4f).orientation);
+      path.getDefaults().orientationMode = OrientationMode.SLERP;
+      Quaternionf b = PathEvaluator.evaluateAtParameter(path, k / 4f).orientation;
+      assertEquals(1f, Math.abs(a.dot(b)), 1e-4f, "keyframe " + k);
+    }
+  }
+
+  @Test
+  public void testModeSurvivesJson() {
+    Gson gson = new Gson();
+    PathModel path = PathEvaluator.createTestPath();
+    assertEquals(
+        OrientationMode.SLERP,
+        PathModel.fromJson(path.toJson(gson), gson).getDefaults().orientationMode);
+
+    path.getDefaults().orientationMode = OrientationMode.SQUAD;
+    assertEquals(
+        OrientationMode.SQUAD,
+        PathModel.fromJson(path.toJson(gson), gson).getDefaults().orientationMode);
+    assertEquals(OrientationMode.SLERP, OrientationMode.fromString("unknown"));
+  }
+
+  @Test
+  public void testSquadControlMatchesLogForm() {
+    Quaternionf prev = OrientationUtil.yprDegToQuat(0f, 0f, 0f, new Quaternionf());
+    Quaternionf curr = OrientationUtil.yprDegToQuat(45f, 10f, 0f, new Quaternionf());
+    Quaternionf next = OrientationUtil.yprDegToQuat(120f, -5f, 10f, new Quaternionf());
+    Quaternionf expected = squadControl(prev, curr, next);
+    Quaternionf control = OrientationUtil.squadControl(prev, curr, next, new Quaternionf());
+    assertEquals(1f, expected.dot(control), 1e-6f);
+
+    // Neighbours on the far hemisphere give the same control
+    Quaternionf flipped = new Quaternionf(-next.x, -next.y, -next.z, -next.w);
+    OrientationUtil.squadControl(prev, curr, flipped, control);
+    assertEquals(1f, expected.dot(control), 1e-6f);
+
+    // Writing into an input is allowed
+    OrientationUtil.squadControl(prev, curr, next, curr);
+    assertEquals(1f, expected.dot(curr), 1e-6f);
+  }
+
+  /** World-space angular velocity per unit segment parameter, by forward difference. */
+  private static Vector3f squadRate(CompiledPath compiled, int segment, float t) {
+    Quaternionf q0 = compiled.evaluateSquadOrientation(segment, t, new Quaternionf());
+    Quaternionf q1 = compiled.evaluateSquadOrientation(segment, t + H, new Quaternionf());
+    return rate(q0, q1);
+  }
+
+  private static Vector3f slerpRate(CompiledPath compiled, int segment, float t) {
+    Quaternionf a = compiled.getOrientation(segment, new Quaternionf());
+    Quaternionf b = compiled.getOrientation(segment + 1, new Quaternionf());
+    Quaternionf q0 = OrientationUtil.slerp(a, b, t, new Quaternionf());
+    Quaternionf q1 = OrientationUtil.slerp(a, b, t + H, new Quaternionf());
+    return rate(q0, q1);
+  }
+
+  /** Reference control: curr * exp(-(log(curr^-1 * next) + log(curr^-1 * prev)) / 4). */
+  private static Quaternionf squadControl(Quaternionf prev, Quaternionf curr, Quaternionf next) {
+    Vector3f logNext = log(new Quaternionf(curr).conjugate().mul(next));
+    Vector3f logPrev = log(new Quaternionf(curr).conjugate().mul(prev));
+    Vector3f v = logNext.add(logPrev).mul(-0.25f);
+    float angle = v.length();
+    float scale = angle > 1e-9f ? (float) Math.sin(angle) / angle : 1f;
+    Quaternionf step =
+        new Quaternionf(v.x * scale, v.y * scale, v.z * scale, (float) Math.cos(angle));
+    return new Quaternionf(curr).mul(step).normalize();
+  }
+
+  private static Vector3f log(Quaternionf q) {
+    if (q.w < 0f) {
+      q.set(-q.x, -q.y, -q.z, -q.w);
+    }
+    float sin = (float) Math.sqrt(q.x * q.x + q.y * q.y + q.z * q.z);
+    float angle = (float) Math.atan2(sin, q.w);
+    return new Vector3f(q.x, q.y, q.z).mul(sin > 1e-9f ? angle / sin : 1f);
+  }
+
+  private static Vector3f rate(Quaternionf q0, Quaternionf q1) {
+    Quaternionf delta = new Quaternionf(q1).mul(new Quaternionf(q0).conjugate());
+    float sign = delta.w < 0f ? -1f : 1f;
+    return new Vector3f(delta.x, delta.y, delta.z).mul(2f * sign / H);
+  }
+}
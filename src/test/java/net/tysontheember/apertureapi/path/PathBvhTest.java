@@ -0,0 +1,92 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests for closest-point and ray queries against the segment hierarchy. */
+public class PathBvhTest {
+  @Test
+  public void testNearestMatchesBruteForce() {
+    PathModel path = randomWalk(500, 7L);
+    CompiledPath compiled = path.getCompiled();
+    PathBvh bvh = path.getBvh();
+    assertTrue(bvh.getDepth() <= 11, "depth " + bvh.getDepth());
+
+    Random random = new Random(11L);
+    PathBvh.Hit hit = new PathBvh.Hit();
+    Vector3f point = new Vector3f();
+    for (int query = 0; query < 50; query++) {
+      float x = random.nextFloat() * 120f - 60f;
+      float y = random.nextFloat() * 40f + 44f;
+      float z = random.nextFloat() * 120f - 60f;
+      assertTrue(bvh.nearest(x, y, z, hit));
+
+      float brute = Float.MAX_VALUE;
+      for (int segment = 0; segment < compiled.segmentCount(); segment++) {
+        for (int i = 0; i <= 64; i++) {
+          compiled.evaluatePosition(segment, i / 64f, point);
+          brute = Math.min(brute, point.distance(x, y, z));
+        }
+      }
+      assertTrue(hit.distance <= brute + 1e-3f, "bvh " + hit.distance + " vs " + brute);
+      assertEquals(hit.distance, hit.position.distance(x, y, z), 1e-3f);
+      compiled.evaluatePosition(hit.segment, hit.t, point);
+      assertEquals(0f, point.distance(hit.position), 1e-3f);
+    }
+  }
+
+  @Test
+  public void testRaycastHitsAndMisses() {
+    PathModel path = new PathModel("line", "Line");
+    path.getDefaults().interpolationType = InterpolationType.LINEAR;
+    for (int k = 0; k <= 10; k++) {
+      path.addSegment(new PathModel.Segment(new Vector3f(k * 2f, 64f, 0f), 0f, 0f, 0f));
+    }
+    PathBvh bvh = path.getBvh();
+    PathBvh.Hit hit = new PathBvh.Hit();
+
+    assertTrue(bvh.raycast(5f, 64f, -10f, 0f, 0f, 1f, 0.1f, 100f, hit));
+    assertEquals(10f, hit.rayDistance, 1e-3f);
+    assertEquals(5f, hit.position.x, 1e-3f);
+    assertEquals(2, hit.segment);
+    assertEquals(0.5f, hit.t, 1e-3f);
+
+    assertFalse(bvh.raycast(5f, 66f, -10f, 0f, 0f, 1f, 0.1f, 100f, hit));
+    assertFalse(bvh.raycast(5f, 64f, -10f, 0f, 0f, 1f, 0.1f, 5f, hit));
+    assertFalse(bvh.raycast(5f, 64f, -10f, 0f, 0f, -1f, 0.1f, 100f, hit));
+  }
+
+  @Test
+  public void testRebuiltAfterEdit() {
+    PathModel path = randomWalk(20, 3L);
+    PathBvh before = path.getBvh();
+    assertSame(before, path.getBvh());
+    path.addSegment(new PathModel.Segment(new Vector3f(200f, 64f, 0f), 0f, 0f, 0f));
+    PathBvh after = path.getBvh();
+    assertNotSame(before, after);
+
+    PathBvh.Hit hit = new PathBvh.Hit();
+    assertTrue(after.nearest(200f, 64f, 0f, hit));
+    assertEquals(0f, hit.distance, 1e-3f);
+  }
+
+  private static PathModel randomWalk(int keyframes, long seed) {
+    Random random = new Random(seed);
+    PathModel path = new PathModel("walk", "Walk");
+    Vector3f position = new Vector3f(0f, 64f, 0f);
+    for (int k = 0; k < keyframes; k++) {
+      position.add(
+          random.nextFloat() * 6f - 3f, random.nextFloat() * 2f - 1f, random.nextFloat() * 6f - 3f);
+      position.set(
+          Math.max(-50f, Math.min(50f, position.x)),
+          Math.max(50f, Math.min(80f, position.y)),
+          Math.max(-50f, Math.min(50f, position.z)));
+      path.addSegment(new PathModel.Segment(new Vector3f(position), 0f, 0f, 0f));
+    }
+    return path;
+  }
+}
@@ -0,0 +1,189 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.UUID;
+import net.minecraft.nbt.CompoundTag;
+import net.tysontheember.apertureapi.path.interpolation.EasingType;
+import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import org.joml.Vector3d;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests for the packed NBT, binary and streaming JSON path encodings. */
+public class PathCodecTest {
+  @Test
+  public void testNbtRoundTrip() {
+    PathModel path = samplePath();
+    assertSamePath(path, PathModel.fromNBT(path.toNBT()));
+  }
+
+  @Test
+  public void testBinaryRoundTrip() throws IOException {
+    PathModel path = samplePath();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    PathCodec.write(path, new DataOutputStream(bytes));
+    PathModel read =
+        PathCodec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    assertSamePath(path, read);
+
+    // Positions, orientation, roll and FOV are 32 bytes per segment; JSON is several times that
+    int json = path.toJson(new Gson()).toString().length();
+    assertTrue(bytes.size() * 3 < json, bytes.size() + " bytes vs " + json + " chars of JSON");
+  }
+
+  @Test
+  public void testMigratesEmbeddedJson() {
+    PathModel path = samplePath();
+    CompoundTag legacy = new CompoundTag();
+    legacy.putString("id", path.getId());
+    legacy.putString("jsonData", path.toJson(new Gson()).toString());
+    PathModel migrated = PathModel.fromNBT(legacy);
+    assertEquals(path.getSegments().size(), migrated.getSegments().size());
+
+    // Re-saving writes the packed layout
+    CompoundTag resaved = migrated.toNBT();
+    assertEquals(PathCodec.FORMAT, resaved.getByte(PathCodec.FORMAT_KEY));
+    assertFalse(resaved.contains("jsonData"));
+    assertSamePath(migrated, PathModel.fromNBT(resaved));
+  }
+
+  @Test
+  public void testStreamingJsonRoundTrip() throws IOException {
+    PathModel path = samplePath();
+    StringWriter text = new StringWriter();
+    path.writeJson(new JsonWriter(text));
+    assertSamePath(path, PathModel.readJson(new JsonReader(new StringReader(text.toString()))));
+
+    // Same schema as the tree form, which holds the written floats as they are
+    JsonObject tree = path.toJson(new Gson());
+    assertEquals(text.toString(), tree.toString());
+    assertSamePath(path, PathModel.fromJson(tree, new Gson()));
+  }
+
+  @Test
+  public void testStreamingJsonMigratesV1() throws IOException {
+    String v1 =
+        "{\"keyframes\": [{\"pos\": {\"x\": 1, \"y\": 64, \"z\": 2},"
+            + " \"rot\": {\"yaw\": 90, \"pitch\": 10}, \"fov\": 60},"
+            + " {\"pos\": {\"x\": 5, \"y\": 64, \"z\": 2},"
+            + " \"lookAt\": {\"x\": 0, \"y\": 70, \"z\": 0}}],"
+            + " \"id\": \"old\", \"speed\": 2, \"loop\": true}";
+    PathModel path = PathModel.readJson(new JsonReader(new StringReader(v1)));
+    assertEquals("old", path.getId());
+    assertEquals("old", path.getName());
+    assertTrue(path.isLoop());
+    assertEquals(5f, path.getSpeed().durationSec);
+    assertEquals(InterpolationType.CATMULL_CENTRIPETAL, path.getDefaults().interpolationType);
+    assertEquals(2, path.getSegments().size());
+    assertEquals(new Vector3f(1f, 64f, 2f), path.getSegments().get(0).position);
+    assertEquals(60f, path.getSegments().get(0).fov);
+    PathModel.FollowTarget target = path.getSegments().get(1).followTarget;
+    assertEquals(PathModel.FollowTarget.FollowType.BLOCK, target.type);
+    assertEquals(new Vector3f(0f, 70f, 0f), target.position);
+  }
+
+  @Test
+  public void testRejectsNewerFormat() {
+    CompoundTag nbt = samplePath().toNBT();
+    nbt.putByte(PathCodec.FORMAT_KEY, (byte) (PathCodec.FORMAT + 1));
+    assertThrows(IllegalArgumentException.class, () -> PathModel.fromNBT(nbt));
+  }
+
+  private static PathModel samplePath() {
+    PathModel path = new PathModel("codec", "Codec Path");
+    path.setLoop(true);
+    path.rebase(30000123.5, 70.25, -29999876.75);
+    path.getDefaults().easingType = EasingType.LINEAR;
+    path.getDefaults().banking = true;
+    path.getSpeed().setSpeedMode(4.5f);
+    path.getSpeed().arcLengthTolerance = 0.01f;
+    for (int k = 0; k < 200; k++) {
+      PathModel.Segment segment =
+          new PathModel.Segment(
+              new Vector3f(k * 0.37f, (float) Math.sin(k * 0.1), k * -0.11f),
+              k * 1.7f,
+              k * 0.3f,
+              k);
+      segment.fov = 70f + k % 7;
+      if (k % 10 == 0) {
+        segment.durationSec = 0.5f + k;
+        segment.interpolationType = InterpolationType.BEZIER;
+        segment.bezierIn = new Vector3f(-1f, 0f, k);
+        segment.bezierOut = new Vector3f(1f, 0.5f, -k);
+      }
+      if (k % 15 == 0) {
+        segment.weight = 2f;
+        segment.easingType = EasingType.CUBIC_IN_OUT;
+        segment.tension = 0.25f;
+        segment.bias = -0.5f;
+      }
+      if (k == 42) {
+        PathModel.FollowTarget target = new PathModel.FollowTarget();
+        target.type = PathModel.FollowTarget.FollowType.ENTITY;
+        target.entityId = UUID.randomUUID();
+        target.position = new Vector3f(1f, 2f, 3f);
+        target.followSpeed = 0.25f;
+        segment.followTarget = target;
+      }
+      path.addSegment(segment);
+    }
+    path.setLastModifier(UUID.randomUUID());
+    return path;
+  }
+
+  private static void assertSamePath(PathModel expected, PathModel actual) {
+    assertEquals(expected.getId(), actual.getId());
+    assertEquals(expected.getName(), actual.getName());
+    assertEquals(expected.isLoop(), actual.isLoop());
+    Vector3d expectedAnchor = expected.getAnchor(new Vector3d());
+    Vector3d actualAnchor = actual.getAnchor(new Vector3d());
+    assertEquals(expectedAnchor.x, actualAnchor.x);
+    assertEquals(expectedAnchor.y, actualAnchor.y);
+    assertEquals(expectedAnchor.z, actualAnchor.z);
+    assertEquals(expected.getDefaults().easingType, actual.getDefaults().easingType);
+    assertEquals(expected.getDefaults().interpolationType, actual.getDefaults().interpolationType);
+    assertEquals(expected.getDefaults().banking, actual.getDefaults().banking);
+    assertEquals(expected.getSpeed().blocksPerSec, actual.getSpeed().blocksPerSec);
+    assertEquals(expected.getSpeed().arcLengthTolerance, actual.getSpeed().arcLengthTolerance);
+    assertEquals(expected.getLastModified(), actual.getLastModified());
+    assertEquals(expected.getLastModifier(), actual.getLastModifier());
+
+    assertEquals(expected.getSegments().size(), actual.getSegments().size());
+    for (int i = 0; i < expected.getSegments().size(); i++) {
+      PathModel.Segment a = expected.getSegments().get(i);
+      PathModel.Segment b = actual.getSegments().get(i);
+      assertEquals(a.position, b.position, "position " + i);
+      assertEquals(a.orientation, b.orientation, "orientation " + i);
+      assertEquals(a.roll, b.roll);
+      assertEquals(a.fov, b.fov);
+      assertEquals(a.durationSec, b.durationSec);
+      assertEquals(a.weight, b.weight);
+      assertEquals(a.interpolationType, b.interpolationType);
+      assertEquals(a.easingType, b.easingType);
+      assertEquals(a.tension, b.tension);
+      assertEquals(a.continuity, b.continuity);
+      assertEquals(a.bias, b.bias);
+      assertEquals(a.bezierIn, b.bezierIn);
+      assertEquals(a.bezierOut, b.bezierOut);
+      assertEquals(a.followTarget == null, b.followTarget == null);
+      if (a.followTarget != null) {
+        assertEquals(a.followTarget.type, b.followTarget.type);
+        assertEquals(a.followTarget.entityId, b.followTarget.entityId);
+        assertEquals(a.followTarget.position, b.followTarget.position);
+        assertEquals(a.followTarget.followSpeed, b.followTarget.followSpeed);
+      }
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests for background path compilation. */
+public class PathCompileServiceTest {
+  @Test
+  public void testStaleSnapshotUntilRebuildPublished() {
+    Queue<Runnable> queue = new ArrayDeque<>();
+    PathCompileService service = new PathCompileService(queue::add);
+    PathModel path = line(3);
+
+    // First call has nothing stale to return, so it builds inline
+    PathSnapshot first = service.current(path);
+    assertEquals(3, first.size());
+    assertTrue(queue.isEmpty());
+    assertSame(first, service.current(path));
+
+    path.addSegment(new PathModel.Segment(new Vector3f(3f, 64f, 0f), 0f, 0f, 0f));
+    assertSame(first, service.current(path));
+    assertSame(first, service.current(path));
+    assertEquals(1, queue.size());
+
+    queue.poll().run();
+    PathSnapshot rebuilt = service.current(path);
+    assertEquals(4, rebuilt.size());
+    assertEquals(3f, rebuilt.getArcLengthLUT().getTotalLength(), 1e-4f);
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testQueuedRebuildAdoptsLaterEdits() {
+    Queue<Runnable> queue = new ArrayDeque<>();
+    PathCompileService service = new PathCompileService(queue::add);
+    PathModel path = line(3);
+    service.current(path);
+
+    path.getSegments().get(2).position.x = 4f;
+    path.markSegmentDirty(2);
+    CompletableFuture<PathSnapshot> first = service.rebuild(path);
+    path.getSegments().get(2).position.x = 6f;
+    path.markSegmentDirty(2);
+    CompletableFuture<PathSnapshot> second = service.rebuild(path);
+
+    assertSame(first, second);
+    assertEquals(1, queue.size());
+    queue.poll().run();
+    PathSnapshot built = first.join();
+    assertEquals(path.snapshot().getVersion(), built.getVersion());
+    assertEquals(6f, built.getPosition(2, new Vector3f()).x);
+    assertSame(built, service.current(path));
+  }
+
+  @Test
+  public void testAwaitCompiledMatchesModel() {
+    PathCompileService service = new PathCompileService(Runnable::run);
+    PathModel path = line(4);
+    path.getDefaults().interpolationType = InterpolationType.CATMULL_CENTRIPETAL;
+    service.current(path);
+    path.getSegments().get(1).position.y = 70f;
+    path.markSegmentDirty(1);
+
+    PathSnapshot compiled = service.awaitCompiled(path);
+    assertSame(path.snapshot(), compiled);
+    for (float time = 0f; time <= 3f; time += 0.25f) {
+      PathPose expected = PathEvaluator.evaluateAtTime(path, time, new PathPose());
+      PathPose actual = PathEvaluator.evaluateAtTime(compiled, time, new PathPose());
+      assertEquals(expected.position.x, actual.position.x, 1e-5f);
+      assertEquals(expected.position.y, actual.position.y, 1e-5f);
+      assertEquals(expected.position.z, actual.position.z, 1e-5f);
+    }
+
+    PathCursor cursor = new PathCursor(path, service);
+    assertEquals(70f, cursor.evaluateAtParameter(1f / 3f, new PathPose()).position.y, 1e-4f);
+  }
+
+  private static PathModel line(int keyframes) {
+    PathModel path = new PathModel("line", "Line");
+    path.getDefaults().interpolationType = InterpolationType.LINEAR;
+    for (int k = 0; k < keyframes; k++) {
+      path.addSegment(new PathModel.Segment(new Vector3f(k, 64f, 0f), 0f, 0f, 0f));
+    }
+    return path;
+  }
+}
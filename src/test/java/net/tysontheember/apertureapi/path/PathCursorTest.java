@@ -0,0 +1,87 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests that {@link PathCursor} agrees with stateless evaluation for every access pattern. */
+public class PathCursorTest {
+
+  @Test
+  public void testForwardAndBackwardPlayback() {
+    PathModel path = createSpeedPath();
+    PathCursor cursor = new PathCursor(path);
+    PathModel.ArcLengthLUT lut = path.getArcLengthLUT();
+    float total = lut.getTotalLength();
+
+    for (int i = 0; i <= 2000; i++) {
+      float s = total * i / 2000f;
+      assertEquals(lut.arcLengthToParameter(s), cursor.arcLengthToParameter(s), 1e-6f);
+    }
+    for (int i = 2000; i >= 0; i--) {
+      float s = total * i / 2000f;
+      assertEquals(lut.arcLengthToParameter(s), cursor.arcLengthToParameter(s), 1e-6f);
+    }
+  }
+
+  @Test
+  public void testSeeks() {
+    PathModel path = createSpeedPath();
+    PathCursor cursor = new PathCursor(path);
+    PathModel.ArcLengthLUT lut = path.getArcLengthLUT();
+    Random random = new Random(42);
+
+    for (int i = 0; i < 500; i++) {
+      float s = (random.nextFloat() * 1.2f - 0.1f) * lut.getTotalLength();
+      assertEquals(lut.arcLengthToParameter(s), cursor.arcLengthToParameter(s), 1e-6f);
+    }
+  }
+
+  @Test
+  public void testPoseMatchesEvaluator() {
+    PathModel path = createSpeedPath();
+    PathCursor cursor = new PathCursor(path);
+    PathPose expected = new PathPose();
+    PathPose actual = new PathPose();
+    float duration = PathEvaluator.getTotalDuration(path);
+
+    for (int i = 0; i <= 600; i++) {
+      float time = duration * i / 600f;
+      PathEvaluator.evaluateAtTime(path, time, expected);
+      cursor.evaluateAtTime(time, actual);
+      assertEquals(expected.position.x, actual.position.x, 1e-5f);
+      assertEquals(expected.position.y, actual.position.y, 1e-5f);
+      assertEquals(expected.position.z, actual.position.z, 1e-5f);
+      assertEquals(expected.segmentIndex, actual.segmentIndex);
+      assertEquals(expected.segmentIndex, cursor.getSegmentIndex());
+    }
+  }
+
+  @Test
+  public void testFollowsRebuiltTable() {
+    PathModel path = createSpeedPath();
+    PathCursor cursor = new PathCursor(path);
+    float total = path.getArcLengthLUT().getTotalLength();
+    cursor.arcLengthToParameter(total * 0.9f);
+
+    // Shorten the path; the remembered interval must not leak into the new table
+    path.removeSegment(path.getSegments().size() - 1);
+    PathModel.ArcLengthLUT lut = path.getArcLengthLUT();
+    float s = lut.getTotalLength() * 0.5f;
+    assertEquals(lut.arcLengthToParameter(s), cursor.arcLengthToParameter(s), 1e-6f);
+  }
+
+  private static PathModel createSpeedPath() {
+    PathModel path = new PathModel("cursor", "Cursor");
+    for (int i = 0; i < 40; i++) {
+      float angle = i * 0.4f;
+      float y = 64f + (float) Math.sin(angle) * 6f;
+      float z = (float) Math.cos(angle) * 8f;
+      path.addSegment(new PathModel.Segment(new Vector3f(i * 4f, y, z), 0f, 0f, 0f));
+    }
+    path.getSpeed().setSpeedMode(6f);
+    return path;
+  }
+}
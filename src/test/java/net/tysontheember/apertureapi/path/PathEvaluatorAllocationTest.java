@@ -0,0 +1,84 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Test;
+
+/** Verifies that the {@link PathPose} overloads of {@link PathEvaluator} do not allocate. */
+public class PathEvaluatorAllocationTest {
+  private static final int WARMUP_ITERATIONS = 50_000;
+  private static final int MEASURED_ITERATIONS = 100_000;
+
+  @Test
+  public void testPoseMatchesResult() {
+    PathModel path = PathEvaluator.createTestPath();
+    PathPose pose = new PathPose();
+
+    for (int i = 0; i <= 20; i++) {
+      float t = i / 20f;
+      PathEvaluator.EvaluationResult result = PathEvaluator.evaluateAtParameter(path, t);
+      PathEvaluator.evaluateAtParameter(path, t, pose);
+
+      assertEquals(result.position.x, pose.position.x, 1e-5f);
+      assertEquals(result.position.y, pose.position.y, 1e-5f);
+      assertEquals(result.position.z, pose.position.z, 1e-5f);
+      assertEquals(result.orientation.x, pose.orientation.x, 1e-5f);
+      assertEquals(result.orientation.y, pose.orientation.y, 1e-5f);
+      assertEquals(result.orientation.z, pose.orientation.z, 1e-5f);
+      assertEquals(result.orientation.w, pose.orientation.w, 1e-5f);
+      assertEquals(result.roll, pose.roll, 1e-5f);
+      assertEquals(result.fov, pose.fov, 1e-5f);
+      assertEquals(result.speed, pose.speed, 1e-5f);
+      assertEquals(result.segmentIndex, pose.segmentIndex);
+      assertEquals(result.segmentProgress, pose.segmentProgress, 1e-5f);
+    }
+  }
+
+  @Test
+  public void testEvaluateIntoPoseDoesNotAllocate() {
+    assumeTrue(
+        ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+        "Per-thread allocation counters not available");
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    PathModel path = PathEvaluator.createTestPath();
+    PathModel speedPath = PathEvaluator.createTestPath();
+    speedPath.getSpeed().setSpeedMode(5f);
+    PathPose pose = new PathPose();
+    float duration = PathEvaluator.getTotalDuration(speedPath);
+
+    // Build caches and let the JIT settle before measuring
+    evaluateMany(path, speedPath, duration, pose, WARMUP_ITERATIONS);
+
+    long threadId = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(threadId);
+    float checksum = evaluateMany(path, speedPath, duration, pose, MEASURED_ITERATIONS);
+    long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+    assertFalse(Float.isNaN(checksum));
+    // Less than one byte per evaluation: nothing is allocated per call
+    assertTrue(
+        allocated < MEASURED_ITERATIONS,
+        "Allocated " + allocated + " bytes over " + MEASURED_ITERATIONS + " evaluations");
+  }
+
+  private static float evaluateMany(
+      PathModel path, PathModel speedPath, float duration, PathPose pose, int iterations) {
+    float checksum = 0f;
+    for (int i = 0; i < iterations; i++) {
+      float t = (i % 1000) / 999f;
+      PathEvaluator.evaluateAtParameter(path, t, pose);
+      checksum += pose.position.x + pose.roll;
+      PathEvaluator.evaluateAtTime(path, t * 10f, pose);
+      checksum += pose.fov;
+      PathEvaluator.evaluateAtTime(speedPath, t * duration, pose);
+      checksum += pose.orientation.w + pose.speed;
+    }
+    return checksum;
+  }
+}
@@ -0,0 +1,77 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/** Tests that batch sampling matches one-at-a-time evaluation. */
+public class PathSamplerTest {
+
+  @Test
+  public void testSmallBatchMatchesEvaluator() {
+    PathModel path = PathEvaluator.createTestPath();
+    float[] times = new float[100];
+    for (int i = 0; i < times.length; i++) {
+      times[i] = i * 0.1f;
+    }
+
+    PathSamples samples = new PathSampler().sampleTimes(path, times, new PathSamples(256));
+    assertEquals(times.length, samples.size());
+    PathPose expected = new PathPose();
+    for (int i = 0; i < times.length; i++) {
+      assertSample(PathEvaluator.evaluateAtTime(path, times[i], expected), samples, i);
+    }
+  }
+
+  @Test
+  public void testParallelBatchMatchesEvaluator() {
+    PathModel path = PathEvaluator.createTestPath();
+    int count = PathSampler.PARALLEL_THRESHOLD * 8 + 3;
+
+    PathSamples samples = new PathSampler().sampleUniform(path, count, new PathSamples(count));
+    assertEquals(count, samples.size());
+    PathPose expected = new PathPose();
+    for (int i = 0; i < count; i++) {
+      PathEvaluator.evaluateAtParameter(path, (float) i / (count - 1), expected);
+      assertSample(expected, samples, i);
+    }
+  }
+
+  @Test
+  public void testAsyncBatch() throws Exception {
+    PathModel path = PathEvaluator.createTestPath();
+    path.getSpeed().setSpeedMode(4f);
+    float duration = PathEvaluator.getTotalDuration(path);
+    float[] times = new float[PathSampler.PARALLEL_THRESHOLD * 2];
+    for (int i = 0; i < times.length; i++) {
+      times[i] = duration * i / (times.length - 1);
+    }
+
+    PathSamples samples = new PathSampler().sampleTimesAsync(path, times).get(30, TimeUnit.SECONDS);
+    PathPose expected = new PathPose();
+    for (int i = 0; i < times.length; i += 97) {
+      assertSample(PathEvaluator.evaluateAtTime(path, times[i], expected), samples, i);
+    }
+  }
+
+  @Test
+  public void testBufferTooSmall() {
+    PathModel path = PathEvaluator.createTestPath();
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new PathSampler().sampleUniform(path, 10, new PathSamples(5)));
+  }
+
+  private static void assertSample(PathPose expected, PathSamples samples, int i) {
+    assertEquals(expected.position.x, samples.x[i], 1e-6f);
+    assertEquals(expected.position.y, samples.y[i], 1e-6f);
+    assertEquals(expected.position.z, samples.z[i], 1e-6f);
+    assertEquals(expected.orientation.x, samples.qx[i], 1e-6f);
+    assertEquals(expected.orientation.y, samples.qy[i], 1e-6f);
+    assertEquals(expected.orientation.z, samples.qz[i], 1e-6f);
+    assertEquals(expected.orientation.w, samples.qw[i], 1e-6f);
+    assertEquals(expected.roll, samples.roll[i], 1e-6f);
+    assertEquals(expected.fov, samples.fov[i], 1e-6f);
+  }
+}
@@ -0,0 +1,141 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import net.tysontheember.apertureapi.path.interpolation.EasingType;
+import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests for keyframe reduction of dense paths. */
+public class PathSimplifierTest {
+  private static final float TOLERANCE = 0.02f;
+  private static final PathSimplifier.Tolerance ARC_TOLERANCE =
+      new PathSimplifier.Tolerance(TOLERANCE, 0.5f, 0.5f);
+
+  @Test
+  public void testStraightLineCollapsesToEnds() {
+    PathModel path = new PathModel("line", "Line");
+    path.getDefaults().easingType = EasingType.LINEAR;
+    for (int k = 0; k <= 20; k++) {
+      path.addSegment(new PathModel.Segment(new Vector3f(k, 64f, 0f), 0f, 0f, 0f));
+    }
+
+    assertEquals(19, PathSimplifier.simplify(path, PathSimplifier.Tolerance.of(TOLERANCE)));
+    assertEquals(2, path.getSegments().size());
+    assertEquals(20f, path.getSegments().get(1).position.x);
+    for (float t = 0f; t <= 1f; t += 0.05f) {
+      Vector3f position = PathEvaluator.evaluateAtParameter(path, t).position;
+      assertEquals(20f * t, position.x, 1e-3f);
+      assertEquals(64f, position.y, 1e-4f);
+    }
+  }
+
+  @Test
+  public void testDenseArcKeepsShapeWithinTolerance() {
+    PathModel original = arc();
+    PathModel simplified = arc();
+    int removed = PathSimplifier.simplify(simplified, ARC_TOLERANCE);
+    assertTrue(removed > 50, "removed " + removed);
+
+    // Every point of the original curve lies within tolerance of the simplified one
+    Vector3f[] dense = new Vector3f[4001];
+    for (int i = 0; i < dense.length; i++) {
+      dense[i] =
+          PathEvaluator.evaluateAtParameter(simplified, (float) i / (dense.length - 1)).position;
+    }
+    for (int i = 0; i <= 400; i++) {
+      Vector3f point = PathEvaluator.evaluateAtParameter(original, i / 400f).position;
+      float nearest = Float.MAX_VALUE;
+      for (Vector3f candidate : dense) {
+        nearest = Math.min(nearest, point.distance(candidate));
+      }
+      assertTrue(nearest < TOLERANCE + 0.01f, "deviation " + nearest + " at sample " + i);
+    }
+  }
+
+  @Test
+  public void testKeptKeyframesKeepTheirTime() {
+    PathModel original = arc();
+    PathModel simplified = arc();
+    PathSimplifier.simplify(simplified, ARC_TOLERANCE);
+
+    float duration = PathEvaluator.getTotalDuration(original);
+    assertEquals(duration, PathEvaluator.getTotalDuration(simplified), 1e-4f);
+    int segments = original.getSegments().size() - 1;
+    for (int k = 0; k <= segments; k++) {
+      Vector3f keyframe = original.getSegments().get(k).position;
+      if (simplified.getSegments().stream().noneMatch(s -> s.position.equals(keyframe))) {
+        continue;
+      }
+      float time = duration * k / segments;
+      Vector3f position = PathEvaluator.evaluateAtTime(simplified, time).position;
+      assertEquals(0f, keyframe.distance(position), 1e-3f, "keyframe " + k);
+    }
+  }
+
+  @Test
+  public void testOrientationAndFovChangesAreKept() {
+    PathModel path = new PathModel("turn", "Turn");
+    path.getDefaults().easingType = EasingType.LINEAR;
+    for (int k = 0; k <= 20; k++) {
+      float yaw = k >= 10 ? 90f : 0f;
+      PathModel.Segment segment = new PathModel.Segment(new Vector3f(k, 64f, 0f), yaw, 0f, 0f);
+      if (k == 15) {
+        segment.fov = 60f;
+      }
+      path.addSegment(segment);
+    }
+
+    PathSimplifier.simplify(path, PathSimplifier.Tolerance.of(1f));
+    assertTrue(hasKeyframeAt(path, 9f) && hasKeyframeAt(path, 10f), "turn removed");
+    assertTrue(hasKeyframeAt(path, 15f), "FOV change removed");
+    assertTrue(path.getSegments().size() < 10, "kept " + path.getSegments().size());
+  }
+
+  @Test
+  public void testSegmentsWithKeptNeighboursKeepTheirInterpolation() {
+    PathModel path = new PathModel("zigzag", "Zigzag");
+    path.getDefaults().easingType = EasingType.LINEAR;
+    for (int k = 0; k <= 20; k++) {
+      float y = k <= 6 ? 64f + (k % 2) * 4f : 64f;
+      path.addSegment(new PathModel.Segment(new Vector3f(k, y, 0f), 0f, 0f, 0f));
+    }
+
+    PathSimplifier.simplify(path, ARC_TOLERANCE);
+    // The zigzag corners are all kept, the straight run after them is not
+    PathModel.Segment corner = path.getSegments().get(2);
+    assertEquals(2f, corner.position.x);
+    assertNull(corner.interpolationType, "converted although its neighbours are kept");
+    assertNull(corner.bezierOut);
+    // Keyframe 9 is gone, so the segment from 7 to 8 keeps its shape as a Bezier
+    PathModel.Segment shaped = path.getSegments().get(7);
+    assertEquals(7f, shaped.position.x);
+    assertEquals(InterpolationType.BEZIER, shaped.interpolationType);
+  }
+
+  @Test
+  public void testPositionToleranceScalesAngles() {
+    PathSimplifier.Tolerance tolerance = PathSimplifier.Tolerance.forPosition(0.05f);
+    assertEquals(0.05f, tolerance.position());
+    assertEquals(0.5f, tolerance.rotation(), 1e-6f);
+    assertEquals(0.5f, tolerance.fov(), 1e-6f);
+  }
+
+  /** Quarter circle of radius 20 with a keyframe every 1.5 degrees. */
+  private static PathModel arc() {
+    PathModel path = new PathModel("arc", "Arc");
+    path.getDefaults().easingType = EasingType.LINEAR;
+    for (int k = 0; k <= 60; k++) {
+      double angle = Math.toRadians(k * 1.5);
+      Vector3f position =
+          new Vector3f((float) (20.0 * Math.cos(angle)), 64f, (float) (20.0 * Math.sin(angle)));
+      path.addSegment(new PathModel.Segment(position, k * 1.5f, 0f, 0f));
+    }
+    return path;
+  }
+
+  private static boolean hasKeyframeAt(PathModel path, float x) {
+    return path.getSegments().stream().anyMatch(s -> s.position.x == x);
+  }
+}
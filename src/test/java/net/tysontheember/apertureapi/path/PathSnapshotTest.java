@@ -0,0 +1,137 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import net.tysontheember.apertureapi.path.interpolation.EasingType;
+import net.tysontheember.apertureapi.path.interpolation.InterpolationType;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests for immutable path snapshots. */
+public class PathSnapshotTest {
+  @Test
+  public void testSnapshotIsReusedUntilEdited() {
+    PathModel path = line(5);
+    PathSnapshot first = path.snapshot();
+    assertSame(first, path.snapshot());
+
+    path.getSegments().get(2).position.y = 70f;
+    path.markSegmentDirty(2);
+    PathSnapshot edited = path.snapshot();
+    assertNotSame(first, edited);
+    assertTrue(edited.getVersion() > first.getVersion());
+
+    path.getDefaults().easingType = EasingType.LINEAR;
+    PathSnapshot eased = path.snapshot();
+    assertNotSame(edited, eased);
+    path.getSpeed().setSpeedMode(3f);
+    assertNotSame(eased, path.snapshot());
+  }
+
+  @Test
+  public void testSnapshotIgnoresLaterEdits() {
+    PathModel path = line(5);
+    PathSnapshot snapshot = path.snapshot();
+    float length = snapshot.getArcLengthLUT().getTotalLength();
+
+    path.getSegments().get(4).position.x = 100f;
+    path.markSegmentDirty(4);
+    path.addSegment(new PathModel.Segment(new Vector3f(101f, 64f, 0f), 0f, 0f, 0f));
+    path.getDefaults().interpolationType = InterpolationType.CATMULL_CENTRIPETAL;
+
+    assertEquals(5, snapshot.size());
+    assertEquals(4f, snapshot.getPosition(4, new Vector3f()).x);
+    assertEquals(InterpolationType.LINEAR, snapshot.getDefaults().interpolationType);
+    assertEquals(length, snapshot.getArcLengthLUT().getTotalLength());
+    assertEquals(4f, length, 1e-4f);
+
+    // Copies handed out are detached too
+    snapshot.copySegment(0).position.x = -50f;
+    assertEquals(0f, snapshot.getPosition(0, new Vector3f()).x);
+  }
+
+  @Test
+  public void testBackgroundReadsWhileEditing() {
+    PathModel path = line(2);
+    List<PathSnapshot> snapshots = new ArrayList<>();
+    List<CompletableFuture<Float>> lengths = new ArrayList<>();
+    for (int k = 2; k < 200; k++) {
+      PathSnapshot snapshot = path.snapshot();
+      snapshots.add(snapshot);
+      lengths.add(
+          CompletableFuture.supplyAsync(() -> snapshot.getArcLengthLUT().getTotalLength()));
+      path.addSegment(new PathModel.Segment(new Vector3f(k, 64f, 0f), 0f, 0f, 0f));
+    }
+
+    for (int i = 0; i < snapshots.size(); i++) {
+      assertEquals(snapshots.get(i).size() - 1, lengths.get(i).join(), 1e-3f, "snapshot " + i);
+    }
+  }
+
+  @Test
+  public void testTablesBuildOnPreviousSnapshot() {
+    PathModel path = line(12);
+    path.getDefaults().interpolationType = InterpolationType.CATMULL_CENTRIPETAL;
+    path.getSpeed().setDurationMode(22f);
+    PathSnapshot first = path.snapshot();
+    first.prepare();
+
+    // One moved keyframe only touches the Catmull-Rom segments around it
+    path.getSegments().get(6).position.y = 70f;
+    path.markSegmentDirty(6);
+    PathSnapshot skipped = path.snapshot(); // never built; the next one reaches past it
+    path.getSegment(3).durationSec = 4f;
+    path.markSegmentDirty(3);
+    PathSnapshot edited = path.snapshot();
+    assertNotSame(skipped, edited);
+    edited.prepare();
+
+    Set<ArcLengthSpan> reused = Collections.newSetFromMap(new IdentityHashMap<>());
+    reused.addAll(first.getSpans().values());
+    int shared = 0;
+    for (ArcLengthSpan span : edited.getSpans().values()) {
+      if (reused.contains(span)) {
+        shared++;
+      }
+    }
+    assertEquals(11 - 4, shared);
+
+    // Tables match the model's own, which are built from scratch here
+    PathModel fresh = PathCodec.fromNBT(PathCodec.toNBT(edited));
+    assertEquals(
+        fresh.getArcLengthLUT().getTotalLength(), edited.getArcLengthLUT().getTotalLength(), 1e-5f);
+    for (int segment = 0; segment < 11; segment++) {
+      assertEquals(
+          fresh.getTimeMap().segmentStartTime(segment, 22f),
+          edited.getTimeMap().segmentStartTime(segment, 22f),
+          1e-5f,
+          "segment " + segment);
+    }
+    assertEquals(4f, edited.getTimeMap().segmentDuration(3, 22f), 1e-5f);
+  }
+
+  @Test
+  public void testEncodesSnapshot() {
+    PathModel path = line(5);
+    PathSnapshot snapshot = path.snapshot();
+    path.removeSegment(0);
+    PathModel decoded = PathCodec.fromNBT(PathCodec.toNBT(snapshot));
+    assertEquals(5, decoded.getSegments().size());
+    assertEquals(snapshot.getLastModified(), decoded.getLastModified());
+  }
+
+  private static PathModel line(int keyframes) {
+    PathModel path = new PathModel("line", "Line");
+    path.getDefaults().interpolationType = InterpolationType.LINEAR;
+    for (int k = 0; k < keyframes; k++) {
+      path.addSegment(new PathModel.Segment(new Vector3f(k, 64f, 0f), 0f, 0f, 0f));
+    }
+    return path;
+  }
+}
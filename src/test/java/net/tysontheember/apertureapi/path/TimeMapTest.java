@@ -0,0 +1,134 @@
+package net.tysontheember.apertureapi.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import net.tysontheember.apertureapi.path.interpolation.EasingType;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/** Tests for per-segment durations and weights in duration mode. */
+public class TimeMapTest {
+
+  @Test
+  public void testUntimedPathSpreadsTimeEvenly() {
+    PathModel path = PathEvaluator.createTestPath();
+    assertTrue(path.getTimeMap().isUniform());
+    assertEquals(10f, PathEvaluator.getTotalDuration(path));
+    for (float time = 0f; time <= 10f; time += 0.37f) {
+      Vector3f expected = PathEvaluator.evaluateAtParameter(path, time / 10f).position;
+      assertEquals(0f, expected.distance(PathEvaluator.evaluateAtTime(path, time).position));
+    }
+  }
+
+  @Test
+  public void testFixedDurationsReachKeyframesOnTime() {
+    PathModel path = line(5); // keyframes at x = 0, 10, 20, 30, 40
+    path.getSpeed().setDurationMode(10f);
+    path.getSegment(1).durationSec = 4f;
+    path.markSegmentDirty(1);
+
+    // Segment 1 takes 4 s; the other three split the remaining 6 s
+    float[] keyframeTimes = {0f, 2f, 6f, 8f, 10f};
+    for (int k = 0; k < keyframeTimes.length; k++) {
+      Vector3f position = PathEvaluator.evaluateAtTime(path, keyframeTimes[k]).position;
+      assertEquals(k * 10f, position.x, 1e-3f, "keyframe " + k);
+    }
+    assertEquals(10f, PathEvaluator.getTotalDuration(path));
+  }
+
+  @Test
+  public void testWeightsShareDuration() {
+    PathModel path = line(3);
+    path.getSpeed().setDurationMode(8f);
+    path.getSegment(1).weight = 3f;
+    path.markSegmentDirty(1);
+
+    TimeMap timeMap = path.getTimeMap();
+    assertEquals(2f, timeMap.segmentDuration(0, 8f), 1e-6f);
+    assertEquals(6f, timeMap.segmentDuration(1, 8f), 1e-6f);
+    assertEquals(10f, PathEvaluator.evaluateAtTime(path, 2f).position.x, 1e-3f);
+  }
+
+  @Test
+  public void testFixedDurationsLongerThanPathStretchPlayback() {
+    PathModel path = line(3);
+    path.getSpeed().setDurationMode(5f);
+    path.getSegment(0).durationSec = 3f;
+    path.getSegment(1).durationSec = 4f;
+    path.markSegmentDirty(0);
+    path.markSegmentDirty(1);
+
+    assertEquals(7f, PathEvaluator.getTotalDuration(path), 1e-6f);
+    assertEquals(10f, PathEvaluator.evaluateAtTime(path, 3f).position.x, 1e-3f);
+    assertEquals(20f, PathEvaluator.evaluateAtTime(path, 7f).position.x, 1e-3f);
+  }
+
+  @Test
+  public void testIncrementalRebuildMatchesFullRebuild() {
+    Random random = new Random(13);
+    PathModel path = line(40);
+    path.getTimeMap();
+    for (int edit = 0; edit < 200; edit++) {
+      int index = random.nextInt(path.getSegments().size());
+      switch (random.nextInt(4)) {
+        case 0 -> {
+          path.getSegment(index).durationSec = random.nextFloat() * 3f;
+          path.markSegmentDirty(index);
+        }
+        case 1 -> {
+          path.getSegment(index).weight = random.nextFloat() * 2f;
+          path.markSegmentDirty(index);
+        }
+        case 2 -> path.insertSegment(index, segment(random.nextFloat() * 400f));
+        default -> {
+          if (path.getSegments().size() > 3) {
+            path.removeSegment(index);
+          }
+        }
+      }
+
+      TimeMap incremental = path.getTimeMap();
+      TimeMap full = TimeMap.build(path.getSegments(), null, 0);
+      assertEquals(full.segmentCount(), incremental.segmentCount());
+      for (int i = 0; i <= full.segmentCount(); i++) {
+        assertEquals(full.segmentStartTime(i, 30f), incremental.segmentStartTime(i, 30f), 1e-5f);
+      }
+    }
+  }
+
+  @Test
+  public void testVelocityFollowsSegmentTiming() {
+    PathModel path = PathEvaluator.createTestPath();
+    path.getDefaults().easingType = EasingType.SINE_IN_OUT;
+    path.getSpeed().setDurationMode(10f);
+    path.getSegment(0).durationSec = 1f;
+    path.getSegment(2).weight = 2f;
+    path.markSegmentDirty(0);
+    path.markSegmentDirty(2);
+
+    float dt = 1e-3f;
+    for (float time = 0.15f; time < 9.9f; time += 0.45f) {
+      Vector3f velocity = PathEvaluator.getVelocityAtTime(path, time);
+      Vector3f before = PathEvaluator.evaluateAtTime(path, time - dt).position;
+      Vector3f after = PathEvaluator.evaluateAtTime(path, time + dt).position;
+      Vector3f expected = after.sub(before).div(2f * dt);
+      assertEquals(0f, expected.distance(velocity), 0.02f * (1f + expected.length()), "t=" + time);
+      float speed = PathEvaluator.evaluateAtTime(path, time).speed;
+      assertEquals(velocity.length(), speed, 1e-3f * (1f + speed));
+    }
+  }
+
+  private static PathModel line(int keyframes) {
+    PathModel path = new PathModel("line", "Line");
+    path.getDefaults().easingType = EasingType.LINEAR;
+    for (int k = 0; k < keyframes; k++) {
+      path.addSegment(segment(k * 10f));
+    }
+    return path;
+  }
+
+  private static PathModel.Segment segment(float x) {
+    return new PathModel.Segment(new Vector3f(x, 64f, 0f), 0f, 0f, 0f);
+  }
+}